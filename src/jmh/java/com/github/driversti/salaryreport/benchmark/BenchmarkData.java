@@ -0,0 +1,35 @@
+package com.github.driversti.salaryreport.benchmark;
+
+import com.github.driversti.salaryreport.generator.EmployeeCsvGenerator;
+import com.github.driversti.salaryreport.generator.EmployeeCsvGenerator.Range;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * Generates reproducible organizations for benchmarks.
+ */
+final class BenchmarkData {
+
+  private static final long SEED = 42;
+
+  private BenchmarkData() {
+  }
+
+  /**
+   * Writes the employees of an organization to a CSV file in the format read by the employee readers.
+   *
+   * @param size  the number of employees
+   * @param shape the shape of the organization
+   * @param file  the file to write
+   * @throws IOException if writing fails
+   */
+  static void writeCsv(int size, OrganizationShape shape, Path file) throws IOException {
+    EmployeeCsvGenerator.Builder generator = EmployeeCsvGenerator.builder()
+        .seed(SEED)
+        .rows(size)
+        .salary(new Range(3_000, 20_000))
+        .salaryStep(1);
+    shape.configure(generator, size).build().generate(file);
+  }
+}
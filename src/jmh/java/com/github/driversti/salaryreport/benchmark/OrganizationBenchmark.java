@@ -0,0 +1,176 @@
+package com.github.driversti.salaryreport.benchmark;
+
+import com.github.driversti.salaryreport.infrastructure.EmployeeReader;
+import com.github.driversti.salaryreport.infrastructure.EmployeeSnapshot;
+import com.github.driversti.salaryreport.infrastructure.MappedEmployeeReader;
+import com.github.driversti.salaryreport.infrastructure.ParallelEmployeeReader;
+import com.github.driversti.salaryreport.organization.ColumnarOrganization;
+import com.github.driversti.salaryreport.organization.Employee;
+import com.github.driversti.salaryreport.organization.OffHeapEmployeeTable;
+import com.github.driversti.salaryreport.organization.OrganizationalStructure;
+import com.github.driversti.salaryreport.printers.BufferedChannelPrinter;
+import com.github.driversti.salaryreport.printers.EmployeePrinter;
+import com.github.driversti.salaryreport.report.Accountant;
+import com.github.driversti.salaryreport.report.OrganizationalSalaryReport;
+import com.github.driversti.salaryreport.report.StreamingSalaryReport;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.math.BigDecimal;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks every stage of the salary report, from reading the CSV file to printing the report, across
+ * organizations of different sizes and shapes.
+ *
+ * <p>The largest organizations need a large heap, hence the forked JVM is given up to 16 GB.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx16g")
+public class OrganizationBenchmark {
+
+  // the CEO and 4 levels of managers below, as printed by the application
+  private static final int REPORTED_LEVELS = 6;
+
+  @Param({"1000", "100000", "10000000"})
+  private int size;
+
+  @Param({"FLAT", "DEEP", "BALANCED"})
+  private OrganizationShape shape;
+
+  private Path csv;
+  private Path snapshot;
+  private List<Employee> employees;
+  private OrganizationalStructure structure;
+  private Accountant accountant;
+  private OrganizationalSalaryReport report;
+
+  @Setup(Level.Trial)
+  public void setUp() throws IOException {
+    csv = Files.createTempFile("employees-" + shape + "-" + size, ".csv");
+    BenchmarkData.writeCsv(size, shape, csv);
+    employees = List.copyOf(new EmployeeReader().read(csv.toString()));
+    structure = new OrganizationalStructure(employees);
+    accountant = new Accountant(structure);
+    report = accountant.createSalaryReport();
+    snapshot = Files.createTempFile("employees-" + shape + "-" + size, ".snapshot");
+    EmployeeSnapshot.write(ColumnarOrganization.of(employees), snapshot.toString());
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() throws IOException {
+    Files.deleteIfExists(csv);
+    Files.deleteIfExists(snapshot);
+  }
+
+  @Benchmark
+  public Collection<Employee> read() {
+    return new EmployeeReader().read(csv.toString());
+  }
+
+  @Benchmark
+  public Collection<Employee> readMapped() {
+    return new MappedEmployeeReader().read(csv.toString());
+  }
+
+  @Benchmark
+  public Collection<Employee> readParallel() {
+    return new ParallelEmployeeReader().read(csv.toString());
+  }
+
+  @Benchmark
+  public OffHeapEmployeeTable readOffHeap() {
+    // the alternative to read() followed by buildOffHeap(), without employee records in between
+    return new MappedEmployeeReader().readOffHeap(csv.toString());
+  }
+
+  @Benchmark
+  public OrganizationalStructure buildStructure() {
+    return new OrganizationalStructure(employees);
+  }
+
+  @Benchmark
+  public OrganizationalStructure buildStructureParallel() {
+    return OrganizationalStructure.parallel(employees);
+  }
+
+  @Benchmark
+  public ColumnarOrganization buildColumnar() {
+    return ColumnarOrganization.of(employees);
+  }
+
+  @Benchmark
+  public OffHeapEmployeeTable buildOffHeap() {
+    return OffHeapEmployeeTable.of(employees);
+  }
+
+  @Benchmark
+  public OrganizationalStructure loadSnapshot() {
+    // the cold start alternative to read() followed by buildStructure()
+    return OrganizationalStructure.of(EmployeeSnapshot.read(snapshot.toString()));
+  }
+
+  @Benchmark
+  public Map<Integer, BigDecimal> averageSalaryByLevel() {
+    return accountant.averageSalaryByLevel();
+  }
+
+  @Benchmark
+  public OrganizationalSalaryReport createSalaryReport() {
+    return accountant.createSalaryReport();
+  }
+
+  @Benchmark
+  public void streamReport(Blackhole blackhole) {
+    // the alternative to every stage from read() to printReport(), in two passes over the file
+    StreamingSalaryReport streaming = StreamingSalaryReport.compute(csv.toString());
+    blackhole.consume(streaming.averageSalaryByLevel());
+    streaming.printReport(new EmployeePrinter(blackhole::consume), REPORTED_LEVELS);
+  }
+
+  @Benchmark
+  public void printReport(Blackhole blackhole) {
+    report.printReport(new EmployeePrinter(blackhole::consume), REPORTED_LEVELS);
+  }
+
+  @Benchmark
+  public void printReportPrintStream() {
+    // the way ConsolePrinter prints: println on an auto-flushing PrintStream
+    PrintStream out = new PrintStream(OutputStream.nullOutputStream(), true, StandardCharsets.UTF_8);
+    report.printReport(new EmployeePrinter(out::println), REPORTED_LEVELS);
+  }
+
+  @Benchmark
+  public void printReportBuffered() {
+    try (BufferedChannelPrinter printer =
+             new BufferedChannelPrinter(Channels.newChannel(OutputStream.nullOutputStream()))) {
+      report.printReport(new EmployeePrinter(printer), REPORTED_LEVELS);
+    }
+  }
+}
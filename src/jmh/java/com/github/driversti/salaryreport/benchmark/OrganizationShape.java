@@ -0,0 +1,53 @@
+package com.github.driversti.salaryreport.benchmark;
+
+import com.github.driversti.salaryreport.generator.EmployeeCsvGenerator;
+import com.github.driversti.salaryreport.generator.EmployeeCsvGenerator.Range;
+
+/**
+ * The shape of a generated organization.
+ */
+public enum OrganizationShape {
+
+  /**
+   * Everybody reports to the CEO directly.
+   */
+  FLAT {
+    @Override
+    EmployeeCsvGenerator.Builder configure(EmployeeCsvGenerator.Builder generator, int size) {
+      return generator.maxDepth(2);
+    }
+  },
+
+  /**
+   * Parallel reporting chains below the CEO, each about {@link #DEEP_LEVELS} employees long.
+   */
+  DEEP {
+    @Override
+    EmployeeCsvGenerator.Builder configure(EmployeeCsvGenerator.Builder generator, int size) {
+      int chains = Math.max(1, size / DEEP_LEVELS);
+      return generator.fanOut(new Range(chains, chains)).fanOut(2, new Range(1, 1));
+    }
+  },
+
+  /**
+   * A complete tree where every manager has {@link #BALANCED_FAN_OUT} subordinates.
+   */
+  BALANCED {
+    @Override
+    EmployeeCsvGenerator.Builder configure(EmployeeCsvGenerator.Builder generator, int size) {
+      return generator.fanOut(new Range(BALANCED_FAN_OUT, BALANCED_FAN_OUT));
+    }
+  };
+
+  private static final int DEEP_LEVELS = 1000;
+  private static final int BALANCED_FAN_OUT = 10;
+
+  /**
+   * Configures a generator to produce an organization of this shape.
+   *
+   * @param generator the generator to configure
+   * @param size      the number of employees in the organization
+   * @return the configured generator
+   */
+  abstract EmployeeCsvGenerator.Builder configure(EmployeeCsvGenerator.Builder generator, int size);
+}
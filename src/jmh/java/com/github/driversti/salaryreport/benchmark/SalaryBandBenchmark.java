@@ -0,0 +1,81 @@
+package com.github.driversti.salaryreport.benchmark;
+
+import com.github.driversti.salaryreport.infrastructure.EmployeeReader;
+import com.github.driversti.salaryreport.organization.OrganizationalStructure;
+import com.github.driversti.salaryreport.report.OrganizationalSalaryReport;
+import com.github.driversti.salaryreport.report.SalaryBand;
+import com.github.driversti.salaryreport.report.SalaryBandEvaluator;
+import com.github.driversti.salaryreport.report.SalaryBandPolicy;
+import com.github.driversti.salaryreport.report.SubordinateSalaryEngine;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares evaluating many salary band policies in one scan against creating one report per band.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class SalaryBandBenchmark {
+
+  @Param({"100000"})
+  private int size;
+
+  @Param({"1", "24"})
+  private int policyCount;
+
+  private OrganizationalStructure structure;
+  private List<SalaryBand> bands;
+  private List<SalaryBandPolicy> policies;
+
+  @Setup
+  public void setUp() throws IOException {
+    Path csv = Files.createTempFile("employees-bands-" + size, ".csv");
+    try {
+      BenchmarkData.writeCsv(size, OrganizationShape.BALANCED, csv);
+      structure = new OrganizationalStructure(new EmployeeReader().read(csv.toString()));
+    } finally {
+      Files.delete(csv);
+    }
+    bands = new ArrayList<>();
+    for (int p = 0; p < policyCount; p++) {
+      bands.add(SalaryBand.of(BigDecimal.valueOf(110 + p, 2), BigDecimal.valueOf(150 + p, 2)));
+    }
+    policies = bands.stream().map(SalaryBandPolicy::uniform).toList();
+  }
+
+  @Benchmark
+  public List<OrganizationalSalaryReport> evaluateInOneScan() {
+    return SalaryBandEvaluator.of(structure).evaluate(policies);
+  }
+
+  @Benchmark
+  public List<OrganizationalSalaryReport> engineRunPerBand() {
+    List<OrganizationalSalaryReport> reports = new ArrayList<>(bands.size());
+    for (SalaryBand band : bands) {
+      reports.add(new SubordinateSalaryEngine(band.minSalaryIncrease(), band.maxSalaryIncrease())
+          .createSalaryReport(structure));
+    }
+    return reports;
+  }
+}
@@ -0,0 +1,72 @@
+package com.github.driversti.salaryreport.benchmark;
+
+import com.github.driversti.salaryreport.report.SalaryKernels;
+import com.github.driversti.salaryreport.report.SalaryMath;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the scalar and vector salary kernels, on the salaries of a whole level in cents.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = {"--add-modules", "jdk.incubator.vector"})
+public class SalaryKernelsBenchmark {
+
+  private static final SalaryMath.Factor MIN_INCREASE = SalaryMath.Factor.of(new BigDecimal("1.20"));
+  private static final SalaryMath.Factor MAX_INCREASE = SalaryMath.Factor.of(new BigDecimal("1.50"));
+
+  @Param({"1000", "1000000"})
+  private int size;
+
+  @Param({"scalar", "vector"})
+  private String kernels;
+
+  private SalaryKernels salaryKernels;
+  private long[] salaries;
+  private long[] averages;
+  private byte[] categories;
+
+  @Setup
+  public void setUp() {
+    salaryKernels = kernels.equals("scalar") ? SalaryKernels.scalar() : SalaryKernels.get();
+    if (!salaryKernels.name().equals(kernels)) {
+      throw new IllegalStateException("The " + kernels + " kernels are not available");
+    }
+    Random random = new Random(42);
+    salaries = new long[size];
+    averages = new long[size];
+    categories = new byte[size];
+    for (int i = 0; i < size; i++) {
+      averages[i] = random.nextInt(4) == 0 ? -1 : 100_000 + random.nextInt(1_000_000);
+      salaries[i] = 100_000 + random.nextInt(2_000_000);
+    }
+  }
+
+  @Benchmark
+  public long sum() {
+    return salaryKernels.sum(salaries, 0, size);
+  }
+
+  @Benchmark
+  public byte[] classify() {
+    salaryKernels.classify(salaries, averages, 0, size, MIN_INCREASE, MAX_INCREASE, categories);
+    return categories;
+  }
+}
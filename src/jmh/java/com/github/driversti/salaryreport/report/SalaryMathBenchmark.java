@@ -0,0 +1,89 @@
+package com.github.driversti.salaryreport.report;
+
+import com.github.driversti.salaryreport.organization.Employee;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import static java.lang.String.format;
+
+/**
+ * Compares the fixed-point salary arithmetic against the equivalent {@link BigDecimal} computations.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class SalaryMathBenchmark {
+
+  private static final BigDecimal MIN_SALARY_INCREASE = BigDecimal.valueOf(1.20);
+  private static final BigDecimal ONE_HUNDRED = BigDecimal.valueOf(100);
+
+  @Param({"1000", "100000"})
+  private int size;
+
+  private List<Employee> employees;
+  private BigDecimal[] expectedSalaries;
+  private Accountant accountant;
+
+  @Setup
+  public void setUp() {
+    SplittableRandom random = new SplittableRandom(42);
+    employees = new ArrayList<>(size);
+    expectedSalaries = new BigDecimal[size];
+    for (int i = 0; i < size; i++) {
+      employees.add(new Employee(i + 1, "John", "Doe", BigDecimal.valueOf(random.nextInt(3_000, 20_001)), -1));
+      expectedSalaries[i] = BigDecimal.valueOf(random.nextLong(300_000, 2_000_001), 2).multiply(MIN_SALARY_INCREASE);
+    }
+    accountant = new Accountant(null);
+  }
+
+  @Benchmark
+  public BigDecimal averageFixedPoint() {
+    return accountant.averageSalaryOf(employees);
+  }
+
+  @Benchmark
+  public BigDecimal averageBigDecimal() {
+    return employees.stream()
+        .map(Employee::salary)
+        .reduce(BigDecimal.ZERO, BigDecimal::add)
+        .divide(BigDecimal.valueOf(employees.size()), 2, RoundingMode.HALF_UP);
+  }
+
+  @Benchmark
+  public void discrepancyFixedPoint(Blackhole blackhole) {
+    for (int i = 0; i < size; i++) {
+      blackhole.consume(OrganizationalSalaryReport.belowExpectationPostfix(employees.get(i).salary(),
+          expectedSalaries[i]));
+    }
+  }
+
+  @Benchmark
+  public void discrepancyBigDecimal(Blackhole blackhole) {
+    for (int i = 0; i < size; i++) {
+      BigDecimal percentage = BigDecimal.ONE
+          .subtract(employees.get(i).salary().divide(expectedSalaries[i], 10, RoundingMode.HALF_UP))
+          .multiply(ONE_HUNDRED);
+      blackhole.consume(format("(-%.2f%%)", percentage));
+    }
+  }
+}
@@ -1,45 +1,208 @@
 package com.github.driversti.salaryreport;
 
-import com.github.driversti.salaryreport.infrastructure.EmployeeReader;
+import com.github.driversti.salaryreport.infrastructure.EmployeeSnapshot;
+import com.github.driversti.salaryreport.infrastructure.MappedEmployeeReader;
+import com.github.driversti.salaryreport.infrastructure.ShardedEmployeeReader;
+import com.github.driversti.salaryreport.metrics.PipelineMetrics;
+import com.github.driversti.salaryreport.metrics.Stage;
+import com.github.driversti.salaryreport.metrics.StageTimer;
+import com.github.driversti.salaryreport.organization.ColumnarOrganization;
 import com.github.driversti.salaryreport.organization.Employee;
+import com.github.driversti.salaryreport.organization.EmployeeTable;
 import com.github.driversti.salaryreport.organization.OrganizationalStructure;
-import com.github.driversti.salaryreport.printers.ConsolePrinter;
+import com.github.driversti.salaryreport.printers.BufferedChannelPrinter;
 import com.github.driversti.salaryreport.printers.EmployeePrinter;
-import com.github.driversti.salaryreport.printers.Printer;
 import com.github.driversti.salaryreport.report.Accountant;
 import com.github.driversti.salaryreport.report.OrganizationalSalaryReport;
+import com.github.driversti.salaryreport.server.OrganizationReloader;
+import com.github.driversti.salaryreport.server.OrganizationReports;
+import com.github.driversti.salaryreport.server.ReportServer;
 
+import java.io.IOException;
 import java.math.BigDecimal;
+import java.net.InetSocketAddress;
+import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 
+/**
+ * Prints the salary report of an organization, or serves it over HTTP.
+ *
+ * <p>Usage: {@code Application [--serve] [--port=<port>] [--write-snapshot=<path>] [<file>...]}, where the file is
+ * either a CSV file of employees, read by {@link MappedEmployeeReader}, or a snapshot written by
+ * {@link EmployeeSnapshot}, recognized by its ".snapshot" extension. Several CSV files are read as shards of one
+ * organization by {@link ShardedEmployeeReader}; they cannot be served.
+ * <p>With {@code --write-snapshot}, the organization is written to a snapshot at the given path instead of being
+ * reported, so that later runs can load it without parsing, e.g. {@code Application --write-snapshot=employees.snapshot
+ * employees.csv}, then {@code Application employees.snapshot}.
+ * <p>Every stage is measured by {@link PipelineMetrics}: with {@code -Dsalaryreport.metrics=true}, the measurements
+ * are printed to the standard error once the report is printed.
+ * <p>Snapshots are validated against their checksum before use; {@code -Dsalaryreport.snapshot.verify=false} skips
+ * the validation, for snapshots written and kept on trusted storage.
+ */
 public class Application {
 
-  public static void main(String[] args) {
-    // read employees from CSV file
-    EmployeeReader reader = new EmployeeReader();
-    Collection<Employee> employees = reader.read("src/main/resources/employees.csv");
+  private static final String DEFAULT_FILE = "src/main/resources/employees.csv";
+  private static final int DEFAULT_PORT = 8080;
+  private static final boolean VERIFY_SNAPSHOTS =
+      Boolean.parseBoolean(System.getProperty("salaryreport.snapshot.verify", "true"));
 
-    // create organizational structure
-    OrganizationalStructure structure = new OrganizationalStructure(employees);
+  public static void main(String[] args) throws IOException {
+    boolean serve = false;
+    int port = DEFAULT_PORT;
+    String snapshot = null;
+    List<String> filepaths = new ArrayList<>();
+    for (String arg : args) {
+      if (arg.equals("--serve")) {
+        serve = true;
+      } else if (arg.startsWith("--port=")) {
+        port = Integer.parseInt(arg.substring("--port=".length()));
+      } else if (arg.startsWith("--write-snapshot=")) {
+        snapshot = arg.substring("--write-snapshot=".length());
+      } else if (arg.startsWith("--")) {
+        throw new IllegalArgumentException("Unknown option: " + arg);
+      } else {
+        filepaths.add(arg);
+      }
+    }
+    if (filepaths.isEmpty()) {
+      filepaths.add(DEFAULT_FILE);
+    }
+
+    if (filepaths.size() > 1 && (serve || filepaths.stream().anyMatch(Application::isSnapshot))) {
+      throw new IllegalArgumentException("Only CSV files can be read as shards, and shards cannot be served");
+    }
+    if (snapshot != null) {
+      if (serve) {
+        throw new IllegalArgumentException("A snapshot cannot be written while serving");
+      }
+      writeSnapshot(filepaths, snapshot);
+    } else if (filepaths.size() > 1) {
+      printReport(filepaths);
+    } else if (serve) {
+      serve(filepaths.getFirst(), port);
+    } else {
+      printReport(filepaths.getFirst());
+    }
+  }
+
+  private static void serve(String filepath, int port) throws IOException {
+    // reload the organization whenever the file changes
+    OrganizationReloader reloader = OrganizationReloader.start(Path.of(filepath), file -> readTable(file.toString()));
+    ReportServer server = ReportServer.start(new InetSocketAddress(port), reloader);
+    Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+      server.close();
+      reloader.close();
+    }));
+    System.out.println("Serving " + filepath + " on http://localhost:" + server.port());
+  }
+
+  private static void printReport(String filepath) {
+    PipelineMetrics metrics = PipelineMetrics.global();
+
+    // read employees from CSV file, or map a snapshot
+    OrganizationalStructure structure;
+    int size;
+    if (isSnapshot(filepath)) {
+      EmployeeTable table;
+      try (StageTimer timer = metrics.start(Stage.READ)) {
+        table = EmployeeSnapshot.read(filepath, VERIFY_SNAPSHOTS);
+        size = table.size();
+        timer.rows(size).bytesRead(Path.of(filepath).toFile().length());
+      }
+      try (StageTimer timer = metrics.start(Stage.BUILD_STRUCTURE)) {
+        structure = OrganizationalStructure.of(table);
+        timer.rows(size);
+      }
+    } else {
+      Collection<Employee> employees;
+      try (StageTimer timer = metrics.start(Stage.READ)) {
+        employees = new MappedEmployeeReader().read(filepath);
+        size = employees.size();
+        timer.rows(size).bytesRead(Path.of(filepath).toFile().length());
+      }
+      try (StageTimer timer = metrics.start(Stage.BUILD_STRUCTURE)) {
+        structure = new OrganizationalStructure(employees);
+        timer.rows(size);
+      }
+    }
+    printReport(structure, size);
+  }
+
+  private static void printReport(List<String> shards) {
+    PipelineMetrics metrics = PipelineMetrics.global();
+
+    // read the shards concurrently, resolving managers across them
+    Collection<Employee> employees;
+    try (StageTimer timer = metrics.start(Stage.READ)) {
+      employees = new ShardedEmployeeReader().read(shards);
+      long bytesRead = shards.stream().mapToLong(shard -> Path.of(shard).toFile().length()).sum();
+      timer.rows(employees.size()).bytesRead(bytesRead);
+    }
+    OrganizationalStructure structure;
+    try (StageTimer timer = metrics.start(Stage.BUILD_STRUCTURE)) {
+      structure = OrganizationalStructure.parallel(employees);
+      timer.rows(employees.size());
+    }
+    printReport(structure, employees.size());
+  }
+
+  private static void printReport(OrganizationalStructure structure, int size) {
+    PipelineMetrics metrics = PipelineMetrics.global();
 
     // create accountant responsible for calculating salaries
     Accountant accountant = new Accountant(structure);
 
     // calculate and print average salary by level
-    Map<Integer, BigDecimal> averageSalaryByLevel = accountant.averageSalaryByLevel();
-    averageSalaryByLevel.forEach((level, salary) -> System.out.printf("The average salary of level %d is: %.2f%n", level, salary));
+    Map<Integer, BigDecimal> averageSalaryByLevel;
+    try (StageTimer timer = metrics.start(Stage.AVERAGE_SALARIES)) {
+      averageSalaryByLevel = accountant.averageSalaryByLevel();
+      timer.rows(size);
+    }
+    averageSalaryByLevel.forEach((level, salary) ->
+        System.out.printf(Locale.ROOT, "The average salary of level %d is: %.2f%n", level, salary));
 
     // create and print salary discrepancy report
-    OrganizationalSalaryReport salaryReport = accountant.createSalaryReport();
-    Printer consolePrinter = new ConsolePrinter();
-    consolePrinter.print("");
-    EmployeePrinter employeePrinter = new EmployeePrinter(consolePrinter);
-    // Constraint: according to the requirements, we want to calculate the salary discrepancy for levels
-    // no deeper than 4 levels between the CEO and the employee.
-    // This means we include the CEO + the 4 levels of subordinates between the most far level which (+1) gives us
-    // a total of 6 levels.
-    salaryReport.printReport(employeePrinter, 6);
+    OrganizationalSalaryReport salaryReport;
+    try (StageTimer timer = metrics.start(Stage.CREATE_REPORT)) {
+      salaryReport = accountant.createSalaryReport();
+      timer.rows(size);
+    }
+    try (StageTimer timer = metrics.start(Stage.PRINT_REPORT);
+         BufferedChannelPrinter printer = BufferedChannelPrinter.toStandardOutput()) {
+      printer.print("");
+      EmployeePrinter employeePrinter = new EmployeePrinter(printer);
+      salaryReport.printReport(employeePrinter, OrganizationReports.REPORTED_LEVELS);
+      timer.rows(size);
+    }
+
+    if (metrics.isEnabled()) {
+      metrics.getStages().forEach(System.err::println);
+    }
+  }
+
+  private static void writeSnapshot(List<String> filepaths, String snapshot) {
+    EmployeeTable table = filepaths.size() > 1
+        ? ColumnarOrganization.of(new ShardedEmployeeReader().read(filepaths))
+        : readTable(filepaths.getFirst());
+    EmployeeSnapshot.write(table, snapshot);
+    System.out.println("Wrote " + table.size() + " employees to " + snapshot);
+  }
+
+  private static EmployeeTable readTable(String filepath) {
+    try (StageTimer timer = PipelineMetrics.global().start(Stage.READ)) {
+      EmployeeTable table = isSnapshot(filepath)
+          ? EmployeeSnapshot.read(filepath, VERIFY_SNAPSHOTS)
+          : ColumnarOrganization.of(new MappedEmployeeReader().read(filepath));
+      timer.rows(table.size()).bytesRead(Path.of(filepath).toFile().length());
+      return table;
+    }
   }
 
+  private static boolean isSnapshot(String filepath) {
+    return filepath.endsWith(".snapshot");
+  }
 }
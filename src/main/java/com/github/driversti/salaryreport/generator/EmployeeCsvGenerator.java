@@ -0,0 +1,456 @@
+package com.github.driversti.salaryreport.generator;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.SplittableRandom;
+import java.util.TreeMap;
+
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.TRUNCATE_EXISTING;
+import static java.nio.file.StandardOpenOption.WRITE;
+
+/**
+ * Generates reproducible CSV files of employees in the format read by
+ * {@link com.github.driversti.salaryreport.infrastructure.EmployeeReader}.
+ *
+ * <p>The organization is generated level by level, starting with the CEO (level 1) with id 1. Every employee in
+ * turn gets a number of direct subordinates drawn from the fan-out range of their level, until the requested number
+ * of rows is written. Employees on the maximum depth get no subordinates. If the organization cannot grow any
+ * further, because of the maximum depth or because a whole level drew no subordinates, the remaining rows are
+ * spread evenly over the employees of the last level that may have subordinates.
+ * <p>Ids are assigned in the order the rows are written, so the state of the generation is a handful of counters:
+ * memory use does not depend on the number of rows. Rows are written in large batches through a reusable buffer.
+ * The same settings and seed always produce the same file.
+ */
+public class EmployeeCsvGenerator {
+
+  /**
+   * The largest supported number of rows, limited by employee ids being ints.
+   */
+  public static final long MAX_ROWS = Integer.MAX_VALUE;
+
+  private static final byte[] HEADER = "Id,firstName,lastName,salary,managerId\n".getBytes(StandardCharsets.US_ASCII);
+  private static final int BUFFER_SIZE = 1 << 20;
+  private static final int MAX_ROW_SIZE = 256; // the longest names and numbers, with room to spare
+  private static final byte[][] FIRST_NAMES = ascii(
+      "James", "Mary", "John", "Patricia", "Robert", "Jennifer", "Michael", "Linda", "William", "Elizabeth",
+      "David", "Barbara", "Richard", "Susan", "Joseph", "Jessica", "Thomas", "Sarah", "Charles", "Karen",
+      "Christopher", "Nancy", "Daniel", "Lisa", "Matthew", "Margaret", "Anthony", "Betty", "Mark", "Sandra");
+  private static final byte[][] LAST_NAMES = ascii(
+      "Smith", "Johnson", "Williams", "Brown", "Jones", "Garcia", "Miller", "Davis", "Rodriguez", "Martinez",
+      "Hernandez", "Lopez", "Gonzalez", "Wilson", "Anderson", "Thomas", "Taylor", "Moore", "Jackson", "Martin",
+      "Lee", "Perez", "Thompson", "White", "Harris", "Sanchez", "Clark", "Ramirez", "Lewis", "Robinson");
+
+  private final long seed;
+  private final long rows;
+  private final int maxDepth;
+  private final NavigableMap<Integer, Range> fanOutByLevel;
+  private final NavigableMap<Integer, Range> salaryByLevel;
+  private final long salaryStep;
+  private final long idOffset;
+
+  private EmployeeCsvGenerator(Builder builder) {
+    this.seed = builder.seed;
+    this.rows = builder.rows;
+    this.maxDepth = builder.maxDepth;
+    this.fanOutByLevel = new TreeMap<>(builder.fanOutByLevel);
+    this.salaryByLevel = new TreeMap<>(builder.salaryByLevel);
+    this.salaryStep = builder.salaryStep;
+    this.idOffset = builder.firstId - 1;
+  }
+
+  public static Builder builder() {
+    return new Builder();
+  }
+
+  /**
+   * Generates employees into a file, replacing its content.
+   *
+   * @param file the file to write
+   * @return the number of bytes written
+   * @throws IOException if writing fails
+   */
+  public long generate(Path file) throws IOException {
+    try (FileChannel channel = FileChannel.open(file, CREATE, TRUNCATE_EXISTING, WRITE)) {
+      return generate(channel);
+    }
+  }
+
+  /**
+   * Generates employees into a channel.
+   *
+   * @param channel the channel to write to, not closed
+   * @return the number of bytes written
+   * @throws IOException if writing fails
+   */
+  public long generate(WritableByteChannel channel) throws IOException {
+    return new Generation(channel).run();
+  }
+
+  /**
+   * Generates a CSV file from the command line.
+   * <p>Usage: {@code EmployeeCsvGenerator FILE [--rows=N] [--seed=N] [--max-depth=N] [--fan-out=[LEVEL:]MIN..MAX]
+   * [--salary=[LEVEL:]MIN..MAX] [--salary-step=N]}. The fan-out and salary options may be repeated, each applies
+   * from the given level (1 if omitted) down to the next level given.
+   *
+   * @param args the command line arguments
+   * @throws IOException if writing fails
+   */
+  public static void main(String[] args) throws IOException {
+    if (args.length == 0) {
+      System.err.println("Usage: EmployeeCsvGenerator FILE [--rows=N] [--seed=N] [--max-depth=N]"
+          + " [--fan-out=[LEVEL:]MIN..MAX] [--salary=[LEVEL:]MIN..MAX] [--salary-step=N]");
+      System.exit(1);
+    }
+    Builder builder = builder();
+    for (int i = 1; i < args.length; i++) {
+      builder.option(args[i]);
+    }
+    long start = System.nanoTime();
+    long bytes = builder.build().generate(Path.of(args[0]));
+    long millis = (System.nanoTime() - start) / 1_000_000;
+    System.out.printf("Wrote %d bytes to %s in %d ms%n", bytes, args[0], millis);
+  }
+
+  private static byte[][] ascii(String... values) {
+    byte[][] bytes = new byte[values.length][];
+    for (int i = 0; i < values.length; i++) {
+      bytes[i] = values[i].getBytes(StandardCharsets.US_ASCII);
+    }
+    return bytes;
+  }
+
+  /**
+   * A uniformly distributed range of values, both ends included.
+   *
+   * @param min the smallest value
+   * @param max the largest value
+   */
+  public record Range(long min, long max) {
+
+    public Range {
+      if (min < 0 || max < min) {
+        throw new IllegalArgumentException("Invalid range: " + min + ".." + max);
+      }
+    }
+
+    /**
+     * Parses a range written as {@code MIN..MAX}, or a single value.
+     *
+     * @param value the range
+     * @return the parsed range
+     */
+    public static Range parse(String value) {
+      int separator = value.indexOf("..");
+      try {
+        return separator < 0
+            ? new Range(Long.parseLong(value), Long.parseLong(value))
+            : new Range(Long.parseLong(value.substring(0, separator)), Long.parseLong(value.substring(separator + 2)));
+      } catch (NumberFormatException e) {
+        throw new IllegalArgumentException("Invalid range: " + value, e);
+      }
+    }
+
+    long sample(SplittableRandom random) {
+      return min == max ? min : random.nextLong(min, max + 1);
+    }
+  }
+
+  /**
+   * Builds a generator. By default, it writes 1000 rows with seed 42, gives every manager 2 to 3 subordinates
+   * without limiting the depth, and pays the CEO 20000 to 30000 and everybody else 3000 to 20000, in steps of 100.
+   */
+  public static final class Builder {
+
+    private long seed = 42;
+    private long rows = 1000;
+    private int maxDepth = Integer.MAX_VALUE;
+    private final Map<Integer, Range> fanOutByLevel = new TreeMap<>(Map.of(1, new Range(2, 3)));
+    private final Map<Integer, Range> salaryByLevel = new TreeMap<>(Map.of(
+        1, new Range(20_000, 30_000),
+        2, new Range(3_000, 20_000)));
+    private long salaryStep = 100;
+    private long firstId = 1;
+
+    private Builder() {
+    }
+
+    public Builder seed(long seed) {
+      this.seed = seed;
+      return this;
+    }
+
+    /**
+     * Sets the number of rows to write, not counting the header.
+     *
+     * @param rows the number of employees, from 1 to {@link #MAX_ROWS}
+     * @return this builder
+     */
+    public Builder rows(long rows) {
+      if (rows < 1 || rows > MAX_ROWS) {
+        throw new IllegalArgumentException("The number of rows must be between 1 and " + MAX_ROWS);
+      }
+      this.rows = rows;
+      return this;
+    }
+
+    /**
+     * Sets the deepest level, the CEO being on level 1.
+     *
+     * @param maxDepth the deepest level, at least 2
+     * @return this builder
+     */
+    public Builder maxDepth(int maxDepth) {
+      if (maxDepth < 2) {
+        throw new IllegalArgumentException("The maximum depth must be at least 2");
+      }
+      this.maxDepth = maxDepth;
+      return this;
+    }
+
+    /**
+     * Sets the number of direct subordinates of every employee, for all levels.
+     *
+     * @param fanOut the range of the number of direct subordinates
+     * @return this builder
+     */
+    public Builder fanOut(Range fanOut) {
+      fanOutByLevel.clear();
+      return fanOut(1, fanOut);
+    }
+
+    /**
+     * Sets the number of direct subordinates of the employees from the given level down to the next level with a
+     * fan-out of its own.
+     *
+     * @param fromLevel the level to apply the fan-out from, at least 1
+     * @param fanOut    the range of the number of direct subordinates
+     * @return this builder
+     */
+    public Builder fanOut(int fromLevel, Range fanOut) {
+      fanOutByLevel.put(requireLevel(fromLevel), fanOut);
+      return this;
+    }
+
+    /**
+     * Sets the salary of every employee, for all levels.
+     *
+     * @param salary the range of salaries
+     * @return this builder
+     */
+    public Builder salary(Range salary) {
+      salaryByLevel.clear();
+      return salary(1, salary);
+    }
+
+    /**
+     * Sets the salary of the employees from the given level down to the next level with a salary of its own.
+     *
+     * @param fromLevel the level to apply the salary from, at least 1
+     * @param salary    the range of salaries
+     * @return this builder
+     */
+    public Builder salary(int fromLevel, Range salary) {
+      salaryByLevel.put(requireLevel(fromLevel), salary);
+      return this;
+    }
+
+    /**
+     * Rounds salaries down to a multiple of the step, e.g. 100 for whole hundreds.
+     *
+     * @param salaryStep the step, at least 1
+     * @return this builder
+     */
+    public Builder salaryStep(long salaryStep) {
+      if (salaryStep < 1) {
+        throw new IllegalArgumentException("The salary step must be at least 1");
+      }
+      this.salaryStep = salaryStep;
+      return this;
+    }
+
+    /**
+     * Numbers the rows from the given id instead of 1, to test the largest ids without writing as many rows.
+     *
+     * @param firstId the id of the CEO, at least 1
+     * @return this builder
+     */
+    Builder firstId(long firstId) {
+      if (firstId < 1) {
+        throw new IllegalArgumentException("The first id must be at least 1");
+      }
+      this.firstId = firstId;
+      return this;
+    }
+
+    /**
+     * Applies a command line option such as {@code --rows=1000} or {@code --fan-out=2:1..5}.
+     *
+     * @param option the option
+     * @return this builder
+     */
+    public Builder option(String option) {
+      int separator = option.indexOf('=');
+      if (!option.startsWith("--") || separator < 0) {
+        throw new IllegalArgumentException("Invalid option: " + option);
+      }
+      String name = option.substring(2, separator);
+      String value = option.substring(separator + 1);
+      switch (name) {
+        case "rows" -> rows(Long.parseLong(value));
+        case "seed" -> seed(Long.parseLong(value));
+        case "max-depth" -> maxDepth(Integer.parseInt(value));
+        case "salary-step" -> salaryStep(Long.parseLong(value));
+        case "fan-out" -> fanOut(levelOf(value), Range.parse(value.substring(value.indexOf(':') + 1)));
+        case "salary" -> salary(levelOf(value), Range.parse(value.substring(value.indexOf(':') + 1)));
+        default -> throw new IllegalArgumentException("Unknown option: " + option);
+      }
+      return this;
+    }
+
+    /**
+     * Builds the generator.
+     *
+     * @return the generator
+     * @throws IllegalArgumentException if the fan-out or salary of level 1 is missing, or if ids would exceed
+     *                                  {@link #MAX_ROWS}
+     */
+    public EmployeeCsvGenerator build() {
+      if (!fanOutByLevel.containsKey(1) || !salaryByLevel.containsKey(1)) {
+        throw new IllegalArgumentException("The fan-out and salary must be given from level 1");
+      }
+      if (firstId - 1 + rows > MAX_ROWS) {
+        throw new IllegalArgumentException("The largest id must not exceed " + MAX_ROWS);
+      }
+      return new EmployeeCsvGenerator(this);
+    }
+
+    private static int levelOf(String value) {
+      int separator = value.indexOf(':');
+      return separator < 0 ? 1 : Integer.parseInt(value.substring(0, separator));
+    }
+
+    private static int requireLevel(int level) {
+      if (level < 1) {
+        throw new IllegalArgumentException("Levels start at 1");
+      }
+      return level;
+    }
+  }
+
+  /**
+   * The state of one generation. Employees are written in level order, so the employees of a level have
+   * consecutive ids and the next manager to get subordinates is simply the next id. Rows are counted in longs, so
+   * that counting past the largest id cannot overflow.
+   */
+  private final class Generation {
+
+    private final WritableByteChannel channel;
+    private final ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+    private final byte[] digits = new byte[20];
+    private final SplittableRandom random = new SplittableRandom(seed);
+    private long bytesWritten;
+    private int salaryLevel;
+    private Range salary;
+
+    Generation(WritableByteChannel channel) {
+      this.channel = channel;
+    }
+
+    long run() throws IOException {
+      buffer.put(HEADER);
+      writeRow(1, -1, 1);
+      long nextId = 2;
+
+      int level = 1; // the level of the current manager
+      long levelStart = 1; // the ids of the employees on that level
+      long levelEnd = 1;
+      long manager = 1;
+      long remaining = fanOutOf(level).sample(random);
+      long spillStart = 0; // once the organization cannot grow, the range of managers the rows are spread over
+      long spillSize = 0;
+      while (nextId <= rows) {
+        if (spillSize > 0) {
+          writeRow(nextId, spillStart + (nextId % spillSize), level + 1);
+          nextId++;
+          continue;
+        }
+        while (remaining == 0) {
+          manager++;
+          if (manager > levelEnd) {
+            if (nextId - 1 == levelEnd) {
+              spillStart = levelStart; // nobody on this level got subordinates
+              spillSize = levelEnd - levelStart + 1;
+              break;
+            }
+            if (level + 1 == maxDepth) {
+              spillStart = levelStart; // the next level may not have subordinates
+              spillSize = levelEnd - levelStart + 1;
+              break;
+            }
+            level++;
+            levelStart = levelEnd + 1;
+            levelEnd = nextId - 1;
+          }
+          remaining = fanOutOf(level).sample(random);
+        }
+        if (spillSize == 0) {
+          writeRow(nextId++, manager, level + 1);
+          remaining--;
+        }
+      }
+      flush();
+      return bytesWritten;
+    }
+
+    private Range fanOutOf(int level) {
+      return fanOutByLevel.floorEntry(level).getValue();
+    }
+
+    /**
+     * Writes a row; ids count from 1 here, and are shifted to the first id of the generator.
+     */
+    private void writeRow(long id, long managerId, int level) throws IOException {
+      if (buffer.remaining() < MAX_ROW_SIZE) {
+        flush();
+      }
+      if (level != salaryLevel) {
+        salaryLevel = level;
+        salary = salaryByLevel.floorEntry(level).getValue();
+      }
+      putNumber(idOffset + id);
+      buffer.put((byte) ',').put(FIRST_NAMES[random.nextInt(FIRST_NAMES.length)]);
+      buffer.put((byte) ',').put(LAST_NAMES[random.nextInt(LAST_NAMES.length)]);
+      buffer.put((byte) ',');
+      putNumber(salary.sample(random) / salaryStep * salaryStep);
+      buffer.put((byte) ',');
+      if (managerId > 0) {
+        putNumber(idOffset + managerId);
+      }
+      buffer.put((byte) '\n');
+    }
+
+    private void putNumber(long value) {
+      int position = digits.length;
+      do {
+        digits[--position] = (byte) ('0' + value % 10);
+        value /= 10;
+      } while (value > 0);
+      buffer.put(digits, position, digits.length - position);
+    }
+
+    private void flush() throws IOException {
+      buffer.flip();
+      while (buffer.hasRemaining()) {
+        bytesWritten += channel.write(buffer);
+      }
+      buffer.clear();
+    }
+  }
+}
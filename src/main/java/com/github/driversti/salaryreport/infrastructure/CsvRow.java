@@ -0,0 +1,160 @@
+package com.github.driversti.salaryreport.infrastructure;
+
+import com.github.driversti.salaryreport.organization.Employee;
+
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * A reusable view of a single employee row parsed directly from a byte buffer.
+ *
+ * <p>Numeric fields are parsed eagerly, while names are decoded only on request.
+ * <p>The same instance is reused for every row of a chunk, so it must not be retained by consumers.
+ */
+public final class CsvRow {
+
+  private static final byte COMMA = ',';
+
+  private ByteBuffer buffer;
+  private long offset;
+  private int id;
+  private long salary;
+  private int managerId;
+  private int firstNameStart;
+  private int firstNameEnd;
+  private int lastNameStart;
+  private int lastNameEnd;
+  private byte[] scratch = new byte[64];
+
+  CsvRow() {
+  }
+
+  /**
+   * Parses the row between the given buffer positions.
+   *
+   * @param buffer the buffer holding the row
+   * @param start  the position of the first byte of the row (included)
+   * @param end    the position right after the last byte of the row, line terminators excluded
+   * @param offset the offset of the row within the file
+   */
+  void parse(ByteBuffer buffer, int start, int end, long offset) {
+    this.buffer = buffer;
+    this.offset = offset;
+
+    int idEnd = nextComma(start, end);
+    this.id = Math.toIntExact(parseLong(start, idEnd));
+
+    this.firstNameStart = idEnd + 1;
+    this.firstNameEnd = nextComma(firstNameStart, end);
+
+    this.lastNameStart = firstNameEnd + 1;
+    this.lastNameEnd = nextComma(lastNameStart, end);
+
+    int salaryStart = lastNameEnd + 1;
+    int salaryEnd = indexOfComma(salaryStart, end);
+    this.salary = parseLong(salaryStart, salaryEnd);
+
+    // The CEO has no manager, so the last column is either empty or missing altogether.
+    int managerIdStart = salaryEnd + 1;
+    this.managerId = managerIdStart >= end ? -1 : Math.toIntExact(parseLong(managerIdStart, end));
+  }
+
+  /**
+   * Returns the offset of the row within the file.
+   *
+   * @return the offset of the first byte of the row
+   */
+  public long offset() {
+    return offset;
+  }
+
+  public int id() {
+    return id;
+  }
+
+  public long salary() {
+    return salary;
+  }
+
+  public int managerId() {
+    return managerId;
+  }
+
+  /**
+   * Decodes the first name of the employee.
+   *
+   * @return the first name
+   */
+  public String firstName() {
+    return decode(firstNameStart, firstNameEnd);
+  }
+
+  /**
+   * Decodes the last name of the employee.
+   *
+   * @return the last name
+   */
+  public String lastName() {
+    return decode(lastNameStart, lastNameEnd);
+  }
+
+  /**
+   * Creates an employee from the current row.
+   *
+   * @return a new employee
+   */
+  public Employee toEmployee() {
+    return new Employee(id, firstName(), lastName(), BigDecimal.valueOf(salary), managerId);
+  }
+
+  private String decode(int start, int end) {
+    int length = end - start;
+    if (scratch.length < length) {
+      scratch = new byte[length];
+    }
+    buffer.get(start, scratch, 0, length);
+    return new String(scratch, 0, length, StandardCharsets.UTF_8);
+  }
+
+  private int nextComma(int from, int end) {
+    int comma = indexOfComma(from, end);
+    if (comma == end) {
+      throw malformed();
+    }
+    return comma;
+  }
+
+  private int indexOfComma(int from, int end) {
+    for (int i = from; i < end; i++) {
+      if (buffer.get(i) == COMMA) {
+        return i;
+      }
+    }
+    return end;
+  }
+
+  private long parseLong(int start, int end) {
+    if (start >= end) {
+      throw malformed();
+    }
+    boolean negative = buffer.get(start) == '-';
+    int pos = negative ? start + 1 : start;
+    if (pos == end) {
+      throw malformed();
+    }
+    long value = 0;
+    for (; pos < end; pos++) {
+      int digit = buffer.get(pos) - '0';
+      if (digit < 0 || digit > 9) {
+        throw malformed();
+      }
+      value = Math.addExact(Math.multiplyExact(value, 10), digit);
+    }
+    return negative ? -value : value;
+  }
+
+  private IllegalArgumentException malformed() {
+    return new IllegalArgumentException("Malformed row at offset " + offset);
+  }
+}
@@ -0,0 +1,65 @@
+package com.github.driversti.salaryreport.infrastructure;
+
+import com.github.driversti.salaryreport.organization.Employee;
+import com.github.driversti.salaryreport.organization.EmployeeChange;
+
+import java.io.BufferedReader;
+import java.io.FileReader;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Reads changes to employees from a CSV delta file.
+ *
+ * <p>Every row starts with the operation (INSERT, UPDATE or DELETE) followed by the columns read by
+ * {@link EmployeeReader}. Inserted and updated employees are given in full, deleted employees by id only:
+ * <pre>
+ * operation,Id,firstName,lastName,salary,managerId
+ * INSERT,200,Jane,Roe,50000,123
+ * UPDATE,124,Martin,Chekov,47000,123
+ * DELETE,125
+ * </pre>
+ */
+public class EmployeeChangeReader {
+
+  private static final String HEADER = "operation,Id,firstName,lastName,salary,managerId";
+  private static final String COMMA_DELIMITER = ",";
+
+  /**
+   * Reads changes from a CSV file, in the order of the rows.
+   *
+   * @param filepath the path to the CSV file (assumed to be present, readable, and well-formed)
+   * @return the changes
+   */
+  public List<EmployeeChange> read(String filepath) {
+    List<EmployeeChange> changes = new ArrayList<>();
+    try (BufferedReader br = new BufferedReader(new FileReader(filepath))) {
+      String line;
+      while ((line = br.readLine()) != null) {
+        if (line.equals(HEADER) || line.isBlank()) {
+          continue;
+        }
+        changes.add(createChange(line.split(COMMA_DELIMITER)));
+      }
+    } catch (Exception e) {
+      System.err.println("Error reading file: " + filepath);
+      throw new RuntimeException(e);
+    }
+
+    return changes;
+  }
+
+  private EmployeeChange createChange(String[] values) {
+    EmployeeChange.Type type = EmployeeChange.Type.valueOf(values[0].trim().toUpperCase(Locale.ROOT));
+    if (type == EmployeeChange.Type.DELETE) {
+      return EmployeeChange.delete(Integer.parseInt(values[1]));
+    }
+    int id = Integer.parseInt(values[1]);
+    BigDecimal salary = BigDecimal.valueOf(Long.parseLong(values[4]));
+    int managerId = values.length == 5 ? -1 : Integer.parseInt(values[5]);
+    Employee employee = new Employee(id, values[2], values[3], salary, managerId);
+    return type == EmployeeChange.Type.INSERT ? EmployeeChange.insert(employee) : EmployeeChange.update(employee);
+  }
+}
@@ -0,0 +1,441 @@
+package com.github.driversti.salaryreport.infrastructure;
+
+import com.github.driversti.salaryreport.organization.EmployeeTable;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.zip.CRC32C;
+
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.READ;
+import static java.nio.file.StandardOpenOption.TRUNCATE_EXISTING;
+import static java.nio.file.StandardOpenOption.WRITE;
+
+/**
+ * Writes a parsed and indexed organization to a binary snapshot file, and loads it back without parsing.
+ *
+ * <p>A snapshot stores the columns of an {@link EmployeeTable} as they are: ids, manager indices, levels, salaries
+ * in cents, the subordinate and level indexes, and a pool of the distinct names. Loading maps the whole file into
+ * memory at once and serves the table straight from the mapped columns. By default the checksum is validated first,
+ * which reads every page of the file once; a loader that trusts the file can skip the validation, and then only the
+ * pages actually read are loaded from disk.
+ * <p>Layout, little-endian: a {@value #HEADER_SIZE}-byte header (magic, version, sizes, CRC32C of everything after
+ * the header), then the salary column, the int columns and the name pool. A snapshot is limited to 2 GB.
+ */
+public final class EmployeeSnapshot {
+
+  /**
+   * The version of the format; snapshots of other versions are rejected.
+   */
+  public static final int VERSION = 1;
+
+  private static final int MAGIC = 0x53504E53; // "SNPS"
+  private static final int HEADER_SIZE = 64;
+  private static final int BUFFER_SIZE = 1 << 20;
+
+  private EmployeeSnapshot() {
+  }
+
+  /**
+   * Writes a snapshot of an organization.
+   *
+   * @param table    the organization
+   * @param filepath the path of the snapshot file, replaced if it exists
+   */
+  public static void write(EmployeeTable table, String filepath) {
+    try (FileChannel channel = FileChannel.open(Path.of(filepath), CREATE, TRUNCATE_EXISTING, WRITE)) {
+      new Writer(table, channel).write();
+    } catch (Exception e) {
+      System.err.println("Error writing file: " + filepath);
+      throw new RuntimeException(e);
+    }
+  }
+
+  /**
+   * Loads a snapshot of an organization by memory-mapping it, after validating its checksum.
+   *
+   * @param filepath the path of the snapshot file
+   * @return the organization, backed by the mapped file
+   */
+  public static EmployeeTable read(String filepath) {
+    return read(filepath, true);
+  }
+
+  /**
+   * Loads a snapshot of an organization by memory-mapping it.
+   *
+   * @param filepath       the path of the snapshot file
+   * @param verifyChecksum whether to validate the checksum, which reads the whole file; without it, a corrupt
+   *                       payload goes unnoticed, though the header and the sizes are still checked
+   * @return the organization, backed by the mapped file
+   */
+  public static EmployeeTable read(String filepath, boolean verifyChecksum) {
+    try (FileChannel channel = FileChannel.open(Path.of(filepath), READ)) {
+      long length = channel.size();
+      if (length < HEADER_SIZE || length > Integer.MAX_VALUE) {
+        throw new IllegalArgumentException("Not an employee snapshot: unexpected length " + length);
+      }
+      ByteBuffer file = channel.map(FileChannel.MapMode.READ_ONLY, 0, length).order(ByteOrder.LITTLE_ENDIAN);
+      return new MappedTable(file, verifyChecksum);
+    } catch (Exception e) {
+      System.err.println("Error reading file: " + filepath);
+      throw new RuntimeException(e);
+    }
+  }
+
+  /**
+   * The sizes of the sections of a snapshot, and their positions derived from them.
+   */
+  private record Layout(int size, int levelCount, int subordinateCount, int namePoolSize) {
+
+    long salaryCents() {
+      return HEADER_SIZE;
+    }
+
+    long ids() {
+      return salaryCents() + (long) size * Long.BYTES;
+    }
+
+    long managerIndex() {
+      return ids() + (long) size * Integer.BYTES;
+    }
+
+    long levels() {
+      return managerIndex() + (long) size * Integer.BYTES;
+    }
+
+    long firstNames() {
+      return levels() + (long) size * Integer.BYTES;
+    }
+
+    long lastNames() {
+      return firstNames() + (long) size * Integer.BYTES;
+    }
+
+    long subordinateOffsets() {
+      return lastNames() + (long) size * Integer.BYTES;
+    }
+
+    long subordinates() {
+      return subordinateOffsets() + (long) (size + 1) * Integer.BYTES;
+    }
+
+    long levelOffsets() {
+      return subordinates() + (long) subordinateCount * Integer.BYTES;
+    }
+
+    long byLevel() {
+      return levelOffsets() + (long) (levelCount + 2) * Integer.BYTES;
+    }
+
+    long namePool() {
+      return byLevel() + (long) size * Integer.BYTES;
+    }
+
+    long length() {
+      return namePool() + namePoolSize;
+    }
+  }
+
+  /**
+   * Streams the columns of a table to a file through a reusable buffer, and writes the header last, once the
+   * checksum is known.
+   */
+  private static final class Writer {
+
+    private final EmployeeTable table;
+    private final FileChannel channel;
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+    private final CRC32C checksum = new CRC32C();
+    private final Map<String, Integer> nameOffsets = new HashMap<>();
+    private final ByteBuffer namePool = ByteBuffer.allocate(BUFFER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+    private ByteBuffer names = namePool;
+    private long position = HEADER_SIZE;
+
+    Writer(EmployeeTable table, FileChannel channel) {
+      this.table = table;
+      this.channel = channel;
+    }
+
+    void write() throws IOException {
+      int size = table.size();
+      int[] firstNames = new int[size];
+      int[] lastNames = new int[size];
+      for (int i = 0; i < size; i++) {
+        firstNames[i] = intern(table.firstName(i));
+        lastNames[i] = intern(table.lastName(i));
+      }
+      int subordinateCount = 0;
+      for (int i = 0; i < size; i++) {
+        subordinateCount += table.subordinateCount(i);
+      }
+      Layout layout = new Layout(size, table.levelCount(), subordinateCount, names.position());
+      if (layout.length() > Integer.MAX_VALUE) {
+        throw new IllegalArgumentException("The organization is too large for a snapshot");
+      }
+
+      for (int i = 0; i < size; i++) {
+        putLong(table.salaryCents(i));
+      }
+      for (int i = 0; i < size; i++) {
+        putInt(table.id(i));
+      }
+      for (int i = 0; i < size; i++) {
+        putInt(table.managerIndex(i));
+      }
+      for (int i = 0; i < size; i++) {
+        putInt(table.level(i));
+      }
+      for (int i = 0; i < size; i++) {
+        putInt(firstNames[i]);
+      }
+      for (int i = 0; i < size; i++) {
+        putInt(lastNames[i]);
+      }
+      int offset = 0;
+      for (int i = 0; i < size; i++) {
+        putInt(offset);
+        offset += table.subordinateCount(i);
+      }
+      putInt(offset);
+      for (int i = 0; i < size; i++) {
+        for (int k = 0; k < table.subordinateCount(i); k++) {
+          putInt(table.subordinate(i, k));
+        }
+      }
+      offset = 0;
+      putInt(0); // levels start at 1
+      for (int level = 1; level <= table.levelCount(); level++) {
+        putInt(offset);
+        offset += table.levelSize(level);
+      }
+      putInt(offset);
+      for (int level = 1; level <= table.levelCount(); level++) {
+        for (int k = 0; k < table.levelSize(level); k++) {
+          putInt(table.employeeAtLevel(level, k));
+        }
+      }
+      names.flip();
+      while (names.hasRemaining()) {
+        if (!buffer.hasRemaining()) {
+          drain();
+        }
+        int chunk = Math.min(buffer.remaining(), names.remaining());
+        buffer.put(buffer.position(), names, names.position(), chunk);
+        buffer.position(buffer.position() + chunk);
+        names.position(names.position() + chunk);
+      }
+      drain();
+
+      ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+      header.putInt(MAGIC)
+          .putInt(VERSION)
+          .putInt(layout.size())
+          .putInt(layout.levelCount())
+          .putInt(layout.subordinateCount())
+          .putInt(layout.namePoolSize())
+          .putLong(checksum.getValue())
+          .position(0);
+      while (header.hasRemaining()) {
+        channel.write(header, header.position());
+      }
+    }
+
+    private int intern(String name) {
+      Integer offset = nameOffsets.get(name);
+      if (offset != null) {
+        return offset;
+      }
+      byte[] bytes = name.getBytes(StandardCharsets.UTF_8);
+      if (names.remaining() < Integer.BYTES + bytes.length) {
+        ByteBuffer grown = ByteBuffer.allocate(Math.max(names.capacity() * 2, names.position() + bytes.length + 4))
+            .order(ByteOrder.LITTLE_ENDIAN);
+        names.flip();
+        grown.put(names);
+        names = grown;
+      }
+      int start = names.position();
+      names.putInt(bytes.length).put(bytes);
+      nameOffsets.put(name, start);
+      return start;
+    }
+
+    private void putInt(int value) throws IOException {
+      if (buffer.remaining() < Integer.BYTES) {
+        drain();
+      }
+      buffer.putInt(value);
+    }
+
+    private void putLong(long value) throws IOException {
+      if (buffer.remaining() < Long.BYTES) {
+        drain();
+      }
+      buffer.putLong(value);
+    }
+
+    private void drain() throws IOException {
+      buffer.flip();
+      checksum.update(buffer.duplicate());
+      while (buffer.hasRemaining()) {
+        position += channel.write(buffer, position);
+      }
+      buffer.clear();
+    }
+  }
+
+  /**
+   * An employee table served from the columns of a mapped snapshot.
+   */
+  private static final class MappedTable implements EmployeeTable {
+
+    private final int size;
+    private final LongBuffer salaryCents;
+    private final IntBuffer ids;
+    private final IntBuffer managerIndex;
+    private final IntBuffer levels;
+    private final IntBuffer firstNames;
+    private final IntBuffer lastNames;
+    private final IntBuffer subordinateOffsets;
+    private final IntBuffer subordinates;
+    private final IntBuffer levelOffsets;
+    private final IntBuffer byLevel;
+    private final ByteBuffer namePool;
+
+    MappedTable(ByteBuffer file, boolean verifyChecksum) {
+      if (file.getInt(0) != MAGIC) {
+        throw new IllegalArgumentException("Not an employee snapshot");
+      }
+      int version = file.getInt(4);
+      if (version != VERSION) {
+        throw new IllegalArgumentException("Unsupported snapshot version " + version + ", expected " + VERSION);
+      }
+      Layout layout = new Layout(file.getInt(8), file.getInt(12), file.getInt(16), file.getInt(20));
+      if (layout.size() < 0 || layout.levelCount() < 0 || layout.subordinateCount() < 0
+          || layout.namePoolSize() < 0 || layout.length() != file.capacity()) {
+        throw new IllegalArgumentException("Corrupt snapshot: the sizes do not match the length of the file");
+      }
+      if (verifyChecksum) {
+        CRC32C checksum = new CRC32C();
+        checksum.update(file.slice(HEADER_SIZE, file.capacity() - HEADER_SIZE));
+        if (checksum.getValue() != file.getLong(24)) {
+          throw new IllegalArgumentException("Corrupt snapshot: checksum mismatch");
+        }
+      }
+
+      this.size = layout.size();
+      this.salaryCents = slice(file, layout.salaryCents(), size * Long.BYTES).asLongBuffer();
+      this.ids = ints(file, layout.ids(), size);
+      this.managerIndex = ints(file, layout.managerIndex(), size);
+      this.levels = ints(file, layout.levels(), size);
+      this.firstNames = ints(file, layout.firstNames(), size);
+      this.lastNames = ints(file, layout.lastNames(), size);
+      this.subordinateOffsets = ints(file, layout.subordinateOffsets(), size + 1);
+      this.subordinates = ints(file, layout.subordinates(), layout.subordinateCount());
+      this.levelOffsets = ints(file, layout.levelOffsets(), layout.levelCount() + 2);
+      this.byLevel = ints(file, layout.byLevel(), size);
+      this.namePool = slice(file, layout.namePool(), layout.namePoolSize());
+    }
+
+    @Override
+    public int size() {
+      return size;
+    }
+
+    @Override
+    public int indexOf(int id) {
+      int low = 0;
+      int high = size - 1;
+      while (low <= high) {
+        int mid = (low + high) >>> 1;
+        int midId = ids.get(mid);
+        if (midId < id) {
+          low = mid + 1;
+        } else if (midId > id) {
+          high = mid - 1;
+        } else {
+          return mid;
+        }
+      }
+      return -1;
+    }
+
+    @Override
+    public int id(int index) {
+      return ids.get(index);
+    }
+
+    @Override
+    public int managerIndex(int index) {
+      return managerIndex.get(index);
+    }
+
+    @Override
+    public int level(int index) {
+      return levels.get(index);
+    }
+
+    @Override
+    public long salaryCents(int index) {
+      return salaryCents.get(index);
+    }
+
+    @Override
+    public String firstName(int index) {
+      return name(firstNames.get(index));
+    }
+
+    @Override
+    public String lastName(int index) {
+      return name(lastNames.get(index));
+    }
+
+    @Override
+    public int subordinateCount(int index) {
+      return subordinateOffsets.get(index + 1) - subordinateOffsets.get(index);
+    }
+
+    @Override
+    public int subordinate(int index, int k) {
+      return subordinates.get(subordinateOffsets.get(index) + k);
+    }
+
+    @Override
+    public int levelCount() {
+      return levelOffsets.capacity() - 2;
+    }
+
+    @Override
+    public int levelSize(int level) {
+      return levelOffsets.get(level + 1) - levelOffsets.get(level);
+    }
+
+    @Override
+    public int employeeAtLevel(int level, int k) {
+      return byLevel.get(levelOffsets.get(level) + k);
+    }
+
+    private String name(int offset) {
+      int length = namePool.getInt(offset);
+      byte[] bytes = new byte[length];
+      namePool.get(offset + Integer.BYTES, bytes);
+      return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static IntBuffer ints(ByteBuffer file, long position, int count) {
+      return slice(file, position, count * Integer.BYTES).asIntBuffer();
+    }
+
+    private static ByteBuffer slice(ByteBuffer file, long position, int length) {
+      return file.slice((int) position, length).order(ByteOrder.LITTLE_ENDIAN);
+    }
+  }
+}
@@ -0,0 +1,179 @@
+package com.github.driversti.salaryreport.infrastructure;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * A memory-mapped employee CSV file.
+ *
+ * <p>The file is split into chunks aligned to line endings, so every chunk can be mapped and parsed on its own.
+ * Rows are parsed straight from the mapped bytes into a reusable {@link CsvRow}, without creating intermediate
+ * strings for lines or numeric fields.
+ */
+public final class MappedCsvFile implements AutoCloseable {
+
+  private static final byte[] HEADER = "Id,firstName,lastName,salary,managerId".getBytes(StandardCharsets.US_ASCII);
+  private static final long MAX_CHUNK_SIZE = 1L << 30; // a single mapping cannot exceed 2 GB
+  private static final int SCAN_BUFFER_SIZE = 4096;
+  private static final byte NEW_LINE = '\n';
+  private static final byte CARRIAGE_RETURN = '\r';
+
+  private final FileChannel channel;
+  private final long size;
+
+  private MappedCsvFile(FileChannel channel) throws IOException {
+    this.channel = channel;
+    this.size = channel.size();
+  }
+
+  /**
+   * Opens a CSV file for reading.
+   *
+   * @param filepath the path to the CSV file
+   * @return the opened file
+   * @throws IOException if the file cannot be opened
+   */
+  public static MappedCsvFile open(String filepath) throws IOException {
+    return new MappedCsvFile(FileChannel.open(Path.of(filepath), StandardOpenOption.READ));
+  }
+
+  /**
+   * Returns the size of the file in bytes.
+   *
+   * @return the size of the file
+   */
+  public long size() {
+    return size;
+  }
+
+  /**
+   * Splits the file into chunks of roughly the given size. Every chunk, except possibly the last one, ends right
+   * after a line ending, so no row spans two chunks.
+   *
+   * @param targetChunkSize the desired chunk size in bytes (capped at 1 GB)
+   * @return the chunks in file order
+   * @throws IOException if the file cannot be read
+   */
+  public List<Chunk> split(long targetChunkSize) throws IOException {
+    if (targetChunkSize < 1) {
+      throw new IllegalArgumentException("The chunk size must be at least 1");
+    }
+    long chunkSize = Math.min(targetChunkSize, MAX_CHUNK_SIZE);
+    List<Chunk> chunks = new ArrayList<>();
+    long start = 0;
+    while (start < size) {
+      long end = start + chunkSize >= size ? size : nextLineStart(start + chunkSize);
+      if (end - start > Integer.MAX_VALUE) {
+        throw new IllegalStateException("Line starting before offset " + (start + chunkSize) + " is too long");
+      }
+      chunks.add(new Chunk(start, end));
+      start = end;
+    }
+    return chunks;
+  }
+
+  /**
+   * Parses every row of the file in file order.
+   *
+   * @param action the action applied to each row; the row instance is reused between calls
+   * @throws IOException if the file cannot be mapped
+   */
+  public void forEachRow(Consumer<CsvRow> action) throws IOException {
+    for (Chunk chunk : split(MAX_CHUNK_SIZE)) {
+      forEachRow(chunk, action);
+    }
+  }
+
+  /**
+   * Parses every row of the given chunk in file order. The header is skipped if the chunk starts the file.
+   * <p>Chunks of the same file may be parsed concurrently.
+   *
+   * @param chunk  the chunk to parse
+   * @param action the action applied to each row; the row instance is reused between calls
+   * @throws IOException if the chunk cannot be mapped
+   */
+  public void forEachRow(Chunk chunk, Consumer<CsvRow> action) throws IOException {
+    MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, chunk.start(), chunk.length());
+    CsvRow row = new CsvRow();
+    int limit = buffer.limit();
+    int pos = chunk.start() == 0 ? skipHeader(buffer) : 0;
+    while (pos < limit) {
+      int lineEnd = indexOfNewLine(buffer, pos, limit);
+      int end = lineEnd > pos && buffer.get(lineEnd - 1) == CARRIAGE_RETURN ? lineEnd - 1 : lineEnd;
+      if (end > pos) { // blank lines are ignored
+        row.parse(buffer, pos, end, chunk.start() + pos);
+        action.accept(row);
+      }
+      pos = lineEnd + 1;
+    }
+  }
+
+  @Override
+  public void close() throws IOException {
+    channel.close();
+  }
+
+  private static int skipHeader(ByteBuffer buffer) {
+    int limit = buffer.limit();
+    int lineEnd = indexOfNewLine(buffer, 0, limit);
+    int end = lineEnd > 0 && buffer.get(lineEnd - 1) == CARRIAGE_RETURN ? lineEnd - 1 : lineEnd;
+    if (end != HEADER.length) {
+      return 0;
+    }
+    for (int i = 0; i < HEADER.length; i++) {
+      if (buffer.get(i) != HEADER[i]) {
+        return 0;
+      }
+    }
+    return lineEnd + 1;
+  }
+
+  private static int indexOfNewLine(ByteBuffer buffer, int from, int limit) {
+    for (int i = from; i < limit; i++) {
+      if (buffer.get(i) == NEW_LINE) {
+        return i;
+      }
+    }
+    return limit;
+  }
+
+  private long nextLineStart(long from) throws IOException {
+    ByteBuffer scan = ByteBuffer.allocate(SCAN_BUFFER_SIZE);
+    long position = from;
+    while (position < size) {
+      scan.clear();
+      int read = channel.read(scan, position);
+      if (read <= 0) {
+        break;
+      }
+      for (int i = 0; i < read; i++) {
+        if (scan.get(i) == NEW_LINE) {
+          return position + i + 1;
+        }
+      }
+      position += read;
+    }
+    return size;
+  }
+
+  /**
+   * A byte range of the file.
+   *
+   * @param start the offset of the first byte (included)
+   * @param end   the offset of the last byte (excluded)
+   */
+  public record Chunk(long start, long end) {
+
+    public long length() {
+      return end - start;
+    }
+  }
+}
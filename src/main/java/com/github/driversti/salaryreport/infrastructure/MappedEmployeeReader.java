@@ -0,0 +1,54 @@
+package com.github.driversti.salaryreport.infrastructure;
+
+import com.github.driversti.salaryreport.organization.Employee;
+import com.github.driversti.salaryreport.organization.OffHeapEmployeeTable;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Reads employees from a CSV file by memory-mapping it and parsing the rows directly from the mapped bytes.
+ *
+ * <p>Produces the same employees as {@link EmployeeReader}, but avoids reading the file through a character stream
+ * and splitting every line into strings, which makes it considerably faster on large files.
+ */
+public class MappedEmployeeReader {
+
+  /**
+   * Reads employees from a CSV file.
+   *
+   * @param filepath the path to the CSV file (assumed to be present, readable, and well-formed)
+   * @return a collection of employees
+   */
+  public Collection<Employee> read(String filepath) {
+    List<Employee> records = new ArrayList<>();
+    try (MappedCsvFile file = MappedCsvFile.open(filepath)) {
+      file.forEachRow(row -> records.add(row.toEmployee()));
+    } catch (Exception e) {
+      System.err.println("Error reading file: " + filepath);
+      throw new RuntimeException(e);
+    }
+
+    return records;
+  }
+
+  /**
+   * Reads employees from a CSV file straight into an off-heap table, without creating employee records.
+   *
+   * @param filepath the path to the CSV file (assumed to be present, readable, and well-formed)
+   * @return an off-heap table of employees
+   */
+  public OffHeapEmployeeTable readOffHeap(String filepath) {
+    OffHeapEmployeeTable.Builder builder = OffHeapEmployeeTable.builder();
+    try (MappedCsvFile file = MappedCsvFile.open(filepath)) {
+      file.forEachRow(row -> builder.add(row.id(), row.firstName(), row.lastName(),
+          Math.multiplyExact(row.salary(), 100), row.managerId()));
+    } catch (Exception e) {
+      System.err.println("Error reading file: " + filepath);
+      throw new RuntimeException(e);
+    }
+
+    return builder.build();
+  }
+}
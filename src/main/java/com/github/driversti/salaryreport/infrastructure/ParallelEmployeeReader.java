@@ -0,0 +1,84 @@
+package com.github.driversti.salaryreport.infrastructure;
+
+import com.github.driversti.salaryreport.organization.Employee;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+/**
+ * Reads employees from a CSV file by parsing newline-aligned chunks of the memory-mapped file in parallel.
+ *
+ * <p>Every chunk is parsed on a fork-join worker into its own list, and the lists are concatenated in file order
+ * once all workers are done. The result is therefore identical to the one of {@link EmployeeReader}.
+ */
+public class ParallelEmployeeReader {
+
+  private static final long MIN_CHUNK_SIZE = 1L << 20; // smaller chunks are not worth the scheduling overhead
+  private static final int CHUNKS_PER_WORKER = 4; // a few chunks per worker keep them busy despite uneven rows
+
+  private final ForkJoinPool pool;
+  private final long minChunkSize;
+
+  /**
+   * Creates a reader that parses chunks on the common fork-join pool.
+   */
+  public ParallelEmployeeReader() {
+    this(ForkJoinPool.commonPool());
+  }
+
+  /**
+   * Creates a reader that parses chunks on the given pool.
+   *
+   * @param pool the pool to parse chunks on
+   */
+  public ParallelEmployeeReader(ForkJoinPool pool) {
+    this(pool, MIN_CHUNK_SIZE);
+  }
+
+  ParallelEmployeeReader(ForkJoinPool pool, long minChunkSize) {
+    this.pool = pool;
+    this.minChunkSize = minChunkSize;
+  }
+
+  /**
+   * Reads employees from a CSV file.
+   *
+   * @param filepath the path to the CSV file (assumed to be present, readable, and well-formed)
+   * @return a collection of employees in file order
+   */
+  public Collection<Employee> read(String filepath) {
+    try (MappedCsvFile file = MappedCsvFile.open(filepath)) {
+      long chunkSize = Math.max(minChunkSize, file.size() / ((long) pool.getParallelism() * CHUNKS_PER_WORKER));
+      List<ForkJoinTask<List<Employee>>> tasks = new ArrayList<>();
+      for (MappedCsvFile.Chunk chunk : file.split(chunkSize)) {
+        tasks.add(pool.submit(() -> readChunk(file, chunk)));
+      }
+      return merge(tasks);
+    } catch (Exception e) {
+      System.err.println("Error reading file: " + filepath);
+      throw new RuntimeException(e);
+    }
+  }
+
+  private static List<Employee> readChunk(MappedCsvFile file, MappedCsvFile.Chunk chunk) throws Exception {
+    List<Employee> records = new ArrayList<>();
+    file.forEachRow(chunk, row -> records.add(row.toEmployee()));
+    return records;
+  }
+
+  private static List<Employee> merge(List<ForkJoinTask<List<Employee>>> tasks) {
+    List<List<Employee>> parts = new ArrayList<>(tasks.size());
+    int size = 0;
+    for (ForkJoinTask<List<Employee>> task : tasks) {
+      List<Employee> part = task.join();
+      parts.add(part);
+      size += part.size();
+    }
+    List<Employee> records = new ArrayList<>(size);
+    parts.forEach(records::addAll);
+    return records;
+  }
+}
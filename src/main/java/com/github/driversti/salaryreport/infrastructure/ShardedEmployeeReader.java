@@ -0,0 +1,190 @@
+package com.github.driversti.salaryreport.infrastructure;
+
+import com.github.driversti.salaryreport.organization.Employee;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+/**
+ * Reads the employees of one organization from several CSV files, or shards, such as per-region exports in which
+ * a manager may sit in a different shard from their reports.
+ *
+ * <p>Every shard is parsed on its own fork-join worker, which also sorts the ids of the shard, so the read takes
+ * about as long as the slowest shard. A merge phase then resolves manager links across shards: the sorted ids are
+ * merged pairwise, in O(n log shards), to find ids present in several shards, and every shard looks up the
+ * managers of its employees among all ids, again in parallel. Errors name the shards involved.
+ * <p>The employees are returned in shard order, then file order, ready for
+ * {@link com.github.driversti.salaryreport.organization.OrganizationalStructure#parallel(Collection)}.
+ */
+public class ShardedEmployeeReader {
+
+  private static final int CEO_MANAGER_ID = -1;
+  private static final int MAX_REPORTED_ERRORS = 10;
+
+  private final ForkJoinPool pool;
+
+  /**
+   * Creates a reader that parses shards on the common fork-join pool.
+   */
+  public ShardedEmployeeReader() {
+    this(ForkJoinPool.commonPool());
+  }
+
+  /**
+   * Creates a reader that parses shards on the given pool.
+   *
+   * @param pool the pool to parse shards on
+   */
+  public ShardedEmployeeReader(ForkJoinPool pool) {
+    this.pool = pool;
+  }
+
+  /**
+   * Reads employees from CSV shards.
+   *
+   * @param filepaths the paths to the CSV shards (assumed to be present, readable, and well-formed)
+   * @return a collection of the employees of all shards, in shard order
+   * @throws IllegalArgumentException if there are no shards, if an id appears in several shards, if a manager is
+   *                                  in no shard, or if there is not exactly one CEO across shards
+   */
+  public Collection<Employee> read(List<String> filepaths) {
+    if (filepaths.isEmpty()) {
+      throw new IllegalArgumentException("At least one shard is required");
+    }
+    List<ForkJoinTask<Shard>> tasks = new ArrayList<>(filepaths.size());
+    for (int i = 0; i < filepaths.size(); i++) {
+      String filepath = filepaths.get(i);
+      int index = i;
+      tasks.add(pool.submit(() -> readShard(filepath, index)));
+    }
+    List<Shard> shards = new ArrayList<>(tasks.size());
+    for (ForkJoinTask<Shard> task : tasks) {
+      shards.add(task.join());
+    }
+    return merge(shards);
+  }
+
+  private static Shard readShard(String filepath, int index) {
+    try (MappedCsvFile file = MappedCsvFile.open(filepath)) {
+      List<Employee> employees = new ArrayList<>();
+      file.forEachRow(row -> employees.add(row.toEmployee()));
+      long[] sortedKeys = new long[employees.size()];
+      int ceos = 0;
+      for (int i = 0; i < sortedKeys.length; i++) {
+        Employee employee = employees.get(i);
+        sortedKeys[i] = key(employee.id(), index);
+        if (employee.managerId() == CEO_MANAGER_ID) {
+          ceos++;
+        }
+      }
+      Arrays.sort(sortedKeys);
+      return new Shard(filepath, employees, sortedKeys, ceos);
+    } catch (Exception e) {
+      System.err.println("Error reading file: " + filepath);
+      throw new RuntimeException(e);
+    }
+  }
+
+  private List<Employee> merge(List<Shard> shards) {
+    long[] keys = mergeKeys(shards);
+    int[] ids = new int[keys.length];
+    List<String> errors = new ArrayList<>();
+    for (int i = 0; i < keys.length; i++) {
+      ids[i] = idOf(keys[i]);
+      if (i > 0 && ids[i] == ids[i - 1] && errors.size() < MAX_REPORTED_ERRORS) {
+        errors.add("Employee " + ids[i] + " appears in " + shards.get(shardOf(keys[i - 1])).filepath() + " and "
+            + shards.get(shardOf(keys[i])).filepath());
+      }
+    }
+
+    // resolve the managers of every shard among the ids of all shards
+    List<ForkJoinTask<List<String>>> resolutions = new ArrayList<>(shards.size());
+    for (Shard shard : shards) {
+      resolutions.add(pool.submit(() -> unresolvedManagers(shard, ids)));
+    }
+    for (ForkJoinTask<List<String>> resolution : resolutions) {
+      errors.addAll(resolution.join());
+    }
+    int ceos = shards.stream().mapToInt(Shard::ceos).sum();
+    if (ceos != 1) {
+      errors.add("Expected exactly one CEO across shards, found " + ceos);
+    }
+    if (!errors.isEmpty()) {
+      List<String> reported = errors.subList(0, Math.min(errors.size(), MAX_REPORTED_ERRORS));
+      throw new IllegalArgumentException(String.join("\n", reported));
+    }
+
+    List<Employee> employees = new ArrayList<>(ids.length);
+    shards.forEach(shard -> employees.addAll(shard.employees()));
+    return employees;
+  }
+
+  /**
+   * Merges the sorted keys of all shards pairwise, in about log2(shards) rounds whose merges run in parallel.
+   */
+  private long[] mergeKeys(List<Shard> shards) {
+    List<long[]> runs = shards.stream().map(Shard::sortedKeys).toList();
+    while (runs.size() > 1) {
+      List<ForkJoinTask<long[]>> merges = new ArrayList<>(runs.size() / 2);
+      for (int i = 0; i + 1 < runs.size(); i += 2) {
+        long[] left = runs.get(i);
+        long[] right = runs.get(i + 1);
+        merges.add(pool.submit(() -> mergeSorted(left, right)));
+      }
+      List<long[]> merged = new ArrayList<>(runs.size() / 2 + 1);
+      merges.forEach(task -> merged.add(task.join()));
+      if (runs.size() % 2 == 1) {
+        merged.add(runs.getLast());
+      }
+      runs = merged;
+    }
+    return runs.getFirst();
+  }
+
+  private static long[] mergeSorted(long[] left, long[] right) {
+    long[] merged = new long[left.length + right.length];
+    int l = 0;
+    int r = 0;
+    for (int i = 0; i < merged.length; i++) {
+      merged[i] = r == right.length || (l < left.length && left[l] <= right[r]) ? left[l++] : right[r++];
+    }
+    return merged;
+  }
+
+  /**
+   * Packs an id and the index of its shard into a key that sorts by id first.
+   */
+  private static long key(int id, int shard) {
+    return (long) id << 32 | shard;
+  }
+
+  private static int idOf(long key) {
+    return (int) (key >> 32);
+  }
+
+  private static int shardOf(long key) {
+    return (int) key;
+  }
+
+  private static List<String> unresolvedManagers(Shard shard, int[] ids) {
+    List<String> unresolved = new ArrayList<>();
+    for (Employee employee : shard.employees()) {
+      int managerId = employee.managerId();
+      if (managerId != CEO_MANAGER_ID && Arrays.binarySearch(ids, managerId) < 0) {
+        unresolved.add("Manager " + managerId + " of employee " + employee.id() + " in " + shard.filepath()
+            + " is in no shard");
+        if (unresolved.size() == MAX_REPORTED_ERRORS) {
+          break;
+        }
+      }
+    }
+    return unresolved;
+  }
+
+  private record Shard(String filepath, List<Employee> employees, long[] sortedKeys, int ceos) {
+  }
+}
@@ -0,0 +1,149 @@
+package com.github.driversti.salaryreport.metrics;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Measures the stages of producing a salary report: wall time, rows and bytes processed, bytes allocated, and peak
+ * heap usage.
+ *
+ * <p>Every run of a stage is emitted as a JFR event ({@value StageEvent#NAME}) when a recording enables it, and
+ * is aggregated for JMX when measuring is enabled, by {@code -Dsalaryreport.metrics=true} or over JMX. Otherwise
+ * {@link #start(Stage)} returns a shared timer that does nothing, so the cost of instrumented stages is a single
+ * check per stage.
+ * <p>Allocations are counted for the thread running the stage only, so work handed to other threads is not
+ * included. The peak heap usage is the sum of the peak usages of the heap memory pools, which are reset when a
+ * stage starts: an upper bound of the heap used by the stage and everything else running at the same time.
+ */
+public final class PipelineMetrics implements PipelineMetricsMXBean {
+
+  /**
+   * The JMX object name of the {@link #global()} metrics.
+   */
+  public static final String OBJECT_NAME = "com.github.driversti.salaryreport:type=PipelineMetrics";
+
+  private static final List<MemoryPoolMXBean> HEAP_POOLS = ManagementFactory.getMemoryPoolMXBeans().stream()
+      .filter(pool -> pool.getType() == MemoryType.HEAP)
+      .toList();
+  private static final com.sun.management.ThreadMXBean THREADS = threadAllocationBean();
+
+  private final Map<Stage, StageStatistics> statistics = new EnumMap<>(Stage.class);
+  private volatile boolean enabled;
+
+  /**
+   * Creates metrics, not registered with JMX.
+   *
+   * @param enabled whether stages are measured without a JFR recording
+   */
+  public PipelineMetrics(boolean enabled) {
+    this.enabled = enabled;
+  }
+
+  /**
+   * Returns the metrics of the application, registered with the platform MBean server, and enabled if the system
+   * property {@code salaryreport.metrics} is "true".
+   *
+   * @return the metrics
+   */
+  public static PipelineMetrics global() {
+    return Global.METRICS;
+  }
+
+  /**
+   * Starts measuring a run of a stage. The returned timer must be closed when the stage ends, on the same thread.
+   *
+   * @param stage the stage
+   * @return the timer, which does nothing if neither measuring nor the JFR event is enabled
+   */
+  public StageTimer start(Stage stage) {
+    StageEvent event = new StageEvent();
+    if (!enabled && !event.isEnabled()) {
+      return StageTimer.DISABLED;
+    }
+    HEAP_POOLS.forEach(MemoryPoolMXBean::resetPeakUsage);
+    event.begin();
+    return new StageTimer(this, stage, event, System.nanoTime(), allocatedBytes());
+  }
+
+  @Override
+  public boolean isEnabled() {
+    return enabled;
+  }
+
+  @Override
+  public void setEnabled(boolean enabled) {
+    this.enabled = enabled;
+  }
+
+  @Override
+  public synchronized List<StageStatistics> getStages() {
+    return List.copyOf(statistics.values());
+  }
+
+  @Override
+  public synchronized void reset() {
+    statistics.clear();
+  }
+
+  void stop(StageTimer timer, long rows, long bytesRead) {
+    long wallTimeNanos = System.nanoTime() - timer.startNanos;
+    long allocated = allocatedBytes() - timer.startAllocatedBytes;
+    long peakHeap = HEAP_POOLS.stream().mapToLong(pool -> pool.getPeakUsage().getUsed()).sum();
+
+    StageEvent event = timer.event;
+    event.end();
+    if (event.shouldCommit()) {
+      event.stage = timer.stage.label();
+      event.rows = rows;
+      event.bytesRead = bytesRead;
+      event.allocatedBytes = allocated;
+      event.peakHeapBytes = peakHeap;
+      event.commit();
+    }
+    if (enabled) {
+      record(timer.stage, wallTimeNanos, rows, bytesRead, allocated, peakHeap);
+    }
+  }
+
+  private synchronized void record(Stage stage, long wallTimeNanos, long rows, long bytesRead, long allocated,
+                                   long peakHeap) {
+    StageStatistics previous = statistics.get(stage);
+    long runs = previous == null ? 1 : previous.getRuns() + 1;
+    long totalWallTimeNanos = previous == null ? wallTimeNanos : previous.getTotalWallTimeNanos() + wallTimeNanos;
+    statistics.put(stage, new StageStatistics(stage.label(), runs, totalWallTimeNanos, wallTimeNanos, rows,
+        bytesRead, allocated, peakHeap));
+  }
+
+  private static long allocatedBytes() {
+    return THREADS == null ? 0 : THREADS.getCurrentThreadAllocatedBytes();
+  }
+
+  private static com.sun.management.ThreadMXBean threadAllocationBean() {
+    if (ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean threads
+        && threads.isThreadAllocatedMemorySupported() && threads.isThreadAllocatedMemoryEnabled()) {
+      return threads;
+    }
+    return null;
+  }
+
+  private static final class Global {
+
+    private static final PipelineMetrics METRICS =
+        register(new PipelineMetrics(Boolean.getBoolean("salaryreport.metrics")));
+
+    private static PipelineMetrics register(PipelineMetrics metrics) {
+      try {
+        ManagementFactory.getPlatformMBeanServer().registerMBean(metrics, new ObjectName(OBJECT_NAME));
+      } catch (JMException e) {
+        System.err.println("Error registering pipeline metrics: " + e.getMessage());
+      }
+      return metrics;
+    }
+  }
+}
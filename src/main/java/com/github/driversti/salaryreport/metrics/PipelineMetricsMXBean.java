@@ -0,0 +1,35 @@
+package com.github.driversti.salaryreport.metrics;
+
+import java.util.List;
+
+/**
+ * The JMX view of {@link PipelineMetrics}, registered as {@value PipelineMetrics#OBJECT_NAME}.
+ */
+public interface PipelineMetricsMXBean {
+
+  /**
+   * Returns whether stages are measured, even without a JFR recording.
+   *
+   * @return true if enabled
+   */
+  boolean isEnabled();
+
+  /**
+   * Enables or disables measuring stages. A JFR recording of stage events measures stages either way.
+   *
+   * @param enabled true to enable
+   */
+  void setEnabled(boolean enabled);
+
+  /**
+   * Returns the measurements of every stage that has run, in the order of the stages.
+   *
+   * @return the statistics
+   */
+  List<StageStatistics> getStages();
+
+  /**
+   * Forgets all measurements.
+   */
+  void reset();
+}
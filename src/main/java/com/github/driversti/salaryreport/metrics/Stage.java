@@ -0,0 +1,43 @@
+package com.github.driversti.salaryreport.metrics;
+
+/**
+ * The stages of producing a salary report, in the order they run.
+ */
+public enum Stage {
+
+  /**
+   * Reading employees from a CSV file or a snapshot.
+   */
+  READ("read"),
+  /**
+   * Sorting and grouping employees into an organizational structure.
+   */
+  BUILD_STRUCTURE("build structure"),
+  /**
+   * Calculating the average salary of every level.
+   */
+  AVERAGE_SALARIES("average salaries"),
+  /**
+   * Categorizing managers against their subordinates.
+   */
+  CREATE_REPORT("create report"),
+  /**
+   * Printing the salary report.
+   */
+  PRINT_REPORT("print report");
+
+  private final String label;
+
+  Stage(String label) {
+    this.label = label;
+  }
+
+  /**
+   * Returns the human-readable name of the stage.
+   *
+   * @return the label, e.g. "build structure"
+   */
+  public String label() {
+    return label;
+  }
+}
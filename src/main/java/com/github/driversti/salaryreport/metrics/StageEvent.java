@@ -0,0 +1,44 @@
+package com.github.driversti.salaryreport.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * The JFR event of one run of a stage, with the duration of the event as the wall time.
+ *
+ * <p>Enabled like any JFR event, e.g. {@code -XX:StartFlightRecording}, which also enables the measurements of
+ * {@link PipelineMetrics}.
+ */
+@Name(StageEvent.NAME)
+@Label("Salary Report Stage")
+@Category("Salary Report")
+@Description("One run of a stage of producing a salary report")
+@StackTrace(false)
+final class StageEvent extends jdk.jfr.Event {
+
+  static final String NAME = "com.github.driversti.salaryreport.Stage";
+
+  @Label("Stage")
+  String stage;
+
+  @Label("Rows")
+  long rows;
+
+  @Label("Bytes Read")
+  @DataAmount
+  long bytesRead;
+
+  @Label("Allocated")
+  @Description("Bytes allocated by the thread running the stage")
+  @DataAmount
+  long allocatedBytes;
+
+  @Label("Peak Heap")
+  @Description("The highest heap usage during the stage")
+  @DataAmount
+  long peakHeapBytes;
+}
@@ -0,0 +1,83 @@
+package com.github.driversti.salaryreport.metrics;
+
+import java.beans.ConstructorProperties;
+
+/**
+ * The measurements of a stage: the number of runs, their total wall time, and the measurements of the last run.
+ *
+ * <p>Exposed over JMX as composite data, hence the getters.
+ */
+public final class StageStatistics {
+
+  private final String stage;
+  private final long runs;
+  private final long totalWallTimeNanos;
+  private final long lastWallTimeNanos;
+  private final long lastRows;
+  private final long lastBytesRead;
+  private final long lastAllocatedBytes;
+  private final long lastPeakHeapBytes;
+
+  @ConstructorProperties({"stage", "runs", "totalWallTimeNanos", "lastWallTimeNanos", "lastRows", "lastBytesRead",
+      "lastAllocatedBytes", "lastPeakHeapBytes"})
+  public StageStatistics(String stage, long runs, long totalWallTimeNanos, long lastWallTimeNanos, long lastRows,
+                         long lastBytesRead, long lastAllocatedBytes, long lastPeakHeapBytes) {
+    this.stage = stage;
+    this.runs = runs;
+    this.totalWallTimeNanos = totalWallTimeNanos;
+    this.lastWallTimeNanos = lastWallTimeNanos;
+    this.lastRows = lastRows;
+    this.lastBytesRead = lastBytesRead;
+    this.lastAllocatedBytes = lastAllocatedBytes;
+    this.lastPeakHeapBytes = lastPeakHeapBytes;
+  }
+
+  public String getStage() {
+    return stage;
+  }
+
+  public long getRuns() {
+    return runs;
+  }
+
+  public long getTotalWallTimeNanos() {
+    return totalWallTimeNanos;
+  }
+
+  public long getLastWallTimeNanos() {
+    return lastWallTimeNanos;
+  }
+
+  public long getLastRows() {
+    return lastRows;
+  }
+
+  /**
+   * Returns the rows processed per second by the last run.
+   *
+   * @return the throughput, or 0 if no rows were counted
+   */
+  public long getLastRowsPerSecond() {
+    return lastWallTimeNanos == 0 ? 0 : (long) (lastRows * 1e9 / lastWallTimeNanos);
+  }
+
+  public long getLastBytesRead() {
+    return lastBytesRead;
+  }
+
+  public long getLastAllocatedBytes() {
+    return lastAllocatedBytes;
+  }
+
+  public long getLastPeakHeapBytes() {
+    return lastPeakHeapBytes;
+  }
+
+  @Override
+  public String toString() {
+    return String.format("%-17s %10.3f ms %,12d rows %,14d rows/s %,14d bytes read"
+            + " %,16d bytes allocated %,16d peak heap",
+        stage, lastWallTimeNanos / 1e6, lastRows, getLastRowsPerSecond(), lastBytesRead, lastAllocatedBytes,
+        lastPeakHeapBytes);
+  }
+}
@@ -0,0 +1,64 @@
+package com.github.driversti.salaryreport.metrics;
+
+/**
+ * Measures one run of a stage, from {@link PipelineMetrics#start(Stage)} until closed:
+ * <pre>{@code
+ * try (StageTimer timer = metrics.start(Stage.READ)) {
+ *   employees = reader.read(filepath);
+ *   timer.rows(employees.size()).bytesRead(fileSize);
+ * }
+ * }</pre>
+ * Not thread-safe: a timer belongs to the thread running the stage.
+ */
+public final class StageTimer implements AutoCloseable {
+
+  static final StageTimer DISABLED = new StageTimer(null, null, null, 0, 0);
+
+  private final PipelineMetrics metrics;
+  final Stage stage;
+  final StageEvent event;
+  final long startNanos;
+  final long startAllocatedBytes;
+  private long rows;
+  private long bytesRead;
+
+  StageTimer(PipelineMetrics metrics, Stage stage, StageEvent event, long startNanos, long startAllocatedBytes) {
+    this.metrics = metrics;
+    this.stage = stage;
+    this.event = event;
+    this.startNanos = startNanos;
+    this.startAllocatedBytes = startAllocatedBytes;
+  }
+
+  /**
+   * Sets the number of rows, usually employees, processed by the stage.
+   *
+   * @param rows the number of rows
+   * @return this timer
+   */
+  public StageTimer rows(long rows) {
+    this.rows = rows;
+    return this;
+  }
+
+  /**
+   * Sets the number of bytes read by the stage.
+   *
+   * @param bytesRead the number of bytes
+   * @return this timer
+   */
+  public StageTimer bytesRead(long bytesRead) {
+    this.bytesRead = bytesRead;
+    return this;
+  }
+
+  /**
+   * Ends the run of the stage and records it.
+   */
+  @Override
+  public void close() {
+    if (metrics != null) {
+      metrics.stop(this, rows, bytesRead);
+    }
+  }
+}
@@ -0,0 +1,136 @@
+package com.github.driversti.salaryreport.organization;
+
+import java.util.Collection;
+
+/**
+ * Answers questions about reporting lines: whether one employee reports to another, who the k-th manager above an
+ * employee is, who the lowest common manager of two employees is, and which managers lie between an employee and
+ * the CEO.
+ *
+ * <p>The index numbers employees in pre-order, so that every subtree is a contiguous interval of positions, and
+ * groups the positions by level. The manager of an employee on a given level is then the last employee of that
+ * level positioned before them, found with a binary search. This answers the k-th manager in O(log n) and the
+ * lowest common manager in O(log n · log depth), with only a few int arrays of the size of the organization,
+ * instead of the O(n log n) tables of binary lifting or sparse tables.
+ * <p>Ids are used throughout, and -1 stands for no employee, as for the manager id of the CEO. The index is
+ * read-only.
+ */
+public final class AncestryIndex {
+
+  private final PreOrder preOrder;
+
+  private AncestryIndex(EmployeeTable table) {
+    this.preOrder = PreOrder.of(table);
+  }
+
+  /**
+   * Builds the index over an employee table.
+   *
+   * @param table the employee table
+   * @return the ancestry index
+   */
+  public static AncestryIndex of(EmployeeTable table) {
+    return new AncestryIndex(table);
+  }
+
+  /**
+   * Builds the index over a collection of employees.
+   *
+   * @param employees the employees; salaries must be representable in whole cents
+   * @return the ancestry index
+   * @throws IllegalArgumentException if ids are duplicated, a manager is unknown, or reporting lines form a cycle
+   */
+  public static AncestryIndex of(Collection<Employee> employees) {
+    return new AncestryIndex(ColumnarOrganization.of(employees));
+  }
+
+  /**
+   * Returns whether an employee reports to a manager, directly or not. In O(1).
+   *
+   * @param id        the id of the employee
+   * @param managerId the id of the manager
+   * @return true if the manager is above the employee; false otherwise, and for the employee themselves
+   * @throws IllegalArgumentException if there is no such employee or manager
+   */
+  public boolean reportsTo(int id, int managerId) {
+    int i = preOrder.indexOf(id);
+    int manager = preOrder.indexOf(managerId);
+    return i != manager && preOrder.contains(manager, i);
+  }
+
+  /**
+   * Returns the k-th manager above an employee: the direct manager for 1, their manager for 2, and so on.
+   *
+   * @param id the id of the employee
+   * @param k  the number of levels to go up; 0 returns the employee themselves
+   * @return the id of the manager, or -1 if the reporting line is shorter than k
+   * @throws IllegalArgumentException if there is no such employee, or k is negative
+   */
+  public int kthManager(int id, int k) {
+    if (k < 0) {
+      throw new IllegalArgumentException("k must not be negative: " + k);
+    }
+    int i = preOrder.indexOf(id);
+    int level = preOrder.table.level(i) - k;
+    return level < 1 ? -1 : preOrder.table.id(ancestorAt(i, level));
+  }
+
+  /**
+   * Returns the lowest common manager of two employees: the employee furthest from the CEO to whom both report. If
+   * one of them reports to the other, that is the other employee.
+   *
+   * @param id1 the id of the first employee
+   * @param id2 the id of the second employee
+   * @return the id of the lowest common manager, or -1 if the employees are in separate hierarchies
+   * @throws IllegalArgumentException if there is no such employee
+   */
+  public int lowestCommonManager(int id1, int id2) {
+    int first = preOrder.indexOf(id1);
+    int second = preOrder.indexOf(id2);
+    if (preOrder.contains(first, second)) {
+      return id1;
+    }
+    if (preOrder.contains(second, first)) {
+      return id2;
+    }
+    // the deepest level on which the manager of the first employee is also a manager of the second one
+    int low = 1;
+    int high = Math.min(preOrder.table.level(first), preOrder.table.level(second)) - 1;
+    if (high < 1 || !preOrder.contains(ancestorAt(first, low), second)) {
+      return -1;
+    }
+    while (low < high) {
+      int mid = (low + high + 1) >>> 1;
+      if (preOrder.contains(ancestorAt(first, mid), second)) {
+        low = mid;
+      } else {
+        high = mid - 1;
+      }
+    }
+    return preOrder.table.id(ancestorAt(first, low));
+  }
+
+  /**
+   * Returns the reporting chain of an employee: their direct manager, the manager of that manager, and so on up to
+   * the CEO. In time proportional to the length of the chain.
+   *
+   * @param id the id of the employee
+   * @return the ids of the managers, from the direct manager to the CEO; empty for the CEO
+   * @throws IllegalArgumentException if there is no such employee
+   */
+  public int[] reportingChain(int id) {
+    EmployeeTable table = preOrder.table;
+    int i = preOrder.indexOf(id);
+    int[] chain = new int[table.level(i) - 1];
+    for (int k = 0, manager = table.managerIndex(i); k < chain.length; k++, manager = table.managerIndex(manager)) {
+      chain[k] = table.id(manager);
+    }
+    return chain;
+  }
+
+  private int ancestorAt(int i, int level) {
+    // the last employee of the level positioned at or before the employee
+    int k = preOrder.lowerBound(level, preOrder.levelOffsets[level], preOrder.enter[i] + 1) - 1;
+    return preOrder.employeeAt[preOrder.levelPositions[k]];
+  }
+}
@@ -0,0 +1,178 @@
+package com.github.driversti.salaryreport.organization;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * A columnar (struct-of-arrays) representation of the organizational structure.
+ *
+ * <p>Every employee is identified by an index into parallel primitive arrays holding the id, the index of the
+ * manager, the organizational level and the salary in cents. Indices follow the order of employee ids.
+ * Direct subordinates are stored in a compressed sparse row (CSR) index, and employees are additionally grouped by
+ * level, so both can be iterated without boxing or per-manager collections.
+ * <p>Names are interned while building, so employees sharing a first or last name share the same string.
+ * <p>The structure is read-only.
+ */
+public final class ColumnarOrganization implements EmployeeTable {
+
+  private final int[] ids;
+  private final int[] managerIndex;
+  private final int[] levels;
+  private final long[] salaryCents;
+  private final String[] firstNames;
+  private final String[] lastNames;
+  private final int[] subordinateOffsets;
+  private final int[] subordinates;
+  private final int[] levelOffsets;
+  private final int[] byLevel;
+
+  private ColumnarOrganization(Employee[] sortedById) {
+    int size = sortedById.length;
+    this.ids = new int[size];
+    this.salaryCents = new long[size];
+    this.firstNames = new String[size];
+    this.lastNames = new String[size];
+    Map<String, String> names = new HashMap<>();
+    for (int i = 0; i < size; i++) {
+      Employee employee = sortedById[i];
+      ids[i] = employee.id();
+      if (i > 0 && ids[i] == ids[i - 1]) {
+        throw new IllegalArgumentException("Duplicate employee id: " + ids[i]);
+      }
+      salaryCents[i] = employee.salary().movePointRight(2).longValueExact();
+      firstNames[i] = names.computeIfAbsent(employee.firstName(), name -> name);
+      lastNames[i] = names.computeIfAbsent(employee.lastName(), name -> name);
+    }
+
+    this.managerIndex = new int[size];
+    this.subordinateOffsets = new int[size + 1];
+    for (int i = 0; i < size; i++) {
+      int manager = resolveManager(sortedById[i].managerId());
+      managerIndex[i] = manager;
+      if (manager != LevelAssigner.NO_MANAGER) {
+        subordinateOffsets[manager + 1]++;
+      }
+    }
+    this.subordinates = bucket(managerIndex, subordinateOffsets, size, 0);
+
+    LevelAssigner.LevelAssignment assignment = LevelAssigner.assign(managerIndex, size);
+    assignment.requireComplete(i -> ids[i]);
+    this.levels = assignment.levels();
+    this.levelOffsets = new int[assignment.levelCount() + 2];
+    for (int level : levels) {
+      levelOffsets[level + 1]++;
+    }
+    this.byLevel = bucket(levels, levelOffsets, size, 1);
+  }
+
+  /**
+   * Builds a columnar organization from a collection of employees.
+   *
+   * @param employees the employees; salaries must be representable in whole cents
+   * @return the columnar organization
+   * @throws IllegalArgumentException if ids are duplicated, a manager is unknown, or reporting lines form a cycle
+   */
+  public static ColumnarOrganization of(Collection<Employee> employees) {
+    Employee[] sortedById = employees.toArray(Employee[]::new);
+    Arrays.sort(sortedById, Comparator.comparingInt(Employee::id));
+    return new ColumnarOrganization(sortedById);
+  }
+
+  @Override
+  public int size() {
+    return ids.length;
+  }
+
+  @Override
+  public int indexOf(int id) {
+    int index = Arrays.binarySearch(ids, id);
+    return index < 0 ? -1 : index;
+  }
+
+  @Override
+  public int id(int index) {
+    return ids[index];
+  }
+
+  @Override
+  public int managerIndex(int index) {
+    return managerIndex[index];
+  }
+
+  @Override
+  public int level(int index) {
+    return levels[index];
+  }
+
+  @Override
+  public long salaryCents(int index) {
+    return salaryCents[index];
+  }
+
+  @Override
+  public String firstName(int index) {
+    return firstNames[index];
+  }
+
+  @Override
+  public String lastName(int index) {
+    return lastNames[index];
+  }
+
+  @Override
+  public int subordinateCount(int index) {
+    return subordinateOffsets[index + 1] - subordinateOffsets[index];
+  }
+
+  @Override
+  public int subordinate(int index, int k) {
+    return subordinates[subordinateOffsets[index] + k];
+  }
+
+  @Override
+  public int levelCount() {
+    return levelOffsets.length - 2;
+  }
+
+  @Override
+  public int levelSize(int level) {
+    return levelOffsets[level + 1] - levelOffsets[level];
+  }
+
+  @Override
+  public int employeeAtLevel(int level, int k) {
+    return byLevel[levelOffsets[level] + k];
+  }
+
+  private int resolveManager(int managerId) {
+    if (managerId == -1) {
+      return LevelAssigner.NO_MANAGER;
+    }
+    int manager = indexOf(managerId);
+    if (manager < 0) {
+      throw new IllegalArgumentException("Unknown manager id: " + managerId);
+    }
+    return manager;
+  }
+
+  /**
+   * Groups indices by key with a stable counting sort. On entry {@code offsets[key + 1]} holds the number of indices
+   * with that key; on exit {@code offsets[key]} is the start of the bucket of that key.
+   */
+  private static int[] bucket(int[] keys, int[] offsets, int size, int minKey) {
+    for (int key = minKey + 1; key < offsets.length; key++) {
+      offsets[key] += offsets[key - 1];
+    }
+    int[] next = Arrays.copyOf(offsets, offsets.length);
+    int[] buckets = new int[offsets[offsets.length - 1]];
+    for (int i = 0; i < size; i++) {
+      if (keys[i] >= minKey) {
+        buckets[next[keys[i]]++] = i;
+      }
+    }
+    return buckets;
+  }
+}
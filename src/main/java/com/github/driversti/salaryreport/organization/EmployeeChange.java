@@ -0,0 +1,30 @@
+package com.github.driversti.salaryreport.organization;
+
+/**
+ * A change to the employees of an organization: an inserted, updated or deleted employee.
+ *
+ * @param type     the type of the change
+ * @param id       the id of the changed employee
+ * @param employee the employee after the change, or null if it has been deleted
+ */
+public record EmployeeChange(Type type, int id, Employee employee) {
+
+  /**
+   * The type of a change.
+   */
+  public enum Type {
+    INSERT, UPDATE, DELETE
+  }
+
+  public static EmployeeChange insert(Employee employee) {
+    return new EmployeeChange(Type.INSERT, employee.id(), employee);
+  }
+
+  public static EmployeeChange update(Employee employee) {
+    return new EmployeeChange(Type.UPDATE, employee.id(), employee);
+  }
+
+  public static EmployeeChange delete(int id) {
+    return new EmployeeChange(Type.DELETE, id, null);
+  }
+}
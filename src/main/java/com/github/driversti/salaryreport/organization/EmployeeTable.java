@@ -0,0 +1,135 @@
+package com.github.driversti.salaryreport.organization;
+
+import java.math.BigDecimal;
+import java.util.AbstractList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A read-only, index-based view of the employees of an organization.
+ *
+ * <p>Every employee is identified by an index from 0 to {@link #size()} (excluded). Indices follow the order of
+ * employee ids. Implementations keep the attributes in columns instead of {@link Employee} records, and create
+ * records only on request.
+ */
+public interface EmployeeTable {
+
+  int size();
+
+  /**
+   * Returns the index of the employee with the given id.
+   *
+   * @param id the id of the employee
+   * @return the index of the employee, or -1 if there is no such employee
+   */
+  int indexOf(int id);
+
+  int id(int index);
+
+  /**
+   * Returns the index of the manager of the employee.
+   *
+   * @param index the index of the employee
+   * @return the index of the manager, or {@link LevelAssigner#NO_MANAGER} for the CEO
+   */
+  int managerIndex(int index);
+
+  /**
+   * Returns the organizational level of the employee; the CEO is at level 1.
+   *
+   * @param index the index of the employee
+   * @return the level of the employee
+   */
+  int level(int index);
+
+  long salaryCents(int index);
+
+  String firstName(int index);
+
+  String lastName(int index);
+
+  int subordinateCount(int index);
+
+  /**
+   * Returns the index of the k-th direct subordinate of the employee, in the order of ids.
+   *
+   * @param index the index of the manager
+   * @param k     the position of the subordinate, from 0 to {@link #subordinateCount(int)} (excluded)
+   * @return the index of the subordinate
+   */
+  int subordinate(int index, int k);
+
+  int levelCount();
+
+  int levelSize(int level);
+
+  /**
+   * Returns the index of the k-th employee on the given level, in the order of ids.
+   *
+   * @param level the organizational level, from 1 to {@link #levelCount()}
+   * @param k     the position of the employee, from 0 to {@link #levelSize(int)} (excluded)
+   * @return the index of the employee
+   */
+  int employeeAtLevel(int level, int k);
+
+  /**
+   * Creates an employee record for the employee at the given index.
+   *
+   * @param index the index of the employee
+   * @return a new employee record
+   */
+  default Employee employee(int index) {
+    long cents = salaryCents(index);
+    // whole salaries keep scale 0, so records read from a CSV file round-trip unchanged
+    BigDecimal salary = cents % 100 == 0 ? BigDecimal.valueOf(cents / 100) : BigDecimal.valueOf(cents, 2);
+    int manager = managerIndex(index);
+    return new Employee(id(index), firstName(index), lastName(index), salary,
+        manager == LevelAssigner.NO_MANAGER ? -1 : id(manager));
+  }
+
+  /**
+   * Returns a view of all employees in the order of ids.
+   * <p>Employee records are created on access and are not retained.
+   *
+   * @return a list of employees
+   */
+  default List<Employee> employees() {
+    return new AbstractList<>() {
+      @Override
+      public Employee get(int index) {
+        return employee(index);
+      }
+
+      @Override
+      public int size() {
+        return EmployeeTable.this.size();
+      }
+    };
+  }
+
+  /**
+   * Returns a view of the employees grouped by their organizational level, as expected by the accountant.
+   * <p>Employee records are created on access and are not retained.
+   *
+   * @return A map of organizational level to a list of employees.
+   */
+  default Map<Integer, List<Employee>> employeesByLevel() {
+    Map<Integer, List<Employee>> employeesByLevel = new HashMap<>();
+    for (int level = 1; level <= levelCount(); level++) {
+      int currentLevel = level;
+      employeesByLevel.put(level, new AbstractList<>() {
+        @Override
+        public Employee get(int k) {
+          return employee(employeeAtLevel(currentLevel, k));
+        }
+
+        @Override
+        public int size() {
+          return levelSize(currentLevel);
+        }
+      });
+    }
+    return employeesByLevel;
+  }
+}
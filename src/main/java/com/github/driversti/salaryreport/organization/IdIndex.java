@@ -0,0 +1,115 @@
+package com.github.driversti.salaryreport.organization;
+
+import java.util.Arrays;
+
+/**
+ * Maps employee ids to dense indices (0, 1, 2, ...) in the order the ids were added.
+ *
+ * <p>Backed by an open-addressing hash table of primitive ints, so no boxing happens on lookups or inserts.
+ */
+public final class IdIndex {
+
+  private static final int EMPTY = -1;
+  private static final int MIN_CAPACITY = 16;
+
+  private int[] keys;
+  private int[] indices;
+  private int mask;
+  private int size;
+
+  /**
+   * Creates an empty index.
+   */
+  public IdIndex() {
+    this(MIN_CAPACITY);
+  }
+
+  /**
+   * Creates an empty index able to hold the given number of ids without resizing.
+   *
+   * @param expectedSize the expected number of ids
+   */
+  public IdIndex(int expectedSize) {
+    allocate(tableSizeFor(expectedSize));
+  }
+
+  /**
+   * Adds an id and assigns it the next free index.
+   *
+   * @param id the id to add
+   * @return the index assigned to the id
+   * @throws IllegalArgumentException if the id has already been added
+   */
+  public int add(int id) {
+    if (size * 2 >= keys.length) {
+      resize();
+    }
+    int slot = slotOf(id);
+    if (indices[slot] != EMPTY) {
+      throw new IllegalArgumentException("Duplicate employee id: " + id);
+    }
+    keys[slot] = id;
+    indices[slot] = size;
+    return size++;
+  }
+
+  /**
+   * Returns the index of the given id.
+   *
+   * @param id the id to look up
+   * @return the index of the id, or -1 if the id has not been added
+   */
+  public int indexOf(int id) {
+    return indices[slotOf(id)];
+  }
+
+  /**
+   * Returns the number of ids in the index.
+   *
+   * @return the number of ids
+   */
+  public int size() {
+    return size;
+  }
+
+  private int slotOf(int id) {
+    int slot = mix(id) & mask;
+    while (indices[slot] != EMPTY && keys[slot] != id) {
+      slot = (slot + 1) & mask;
+    }
+    return slot;
+  }
+
+  private void resize() {
+    int[] oldKeys = keys;
+    int[] oldIndices = indices;
+    allocate(keys.length * 2);
+    for (int i = 0; i < oldKeys.length; i++) {
+      if (oldIndices[i] != EMPTY) {
+        int slot = slotOf(oldKeys[i]);
+        keys[slot] = oldKeys[i];
+        indices[slot] = oldIndices[i];
+      }
+    }
+  }
+
+  private void allocate(int capacity) {
+    keys = new int[capacity];
+    indices = new int[capacity];
+    Arrays.fill(indices, EMPTY);
+    mask = capacity - 1;
+  }
+
+  private static int tableSizeFor(int expectedSize) {
+    int capacity = Integer.highestOneBit(Math.max(MIN_CAPACITY, expectedSize) * 2 - 1) << 1;
+    if (capacity <= 0) {
+      throw new IllegalArgumentException("Too many ids: " + expectedSize);
+    }
+    return capacity;
+  }
+
+  private static int mix(int id) {
+    int h = id * 0x9E3779B9; // spreads sequential ids over the whole table
+    return h ^ (h >>> 16);
+  }
+}
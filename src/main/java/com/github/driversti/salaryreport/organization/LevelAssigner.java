@@ -0,0 +1,214 @@
+package com.github.driversti.salaryreport.organization;
+
+import java.util.Arrays;
+import java.util.function.IntUnaryOperator;
+
+/**
+ * Assigns every employee its organizational level (the CEO is at level 1) from an array of manager indices.
+ *
+ * <p>Works in a single O(n) pass regardless of the order of the employees, and walks reporting lines with an
+ * explicit stack instead of recursion, so even very deep hierarchies do not overflow the call stack.
+ * <p>Employees whose reporting line never reaches the CEO are not assigned a level. They are reported instead,
+ * either as orphans (the line ends at an unknown manager) or as part of a cycle (the line loops). Employees without
+ * a manager are all assigned level 1, but the assignment is only complete if there is at most one of them.
+ */
+public final class LevelAssigner {
+
+  /**
+   * Manager index of an employee without a manager (the CEO).
+   */
+  public static final int NO_MANAGER = -1;
+
+  /**
+   * Manager index of an employee whose manager is not part of the organization.
+   */
+  public static final int UNKNOWN_MANAGER = -2;
+
+  private static final int UNVISITED = 0;
+  private static final int IN_PROGRESS = -1;
+  private static final int ORPHANED = -2;
+  private static final int IN_CYCLE = -3;
+
+  private LevelAssigner() {
+  }
+
+  /**
+   * Computes the level of every employee.
+   *
+   * @param managerIndex the index of the manager of every employee, {@link #NO_MANAGER} or {@link #UNKNOWN_MANAGER}
+   * @param size         the number of employees (only the first {@code size} entries are used)
+   * @return the levels together with the employees that could not be assigned one
+   * @throws IllegalArgumentException if a manager index is out of range
+   */
+  public static LevelAssignment assign(int[] managerIndex, int size) {
+    int[] states = new int[size]; // a level once known, otherwise one of the states above
+    int[] path = new int[size];
+    int orphans = 0;
+    int cycles = 0;
+    for (int i = 0; i < size; i++) {
+      if (states[i] != UNVISITED) {
+        continue;
+      }
+      // walk up the reporting line until reaching the CEO, an unknown manager, or an already visited employee
+      int length = 0;
+      int current = i;
+      while (current >= 0 && states[current] == UNVISITED) {
+        states[current] = IN_PROGRESS;
+        path[length++] = current;
+        current = managerIndexOf(managerIndex, current, size);
+      }
+      // walk back down, resolving every employee on the way
+      if (current == NO_MANAGER || current >= 0 && states[current] > 0) {
+        int level = current == NO_MANAGER ? 0 : states[current];
+        while (length > 0) {
+          states[path[--length]] = ++level;
+        }
+        continue;
+      }
+      int state = current == UNKNOWN_MANAGER || states[current] == ORPHANED ? ORPHANED : IN_CYCLE;
+      if (state == ORPHANED) {
+        orphans += length;
+      } else {
+        cycles += length;
+      }
+      while (length > 0) {
+        states[path[--length]] = state;
+      }
+    }
+    return new LevelAssignment(states, size, orphans, cycles);
+  }
+
+  private static int managerIndexOf(int[] managerIndex, int employee, int size) {
+    int manager = managerIndex[employee];
+    if (manager < UNKNOWN_MANAGER || manager >= size) {
+      throw new IllegalArgumentException("Manager index of employee at index " + employee + " is out of range");
+    }
+    return manager;
+  }
+
+  /**
+   * The outcome of a level assignment.
+   */
+  public static final class LevelAssignment {
+
+    private static final int MAX_REPORTED_IDS = 10;
+
+    private final int[] levels;
+    private final int[] orphans;
+    private final int[] cycles;
+    private final int[] roots;
+    private final int levelCount;
+
+    private LevelAssignment(int[] states, int size, int orphanCount, int cycleCount) {
+      this.orphans = new int[orphanCount];
+      this.cycles = new int[cycleCount];
+      int orphan = 0;
+      int cycle = 0;
+      int rootCount = 0;
+      int maxLevel = 0;
+      for (int i = 0; i < size; i++) {
+        if (states[i] == ORPHANED) {
+          orphans[orphan++] = i;
+          states[i] = 0;
+        } else if (states[i] == IN_CYCLE) {
+          cycles[cycle++] = i;
+          states[i] = 0;
+        } else {
+          maxLevel = Math.max(maxLevel, states[i]);
+          if (states[i] == 1) {
+            rootCount++;
+          }
+        }
+      }
+      this.roots = new int[rootCount];
+      for (int i = 0, root = 0; root < rootCount; i++) {
+        if (states[i] == 1) {
+          roots[root++] = i;
+        }
+      }
+      this.levels = states;
+      this.levelCount = maxLevel;
+    }
+
+    /**
+     * Returns the level of every employee, or 0 for employees that could not be assigned one.
+     * <p>The array is not copied.
+     *
+     * @return the levels indexed like the manager indices
+     */
+    public int[] levels() {
+      return levels;
+    }
+
+    public int levelCount() {
+      return levelCount;
+    }
+
+    /**
+     * Returns the indices of the employees whose reporting line ends at an unknown manager.
+     *
+     * @return the indices of orphaned employees, in ascending order
+     */
+    public int[] orphans() {
+      return orphans.clone();
+    }
+
+    /**
+     * Returns the indices of the employees whose reporting line runs into a cycle.
+     *
+     * @return the indices of employees in or below a cycle, in ascending order
+     */
+    public int[] cycles() {
+      return cycles.clone();
+    }
+
+    /**
+     * Returns the indices of the employees without a manager, all of them at level 1.
+     *
+     * @return the indices of the employees without a manager, in ascending order
+     */
+    public int[] roots() {
+      return roots.clone();
+    }
+
+    /**
+     * Checks whether every employee has been assigned a level under a single CEO.
+     *
+     * @return true if there are neither orphans nor cycles, and at most one employee without a manager
+     */
+    public boolean isComplete() {
+      return orphans.length == 0 && cycles.length == 0 && roots.length <= 1;
+    }
+
+    /**
+     * Throws if some employees could not be assigned a level.
+     *
+     * @param ids maps an employee index to the employee id, for the error message
+     * @throws IllegalArgumentException describing the orphans, the cycles and the employees without a manager
+     */
+    public void requireComplete(IntUnaryOperator ids) {
+      if (isComplete()) {
+        return;
+      }
+      StringBuilder message = new StringBuilder("Not every employee reports to the CEO.");
+      describe(message, " Employees with an unknown manager: ", orphans, ids);
+      describe(message, " Employees in or below a reporting cycle: ", cycles, ids);
+      if (roots.length > 1) {
+        describe(message, " Employees without a manager, of whom only one can be the CEO: ", roots, ids);
+      }
+      throw new IllegalArgumentException(message.toString());
+    }
+
+    private static void describe(StringBuilder message, String label, int[] indices, IntUnaryOperator ids) {
+      if (indices.length == 0) {
+        return;
+      }
+      int[] reported = Arrays.stream(indices).limit(MAX_REPORTED_IDS).map(ids).toArray();
+      message.append(label).append(Arrays.toString(reported));
+      if (indices.length > MAX_REPORTED_IDS) {
+        message.append(" and ").append(indices.length - MAX_REPORTED_IDS).append(" more");
+      }
+      message.append('.');
+    }
+  }
+}
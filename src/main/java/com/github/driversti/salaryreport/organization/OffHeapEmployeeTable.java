@@ -0,0 +1,359 @@
+package com.github.driversti.salaryreport.organization;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * An {@link EmployeeTable} whose columns live outside of the Java heap, in direct byte buffers.
+ *
+ * <p>Ids, manager indices, levels, salaries in cents and offsets of interned names are stored in fixed-width
+ * columns, and every distinct name is stored once in a UTF-8 pool. The subordinate and level indexes are kept
+ * off-heap as well, so the heap footprint of a table does not grow with the size of the organization and the
+ * garbage collector has nothing to scan.
+ * <p>Off-heap memory counts against {@code -XX:MaxDirectMemorySize} and is released once the table becomes
+ * unreachable. The table is read-only and safe to share between threads.
+ */
+public final class OffHeapEmployeeTable implements EmployeeTable {
+
+  private final int size;
+  private final IntBuffer ids;
+  private final IntBuffer managerIndex;
+  private final IntBuffer levels;
+  private final LongBuffer salaryCents;
+  private final IntBuffer firstNames;
+  private final IntBuffer lastNames;
+  private final ByteBuffer namePool;
+  private final IntBuffer subordinateOffsets;
+  private final IntBuffer subordinates;
+  private final int[] levelOffsets; // one entry per level, small enough for the heap
+  private final IntBuffer byLevel;
+
+  private OffHeapEmployeeTable(Builder builder) {
+    this.size = builder.size;
+    this.namePool = builder.namePool.duplicate().limit(builder.namePoolSize).slice();
+
+    // order rows by id and gather the columns in that order
+    IntBuffer scratch = ints(size);
+    IntBuffer order = sortById(builder.ids, scratch);
+    this.ids = ints(size);
+    this.salaryCents = longs(size);
+    this.firstNames = ints(size);
+    this.lastNames = ints(size);
+    for (int k = 0; k < size; k++) {
+      int row = order.get(k);
+      ids.put(k, builder.ids.get(row));
+      if (k > 0 && ids.get(k) == ids.get(k - 1)) {
+        throw new IllegalArgumentException("Duplicate employee id: " + ids.get(k));
+      }
+      salaryCents.put(k, builder.salaryCents.get(row));
+      firstNames.put(k, builder.firstNames.get(row));
+      lastNames.put(k, builder.lastNames.get(row));
+    }
+
+    // resolve managers and count direct subordinates
+    this.managerIndex = ints(size);
+    this.subordinateOffsets = ints(size + 1);
+    int roots = 0;
+    for (int k = 0; k < size; k++) {
+      int manager = resolveManager(builder.managerIds.get(order.get(k)));
+      managerIndex.put(k, manager);
+      if (manager == LevelAssigner.NO_MANAGER) {
+        roots++;
+      } else {
+        subordinateOffsets.put(manager + 1, subordinateOffsets.get(manager + 1) + 1);
+      }
+    }
+
+    // build the subordinate index (CSR); the order buffer is reused as the insertion cursor
+    for (int i = 1; i <= size; i++) {
+      subordinateOffsets.put(i, subordinateOffsets.get(i) + subordinateOffsets.get(i - 1));
+    }
+    IntBuffer next = order;
+    for (int i = 0; i < size; i++) {
+      next.put(i, subordinateOffsets.get(i));
+    }
+    this.subordinates = ints(size - roots);
+    for (int i = 0; i < size; i++) {
+      int manager = managerIndex.get(i);
+      if (manager != LevelAssigner.NO_MANAGER) {
+        int slot = next.get(manager);
+        subordinates.put(slot, i);
+        next.put(manager, slot + 1);
+      }
+    }
+
+    // assign levels like ColumnarOrganization does; the heap arrays are only needed while building
+    int[] managers = new int[size];
+    managerIndex.get(0, managers);
+    LevelAssigner.LevelAssignment assignment = LevelAssigner.assign(managers, size);
+    assignment.requireComplete(ids::get);
+    this.levels = ints(size);
+    levels.put(0, assignment.levels(), 0, size);
+
+    // group employees by level, keeping the order of ids within a level; the order buffer is reused once more
+    this.levelOffsets = new int[assignment.levelCount() + 2];
+    for (int i = 0; i < size; i++) {
+      levelOffsets[levels.get(i) + 1]++;
+    }
+    for (int level = 2; level < levelOffsets.length; level++) {
+      levelOffsets[level] += levelOffsets[level - 1];
+    }
+    int[] cursor = levelOffsets.clone();
+    this.byLevel = order;
+    for (int i = 0; i < size; i++) {
+      byLevel.put(cursor[levels.get(i)]++, i);
+    }
+  }
+
+  /**
+   * Creates a builder which collects employees directly into off-heap columns.
+   *
+   * @return a new builder
+   */
+  public static Builder builder() {
+    return new Builder();
+  }
+
+  /**
+   * Copies a collection of employees into an off-heap table.
+   *
+   * @param employees the employees; salaries must be representable in whole cents
+   * @return the off-heap table
+   */
+  public static OffHeapEmployeeTable of(Collection<Employee> employees) {
+    Builder builder = builder();
+    employees.forEach(employee -> builder.add(employee.id(), employee.firstName(), employee.lastName(),
+        employee.salary().movePointRight(2).longValueExact(), employee.managerId()));
+    return builder.build();
+  }
+
+  @Override
+  public int size() {
+    return size;
+  }
+
+  @Override
+  public int indexOf(int id) {
+    int low = 0;
+    int high = size - 1;
+    while (low <= high) {
+      int mid = (low + high) >>> 1;
+      int midId = ids.get(mid);
+      if (midId < id) {
+        low = mid + 1;
+      } else if (midId > id) {
+        high = mid - 1;
+      } else {
+        return mid;
+      }
+    }
+    return -1;
+  }
+
+  @Override
+  public int id(int index) {
+    return ids.get(index);
+  }
+
+  @Override
+  public int managerIndex(int index) {
+    return managerIndex.get(index);
+  }
+
+  @Override
+  public int level(int index) {
+    return levels.get(index);
+  }
+
+  @Override
+  public long salaryCents(int index) {
+    return salaryCents.get(index);
+  }
+
+  @Override
+  public String firstName(int index) {
+    return name(firstNames.get(index));
+  }
+
+  @Override
+  public String lastName(int index) {
+    return name(lastNames.get(index));
+  }
+
+  @Override
+  public int subordinateCount(int index) {
+    return subordinateOffsets.get(index + 1) - subordinateOffsets.get(index);
+  }
+
+  @Override
+  public int subordinate(int index, int k) {
+    return subordinates.get(subordinateOffsets.get(index) + k);
+  }
+
+  @Override
+  public int levelCount() {
+    return levelOffsets.length - 2;
+  }
+
+  @Override
+  public int levelSize(int level) {
+    return levelOffsets[level + 1] - levelOffsets[level];
+  }
+
+  @Override
+  public int employeeAtLevel(int level, int k) {
+    return byLevel.get(levelOffsets[level] + k);
+  }
+
+  private String name(int offset) {
+    int length = namePool.getInt(offset);
+    byte[] bytes = new byte[length];
+    namePool.get(offset + Integer.BYTES, bytes);
+    return new String(bytes, StandardCharsets.UTF_8);
+  }
+
+  private int resolveManager(int managerId) {
+    if (managerId == -1) {
+      return LevelAssigner.NO_MANAGER;
+    }
+    int manager = indexOf(managerId);
+    if (manager < 0) {
+      throw new IllegalArgumentException("Unknown manager id: " + managerId);
+    }
+    return manager;
+  }
+
+  /**
+   * Sorts row numbers by id with a stable LSD radix sort over the four bytes of the id.
+   */
+  private static IntBuffer sortById(IntBuffer ids, IntBuffer scratch) {
+    int size = scratch.capacity();
+    IntBuffer order = ints(size);
+    for (int i = 0; i < size; i++) {
+      order.put(i, i);
+    }
+    for (int shift = 0; shift < Integer.SIZE; shift += Byte.SIZE) {
+      int[] counts = new int[257];
+      for (int i = 0; i < size; i++) {
+        counts[digit(ids.get(order.get(i)), shift) + 1]++;
+      }
+      for (int d = 1; d < counts.length; d++) {
+        counts[d] += counts[d - 1];
+      }
+      for (int i = 0; i < size; i++) {
+        int row = order.get(i);
+        scratch.put(counts[digit(ids.get(row), shift)]++, row);
+      }
+      IntBuffer swap = order;
+      order = scratch;
+      scratch = swap;
+    }
+    return order; // four passes, so the sorted rows end up in the buffer they started in
+  }
+
+  private static int digit(int id, int shift) {
+    return ((id ^ Integer.MIN_VALUE) >>> shift) & 0xFF; // flipping the sign bit orders negative ids first
+  }
+
+  private static IntBuffer ints(int size) {
+    return ByteBuffer.allocateDirect(Math.multiplyExact(size, Integer.BYTES))
+        .order(ByteOrder.nativeOrder())
+        .asIntBuffer();
+  }
+
+  private static LongBuffer longs(int size) {
+    return ByteBuffer.allocateDirect(Math.multiplyExact(size, Long.BYTES))
+        .order(ByteOrder.nativeOrder())
+        .asLongBuffer();
+  }
+
+  /**
+   * Collects employees into growable off-heap columns, in any order.
+   * <p>Only the distinct names are kept on the heap while building, to intern them.
+   */
+  public static final class Builder {
+
+    private static final int INITIAL_CAPACITY = 1024;
+
+    private final Map<String, Integer> nameOffsets = new HashMap<>();
+    private int size;
+    private IntBuffer ids = ints(INITIAL_CAPACITY);
+    private IntBuffer managerIds = ints(INITIAL_CAPACITY);
+    private LongBuffer salaryCents = longs(INITIAL_CAPACITY);
+    private IntBuffer firstNames = ints(INITIAL_CAPACITY);
+    private IntBuffer lastNames = ints(INITIAL_CAPACITY);
+    private ByteBuffer namePool = ByteBuffer.allocateDirect(INITIAL_CAPACITY * 8);
+    private int namePoolSize;
+
+    private Builder() {
+    }
+
+    /**
+     * Adds an employee.
+     *
+     * @param id          the id of the employee
+     * @param firstName   the first name
+     * @param lastName    the last name
+     * @param salaryCents the salary in cents
+     * @param managerId   the id of the manager, or -1 for the CEO
+     * @return this builder
+     */
+    public Builder add(int id, String firstName, String lastName, long salaryCents, int managerId) {
+      if (size == ids.capacity()) {
+        grow();
+      }
+      this.ids.put(size, id);
+      this.managerIds.put(size, managerId);
+      this.salaryCents.put(size, salaryCents);
+      this.firstNames.put(size, intern(firstName));
+      this.lastNames.put(size, intern(lastName));
+      size++;
+      return this;
+    }
+
+    /**
+     * Sorts the collected employees by id and builds the indexes of the table.
+     *
+     * @return the table
+     * @throws IllegalArgumentException if ids are duplicated, a manager is unknown, or reporting lines form a cycle
+     */
+    public OffHeapEmployeeTable build() {
+      return new OffHeapEmployeeTable(this);
+    }
+
+    private int intern(String name) {
+      Integer offset = nameOffsets.get(name);
+      if (offset != null) {
+        return offset;
+      }
+      byte[] bytes = name.getBytes(StandardCharsets.UTF_8);
+      int start = namePoolSize;
+      int required = Math.addExact(start, Integer.BYTES + bytes.length);
+      if (required > namePool.capacity()) {
+        ByteBuffer pool = ByteBuffer.allocateDirect(Math.max(required, namePool.capacity() * 2));
+        pool.put(0, namePool, 0, start);
+        namePool = pool;
+      }
+      namePool.putInt(start, bytes.length);
+      namePool.put(start + Integer.BYTES, bytes);
+      nameOffsets.put(name, start);
+      namePoolSize = required;
+      return start;
+    }
+
+    private void grow() {
+      int capacity = Math.multiplyExact(ids.capacity(), 2);
+      ids = ints(capacity).put(0, ids, 0, size);
+      managerIds = ints(capacity).put(0, managerIds, 0, size);
+      salaryCents = longs(capacity).put(0, salaryCents, 0, size);
+      firstNames = ints(capacity).put(0, firstNames, 0, size);
+      lastNames = ints(capacity).put(0, lastNames, 0, size);
+    }
+  }
+}
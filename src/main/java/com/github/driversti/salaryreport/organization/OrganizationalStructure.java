@@ -6,31 +6,96 @@ import java.util.Comparator;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * Represents the organizational structure of an organization.
  *
- * <p>Employees are sorted and grouped by their manager and by their organizational level.
- * <p>The organizational structure is expected to be read-only.
+ * <p>Employees are sorted by their id and grouped by their organizational level.
+ * <p>The organizational structure is expected to be read-only. Every structure gets its own {@link #version()},
+ * so results computed from it can be cached.
  */
 public class OrganizationalStructure {
 
+  private static final AtomicLong VERSIONS = new AtomicLong();
+
+  private final long version = VERSIONS.incrementAndGet();
   private final List<Employee> sortedById;
-  private final Map<Integer, List<Employee>> employeesByManager;
   private final Map<Integer, List<Employee>> employeesByLevel;
 
   /**
    * Constructs an organizational structure from a collection of employees.
-   * <p>Employees are sorted by their id and grouped by their manager and by their organizational level.
+   * <p>Employees are sorted by their id and grouped by their organizational level, keeping the order of ids within
+   * a level. Levels are assigned in a single pass, whatever the order of the employees in the collection.
    *
    * @param employees The collection of employees.
+   * @throws IllegalArgumentException if ids are duplicated or some employees do not report to the CEO
    */
   public OrganizationalStructure(Collection<Employee> employees) {
     this.sortedById = new ArrayList<>(employees);
     this.sortedById.sort(Comparator.comparingInt(Employee::id));
-    this.employeesByManager = groupByManager(this.sortedById);
-    this.employeesByLevel = groupByLevel(employeesByManager);
+    this.employeesByLevel = Map.copyOf(groupByLevel(this.sortedById));
+  }
+
+  private OrganizationalStructure(List<Employee> sortedById, Map<Integer, List<Employee>> employeesByLevel) {
+    this.sortedById = sortedById;
+    this.employeesByLevel = Map.copyOf(employeesByLevel);
+  }
+
+  /**
+   * Constructs an organizational structure from a collection of employees on the common fork-join pool.
+   *
+   * @param employees The collection of employees.
+   * @return An organizational structure equal to the one of {@link #OrganizationalStructure(Collection)}.
+   * @throws IllegalArgumentException if ids are duplicated or some employees do not report to the CEO
+   * @see #parallel(Collection, ForkJoinPool)
+   */
+  public static OrganizationalStructure parallel(Collection<Employee> employees) {
+    return parallel(employees, ForkJoinPool.commonPool());
+  }
+
+  /**
+   * Constructs an organizational structure from a collection of employees on a fork-join pool.
+   * <p>Employees are sorted, and levels are assigned, in parallel phases over primitive arrays, to exactly the
+   * same result as the constructor, with the same errors. The build scales with the parallelism of the pool, and
+   * is worth it for organizations of some hundred thousand employees and more. A pool with a single worker builds
+   * sequentially, as the phases would only add overhead.
+   *
+   * @param employees The collection of employees.
+   * @param pool      The pool to build on.
+   * @return An organizational structure equal to the one of {@link #OrganizationalStructure(Collection)}.
+   * @throws IllegalArgumentException if ids are duplicated or some employees do not report to the CEO
+   */
+  public static OrganizationalStructure parallel(Collection<Employee> employees, ForkJoinPool pool) {
+    if (pool.getParallelism() == 1) {
+      return new OrganizationalStructure(employees);
+    }
+    ParallelStructureBuilder.Result result = new ParallelStructureBuilder(pool).build(employees);
+    return new OrganizationalStructure(result.sortedById(), result.employeesByLevel());
+  }
+
+  /**
+   * Creates an organizational structure which reads directly from an employee table, for instance an
+   * {@link OffHeapEmployeeTable}.
+   * <p>Employees are neither copied nor grouped again: lists are views over the table, and employee records are
+   * created on access. Note that {@link #employees()} still returns a full copy.
+   *
+   * @param table The employee table.
+   * @return An organizational structure backed by the table.
+   */
+  public static OrganizationalStructure of(EmployeeTable table) {
+    return new OrganizationalStructure(table.employees(), table.employeesByLevel());
+  }
+
+  /**
+   * Returns the version of the structure, unique among all structures created by this JVM. Two structures never
+   * share a version, even if they hold the same employees.
+   *
+   * @return the version
+   */
+  public long version() {
+    return version;
   }
 
   /**
@@ -43,50 +108,49 @@ public class OrganizationalStructure {
   }
 
   /**
-   * Returns a copy of the map of employees grouped by manager id.
+   * Returns the unmodifiable map of employees grouped by their organizational level. The map is kept unmodifiable
+   * from the start, so it is not copied on every call.
    *
-   * @return A map of manager id to a list of employees.
+   * @return A map of organizational level to a list of employees.
    */
   public Map<Integer, List<Employee>> employeesByLevel() {
-    return Map.copyOf(employeesByLevel);
-  }
-
-  private Map<Integer, List<Employee>> groupByManager(List<Employee> sortedById) {
-    return sortedById.stream()
-        .collect(Collectors.groupingBy(Employee::managerId));
+    return employeesByLevel;
   }
 
-  private Map<Integer, List<Employee>> groupByLevel(Map<Integer, List<Employee>> employeesByManagerId) {
-    Map<Integer, List<Employee>> employeesByLevel = new HashMap<>();
-    int level = 1;
-
-    // find ceo
-    Employee ceo = employeesByManagerId.get(-1).getFirst();
-    employeesByLevel.put(level, List.of(ceo)); // put ceo at level 1
+  private Map<Integer, List<Employee>> groupByLevel(List<Employee> sortedById) {
+    int size = sortedById.size();
+    IdIndex ids = new IdIndex(size);
+    sortedById.forEach(employee -> ids.add(employee.id()));
 
-    // find subordinates of ceo
-    List<Employee> subordinates = employeesByManagerId.get(ceo.id());
-
-    // iterate through the organizational structure until there are no more subordinates
-    while (!subordinates.isEmpty()) {
-      employeesByLevel.put(++level, subordinates); // subordinates are at the next level
-      List<Integer> managerIds = getIds(subordinates); // subordinates are managers for their subordinates
-      subordinates = findSubordinatesOfManagers(managerIds, employeesByManagerId); // find subordinates of subordinates
+    // resolve the index of every manager
+    int[] managerIndex = new int[size];
+    for (int i = 0; i < size; i++) {
+      int managerId = sortedById.get(i).managerId();
+      int manager = ids.indexOf(managerId);
+      managerIndex[i] = managerId == -1 ? LevelAssigner.NO_MANAGER
+          : manager < 0 ? LevelAssigner.UNKNOWN_MANAGER : manager;
     }
 
-    return employeesByLevel;
-  }
-
-  private List<Integer> getIds(List<Employee> employees) {
-    return employees.stream().map(Employee::id).toList();
-  }
+    // compute the level of every employee in one pass, then distribute the employees in the order of their ids
+    LevelAssigner.LevelAssignment assignment = LevelAssigner.assign(managerIndex, size);
+    assignment.requireComplete(i -> sortedById.get(i).id());
+    int[] levels = assignment.levels();
+    int[] levelSizes = new int[assignment.levelCount() + 1];
+    for (int level : levels) {
+      levelSizes[level]++;
+    }
+    List<List<Employee>> byLevel = new ArrayList<>(levelSizes.length);
+    for (int levelSize : levelSizes) {
+      byLevel.add(new ArrayList<>(levelSize));
+    }
+    for (int i = 0; i < size; i++) {
+      byLevel.get(levels[i]).add(sortedById.get(i));
+    }
 
-  private List<Employee> findSubordinatesOfManagers(List<Integer> managers, Map<Integer, List<Employee>> employeesByManagerId) {
-    List<Employee> subordinates = new ArrayList<>();
-    for (Integer managerId : managers) {
-      List<Employee> employees = employeesByManagerId.getOrDefault(managerId, new ArrayList<>());
-      subordinates.addAll(employees);
+    Map<Integer, List<Employee>> employeesByLevel = new HashMap<>();
+    for (int level = 1; level < levelSizes.length; level++) {
+      employeesByLevel.put(level, byLevel.get(level));
     }
-    return subordinates;
+    return employeesByLevel;
   }
 }
@@ -0,0 +1,281 @@
+package com.github.driversti.salaryreport.organization;
+
+import java.io.Serial;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.function.IntConsumer;
+
+/**
+ * Sorts and groups employees by level on a fork-join pool, to the same result as the sequential constructor of
+ * {@link OrganizationalStructure}.
+ *
+ * <p>The build runs in phases, each one parallel over index ranges of primitive arrays:
+ * <ol>
+ *   <li>employees are sorted by id with a parallel sort, and duplicates are found next to each other;</li>
+ *   <li>managers are resolved through a table indexed by id when ids are dense, or else by binary search over the
+ *   sorted ids;</li>
+ *   <li>the direct subordinates of every manager are bucketed into one pre-sized array, counted and placed with
+ *   atomic counters;</li>
+ *   <li>levels are assigned by a breadth-first search from the CEO, one level at a time, every level gathering the
+ *   subordinates of the previous one in parallel;</li>
+ *   <li>employees are distributed by level in chunks of ids, every chunk writing to its own precomputed slots, so
+ *   the order of ids within a level is kept.</li>
+ * </ol>
+ * <p>Errors are raised on the calling thread, with the same messages as the sequential build. Employees that do not
+ * report to the CEO are described by {@link LevelAssigner}.
+ */
+final class ParallelStructureBuilder {
+
+  private static final int GRAIN = 1 << 13; // smaller ranges are not worth forking
+  private static final int CHUNKS_PER_WORKER = 4;
+  private static final int MAX_DENSE_RATIO = 4;
+
+  private final ForkJoinPool pool;
+
+  ParallelStructureBuilder(ForkJoinPool pool) {
+    this.pool = pool;
+  }
+
+  /**
+   * The employees sorted by id and grouped by level.
+   *
+   * @param sortedById       the employees sorted by id
+   * @param employeesByLevel the employees of every level, in the order of their ids
+   */
+  record Result(List<Employee> sortedById, Map<Integer, List<Employee>> employeesByLevel) {
+  }
+
+  Result build(Collection<Employee> employees) {
+    Employee[] sorted = employees.toArray(Employee[]::new);
+    pool.invoke(ForkJoinTask.adapt(() -> Arrays.parallelSort(sorted, Comparator.comparingInt(Employee::id))));
+    int size = sorted.length;
+    int[] ids = new int[size];
+    forEach(0, size, GRAIN, i -> ids[i] = sorted[i].id());
+    requireUniqueIds(ids);
+
+    int[] managerIndex = new int[size];
+    int[] dense = denseIndexOf(ids);
+    if (dense != null) {
+      int first = ids[0];
+      forEach(0, size, GRAIN, i -> managerIndex[i] = managerIndexOf(dense, first, sorted[i].managerId()));
+    } else {
+      forEach(0, size, GRAIN, i -> managerIndex[i] = managerIndexOf(ids, sorted[i].managerId()));
+    }
+    int[] subordinateOffsets = new int[size + 1];
+    int[] subordinates = bucketSubordinates(managerIndex, subordinateOffsets);
+
+    int[] levels = new int[size];
+    int levelCount = assignLevels(ids, managerIndex, subordinates, subordinateOffsets, levels);
+    return new Result(Arrays.asList(sorted), groupByLevel(sorted, levels, levelCount));
+  }
+
+  private void requireUniqueIds(int[] ids) {
+    AtomicInteger firstDuplicate = new AtomicInteger(Integer.MAX_VALUE);
+    forEach(1, ids.length, GRAIN, i -> {
+      if (ids[i - 1] == ids[i]) {
+        firstDuplicate.accumulateAndGet(i, Math::min);
+      }
+    });
+    if (firstDuplicate.get() != Integer.MAX_VALUE) {
+      throw new IllegalArgumentException("Duplicate employee id: " + ids[firstDuplicate.get()]);
+    }
+  }
+
+  /**
+   * Maps every id from the first to the last to its index, or -1, if ids are dense enough for such a table to be
+   * at most {@value #MAX_DENSE_RATIO} times as large as the number of ids. Otherwise returns null.
+   */
+  private int[] denseIndexOf(int[] ids) {
+    if (ids.length == 0 || (long) ids[ids.length - 1] - ids[0] >= (long) ids.length * MAX_DENSE_RATIO) {
+      return null;
+    }
+    int first = ids[0];
+    int[] dense = new int[ids[ids.length - 1] - first + 1];
+    forEach(0, dense.length, GRAIN, k -> dense[k] = -1);
+    forEach(0, ids.length, GRAIN, i -> dense[ids[i] - first] = i);
+    return dense;
+  }
+
+  private static int managerIndexOf(int[] dense, int first, int managerId) {
+    if (managerId == -1) {
+      return LevelAssigner.NO_MANAGER;
+    }
+    long offset = (long) managerId - first;
+    int manager = offset >= 0 && offset < dense.length ? dense[(int) offset] : -1;
+    return manager < 0 ? LevelAssigner.UNKNOWN_MANAGER : manager;
+  }
+
+  private static int managerIndexOf(int[] ids, int managerId) {
+    if (managerId == -1) {
+      return LevelAssigner.NO_MANAGER;
+    }
+    int manager = Arrays.binarySearch(ids, managerId);
+    return manager < 0 ? LevelAssigner.UNKNOWN_MANAGER : manager;
+  }
+
+  /**
+   * Places the indices of the direct subordinates of manager {@code m} at {@code offsets[m]} to
+   * {@code offsets[m + 1]} of the returned array, in no particular order.
+   */
+  private int[] bucketSubordinates(int[] managerIndex, int[] offsets) {
+    int size = managerIndex.length;
+    AtomicIntegerArray counts = new AtomicIntegerArray(size);
+    forEach(0, size, GRAIN, i -> {
+      if (managerIndex[i] >= 0) {
+        counts.incrementAndGet(managerIndex[i]);
+      }
+    });
+    forEach(0, size, GRAIN, i -> offsets[i + 1] = counts.get(i));
+    prefixSum(offsets);
+
+    AtomicIntegerArray cursors = new AtomicIntegerArray(Arrays.copyOf(offsets, size));
+    int[] subordinates = new int[offsets[size]];
+    forEach(0, size, GRAIN, i -> {
+      if (managerIndex[i] >= 0) {
+        subordinates[cursors.getAndIncrement(managerIndex[i])] = i;
+      }
+    });
+    return subordinates;
+  }
+
+  /**
+   * Assigns levels from the CEO down, one level at a time, and returns the number of levels.
+   */
+  private int assignLevels(int[] ids, int[] managerIndex, int[] subordinates, int[] offsets, int[] levels) {
+    int size = managerIndex.length;
+    int[] frontier = roots(managerIndex);
+    int level = 0;
+    int assigned = 0;
+    while (frontier.length > 0) {
+      int[] current = frontier;
+      int currentLevel = ++level;
+      assigned += current.length;
+      forEach(0, current.length, GRAIN, k -> levels[current[k]] = currentLevel);
+
+      // the subordinates of the k-th employee of the level go to starts[k] of the next level
+      int[] starts = new int[current.length + 1];
+      forEach(0, current.length, GRAIN, k -> starts[k + 1] = offsets[current[k] + 1] - offsets[current[k]]);
+      prefixSum(starts);
+      int[] next = new int[starts[current.length]];
+      forEach(0, current.length, GRAIN, k -> System.arraycopy(
+          subordinates, offsets[current[k]], next, starts[k], starts[k + 1] - starts[k]));
+      frontier = next;
+    }
+    if (assigned < size) {
+      // some employees were never reached; let the sequential assigner find out why, for the same message
+      LevelAssigner.assign(managerIndex, size).requireComplete(i -> ids[i]);
+    }
+    return level;
+  }
+
+  private int[] roots(int[] managerIndex) {
+    int[] roots = new int[managerIndex.length];
+    int count = 0;
+    for (int i = 0; i < managerIndex.length; i++) {
+      if (managerIndex[i] == LevelAssigner.NO_MANAGER) {
+        roots[count++] = i;
+      }
+    }
+    return Arrays.copyOf(roots, count);
+  }
+
+  private Map<Integer, List<Employee>> groupByLevel(Employee[] sorted, int[] levels, int levelCount) {
+    int size = sorted.length;
+    // every chunk counts its employees per level, so the chunks times levels table is kept below the size
+    int chunks = Math.max(1, Math.min(pool.getParallelism() * CHUNKS_PER_WORKER, size / (levelCount + 1)));
+    int chunkSize = (size + chunks - 1) / chunks;
+    int[][] slots = new int[chunks][levelCount + 1];
+    forEach(0, chunks, 1, c -> {
+      for (int i = c * chunkSize, end = Math.min(size, i + chunkSize); i < end; i++) {
+        slots[c][levels[i]]++;
+      }
+    });
+
+    // turn the counts into the first slot of every chunk within every level
+    Employee[][] byLevel = new Employee[levelCount + 1][];
+    for (int level = 1; level <= levelCount; level++) {
+      int levelSize = 0;
+      for (int[] chunkSlots : slots) {
+        int count = chunkSlots[level];
+        chunkSlots[level] = levelSize;
+        levelSize += count;
+      }
+      byLevel[level] = new Employee[levelSize];
+    }
+    forEach(0, chunks, 1, c -> {
+      int[] cursors = slots[c];
+      for (int i = c * chunkSize, end = Math.min(size, i + chunkSize); i < end; i++) {
+        byLevel[levels[i]][cursors[levels[i]]++] = sorted[i];
+      }
+    });
+
+    Map<Integer, List<Employee>> employeesByLevel = new HashMap<>();
+    for (int level = 1; level <= levelCount; level++) {
+      employeesByLevel.put(level, Arrays.asList(byLevel[level]));
+    }
+    return employeesByLevel;
+  }
+
+  private void prefixSum(int[] values) {
+    if (values.length <= GRAIN) {
+      for (int i = 1; i < values.length; i++) {
+        values[i] += values[i - 1];
+      }
+    } else {
+      pool.invoke(ForkJoinTask.adapt(() -> Arrays.parallelPrefix(values, Integer::sum)));
+    }
+  }
+
+  /**
+   * Runs the body for every index of a range, in parallel if the range is larger than the grain. Small ranges run
+   * on the calling thread, so that narrow levels of deep hierarchies do not pay for a task each.
+   */
+  private void forEach(int from, int to, int grain, IntConsumer body) {
+    if (to - from > grain) {
+      pool.invoke(new RangeAction(from, to, grain, body));
+    } else {
+      for (int i = from; i < to; i++) {
+        body.accept(i);
+      }
+    }
+  }
+
+  private static final class RangeAction extends RecursiveAction {
+
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    private final int from;
+    private final int to;
+    private final int grain;
+    private final transient IntConsumer body;
+
+    private RangeAction(int from, int to, int grain, IntConsumer body) {
+      this.from = from;
+      this.to = to;
+      this.grain = grain;
+      this.body = body;
+    }
+
+    @Override
+    protected void compute() {
+      if (to - from <= grain) {
+        for (int i = from; i < to; i++) {
+          body.accept(i);
+        }
+        return;
+      }
+      int middle = (from + to) >>> 1;
+      invokeAll(new RangeAction(from, middle, grain, body), new RangeAction(middle, to, grain, body));
+    }
+  }
+}
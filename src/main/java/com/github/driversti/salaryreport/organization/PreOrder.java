@@ -0,0 +1,118 @@
+package com.github.driversti.salaryreport.organization;
+
+/**
+ * Numbers the employees of a table in pre-order: every manager precedes their subordinates, and subordinates
+ * follow in the order of ids. The subtree of an employee thus occupies the interval of positions from
+ * {@code enter} (inclusive) to {@code exit} (exclusive).
+ * <p>Positions are also grouped by level, ascending within a level, so the employees of a level within a subtree
+ * can be found with binary searches.
+ */
+final class PreOrder {
+
+  final EmployeeTable table;
+  final int[] enter;
+  final int[] exit;
+  /**
+   * The index of the employee at every position.
+   */
+  final int[] employeeAt;
+  /**
+   * The positions of the employees of level {@code l} are from {@code levelOffsets[l]} to
+   * {@code levelOffsets[l + 1]} (excluded).
+   */
+  final int[] levelPositions;
+  final int[] levelOffsets;
+
+  private PreOrder(EmployeeTable table) {
+    this.table = table;
+    int size = table.size();
+    int levelCount = table.levelCount();
+
+    // subtree sizes, from the deepest level up
+    int[] subtreeSize = new int[size];
+    for (int level = levelCount; level >= 1; level--) {
+      for (int k = 0; k < table.levelSize(level); k++) {
+        int i = table.employeeAtLevel(level, k);
+        subtreeSize[i]++;
+        int manager = table.managerIndex(i);
+        if (manager >= 0) {
+          subtreeSize[manager] += subtreeSize[i];
+        }
+      }
+    }
+
+    // positions, from the top level down: subordinates follow their manager in the order of ids
+    this.enter = new int[size];
+    this.exit = new int[size];
+    int next = 0;
+    for (int k = 0; k < (levelCount == 0 ? 0 : table.levelSize(1)); k++) {
+      int root = table.employeeAtLevel(1, k);
+      enter[root] = next;
+      next += subtreeSize[root];
+    }
+    for (int level = 1; level <= levelCount; level++) {
+      for (int k = 0; k < table.levelSize(level); k++) {
+        int manager = table.employeeAtLevel(level, k);
+        exit[manager] = enter[manager] + subtreeSize[manager];
+        int position = enter[manager] + 1;
+        for (int s = 0; s < table.subordinateCount(manager); s++) {
+          int subordinate = table.subordinate(manager, s);
+          enter[subordinate] = position;
+          position += subtreeSize[subordinate];
+        }
+      }
+    }
+
+    this.employeeAt = new int[size];
+    this.levelOffsets = new int[levelCount + 2];
+    for (int i = 0; i < size; i++) {
+      employeeAt[enter[i]] = i;
+      levelOffsets[table.level(i) + 1]++;
+    }
+    for (int level = 1; level <= levelCount; level++) {
+      levelOffsets[level + 1] += levelOffsets[level];
+    }
+    this.levelPositions = new int[size];
+    int[] fill = levelOffsets.clone();
+    for (int position = 0; position < size; position++) {
+      levelPositions[fill[table.level(employeeAt[position])]++] = position;
+    }
+  }
+
+  static PreOrder of(EmployeeTable table) {
+    return new PreOrder(table);
+  }
+
+  int indexOf(int id) {
+    int i = table.indexOf(id);
+    if (i < 0) {
+      throw new IllegalArgumentException("Unknown employee id: " + id);
+    }
+    return i;
+  }
+
+  boolean contains(int ancestor, int i) {
+    return enter[ancestor] <= enter[i] && enter[i] < exit[ancestor];
+  }
+
+  /**
+   * Finds the first employee of a level whose position is not less than the given one.
+   *
+   * @param level    the organizational level
+   * @param from     where to start searching in {@link #levelPositions}, within the level
+   * @param position the position
+   * @return the index into {@link #levelPositions}, up to the end of the level
+   */
+  int lowerBound(int level, int from, int position) {
+    int to = levelOffsets[level + 1];
+    while (from < to) {
+      int mid = (from + to) >>> 1;
+      if (levelPositions[mid] < position) {
+        from = mid + 1;
+      } else {
+        to = mid;
+      }
+    }
+    return from;
+  }
+}
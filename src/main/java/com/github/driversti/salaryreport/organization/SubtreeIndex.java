@@ -0,0 +1,136 @@
+package com.github.driversti.salaryreport.organization;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Collection;
+
+/**
+ * Answers roll-up queries over the subtree of a manager, such as the total payroll and headcount under them.
+ *
+ * <p>Employees are numbered in pre-order, so the subtree of every employee occupies a contiguous interval of
+ * positions. With prefix sums of salaries over that order, the aggregate of a subtree takes O(1). Positions are
+ * also grouped by level, each level keeping its own prefix sums, so the aggregate of a range of levels under a
+ * manager takes two binary searches per level in the range.
+ * <p>The index is built once, in linear time, and is read-only.
+ */
+public final class SubtreeIndex {
+
+  private final PreOrder preOrder;
+  private final long[] salaryPrefix;
+  private final long[] levelSalaryPrefix;
+
+  private SubtreeIndex(EmployeeTable table) {
+    this.preOrder = PreOrder.of(table);
+    int size = table.size();
+    this.salaryPrefix = new long[size + 1];
+    this.levelSalaryPrefix = new long[size + 1];
+    for (int position = 0; position < size; position++) {
+      salaryPrefix[position + 1] = salaryPrefix[position] + table.salaryCents(preOrder.employeeAt[position]);
+    }
+    for (int k = 0; k < size; k++) {
+      int i = preOrder.employeeAt[preOrder.levelPositions[k]];
+      levelSalaryPrefix[k + 1] = levelSalaryPrefix[k] + table.salaryCents(i);
+    }
+  }
+
+  /**
+   * Builds the index over an employee table.
+   *
+   * @param table the employee table
+   * @return the subtree index
+   */
+  public static SubtreeIndex of(EmployeeTable table) {
+    return new SubtreeIndex(table);
+  }
+
+  /**
+   * Builds the index over a collection of employees.
+   *
+   * @param employees the employees; salaries must be representable in whole cents
+   * @return the subtree index
+   * @throws IllegalArgumentException if ids are duplicated, a manager is unknown, or reporting lines form a cycle
+   */
+  public static SubtreeIndex of(Collection<Employee> employees) {
+    return new SubtreeIndex(ColumnarOrganization.of(employees));
+  }
+
+  /**
+   * Aggregates the employee and everybody who reports to them, directly or not.
+   *
+   * @param id the id of the employee
+   * @return the aggregate of the subtree
+   * @throws IllegalArgumentException if there is no such employee
+   */
+  public Aggregate subtree(int id) {
+    int i = preOrder.indexOf(id);
+    int enter = preOrder.enter[i];
+    int exit = preOrder.exit[i];
+    return new Aggregate(exit - enter, salaryPrefix[exit] - salaryPrefix[enter]);
+  }
+
+  /**
+   * Aggregates everybody who reports to the employee, directly or not, leaving out the employee themselves.
+   *
+   * @param id the id of the employee
+   * @return the aggregate of the subordinates
+   * @throws IllegalArgumentException if there is no such employee
+   */
+  public Aggregate subordinates(int id) {
+    int i = preOrder.indexOf(id);
+    int enter = preOrder.enter[i];
+    int exit = preOrder.exit[i];
+    return new Aggregate(exit - enter - 1, salaryPrefix[exit] - salaryPrefix[enter + 1]);
+  }
+
+  /**
+   * Aggregates the employees of the subtree of an employee whose organizational level is within a range, for
+   * instance levels 3 to 5 under a manager.
+   *
+   * @param id        the id of the employee
+   * @param fromLevel the first organizational level, inclusive; the CEO is at level 1
+   * @param toLevel   the last organizational level, inclusive
+   * @return the aggregate of the employees within the range
+   * @throws IllegalArgumentException if there is no such employee, or the range is empty
+   */
+  public Aggregate subtree(int id, int fromLevel, int toLevel) {
+    if (fromLevel > toLevel) {
+      throw new IllegalArgumentException("Invalid level range: " + fromLevel + ".." + toLevel);
+    }
+    int i = preOrder.indexOf(id);
+    EmployeeTable table = preOrder.table;
+    int headcount = 0;
+    long payrollCents = 0;
+    for (int level = Math.max(fromLevel, table.level(i)); level <= Math.min(toLevel, table.levelCount()); level++) {
+      int from = preOrder.lowerBound(level, preOrder.levelOffsets[level], preOrder.enter[i]);
+      int to = preOrder.lowerBound(level, from, preOrder.exit[i]);
+      headcount += to - from;
+      payrollCents += levelSalaryPrefix[to] - levelSalaryPrefix[from];
+    }
+    return new Aggregate(headcount, payrollCents);
+  }
+
+  /**
+   * The headcount and the total payroll of a group of employees.
+   *
+   * @param headcount    the number of employees
+   * @param payrollCents the sum of their salaries, in cents
+   */
+  public record Aggregate(int headcount, long payrollCents) {
+
+    public BigDecimal payroll() {
+      return BigDecimal.valueOf(payrollCents, 2);
+    }
+
+    /**
+     * Returns the average salary, rounded half up to cents, as the accountant does.
+     *
+     * @return the average salary, or zero if there are no employees
+     */
+    public BigDecimal averageSalary() {
+      if (headcount == 0) {
+        return BigDecimal.ZERO;
+      }
+      return payroll().divide(BigDecimal.valueOf(headcount), 2, RoundingMode.HALF_UP);
+    }
+  }
+}
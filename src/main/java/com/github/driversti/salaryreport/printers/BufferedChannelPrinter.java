@@ -0,0 +1,212 @@
+package com.github.driversti.salaryreport.printers;
+
+import java.io.Closeable;
+import java.io.FileDescriptor;
+import java.io.FileOutputStream;
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.TRUNCATE_EXISTING;
+import static java.nio.file.StandardOpenOption.WRITE;
+
+/**
+ * Implementation of the Printer interface that collects lines in a reusable buffer and writes them to a channel in
+ * large batches, encoded as UTF-8.
+ *
+ * <p>Unlike {@link ConsolePrinter}, printing a line neither takes a lock nor flushes, which makes printing large
+ * reports considerably faster. Lines can also be appended piece by piece, without concatenating them first.
+ * Nothing is written before the buffer fills up, so the printer must be flushed or closed once done.
+ * <p>The printer is not thread-safe. I/O errors are rethrown as {@link UncheckedIOException}s.
+ */
+public class BufferedChannelPrinter implements Printer, Flushable, Closeable {
+
+  private static final int DEFAULT_BUFFER_SIZE = 64 * 1024;
+  private static final int MIN_BUFFER_SIZE = 16; // room for any encoded character
+  private static final String LINE_SEPARATOR = System.lineSeparator();
+
+  private final WritableByteChannel channel;
+  private final boolean closeChannel;
+  private final ByteBuffer buffer;
+  private final CharsetEncoder encoder = StandardCharsets.UTF_8.newEncoder()
+      .onMalformedInput(CodingErrorAction.REPLACE)
+      .onUnmappableCharacter(CodingErrorAction.REPLACE);
+
+  /**
+   * Constructor. The channel is closed together with the printer.
+   *
+   * @param channel the channel to write to
+   */
+  public BufferedChannelPrinter(WritableByteChannel channel) {
+    this(channel, DEFAULT_BUFFER_SIZE);
+  }
+
+  /**
+   * Constructor. The channel is closed together with the printer.
+   *
+   * @param channel    the channel to write to
+   * @param bufferSize the number of bytes collected before writing them to the channel
+   */
+  public BufferedChannelPrinter(WritableByteChannel channel, int bufferSize) {
+    this(channel, bufferSize, true);
+  }
+
+  private BufferedChannelPrinter(WritableByteChannel channel, int bufferSize, boolean closeChannel) {
+    if (bufferSize < MIN_BUFFER_SIZE) {
+      throw new IllegalArgumentException("The buffer size must be at least " + MIN_BUFFER_SIZE);
+    }
+    this.channel = channel;
+    this.closeChannel = closeChannel;
+    this.buffer = ByteBuffer.allocate(bufferSize);
+  }
+
+  /**
+   * Creates a printer writing to the standard output, bypassing {@link System#out}. Closing the printer flushes it,
+   * but leaves the standard output open.
+   *
+   * @return the printer
+   */
+  public static BufferedChannelPrinter toStandardOutput() {
+    System.out.flush(); // keep what has been printed before in order
+    return new BufferedChannelPrinter(
+        Channels.newChannel(new FileOutputStream(FileDescriptor.out)), DEFAULT_BUFFER_SIZE, false);
+  }
+
+  /**
+   * Creates a printer writing to a file, replacing its content.
+   *
+   * @param file the file to write
+   * @return the printer
+   * @throws IOException if the file cannot be opened
+   */
+  public static BufferedChannelPrinter toFile(Path file) throws IOException {
+    return new BufferedChannelPrinter(FileChannel.open(file, CREATE, TRUNCATE_EXISTING, WRITE));
+  }
+
+  /**
+   * Prints the given string as a line.
+   *
+   * @param s the string to print
+   */
+  @Override
+  public void print(String s) {
+    append(s).newLine();
+  }
+
+  /**
+   * Prints the given pieces as a line, appending them one by one.
+   *
+   * @param pieces the pieces of the line
+   */
+  @Override
+  public void printLine(CharSequence... pieces) {
+    for (CharSequence piece : pieces) {
+      append(piece);
+    }
+    newLine();
+  }
+
+  /**
+   * Appends characters to the current line.
+   *
+   * @param s the characters to append
+   * @return this printer
+   */
+  public BufferedChannelPrinter append(CharSequence s) {
+    int length = s.length();
+    for (int i = 0; i < length; i++) {
+      char c = s.charAt(i);
+      if (c >= 0x80) {
+        encode(s, i);
+        return this;
+      }
+      if (!buffer.hasRemaining()) {
+        drain();
+      }
+      buffer.put((byte) c);
+    }
+    return this;
+  }
+
+  /**
+   * Appends a character to the current line.
+   *
+   * @param c the character to append
+   * @return this printer
+   */
+  public BufferedChannelPrinter append(char c) {
+    if (c >= 0x80) {
+      return append(String.valueOf(c));
+    }
+    if (!buffer.hasRemaining()) {
+      drain();
+    }
+    buffer.put((byte) c);
+    return this;
+  }
+
+  /**
+   * Ends the current line.
+   *
+   * @return this printer
+   */
+  public BufferedChannelPrinter newLine() {
+    return append(LINE_SEPARATOR);
+  }
+
+  /**
+   * Writes everything printed so far to the channel.
+   */
+  @Override
+  public void flush() {
+    drain();
+  }
+
+  /**
+   * Flushes the printer and closes the channel, unless it is the standard output.
+   */
+  @Override
+  public void close() {
+    flush();
+    if (closeChannel) {
+      try {
+        channel.close();
+      } catch (IOException e) {
+        throw new UncheckedIOException(e);
+      }
+    }
+  }
+
+  private void encode(CharSequence s, int start) {
+    CharBuffer chars = CharBuffer.wrap(s, start, s.length());
+    encoder.reset();
+    while (encoder.encode(chars, buffer, true).isOverflow()) {
+      drain();
+    }
+    while (encoder.flush(buffer).isOverflow()) {
+      drain();
+    }
+  }
+
+  private void drain() {
+    buffer.flip();
+    try {
+      while (buffer.hasRemaining()) {
+        channel.write(buffer);
+      }
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+    buffer.clear();
+  }
+}
@@ -2,8 +2,6 @@ package com.github.driversti.salaryreport.printers;
 
 import com.github.driversti.salaryreport.organization.Employee;
 
-import static java.lang.String.format;
-
 /**
  * Implementation of Printer interface that prints Employee objects using the provided Printer object.
  */
@@ -30,6 +28,16 @@ public class EmployeePrinter implements Printer {
     printer.print(s);
   }
 
+  /**
+   * Prints a line made of the provided pieces.
+   *
+   * @param pieces Pieces of the line to print.
+   */
+  @Override
+  public void printLine(CharSequence... pieces) {
+    printer.printLine(pieces);
+  }
+
   /**
    * Prints the full name of the provided Employee object.
    *
@@ -41,12 +49,13 @@ public class EmployeePrinter implements Printer {
 
   /**
    * Prints the full name of the provided Employee object with the provided postfix.
+   * <p>The line is passed to the printer piece by piece, so that a {@link BufferedChannelPrinter} does not build it as
+   * a string first.
    *
    * @param employee    Employee object to print.
    * @param withPostfix Postfix to append to the full name.
    */
   public void printEmployeeWithPostfix(Employee employee, String withPostfix) {
-    String str = format("%s %s", employee.getFullName(), withPostfix);
-    this.print(str);
+    printer.printLine(employee.firstName(), " ", employee.lastName(), " ", withPostfix);
   }
 }
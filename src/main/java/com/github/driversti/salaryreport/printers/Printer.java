@@ -6,4 +6,14 @@ package com.github.driversti.salaryreport.printers;
 public interface Printer {
 
   void print(String s);
+
+  /**
+   * Prints a line made of the given pieces, as {@link #print(String)} prints their concatenation.
+   * <p>Printers writing to a buffer can append the pieces one by one, instead of building the line first.
+   *
+   * @param pieces the pieces of the line
+   */
+  default void printLine(CharSequence... pieces) {
+    print(String.join("", pieces));
+  }
 }
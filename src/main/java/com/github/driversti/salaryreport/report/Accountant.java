@@ -7,7 +7,6 @@ import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.util.List;
 import java.util.Map;
-import java.util.TreeMap;
 import java.util.stream.Collectors;
 
 /**
@@ -15,10 +14,11 @@ import java.util.stream.Collectors;
  */
 public class Accountant {
 
-  private static final BigDecimal MIN_SALARY_INCREASE = BigDecimal.valueOf(1.20); // 20% increase
-  private static final BigDecimal MAX_SALARY_INCREASE = BigDecimal.valueOf(1.50); // 50% increase
+  static final BigDecimal MIN_SALARY_INCREASE = BigDecimal.valueOf(1.20); // 20% increase
+  static final BigDecimal MAX_SALARY_INCREASE = BigDecimal.valueOf(1.50); // 50% increase
 
   private final OrganizationalStructure structure;
+  private final ResultCache cache;
 
   /**
    * Creates a new Accountant instance.
@@ -26,11 +26,25 @@ public class Accountant {
    * @param structure The organizational structure.
    */
   public Accountant(OrganizationalStructure structure) {
+    this(structure, null);
+  }
+
+  /**
+   * Creates a new Accountant instance which caches its results, keyed by the version of the structure. Repeated
+   * queries about the same structure, also from other accountants sharing the cache, are not computed again.
+   *
+   * @param structure The organizational structure.
+   * @param cache     The cache of results, or null to compute every result.
+   */
+  public Accountant(OrganizationalStructure structure, ResultCache cache) {
     this.structure = structure;
+    this.cache = cache;
   }
 
   /**
    * Calculates the average salary of a list of employees.
+   * <p>The salaries are summed up in cents with long arithmetic, unless some salary is in fractions of a cent or
+   * the sum does not fit into a long.
    *
    * @param employees The list of employees.
    * @return The average salary as a BigDecimal.
@@ -40,6 +54,16 @@ public class Accountant {
       return BigDecimal.ZERO;
     }
 
+    try {
+      long sumCents = 0;
+      for (Employee employee : employees) {
+        sumCents = Math.addExact(sumCents, SalaryMath.toCents(employee.salary()));
+      }
+      return BigDecimal.valueOf(SalaryMath.averageCents(sumCents, employees.size()), 2);
+    } catch (ArithmeticException e) {
+      // fall back to BigDecimal arithmetic
+    }
+
     return employees.stream()
         .map(Employee::salary)
         .reduce(BigDecimal.ZERO, BigDecimal::add)
@@ -52,6 +76,14 @@ public class Accountant {
    * @return A map of organizational levels to average salaries.
    */
   public Map<Integer, BigDecimal> averageSalaryByLevel() {
+    if (cache != null) {
+      return cache.get(structure.version(), Query.AVERAGE_SALARY_BY_LEVEL,
+          () -> Map.copyOf(computeAverageSalaryByLevel()));
+    }
+    return computeAverageSalaryByLevel();
+  }
+
+  private Map<Integer, BigDecimal> computeAverageSalaryByLevel() {
     return structure.employeesByLevel()
         .entrySet()
         .stream()
@@ -62,33 +94,58 @@ public class Accountant {
   }
 
   /**
-   * Creates a salary report for the organization.
+   * Creates a salary report for the organization. Every manager is compared against the average salary of their
+   * direct subordinates.
    *
    * @return The salary report.
    */
   public OrganizationalSalaryReport createSalaryReport() {
-    Map<Integer, SalaryCategorizer> reportByLevel = new TreeMap<>();
+    return createSalaryReport(MIN_SALARY_INCREASE, MAX_SALARY_INCREASE);
+  }
 
-    Map<Integer, List<Employee>> employeesByLevel = structure.employeesByLevel();
-    employeesByLevel.forEach((level, managers) -> {
-      List<Employee> subordinates = employeesByLevel.getOrDefault(level + 1, List.of());
-      SalaryCategorizer categorizer = categorizeEmployees(managers, subordinates);
-      reportByLevel.put(level, categorizer);
-    });
+  /**
+   * Creates a salary report for the organization with the given salary band. Every manager is expected to earn
+   * between the average salary of their direct subordinates multiplied by the minimum and by the maximum increase.
+   *
+   * @param minSalaryIncrease The minimum increase, e.g. 1.2 for 20% more than the subordinates.
+   * @param maxSalaryIncrease The maximum increase, e.g. 1.5 for 50% more than the subordinates.
+   * @return The salary report.
+   */
+  public OrganizationalSalaryReport createSalaryReport(BigDecimal minSalaryIncrease, BigDecimal maxSalaryIncrease) {
+    if (cache != null) {
+      return cache.get(structure.version(), new SalaryReportQuery(minSalaryIncrease, maxSalaryIncrease),
+          () -> computeSalaryReport(minSalaryIncrease, maxSalaryIncrease));
+    }
+    return computeSalaryReport(minSalaryIncrease, maxSalaryIncrease);
+  }
 
-    return new OrganizationalSalaryReport(reportByLevel);
+  /**
+   * Creates one salary report per salary band policy, evaluating all of them in a single scan over the
+   * organization instead of creating every report separately.
+   *
+   * @param policies The policies, deciding the salary band of every manager.
+   * @return The salary reports, in the order of the policies.
+   */
+  public List<OrganizationalSalaryReport> createSalaryReports(List<SalaryBandPolicy> policies) {
+    return SalaryBandEvaluator.of(structure).evaluate(policies);
   }
 
-  private BigDecimal averageSalaryIncreaseBy(List<Employee> employees, BigDecimal increaseBy) {
-    if (employees.isEmpty()) return BigDecimal.ZERO;
-    return averageSalaryOf(employees).multiply(increaseBy);
+  private OrganizationalSalaryReport computeSalaryReport(BigDecimal minSalaryIncrease, BigDecimal maxSalaryIncrease) {
+    return new SubordinateSalaryEngine(minSalaryIncrease, maxSalaryIncrease).createSalaryReport(structure);
   }
 
-  private SalaryCategorizer categorizeEmployees(List<Employee> managers, List<Employee> subordinates) {
-    BigDecimal minExpectedSalary = averageSalaryIncreaseBy(subordinates, MIN_SALARY_INCREASE);
-    BigDecimal maxExpectedSalary = averageSalaryIncreaseBy(subordinates, MAX_SALARY_INCREASE);
-    SalaryCategorizer categorizer = new SalaryCategorizer(minExpectedSalary, maxExpectedSalary);
-    managers.forEach(categorizer::addEmployee);
-    return categorizer;
+  private enum Query {
+    AVERAGE_SALARY_BY_LEVEL
+  }
+
+  /**
+   * The key of a cached salary report; increases are compared by value, whatever their scale.
+   */
+  private record SalaryReportQuery(BigDecimal minSalaryIncrease, BigDecimal maxSalaryIncrease) {
+
+    SalaryReportQuery {
+      minSalaryIncrease = minSalaryIncrease.stripTrailingZeros();
+      maxSalaryIncrease = maxSalaryIncrease.stripTrailingZeros();
+    }
   }
 }
@@ -0,0 +1,33 @@
+package com.github.driversti.salaryreport.report;
+
+import com.github.driversti.salaryreport.organization.Employee;
+
+import java.math.BigDecimal;
+
+/**
+ * The salary discrepancy of an employee below or above their expected salary range, as printed in the report.
+ *
+ * @param employee            the employee
+ * @param level               the organizational level of the employee
+ * @param hundredthsOfPercent the discrepancy in hundredths of a percent: negative below, positive above the range
+ */
+public record Discrepancy(Employee employee, int level, long hundredthsOfPercent) {
+
+  /**
+   * Returns the discrepancy in percent.
+   *
+   * @return the discrepancy, e.g. -12.50 for 12.50% below the expected salary range
+   */
+  public BigDecimal percentage() {
+    return BigDecimal.valueOf(hundredthsOfPercent, 2);
+  }
+
+  /**
+   * Formats the discrepancy as in the report.
+   *
+   * @return the discrepancy, e.g. "-12.50%" or "+3.00%"
+   */
+  public String formatted() {
+    return (hundredthsOfPercent < 0 ? "" : "+") + SalaryMath.formatHundredths(hundredthsOfPercent) + "%";
+  }
+}
@@ -0,0 +1,341 @@
+package com.github.driversti.salaryreport.report;
+
+import com.github.driversti.salaryreport.organization.Employee;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Answers questions on the salary discrepancies of a report, such as the 100 most underpaid managers, or the 90th
+ * percentile of overpay per level, without sorting all discrepancies.
+ *
+ * <p>Discrepancies are computed in hundredths of a percent, as printed in the report, while iterating over the
+ * categorized employees; only the employees below or above expectation are visited. The top K are kept in a
+ * bounded heap of primitive keys, in O(n log k). Exact percentiles select the rank of every level in place, in
+ * O(n) on average, and approximate ones are read from a {@link QuantileSketch} filled in a single pass.
+ * <p>Percentiles are of the magnitude of discrepancies: the 90th percentile of employees below expectation is the
+ * shortfall that 90% of them do not exceed.
+ */
+public final class DiscrepancyQueries {
+
+  private final Map<Integer, SalaryCategorizer> reportPerLevel;
+
+  private DiscrepancyQueries(Map<Integer, SalaryCategorizer> reportPerLevel) {
+    this.reportPerLevel = reportPerLevel;
+  }
+
+  /**
+   * Creates queries over a report.
+   *
+   * @param report the salary report
+   * @return the queries
+   */
+  public static DiscrepancyQueries of(OrganizationalSalaryReport report) {
+    return new DiscrepancyQueries(report.reportPerLevel());
+  }
+
+  /**
+   * Returns the employees furthest below their expected salary range, on all levels.
+   *
+   * @param k the maximum number of employees
+   * @return up to k discrepancies, the largest shortfall first, ties by employee id
+   * @throws IllegalArgumentException if k is negative
+   */
+  public List<Discrepancy> mostBelowExpectation(int k) {
+    TopK top = new TopK(k, reportPerLevel.values().stream().mapToLong(SalaryCategorizer::getBelowCount).sum());
+    reportPerLevel.forEach((level, categorizer) -> categorizer.forEachBelowExpectation((employee, expected) ->
+        top.offer(employee, level, belowExpectationHundredths(employee.salary(), expected))));
+    return top.toList();
+  }
+
+  /**
+   * Returns the employees furthest above their expected salary range, on all levels.
+   *
+   * @param k the maximum number of employees
+   * @return up to k discrepancies, the largest excess first, ties by employee id
+   * @throws IllegalArgumentException if k is negative
+   */
+  public List<Discrepancy> mostAboveExpectation(int k) {
+    TopK top = new TopK(k, reportPerLevel.values().stream().mapToLong(SalaryCategorizer::getAboveCount).sum());
+    reportPerLevel.forEach((level, categorizer) -> categorizer.forEachAboveExpectation((employee, expected) ->
+        top.offer(employee, level, aboveExpectationHundredths(employee.salary(), expected))));
+    return top.toList();
+  }
+
+  /**
+   * Returns the exact percentile, by nearest rank, of the shortfall of the employees below expectation on every
+   * level.
+   *
+   * @param percentile the percentile, from 0 to 1, e.g. 0.9
+   * @return the shortfall in percent by level, for the levels with employees below expectation
+   * @throws IllegalArgumentException if the percentile is out of range
+   */
+  public Map<Integer, BigDecimal> belowExpectationPercentiles(double percentile) {
+    requirePercentile(percentile);
+    Map<Integer, BigDecimal> percentiles = new TreeMap<>();
+    reportPerLevel.forEach((level, categorizer) -> {
+      long[] shortfalls = new long[categorizer.getBelowCount()];
+      int[] count = new int[1];
+      categorizer.forEachBelowExpectation((employee, expected) ->
+          shortfalls[count[0]++] = -belowExpectationHundredths(employee.salary(), expected));
+      if (shortfalls.length > 0) {
+        percentiles.put(level, BigDecimal.valueOf(select(shortfalls, rankOf(percentile, shortfalls.length)), 2));
+      }
+    });
+    return percentiles;
+  }
+
+  /**
+   * Returns the exact percentile, by nearest rank, of the excess of the employees above expectation on every level.
+   *
+   * @param percentile the percentile, from 0 to 1, e.g. 0.9
+   * @return the excess in percent by level, for the levels with employees above expectation
+   * @throws IllegalArgumentException if the percentile is out of range
+   */
+  public Map<Integer, BigDecimal> aboveExpectationPercentiles(double percentile) {
+    requirePercentile(percentile);
+    Map<Integer, BigDecimal> percentiles = new TreeMap<>();
+    reportPerLevel.forEach((level, categorizer) -> {
+      long[] excesses = new long[categorizer.getAboveCount()];
+      int[] count = new int[1];
+      categorizer.forEachAboveExpectation((employee, expected) ->
+          excesses[count[0]++] = aboveExpectationHundredths(employee.salary(), expected));
+      if (excesses.length > 0) {
+        percentiles.put(level, BigDecimal.valueOf(select(excesses, rankOf(percentile, excesses.length)), 2));
+      }
+    });
+    return percentiles;
+  }
+
+  /**
+   * Sketches the shortfall, in percent, of the employees below expectation on every level, to answer any number of
+   * approximate percentile queries.
+   *
+   * @param relativeAccuracy the relative accuracy of the sketches, e.g. 0.01
+   * @return a sketch by level, for the levels with employees below expectation
+   */
+  public Map<Integer, QuantileSketch> belowExpectationSketches(double relativeAccuracy) {
+    Map<Integer, QuantileSketch> sketches = new TreeMap<>();
+    reportPerLevel.forEach((level, categorizer) -> {
+      if (categorizer.getBelowCount() > 0) {
+        QuantileSketch sketch = new QuantileSketch(relativeAccuracy);
+        categorizer.forEachBelowExpectation((employee, expected) ->
+            sketch.add(-belowExpectationHundredths(employee.salary(), expected) / 100.0));
+        sketches.put(level, sketch);
+      }
+    });
+    return sketches;
+  }
+
+  /**
+   * Sketches the excess, in percent, of the employees above expectation on every level, to answer any number of
+   * approximate percentile queries.
+   *
+   * @param relativeAccuracy the relative accuracy of the sketches, e.g. 0.01
+   * @return a sketch by level, for the levels with employees above expectation
+   */
+  public Map<Integer, QuantileSketch> aboveExpectationSketches(double relativeAccuracy) {
+    Map<Integer, QuantileSketch> sketches = new TreeMap<>();
+    reportPerLevel.forEach((level, categorizer) -> {
+      if (categorizer.getAboveCount() > 0) {
+        QuantileSketch sketch = new QuantileSketch(relativeAccuracy);
+        categorizer.forEachAboveExpectation((employee, expected) ->
+            sketch.add(aboveExpectationHundredths(employee.salary(), expected) / 100.0));
+        sketches.put(level, sketch);
+      }
+    });
+    return sketches;
+  }
+
+  /**
+   * Calculates the discrepancy of a salary below the minimum expected salary, as printed in the report.
+   *
+   * @return the discrepancy in hundredths of a percent, not positive
+   */
+  static long belowExpectationHundredths(BigDecimal salary, BigDecimal minExpectedSalary) {
+    try {
+      return SalaryMath.discrepancyHundredthsOfPercent(salary, minExpectedSalary);
+    } catch (ArithmeticException e) {
+      // too large or too precise for fixed-point arithmetic
+    }
+    return toHundredths(OrganizationalSalaryReport.discrepancyPercentage(salary, minExpectedSalary));
+  }
+
+  /**
+   * Calculates the discrepancy of a salary above the maximum expected salary, as printed in the report.
+   *
+   * @return the discrepancy in hundredths of a percent, not negative
+   */
+  static long aboveExpectationHundredths(BigDecimal salary, BigDecimal maxExpectedSalary) {
+    try {
+      return SalaryMath.discrepancyHundredthsOfPercent(salary, maxExpectedSalary);
+    } catch (ArithmeticException e) {
+      // too large or too precise for fixed-point arithmetic
+    }
+    return toHundredths(OrganizationalSalaryReport.discrepancyPercentage(salary, maxExpectedSalary));
+  }
+
+  private static long toHundredths(BigDecimal percentage) {
+    return percentage.movePointRight(2).setScale(0, RoundingMode.HALF_UP).longValueExact();
+  }
+
+  private static void requirePercentile(double percentile) {
+    if (!(percentile >= 0 && percentile <= 1)) {
+      throw new IllegalArgumentException("The percentile must be between 0 and 1: " + percentile);
+    }
+  }
+
+  private static int rankOf(double percentile, int count) {
+    return Math.max(1, (int) Math.ceil(percentile * count));
+  }
+
+  /**
+   * Returns the value of the given rank, starting at 1, reordering the values in place: quickselect with a
+   * median-of-three pivot, which falls back to sorting the remaining range if it does not converge.
+   */
+  static long select(long[] values, int rank) {
+    int target = rank - 1;
+    int from = 0;
+    int to = values.length - 1;
+    int budget = 2 * (32 - Integer.numberOfLeadingZeros(values.length));
+    while (from < to) {
+      if (budget-- == 0) {
+        Arrays.sort(values, from, to + 1);
+        break;
+      }
+      long pivot = medianOfThree(values[from], values[(from + to) >>> 1], values[to]);
+      // partition into < pivot, == pivot and > pivot
+      int lower = from;
+      int upper = to;
+      int i = from;
+      while (i <= upper) {
+        if (values[i] < pivot) {
+          swap(values, i++, lower++);
+        } else if (values[i] > pivot) {
+          swap(values, i, upper--);
+        } else {
+          i++;
+        }
+      }
+      if (target < lower) {
+        to = lower - 1;
+      } else if (target > upper) {
+        from = upper + 1;
+      } else {
+        return pivot;
+      }
+    }
+    return values[target];
+  }
+
+  private static long medianOfThree(long a, long b, long c) {
+    return Math.max(Math.min(a, b), Math.min(Math.max(a, b), c));
+  }
+
+  private static void swap(long[] values, int i, int j) {
+    long value = values[i];
+    values[i] = values[j];
+    values[j] = value;
+  }
+
+  /**
+   * Keeps the k largest discrepancies in magnitude in a min-heap, whose root is the first to be replaced. The heap
+   * is sized for at most the number of discrepancies that will be offered, however large k is.
+   */
+  private static final class TopK {
+
+    private final long[] magnitudes;
+    private final long[] discrepancies;
+    private final Employee[] employees;
+    private final int[] levels;
+    private int size;
+
+    private TopK(int k, long candidates) {
+      if (k < 0) {
+        throw new IllegalArgumentException("k must not be negative: " + k);
+      }
+      int capacity = (int) Math.min(k, candidates);
+      this.magnitudes = new long[capacity];
+      this.discrepancies = new long[capacity];
+      this.employees = new Employee[capacity];
+      this.levels = new int[capacity];
+    }
+
+    void offer(Employee employee, int level, long discrepancy) {
+      long magnitude = Math.abs(discrepancy);
+      if (size < magnitudes.length) {
+        set(size, magnitude, discrepancy, employee, level);
+        siftUp(size++);
+      } else if (size > 0 && isWorse(magnitude, employee.id(), 0)) {
+        set(0, magnitude, discrepancy, employee, level);
+        siftDown(0);
+      }
+    }
+
+    List<Discrepancy> toList() {
+      List<Discrepancy> list = new ArrayList<>(size);
+      for (int i = 0; i < size; i++) {
+        list.add(new Discrepancy(employees[i], levels[i], discrepancies[i]));
+      }
+      list.sort(Comparator.comparingLong((Discrepancy discrepancy) -> -Math.abs(discrepancy.hundredthsOfPercent()))
+          .thenComparingInt(discrepancy -> discrepancy.employee().id()));
+      return list;
+    }
+
+    /**
+     * Whether a discrepancy ranks before the one at the given heap position: larger, or as large with a lower id.
+     */
+    private boolean isWorse(long magnitude, int id, int position) {
+      return magnitude != magnitudes[position] ? magnitude > magnitudes[position] : id < employees[position].id();
+    }
+
+    private void siftUp(int position) {
+      while (position > 0) {
+        int parent = (position - 1) >>> 1;
+        if (!isWorse(magnitudes[parent], employees[parent].id(), position)) {
+          return;
+        }
+        swap(position, parent);
+        position = parent;
+      }
+    }
+
+    private void siftDown(int position) {
+      while (true) {
+        int smallest = position;
+        for (int child = 2 * position + 1; child <= 2 * position + 2 && child < size; child++) {
+          if (isWorse(magnitudes[smallest], employees[smallest].id(), child)) {
+            smallest = child;
+          }
+        }
+        if (smallest == position) {
+          return;
+        }
+        swap(position, smallest);
+        position = smallest;
+      }
+    }
+
+    private void set(int position, long magnitude, long discrepancy, Employee employee, int level) {
+      magnitudes[position] = magnitude;
+      discrepancies[position] = discrepancy;
+      employees[position] = employee;
+      levels[position] = level;
+    }
+
+    private void swap(int i, int j) {
+      long magnitude = magnitudes[i];
+      long discrepancy = discrepancies[i];
+      Employee employee = employees[i];
+      int level = levels[i];
+      set(i, magnitudes[j], discrepancies[j], employees[j], levels[j]);
+      set(j, magnitude, discrepancy, employee, level);
+    }
+  }
+}
@@ -0,0 +1,451 @@
+package com.github.driversti.salaryreport.report;
+
+import com.github.driversti.salaryreport.organization.Employee;
+import com.github.driversti.salaryreport.organization.EmployeeChange;
+import com.github.driversti.salaryreport.organization.IdIndex;
+import com.github.driversti.salaryreport.organization.LevelAssigner;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * Keeps a salary report up to date while employees are inserted, updated and deleted, without recomputing it from
+ * scratch.
+ *
+ * <p>The salary sum and count of the direct subordinates, the level and the salary category of every employee are
+ * kept in primitive arrays and updated in place. A change re-categorizes only the changed employees and their old
+ * and new managers, plus the whole subtree of an employee who moves to a different level. The
+ * {@link SalaryCategorizer} of every level is updated in place as well: the position of every employee in the
+ * categorizer of their level is indexed by id, so a re-categorized employee is replaced at their position, an
+ * employee arriving on a level is appended, and one leaving it is removed. Positions left empty are dropped once they
+ * outnumber the employees of the level. Applying changes therefore takes time proportional to the change size,
+ * rather than to the size of the organization.
+ * <p>The employees below and above expectation are reported as {@link SubordinateSalaryEngine} does for the same
+ * employees, in id order; the employees within expectation are kept in the order they arrived on their level.
+ * Salaries must be whole cents.
+ */
+public class IncrementalSalaryReport {
+
+  private static final int NONE = -1;
+
+  private final SalaryMath.Factor minFactor;
+  private final SalaryMath.Factor maxFactor;
+  private final IdIndex ids;
+  private final Map<Integer, SalaryCategorizer> reportByLevel = new TreeMap<>();
+
+  // per-employee state, indexed by the id index; the employee of a deleted slot is null
+  private int size;
+  private int ceo = NONE;
+  private Employee[] employees;
+  private long[] salaryCents;
+  private int[] managerIndex;
+  private int[] levels;
+  private long[] subordinateSalarySums;
+  private int[] subordinateCounts;
+  private int[] firstSubordinate;
+  private int[] nextSibling;
+  private int[] previousSibling;
+  private byte[] categories;
+  private int[] reportedLevels; // the level of the categorizer holding the employee, or 0
+  private int[] positions; // the position of the employee in that categorizer
+
+  // the employees touched by the changes being applied
+  private int[] touchedEpochs;
+  private int epoch;
+  private int[] touched;
+  private int touchedCount;
+  private final TreeSet<Integer> dirtyLevels = new TreeSet<>();
+
+  private IncrementalSalaryReport(SalaryMath.Factor minFactor, SalaryMath.Factor maxFactor, int capacity) {
+    this.minFactor = minFactor;
+    this.maxFactor = maxFactor;
+    this.ids = new IdIndex(capacity);
+    allocate(Math.max(capacity, 16));
+  }
+
+  /**
+   * Creates the report of an organization, comparing managers against 120% to 150% of the average salary of their
+   * direct subordinates like {@link Accountant} does.
+   *
+   * @param employees the employees of the organization
+   * @return the report
+   * @throws IllegalArgumentException if an employee does not report to the CEO or has a salary in fractions of a cent
+   */
+  public static IncrementalSalaryReport of(Collection<Employee> employees) {
+    return of(employees, Accountant.MIN_SALARY_INCREASE, Accountant.MAX_SALARY_INCREASE);
+  }
+
+  /**
+   * Creates the report of an organization.
+   *
+   * @param employees         the employees of the organization
+   * @param minSalaryIncrease the factor applied to the average salary of subordinates to get the minimum expected
+   *                          salary of their manager, e.g. 1.20 for 20% more
+   * @param maxSalaryIncrease the factor applied to the average salary of subordinates to get the maximum expected
+   *                          salary of their manager, e.g. 1.50 for 50% more
+   * @return the report
+   * @throws IllegalArgumentException if an employee does not report to the CEO or has a salary in fractions of a cent
+   */
+  public static IncrementalSalaryReport of(Collection<Employee> employees,
+                                           BigDecimal minSalaryIncrease, BigDecimal maxSalaryIncrease) {
+    IncrementalSalaryReport report = new IncrementalSalaryReport(
+        factorOf(minSalaryIncrease), factorOf(maxSalaryIncrease), employees.size());
+    report.load(employees);
+    return report;
+  }
+
+  /**
+   * Returns the report of the organization in its current state. The report shares the categorizers of this one,
+   * which are updated in place, so it is only valid until the next changes are applied.
+   *
+   * @return the salary report
+   */
+  public OrganizationalSalaryReport report() {
+    return new OrganizationalSalaryReport(reportByLevel);
+  }
+
+  /**
+   * Applies changes in the given order. Updated employees are replaced in full, so they may change their name,
+   * salary and manager at once.
+   * <p>Every change is checked before it is applied. If a change is rejected, the changes before it remain applied.
+   *
+   * @param changes the changes to apply
+   * @return the number of re-categorized employees, including deleted ones
+   * @throws IllegalArgumentException if a change refers to an unknown employee or manager, inserts an existing
+   *                                  employee, deletes a manager who still has subordinates, creates a reporting
+   *                                  cycle or a second CEO, or has a salary in fractions of a cent
+   */
+  public int apply(List<EmployeeChange> changes) {
+    epoch++;
+    touchedCount = 0;
+    dirtyLevels.clear();
+    try {
+      for (EmployeeChange change : changes) {
+        switch (change.type()) {
+          case INSERT -> insert(change.employee());
+          case UPDATE -> update(change.employee());
+          case DELETE -> delete(change.id());
+        }
+      }
+    } finally {
+      recategorizeTouched();
+    }
+    return touchedCount;
+  }
+
+  private void load(Collection<Employee> unsorted) {
+    List<Employee> sorted = new ArrayList<>(unsorted);
+    sorted.sort(Comparator.comparingInt(Employee::id));
+    for (Employee employee : sorted) {
+      int index = ids.add(employee.id());
+      employees[index] = employee;
+      salaryCents[index] = centsOf(employee);
+      size++;
+    }
+    for (int i = 0; i < size; i++) {
+      int managerId = employees[i].managerId();
+      managerIndex[i] = managerId == -1 ? LevelAssigner.NO_MANAGER : indexOfOrUnknown(managerId);
+    }
+    LevelAssigner.LevelAssignment assignment = LevelAssigner.assign(managerIndex, size);
+    assignment.requireComplete(i -> employees[i].id());
+    int[] roots = assignment.roots();
+    ceo = roots.length == 0 ? NONE : roots[0];
+    int[] assigned = assignment.levels();
+    for (int i = 0; i < size; i++) {
+      levels[i] = assigned[i];
+      if (managerIndex[i] != NONE) {
+        link(i, managerIndex[i]);
+      }
+    }
+    // employees are indexed in id order, so every level is built in id order
+    for (int i = 0; i < size; i++) {
+      categories[i] = categoryOf(i);
+      place(i);
+    }
+  }
+
+  private void insert(Employee employee) {
+    int index = ids.indexOf(employee.id());
+    if (index >= 0 && employees[index] != null) {
+      throw new IllegalArgumentException("Employee " + employee.id() + " exists already");
+    }
+    long cents = centsOf(employee);
+    int manager = managerIndexOf(employee);
+    if (index < 0) {
+      index = ids.add(employee.id());
+      ensureCapacity(index + 1);
+      size++;
+    }
+    employees[index] = employee;
+    salaryCents[index] = cents;
+    subordinateSalarySums[index] = 0;
+    subordinateCounts[index] = 0;
+    firstSubordinate[index] = NONE;
+    managerIndex[index] = manager;
+    levels[index] = manager == NONE ? 1 : levels[manager] + 1;
+    if (manager != NONE) {
+      link(index, manager);
+      touch(manager);
+    } else {
+      ceo = index;
+    }
+    touch(index);
+  }
+
+  private void update(Employee employee) {
+    int index = aliveIndexOf(employee.id());
+    long cents = centsOf(employee);
+    int oldManager = managerIndex[index];
+    int newManager = managerIndexOf(employee);
+    if (newManager != NONE) {
+      requireNoCycle(index, newManager);
+    }
+    touch(index);
+    if (oldManager != NONE) {
+      unlink(index, oldManager);
+      touch(oldManager);
+    }
+    employees[index] = employee;
+    salaryCents[index] = cents;
+    managerIndex[index] = newManager;
+    if (newManager != NONE) {
+      link(index, newManager);
+      touch(newManager);
+    } else {
+      ceo = index;
+    }
+    int levelShift = (newManager == NONE ? 1 : levels[newManager] + 1) - levels[index];
+    if (levelShift != 0) {
+      shiftSubtree(index, levelShift);
+    }
+  }
+
+  private void delete(int id) {
+    int index = aliveIndexOf(id);
+    if (subordinateCounts[index] > 0) {
+      throw new IllegalArgumentException("Employee " + id + " cannot be deleted, "
+          + subordinateCounts[index] + " employees still report to them");
+    }
+    touch(index);
+    int manager = managerIndex[index];
+    if (manager != NONE) {
+      unlink(index, manager);
+      touch(manager);
+    }
+    employees[index] = null;
+  }
+
+  /**
+   * Moves an employee and everybody below them by the given number of levels.
+   */
+  private void shiftSubtree(int root, int levelShift) {
+    int[] stack = new int[16];
+    int depth = 0;
+    stack[depth++] = root;
+    while (depth > 0) {
+      int current = stack[--depth];
+      touch(current); // marks the old level dirty
+      levels[current] += levelShift;
+      dirtyLevels.add(levels[current]);
+      for (int child = firstSubordinate[current]; child != NONE; child = nextSibling[child]) {
+        if (depth == stack.length) {
+          stack = Arrays.copyOf(stack, depth * 2);
+        }
+        stack[depth++] = child;
+      }
+    }
+  }
+
+  private void requireNoCycle(int employee, int newManager) {
+    for (int current = newManager; current != NONE; current = managerIndex[current]) {
+      if (current == employee) {
+        throw new IllegalArgumentException("Employee " + employees[employee].id()
+            + " cannot report to " + employees[newManager].id() + ", that would create a reporting cycle");
+      }
+    }
+  }
+
+  private void recategorizeTouched() {
+    for (int k = 0; k < touchedCount; k++) {
+      int index = touched[k];
+      int reportedLevel = reportedLevels[index];
+      if (reportedLevel != 0 && (employees[index] == null || reportedLevel != levels[index])) {
+        reportByLevel.get(reportedLevel).remove(positions[index]);
+        reportedLevels[index] = 0;
+      }
+      if (employees[index] != null) {
+        categories[index] = categoryOf(index);
+        place(index);
+      }
+    }
+    for (int level : dirtyLevels) {
+      SalaryCategorizer categorizer = reportByLevel.get(level);
+      if (categorizer == null) {
+        continue;
+      }
+      if (categorizer.getAllCount() == 0) {
+        reportByLevel.remove(level);
+      } else if (categorizer.removedCount() > categorizer.getAllCount()) {
+        categorizer.compact((employee, position) -> positions[ids.indexOf(employee.id())] = position);
+      }
+    }
+  }
+
+  /**
+   * Puts an employee into the categorizer of their level, replacing them in place if they are there already.
+   */
+  private void place(int index) {
+    BigDecimal expectedSalary = switch (categories[index]) {
+      case SalaryKernels.BELOW -> SalaryMath.expectedSalary(averageSubordinateSalaryCents(index), minFactor);
+      case SalaryKernels.ABOVE -> SalaryMath.expectedSalary(averageSubordinateSalaryCents(index), maxFactor);
+      default -> null;
+    };
+    if (reportedLevels[index] == levels[index]) {
+      reportByLevel.get(levels[index]).replace(positions[index], employees[index], categories[index], expectedSalary);
+    } else {
+      SalaryCategorizer categorizer = reportByLevel.computeIfAbsent(levels[index], level -> new SalaryCategorizer());
+      positions[index] = categorizer.insert(employees[index], categories[index], expectedSalary);
+      reportedLevels[index] = levels[index];
+    }
+  }
+
+  private byte categoryOf(int index) {
+    if (subordinateCounts[index] == 0) {
+      return SalaryKernels.WITHIN; // nobody to compare with
+    }
+    long averageCents = averageSubordinateSalaryCents(index);
+    if (SalaryMath.compareToExpected(salaryCents[index], averageCents, minFactor) < 0) {
+      return SalaryKernels.BELOW;
+    }
+    if (SalaryMath.compareToExpected(salaryCents[index], averageCents, maxFactor) > 0) {
+      return SalaryKernels.ABOVE;
+    }
+    return SalaryKernels.WITHIN;
+  }
+
+  private long averageSubordinateSalaryCents(int index) {
+    return SalaryMath.averageCents(subordinateSalarySums[index], subordinateCounts[index]);
+  }
+
+  private void touch(int index) {
+    dirtyLevels.add(levels[index]);
+    if (touchedEpochs[index] == epoch) {
+      return;
+    }
+    touchedEpochs[index] = epoch;
+    if (touchedCount == touched.length) {
+      touched = Arrays.copyOf(touched, touchedCount * 2);
+    }
+    touched[touchedCount++] = index;
+  }
+
+  private void link(int employee, int manager) {
+    previousSibling[employee] = NONE;
+    nextSibling[employee] = firstSubordinate[manager];
+    if (firstSubordinate[manager] != NONE) {
+      previousSibling[firstSubordinate[manager]] = employee;
+    }
+    firstSubordinate[manager] = employee;
+    subordinateSalarySums[manager] = Math.addExact(subordinateSalarySums[manager], salaryCents[employee]);
+    subordinateCounts[manager]++;
+  }
+
+  private void unlink(int employee, int manager) {
+    if (previousSibling[employee] == NONE) {
+      firstSubordinate[manager] = nextSibling[employee];
+    } else {
+      nextSibling[previousSibling[employee]] = nextSibling[employee];
+    }
+    if (nextSibling[employee] != NONE) {
+      previousSibling[nextSibling[employee]] = previousSibling[employee];
+    }
+    subordinateSalarySums[manager] -= salaryCents[employee];
+    subordinateCounts[manager]--;
+  }
+
+  private int managerIndexOf(Employee employee) {
+    if (employee.managerId() != -1) {
+      return aliveIndexOf(employee.managerId());
+    }
+    if (ceo != NONE && employees[ceo] != null && employees[ceo].id() != employee.id()) {
+      throw new IllegalArgumentException("Employee " + employee.id() + " cannot be without a manager, "
+          + employees[ceo].id() + " is the CEO already");
+    }
+    return NONE;
+  }
+
+  private int aliveIndexOf(int id) {
+    int index = ids.indexOf(id);
+    if (index < 0 || employees[index] == null) {
+      throw new IllegalArgumentException("Unknown employee id: " + id);
+    }
+    return index;
+  }
+
+  private int indexOfOrUnknown(int id) {
+    int index = ids.indexOf(id);
+    return index < 0 ? LevelAssigner.UNKNOWN_MANAGER : index;
+  }
+
+  private static long centsOf(Employee employee) {
+    try {
+      return SalaryMath.toCents(employee.salary());
+    } catch (ArithmeticException e) {
+      throw new IllegalArgumentException("Unsupported salary of employee " + employee.id() + ": "
+          + employee.salary(), e);
+    }
+  }
+
+  private static SalaryMath.Factor factorOf(BigDecimal salaryIncrease) {
+    try {
+      return SalaryMath.Factor.of(salaryIncrease);
+    } catch (ArithmeticException e) {
+      throw new IllegalArgumentException("Unsupported salary increase: " + salaryIncrease, e);
+    }
+  }
+
+  private void allocate(int capacity) {
+    employees = new Employee[capacity];
+    salaryCents = new long[capacity];
+    managerIndex = new int[capacity];
+    levels = new int[capacity];
+    subordinateSalarySums = new long[capacity];
+    subordinateCounts = new int[capacity];
+    firstSubordinate = new int[capacity];
+    nextSibling = new int[capacity];
+    previousSibling = new int[capacity];
+    categories = new byte[capacity];
+    reportedLevels = new int[capacity];
+    positions = new int[capacity];
+    touchedEpochs = new int[capacity];
+    touched = new int[16];
+    Arrays.fill(firstSubordinate, NONE);
+  }
+
+  private void ensureCapacity(int capacity) {
+    if (capacity <= employees.length) {
+      return;
+    }
+    int newCapacity = Math.max(capacity, employees.length + (employees.length >> 1));
+    employees = Arrays.copyOf(employees, newCapacity);
+    salaryCents = Arrays.copyOf(salaryCents, newCapacity);
+    managerIndex = Arrays.copyOf(managerIndex, newCapacity);
+    levels = Arrays.copyOf(levels, newCapacity);
+    subordinateSalarySums = Arrays.copyOf(subordinateSalarySums, newCapacity);
+    subordinateCounts = Arrays.copyOf(subordinateCounts, newCapacity);
+    firstSubordinate = Arrays.copyOf(firstSubordinate, newCapacity);
+    nextSibling = Arrays.copyOf(nextSibling, newCapacity);
+    previousSibling = Arrays.copyOf(previousSibling, newCapacity);
+    categories = Arrays.copyOf(categories, newCapacity);
+    reportedLevels = Arrays.copyOf(reportedLevels, newCapacity);
+    positions = Arrays.copyOf(positions, newCapacity);
+    touchedEpochs = Arrays.copyOf(touchedEpochs, newCapacity);
+  }
+}
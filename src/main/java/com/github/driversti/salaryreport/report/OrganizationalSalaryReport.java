@@ -1,11 +1,14 @@
 package com.github.driversti.salaryreport.report;
 
+import com.github.driversti.salaryreport.organization.Employee;
 import com.github.driversti.salaryreport.printers.EmployeePrinter;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
+import java.util.Locale;
 import java.util.Map;
 import java.util.TreeMap;
+import java.util.function.BiConsumer;
 
 import static java.lang.String.format;
 import static java.math.BigDecimal.ONE;
@@ -18,7 +21,7 @@ public class OrganizationalSalaryReport {
   private static final int SCALE = 10;
   private static final RoundingMode ROUNDING_MODE = RoundingMode.HALF_UP;
   private static final BigDecimal ONE_HUNDRED = BigDecimal.valueOf(100);
-  private static final String LEVELS_DELIMITER = "--------------------";
+  static final String LEVELS_DELIMITER = "--------------------";
 
   private final Map<Integer, SalaryCategorizer> reportPerLevel;
 
@@ -57,6 +60,29 @@ public class OrganizationalSalaryReport {
     printExcludedEmployeeCount(printer, levelDepth);
   }
 
+  /**
+   * Performs the given action for every employee below or above expectation, on all levels, together with their
+   * salary discrepancy as printed in the report, e.g. "-12.50%" or "+3.00%".
+   *
+   * @param action the action to perform
+   */
+  public void forEachDiscrepancy(BiConsumer<Employee, String> action) {
+    for (SalaryCategorizer categorizer : reportPerLevel.values()) {
+      categorizer.forEachBelowExpectation((employee, minExpectedSalary) ->
+          action.accept(employee, unwrap(belowExpectationPostfix(employee.salary(), minExpectedSalary))));
+      categorizer.forEachAboveExpectation((employee, maxExpectedSalary) ->
+          action.accept(employee, unwrap(aboveExpectationPostfix(employee.salary(), maxExpectedSalary))));
+    }
+  }
+
+  Map<Integer, SalaryCategorizer> reportPerLevel() {
+    return reportPerLevel;
+  }
+
+  private static String unwrap(String postfix) {
+    return postfix.substring(1, postfix.length() - 1);
+  }
+
   private void printIncludedEmployees(EmployeePrinter printer, int levelDepth) {
     reportPerLevel.keySet().stream()
         .limit(levelDepth)
@@ -71,9 +97,7 @@ public class OrganizationalSalaryReport {
 
   private void printExcludedEmployeesCount(Integer level, EmployeePrinter printer) {
     long excludedEmployees = reportPerLevel.get(level).getAllCount();
-    String s = format("There are %d employees on level %d which have %d managers between them and the CEO.",
-        excludedEmployees, level, level - 2); // level - 2, because we don't count the current level and the CEO
-    printer.print(s);
+    printer.print(excludedEmployeesMessage(excludedEmployees, level));
   }
 
   private void printLevelReport(Integer level, SalaryCategorizer categorizer, EmployeePrinter printer) {
@@ -86,29 +110,48 @@ public class OrganizationalSalaryReport {
 
   private void printBelowExpectation(SalaryCategorizer categorizer, EmployeePrinter printer) {
     printer.print("Below expectation:");
-    categorizer.getAllBelowExpectation()
-        .forEach(employee -> {
-          BigDecimal salary = employee.salary();
-          BigDecimal minExpectedSalary = categorizer.getMinExpectedSalary();
-          BigDecimal discrepancyPercentage = ONE
-              .subtract(salary.divide(minExpectedSalary, SCALE, ROUNDING_MODE))
-              .multiply(ONE_HUNDRED);
-
-          printer.printEmployeeWithPostfix(employee, format("(-%.2f%%)", discrepancyPercentage));
-        });
+    categorizer.forEachBelowExpectation((employee, minExpectedSalary) ->
+        printer.printEmployeeWithPostfix(employee, belowExpectationPostfix(employee.salary(), minExpectedSalary)));
   }
 
   private void printAboveExpectation(SalaryCategorizer categorizer, EmployeePrinter printer) {
     printer.print("Above expectation:");
-    categorizer.getAllAboveExpectation()
-        .forEach(employee -> {
-          BigDecimal salary = employee.salary();
-          BigDecimal maxExpectedSalary = categorizer.getMaxExpectedSalary();
-          BigDecimal discrepancyPercentage = salary
-              .divide(maxExpectedSalary, SCALE, ROUNDING_MODE).subtract(ONE)
-              .multiply(ONE_HUNDRED);
-
-          printer.printEmployeeWithPostfix(employee, format("(+%.2f%%)", discrepancyPercentage));
-        });
+    categorizer.forEachAboveExpectation((employee, maxExpectedSalary) ->
+        printer.printEmployeeWithPostfix(employee, aboveExpectationPostfix(employee.salary(), maxExpectedSalary)));
+  }
+
+  static String excludedEmployeesMessage(long excludedEmployees, int level) {
+    return format("There are %d employees on level %d which have %d managers between them and the CEO.",
+        excludedEmployees, level, level - 2); // level - 2, because we don't count the current level and the CEO
+  }
+
+  static String belowExpectationPostfix(BigDecimal salary, BigDecimal minExpectedSalary) {
+    try {
+      return "(-" + SalaryMath.formatHundredths(
+          -SalaryMath.discrepancyHundredthsOfPercent(salary, minExpectedSalary)) + "%)";
+    } catch (ArithmeticException e) {
+      // too large or too precise for fixed-point arithmetic
+    }
+    return format(Locale.ROOT, "(-%.2f%%)", discrepancyPercentage(salary, minExpectedSalary).negate());
+  }
+
+  static String aboveExpectationPostfix(BigDecimal salary, BigDecimal maxExpectedSalary) {
+    try {
+      return "(+" + SalaryMath.formatHundredths(
+          SalaryMath.discrepancyHundredthsOfPercent(salary, maxExpectedSalary)) + "%)";
+    } catch (ArithmeticException e) {
+      // too large or too precise for fixed-point arithmetic
+    }
+    return format(Locale.ROOT, "(+%.2f%%)", discrepancyPercentage(salary, maxExpectedSalary));
+  }
+
+  /**
+   * Calculates the discrepancy of a salary against an expected salary with {@link BigDecimal}, for the values that
+   * {@link SalaryMath#discrepancyHundredthsOfPercent} cannot handle.
+   *
+   * @return the signed discrepancy in percent: negative below, positive above the expected salary
+   */
+  static BigDecimal discrepancyPercentage(BigDecimal salary, BigDecimal expectedSalary) {
+    return salary.divide(expectedSalary, SCALE, ROUNDING_MODE).subtract(ONE).multiply(ONE_HUNDRED);
   }
 }
@@ -0,0 +1,171 @@
+package com.github.driversti.salaryreport.report;
+
+import java.util.Arrays;
+
+/**
+ * A streaming sketch of non-negative values answering quantile queries within a relative accuracy, in constant
+ * time per value and memory logarithmic in the range of the values.
+ *
+ * <p>Values are counted in buckets of exponentially growing width: bucket {@code i} holds the values in
+ * {@code (gamma^(i-1), gamma^i]}, where {@code gamma = (1 + accuracy) / (1 - accuracy)}. A quantile is answered by
+ * the bucket holding the value of that rank, so it is off from the exact value by at most the relative accuracy.
+ * With an accuracy of 1%, discrepancies from 0.01% to 1,000,000% take less than a thousand buckets. Zero is
+ * counted apart. Sketches with the same accuracy can be merged, e.g. from several levels or several shards.
+ * <p>Not thread-safe.
+ */
+public final class QuantileSketch {
+
+  private static final int INITIAL_BUCKETS = 64;
+
+  private final double relativeAccuracy;
+  private final double logGamma;
+  private int[] counts = new int[0];
+  private int firstIndex; // the bucket index of counts[0]
+  private long zeroCount;
+  private long count;
+  private double min = Double.POSITIVE_INFINITY;
+  private double max = Double.NEGATIVE_INFINITY;
+
+  /**
+   * Creates an empty sketch.
+   *
+   * @param relativeAccuracy the relative accuracy of quantiles, greater than 0 and less than 1, e.g. 0.01
+   * @throws IllegalArgumentException if the accuracy is out of range
+   */
+  public QuantileSketch(double relativeAccuracy) {
+    if (!(relativeAccuracy > 0 && relativeAccuracy < 1)) {
+      throw new IllegalArgumentException("The relative accuracy must be between 0 and 1: " + relativeAccuracy);
+    }
+    this.relativeAccuracy = relativeAccuracy;
+    this.logGamma = Math.log((1 + relativeAccuracy) / (1 - relativeAccuracy));
+  }
+
+  /**
+   * Adds a value.
+   *
+   * @param value the value, not negative
+   * @throws IllegalArgumentException if the value is negative or not a number
+   */
+  public void add(double value) {
+    if (!(value >= 0) || value == Double.POSITIVE_INFINITY) {
+      throw new IllegalArgumentException("Only finite non-negative values can be added: " + value);
+    }
+    if (value == 0) {
+      zeroCount++;
+    } else {
+      int index = (int) Math.ceil(Math.log(value) / logGamma);
+      ensureBucket(index);
+      counts[index - firstIndex]++;
+    }
+    count++;
+    min = Math.min(min, value);
+    max = Math.max(max, value);
+  }
+
+  /**
+   * Adds all values of another sketch to this one.
+   *
+   * @param other the sketch to merge
+   * @throws IllegalArgumentException if the sketches have different accuracies
+   */
+  public void merge(QuantileSketch other) {
+    if (other.relativeAccuracy != relativeAccuracy) {
+      throw new IllegalArgumentException("Sketches of different accuracies cannot be merged");
+    }
+    if (other.count == 0) {
+      return;
+    }
+    for (int i = 0; i < other.counts.length; i++) {
+      if (other.counts[i] != 0) {
+        ensureBucket(other.firstIndex + i);
+        counts[other.firstIndex + i - firstIndex] += other.counts[i];
+      }
+    }
+    zeroCount += other.zeroCount;
+    count += other.count;
+    min = Math.min(min, other.min);
+    max = Math.max(max, other.max);
+  }
+
+  /**
+   * Returns the value of the given quantile, by nearest rank, within the relative accuracy of the sketch. The
+   * smallest and the largest values are exact.
+   *
+   * @param quantile the quantile, from 0 to 1, e.g. 0.9 for the 90th percentile
+   * @return the approximate value
+   * @throws IllegalArgumentException if the quantile is out of range
+   * @throws IllegalStateException    if the sketch is empty
+   */
+  public double quantile(double quantile) {
+    if (!(quantile >= 0 && quantile <= 1)) {
+      throw new IllegalArgumentException("The quantile must be between 0 and 1: " + quantile);
+    }
+    if (count == 0) {
+      throw new IllegalStateException("The sketch is empty");
+    }
+    long rank = Math.max(1, (long) Math.ceil(quantile * count));
+    if (rank == 1) {
+      return min;
+    }
+    if (rank == count) {
+      return max;
+    }
+    long seen = zeroCount;
+    if (rank <= seen) {
+      return 0;
+    }
+    for (int i = 0; i < counts.length; i++) {
+      seen += counts[i];
+      if (rank <= seen) {
+        // the middle of the bucket, relative to its bounds
+        double value = 2 * Math.exp((firstIndex + i) * logGamma) / (1 + Math.exp(logGamma));
+        return Math.max(min, Math.min(max, value));
+      }
+    }
+    return max;
+  }
+
+  /**
+   * Returns the number of values added.
+   *
+   * @return the count
+   */
+  public long count() {
+    return count;
+  }
+
+  /**
+   * Returns the relative accuracy of quantiles.
+   *
+   * @return the accuracy
+   */
+  public double relativeAccuracy() {
+    return relativeAccuracy;
+  }
+
+  private void ensureBucket(int index) {
+    if (counts.length == 0) {
+      counts = new int[INITIAL_BUCKETS];
+      firstIndex = index - INITIAL_BUCKETS / 2;
+    }
+    int position = index - firstIndex;
+    if (position >= 0 && position < counts.length) {
+      return;
+    }
+    // grow to at least twice the size, towards the new bucket
+    int first = Math.min(firstIndex, index);
+    int last = Math.max(firstIndex + counts.length - 1, index);
+    int length = Math.max(counts.length * 2, last - first + 1);
+    int newFirst = index < firstIndex ? last - length + 1 : first;
+    int[] grown = new int[length];
+    System.arraycopy(counts, 0, grown, firstIndex - newFirst, counts.length);
+    counts = grown;
+    firstIndex = newFirst;
+  }
+
+  @Override
+  public String toString() {
+    return "QuantileSketch[count=" + count + ", relativeAccuracy=" + relativeAccuracy + ", buckets="
+        + Arrays.stream(counts).filter(c -> c != 0).count() + "]";
+  }
+}
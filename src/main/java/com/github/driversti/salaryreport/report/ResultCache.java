@@ -0,0 +1,118 @@
+package com.github.driversti.salaryreport.report;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * A bounded cache of computed results, such as the average salaries or the salary report of an organization.
+ *
+ * <p>Results are keyed by the version of the organizational structure they were computed from, and by the query
+ * with its parameters. Structures are immutable, so a result never goes stale; once the organization is replaced,
+ * the results of the previous version are no longer asked for, and should be {@linkplain #invalidate(long)
+ * invalidated}, as they keep the previous organization in memory until they are evicted.
+ * <p>The cache is thread-safe. Results are computed outside the lock, so two threads missing the same key at once
+ * may both compute it; the first result stored wins. Cached results are shared, hence must not be modified.
+ */
+public final class ResultCache {
+
+  private final Map<Key, Object> results;
+  private final LongAdder hits = new LongAdder();
+  private final LongAdder misses = new LongAdder();
+  private final LongAdder evictions = new LongAdder();
+
+  /**
+   * Creates a cache.
+   *
+   * @param maxSize the maximum number of results kept
+   */
+  public ResultCache(int maxSize) {
+    if (maxSize < 1) {
+      throw new IllegalArgumentException("The maximum size must be at least 1");
+    }
+    this.results = new LinkedHashMap<>(16, 0.75f, true) {
+      @Override
+      protected boolean removeEldestEntry(Map.Entry<Key, Object> eldest) {
+        if (size() > maxSize) {
+          evictions.increment();
+          return true;
+        }
+        return false;
+      }
+    };
+  }
+
+  /**
+   * Returns the cached result of a query, computing it if it is not cached.
+   *
+   * @param version the version of the organizational structure
+   * @param query   the query and its parameters; must implement equals and hashCode, like a record
+   * @param compute computes the result
+   * @param <T>     the type of the result
+   * @return the result
+   */
+  @SuppressWarnings("unchecked")
+  public <T> T get(long version, Object query, Supplier<T> compute) {
+    Key key = new Key(version, query);
+    synchronized (results) {
+      Object result = results.get(key);
+      if (result != null) {
+        hits.increment();
+        return (T) result;
+      }
+    }
+    misses.increment();
+    T result = compute.get();
+    synchronized (results) {
+      Object cached = results.putIfAbsent(key, result);
+      return cached != null ? (T) cached : result;
+    }
+  }
+
+  /**
+   * Removes the results of a version of the organizational structure, for instance once it has been replaced.
+   *
+   * @param version the version of the organizational structure
+   * @return the number of results removed
+   */
+  public int invalidate(long version) {
+    synchronized (results) {
+      int before = results.size();
+      results.keySet().removeIf(key -> key.version() == version);
+      return before - results.size();
+    }
+  }
+
+  /**
+   * Returns the statistics of the cache since it was created.
+   *
+   * @return the statistics
+   */
+  public Stats stats() {
+    int size;
+    synchronized (results) {
+      size = results.size();
+    }
+    return new Stats(hits.sum(), misses.sum(), evictions.sum(), size);
+  }
+
+  private record Key(long version, Object query) {
+  }
+
+  /**
+   * Statistics of a cache.
+   *
+   * @param hits      the number of results found in the cache
+   * @param misses    the number of results computed
+   * @param evictions the number of results evicted to keep the cache within its maximum size
+   * @param size      the number of results currently cached
+   */
+  public record Stats(long hits, long misses, long evictions, int size) {
+
+    public double hitRate() {
+      long requests = hits + misses;
+      return requests == 0 ? 0 : (double) hits / requests;
+    }
+  }
+}
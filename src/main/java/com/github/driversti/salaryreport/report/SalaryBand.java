@@ -0,0 +1,82 @@
+package com.github.driversti.salaryreport.report;
+
+import java.math.BigDecimal;
+import java.util.Objects;
+
+/**
+ * The salary band a manager is expected to be within: between the average salary of their direct subordinates
+ * multiplied by the minimum increase, and multiplied by the maximum increase.
+ *
+ * <p>The fixed-point form of both increases is computed once, when the band is created, so a band can be applied
+ * to millions of managers without allocating.
+ */
+public final class SalaryBand {
+
+  private final BigDecimal minSalaryIncrease;
+  private final BigDecimal maxSalaryIncrease;
+  private final SalaryMath.Factor minFactor; // null if the increase does not fit fixed-point arithmetic
+  private final SalaryMath.Factor maxFactor;
+
+  private SalaryBand(BigDecimal minSalaryIncrease, BigDecimal maxSalaryIncrease) {
+    if (minSalaryIncrease.compareTo(maxSalaryIncrease) > 0) {
+      throw new IllegalArgumentException("The minimum increase must not exceed the maximum increase");
+    }
+    this.minSalaryIncrease = minSalaryIncrease;
+    this.maxSalaryIncrease = maxSalaryIncrease;
+    this.minFactor = fixedPointFactorOf(minSalaryIncrease);
+    this.maxFactor = fixedPointFactorOf(maxSalaryIncrease);
+  }
+
+  /**
+   * Creates a salary band.
+   *
+   * @param minSalaryIncrease the minimum increase, e.g. 1.20 for 20% more than the subordinates
+   * @param maxSalaryIncrease the maximum increase, e.g. 1.50 for 50% more than the subordinates
+   * @return the salary band
+   * @throws IllegalArgumentException if the minimum exceeds the maximum
+   */
+  public static SalaryBand of(BigDecimal minSalaryIncrease, BigDecimal maxSalaryIncrease) {
+    return new SalaryBand(minSalaryIncrease, maxSalaryIncrease);
+  }
+
+  public BigDecimal minSalaryIncrease() {
+    return minSalaryIncrease;
+  }
+
+  public BigDecimal maxSalaryIncrease() {
+    return maxSalaryIncrease;
+  }
+
+  SalaryMath.Factor minFactor() {
+    return minFactor;
+  }
+
+  SalaryMath.Factor maxFactor() {
+    return maxFactor;
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    return o instanceof SalaryBand other
+        && minSalaryIncrease.compareTo(other.minSalaryIncrease) == 0
+        && maxSalaryIncrease.compareTo(other.maxSalaryIncrease) == 0;
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash(minSalaryIncrease.stripTrailingZeros(), maxSalaryIncrease.stripTrailingZeros());
+  }
+
+  @Override
+  public String toString() {
+    return "SalaryBand[" + minSalaryIncrease + ".." + maxSalaryIncrease + "]";
+  }
+
+  private static SalaryMath.Factor fixedPointFactorOf(BigDecimal salaryIncrease) {
+    try {
+      return SalaryMath.Factor.of(salaryIncrease);
+    } catch (ArithmeticException e) {
+      return null;
+    }
+  }
+}
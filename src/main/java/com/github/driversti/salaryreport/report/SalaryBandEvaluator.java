@@ -0,0 +1,202 @@
+package com.github.driversti.salaryreport.report;
+
+import com.github.driversti.salaryreport.organization.Employee;
+import com.github.driversti.salaryreport.organization.IdIndex;
+import com.github.driversti.salaryreport.organization.OrganizationalStructure;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Evaluates what-if salary band policies against one organization.
+ *
+ * <p>The average salary of the direct subordinates of every manager, and the department of every employee, are
+ * computed once, when the evaluator is created. Any number of policies is then evaluated in a single scan over
+ * these precomputed values, producing one report per policy, each equal to the report of
+ * {@link SubordinateSalaryEngine} with the band the policy assigns to every manager.
+ * <p>Like the engine, averages and comparisons use fixed-point long arithmetic in cents, unless a salary is in
+ * fractions of a cent, a sum does not fit a long, or a band does not fit fixed-point arithmetic.
+ */
+public final class SalaryBandEvaluator {
+
+  private static final int PERCENTILE_BAND_SCALE = 4;
+
+  private final Map<Integer, List<Employee>> employeesByLevel;
+  private final int[] subordinateCounts; // by position, in the order of the report: by level, then by id
+  private final int[] departments;
+  private final long[] salaryCents; // null if salaries are not all in whole cents, or too large
+  private final long[] averageCents;
+  private final BigDecimal[] averages; // only if salaries cannot be computed in cents
+  private final double[] sortedRatios; // salary to subordinate average ratio of every manager, ascending
+
+  private SalaryBandEvaluator(OrganizationalStructure structure) {
+    this.employeesByLevel = new TreeMap<>(structure.employeesByLevel());
+    int size = employeesByLevel.values().stream().mapToInt(List::size).sum();
+    IdIndex ids = new IdIndex(size);
+    employeesByLevel.values().forEach(employees -> employees.forEach(employee -> ids.add(employee.id())));
+    // indices follow the order of the report, as employees were added level by level
+
+    this.subordinateCounts = new int[size];
+    this.departments = new int[size];
+    BigDecimal[] sums = new BigDecimal[size];
+    long[] centSums = new long[size];
+    long[] cents = new long[size];
+    boolean fixedPoint = true;
+    int position = 0;
+    for (List<Employee> employees : employeesByLevel.values()) {
+      for (Employee employee : employees) {
+        int manager = ids.indexOf(employee.managerId());
+        if (manager >= 0) {
+          subordinateCounts[manager]++;
+          sums[manager] = sums[manager] == null ? employee.salary() : sums[manager].add(employee.salary());
+          // levels are visited top-down, so the department of the manager is known already
+          departments[position] = departments[manager] == -1 ? employee.id() : departments[manager];
+        } else {
+          departments[position] = -1;
+        }
+        if (fixedPoint) {
+          try {
+            cents[position] = SalaryMath.toCents(employee.salary());
+            if (manager >= 0) {
+              centSums[manager] = Math.addExact(centSums[manager], cents[position]);
+            }
+          } catch (ArithmeticException e) {
+            fixedPoint = false;
+          }
+        }
+        position++;
+      }
+    }
+
+    this.salaryCents = fixedPoint ? cents : null;
+    this.averageCents = fixedPoint ? new long[size] : null;
+    this.averages = fixedPoint ? null : new BigDecimal[size];
+    double[] ratios = new double[size];
+    int managers = 0;
+    position = 0;
+    for (List<Employee> employees : employeesByLevel.values()) {
+      for (Employee employee : employees) {
+        int count = subordinateCounts[position];
+        if (count > 0) {
+          double average;
+          if (fixedPoint) {
+            averageCents[position] = SalaryMath.averageCents(centSums[position], count);
+            average = averageCents[position];
+          } else {
+            averages[position] = sums[position].divide(BigDecimal.valueOf(count), 2, RoundingMode.HALF_UP);
+            average = averages[position].movePointRight(2).doubleValue();
+          }
+          if (average > 0) {
+            ratios[managers++] = employee.salary().movePointRight(2).doubleValue() / average;
+          }
+        }
+        position++;
+      }
+    }
+    this.sortedRatios = Arrays.copyOf(ratios, managers);
+    Arrays.sort(sortedRatios);
+  }
+
+  /**
+   * Precomputes the values needed to evaluate policies against an organization.
+   *
+   * @param structure the organizational structure
+   * @return the evaluator
+   */
+  public static SalaryBandEvaluator of(OrganizationalStructure structure) {
+    return new SalaryBandEvaluator(structure);
+  }
+
+  /**
+   * Creates a band from the distribution of the salaries of managers relative to the average salary of their
+   * direct subordinates, so that about the given shares of managers fall below and above it. The increases are the
+   * ratios at the given percentiles, by nearest rank, rounded to {@value #PERCENTILE_BAND_SCALE} decimal places.
+   *
+   * @param lowPercentile  the share of managers expected below the band, from 0 to 1
+   * @param highPercentile the share of managers expected within or below the band, from 0 to 1
+   * @return the band
+   * @throws IllegalArgumentException if the percentiles are out of range or in the wrong order
+   * @throws IllegalStateException    if no manager has subordinates
+   */
+  public SalaryBand percentileBand(double lowPercentile, double highPercentile) {
+    if (!(0 <= lowPercentile && lowPercentile <= highPercentile && highPercentile <= 1)) {
+      throw new IllegalArgumentException("Invalid percentiles: " + lowPercentile + ", " + highPercentile);
+    }
+    if (sortedRatios.length == 0) {
+      throw new IllegalStateException("There are no managers to derive a band from");
+    }
+    return SalaryBand.of(ratioAt(lowPercentile), ratioAt(highPercentile));
+  }
+
+  /**
+   * Evaluates policies in a single scan over the organization.
+   *
+   * @param policies the policies
+   * @return one report per policy, in the same order
+   */
+  public List<OrganizationalSalaryReport> evaluate(List<SalaryBandPolicy> policies) {
+    int policyCount = policies.size();
+    SalaryBandPolicy[] policyArray = policies.toArray(SalaryBandPolicy[]::new);
+    List<Map<Integer, SalaryCategorizer>> reportsByLevel = new ArrayList<>(policyCount);
+    for (int p = 0; p < policyCount; p++) {
+      reportsByLevel.add(new TreeMap<>());
+    }
+
+    int position = 0;
+    SalaryCategorizer[] categorizers = new SalaryCategorizer[policyCount];
+    for (Map.Entry<Integer, List<Employee>> entry : employeesByLevel.entrySet()) {
+      int level = entry.getKey();
+      for (int p = 0; p < policyCount; p++) {
+        categorizers[p] = new SalaryCategorizer();
+        reportsByLevel.get(p).put(level, categorizers[p]);
+      }
+      for (Employee employee : entry.getValue()) {
+        if (subordinateCounts[position] == 0) {
+          for (SalaryCategorizer categorizer : categorizers) {
+            categorizer.addWithinExpectation(employee);
+          }
+        } else {
+          for (int p = 0; p < policyCount; p++) {
+            SalaryBand band = policyArray[p].bandFor(employee.id(), level, departments[position]);
+            categorize(categorizers[p], employee, position, band);
+          }
+        }
+        position++;
+      }
+    }
+
+    List<OrganizationalSalaryReport> reports = new ArrayList<>(policyCount);
+    reportsByLevel.forEach(reportByLevel -> reports.add(new OrganizationalSalaryReport(reportByLevel)));
+    return reports;
+  }
+
+  private void categorize(SalaryCategorizer categorizer, Employee employee, int position, SalaryBand band) {
+    SalaryMath.Factor minFactor = band.minFactor();
+    SalaryMath.Factor maxFactor = band.maxFactor();
+    if (salaryCents != null && minFactor != null && maxFactor != null) {
+      long average = averageCents[position];
+      long salary = salaryCents[position];
+      if (SalaryMath.compareToExpected(salary, average, minFactor) < 0) {
+        categorizer.addBelowExpectation(employee, SalaryMath.expectedSalary(average, minFactor));
+      } else if (SalaryMath.compareToExpected(salary, average, maxFactor) > 0) {
+        categorizer.addAboveExpectation(employee, SalaryMath.expectedSalary(average, maxFactor));
+      } else {
+        categorizer.addWithinExpectation(employee);
+      }
+      return;
+    }
+    BigDecimal average = averages != null ? averages[position] : BigDecimal.valueOf(averageCents[position], 2);
+    categorizer.addEmployee(employee,
+        average.multiply(band.minSalaryIncrease()), average.multiply(band.maxSalaryIncrease()));
+  }
+
+  private BigDecimal ratioAt(double percentile) {
+    int rank = Math.max(1, (int) Math.ceil(percentile * sortedRatios.length));
+    return BigDecimal.valueOf(sortedRatios[rank - 1]).setScale(PERCENTILE_BAND_SCALE, RoundingMode.HALF_UP);
+  }
+}
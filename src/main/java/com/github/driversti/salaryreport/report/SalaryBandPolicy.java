@@ -0,0 +1,59 @@
+package com.github.driversti.salaryreport.report;
+
+import java.util.Map;
+
+/**
+ * Decides which salary band a manager is expected to be within.
+ *
+ * <p>A policy is asked once per manager with subordinates, with primitive attributes only, so that many policies
+ * can be evaluated in a single scan of a large organization (see {@link SalaryBandEvaluator}). Policies should
+ * return shared {@link SalaryBand} instances rather than create one per call.
+ */
+@FunctionalInterface
+public interface SalaryBandPolicy {
+
+  /**
+   * Returns the salary band of a manager.
+   *
+   * @param employeeId   the id of the manager
+   * @param level        the organizational level of the manager; the CEO is at level 1
+   * @param departmentId the id of the head of the department of the manager, that is the direct report of the CEO
+   *                     they work under, or are themselves; -1 for the CEO
+   * @return the salary band
+   */
+  SalaryBand bandFor(int employeeId, int level, int departmentId);
+
+  /**
+   * Creates a policy applying the same band to every manager, as the accountant does.
+   *
+   * @param band the band
+   * @return the policy
+   */
+  static SalaryBandPolicy uniform(SalaryBand band) {
+    return (employeeId, level, departmentId) -> band;
+  }
+
+  /**
+   * Creates a policy applying a band per organizational level.
+   *
+   * @param bands     the band of every level listed
+   * @param otherwise the band of the other levels
+   * @return the policy
+   */
+  static SalaryBandPolicy perLevel(Map<Integer, SalaryBand> bands, SalaryBand otherwise) {
+    Map<Integer, SalaryBand> copy = Map.copyOf(bands);
+    return (employeeId, level, departmentId) -> copy.getOrDefault(level, otherwise);
+  }
+
+  /**
+   * Creates a policy applying a band per department.
+   *
+   * @param bands     the band of every department listed, by the id of its head
+   * @param otherwise the band of the other departments, and of the CEO
+   * @return the policy
+   */
+  static SalaryBandPolicy perDepartment(Map<Integer, SalaryBand> bands, SalaryBand otherwise) {
+    Map<Integer, SalaryBand> copy = Map.copyOf(bands);
+    return (employeeId, level, departmentId) -> copy.getOrDefault(departmentId, otherwise);
+  }
+}
@@ -3,21 +3,49 @@ package com.github.driversti.salaryreport.report;
 import com.github.driversti.salaryreport.organization.Employee;
 
 import java.math.BigDecimal;
+import java.util.AbstractList;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
-import java.util.stream.Stream;
+import java.util.RandomAccess;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.function.IntFunction;
+import java.util.function.ObjIntConsumer;
 
 /**
  * SalaryCategorizer is a class that categorizes employees based on their salary compared to the expected salary range.
  * <p>It is used to create a report of employees that are below, within, or above the expected salary range.</p>
+ * <p>The expected salary range is either shared by all employees, or given for every employee separately.</p>
+ * <p>Categories are stored by column: the employees in the order they were added, the category of every one of them
+ * as a byte, and the positions of the employees below and above expectation in int arrays, next to their expected
+ * salaries. Employees within expectation, usually most of them, therefore cost a reference and a byte each. The
+ * lists returned by the getters are views over these arrays rather than copies. As employees are only ever
+ * appended, a view keeps showing the employees of its category at the time it was returned.</p>
+ * <p>Within the package, an employee can also be replaced or removed at their position, for reports kept up to date
+ * in place. Such a categorizer keeps the employees below and above expectation in id order, and the views returned
+ * before a replacement or a removal keep the arrays they were returned with.</p>
  */
 public class SalaryCategorizer {
 
+  private static final int INITIAL_CAPACITY = 8;
+  private static final byte REMOVED = 2; // a position freed by remove(int), in no category
+
   private final BigDecimal minExpectedSalary;
   private final BigDecimal maxExpectedSalary;
-  private final List<Employee> belowExpectation = new ArrayList<>();
-  private final List<Employee> aboveExpectation = new ArrayList<>();
-  private final List<Employee> withinExpectation = new ArrayList<>();
+  private List<Employee> employees; // all employees, in the order they were added
+  private boolean ownsEmployees; // false while the employees are the list of a level, which must not be modified
+  private byte[] categories = new byte[INITIAL_CAPACITY]; // one of the categories of SalaryKernels
+  private int size;
+  private int[] belowPositions = new int[INITIAL_CAPACITY];
+  private BigDecimal[] belowExpectedSalaries = new BigDecimal[INITIAL_CAPACITY]; // the minimum each one fell short of
+  private int belowCount;
+  private int[] abovePositions = new int[INITIAL_CAPACITY];
+  private BigDecimal[] aboveExpectedSalaries = new BigDecimal[INITIAL_CAPACITY]; // the maximum each one exceeded
+  private int aboveCount;
+  private int removedCount;
+  private boolean viewsShared; // whether views over the current arrays have been returned
+  private int modCount; // employees added, replaced or removed so far
 
   /**
    * Constructs a SalaryCategorizer with the given minimum and maximum expected salary used for categorization.
@@ -28,6 +56,48 @@ public class SalaryCategorizer {
   public SalaryCategorizer(BigDecimal minExpectedSalary, BigDecimal maxExpectedSalary) {
     this.minExpectedSalary = minExpectedSalary;
     this.maxExpectedSalary = maxExpectedSalary;
+    this.employees = new ArrayList<>();
+    this.ownsEmployees = true;
+  }
+
+  /**
+   * Constructs a SalaryCategorizer without a shared expected salary range. Every employee must be added together
+   * with their own expected salary range.
+   */
+  public SalaryCategorizer() {
+    this(null, null);
+  }
+
+  /**
+   * Creates a categorizer of employees already categorized in bulk, for instance by {@link SalaryKernels}, without
+   * copying the employees. Only the employees below and above expectation are visited, to compute their expected
+   * salaries.
+   *
+   * @param employees           the employees, which must not be modified afterwards
+   * @param categories          the category of every employee, from {@code from}
+   * @param from                the index in {@code categories} of the category of the first employee
+   * @param minExpectedSalaries the minimum expected salary of the employee at a position, if below expectation
+   * @param maxExpectedSalaries the maximum expected salary of the employee at a position, if above expectation
+   * @return the categorizer
+   */
+  static SalaryCategorizer of(List<Employee> employees, byte[] categories, int from,
+                              IntFunction<BigDecimal> minExpectedSalaries,
+                              IntFunction<BigDecimal> maxExpectedSalaries) {
+    SalaryCategorizer categorizer = new SalaryCategorizer();
+    int size = employees.size();
+    categorizer.employees = employees;
+    categorizer.ownsEmployees = false;
+    categorizer.categories = Arrays.copyOfRange(categories, from, from + size);
+    categorizer.size = size;
+    for (int position = 0; position < size; position++) {
+      byte category = categorizer.categories[position];
+      if (category == SalaryKernels.BELOW) {
+        categorizer.appendBelow(position, minExpectedSalaries.apply(position));
+      } else if (category == SalaryKernels.ABOVE) {
+        categorizer.appendAbove(position, maxExpectedSalaries.apply(position));
+      }
+    }
+    return categorizer;
   }
 
   /**
@@ -36,20 +106,64 @@ public class SalaryCategorizer {
    * @param employee the employee to add
    */
   public void addEmployee(Employee employee) {
+    if (minExpectedSalary == null) {
+      throw new IllegalStateException("There is no shared expected salary range");
+    }
+    addEmployee(employee, minExpectedSalary, maxExpectedSalary);
+  }
+
+  /**
+   * Adds an employee to a relevant category based on their salary compared to their own expected salary range.
+   *
+   * @param employee          the employee to add
+   * @param minExpectedSalary the minimum expected salary of the employee
+   * @param maxExpectedSalary the maximum expected salary of the employee
+   */
+  public void addEmployee(Employee employee, BigDecimal minExpectedSalary, BigDecimal maxExpectedSalary) {
     BigDecimal salary = employee.salary();
     if (salary.compareTo(minExpectedSalary) < 0) {
-      belowExpectation.add(employee);
+      addBelowExpectation(employee, minExpectedSalary);
     } else if (salary.compareTo(maxExpectedSalary) > 0) {
-      aboveExpectation.add(employee);
+      addAboveExpectation(employee, maxExpectedSalary);
     } else {
-      withinExpectation.add(employee);
+      addWithinExpectation(employee);
     }
   }
 
+  /**
+   * Adds an employee who is already known to be within their expected salary range, or there is no salary
+   * expectation for, such as an employee without subordinates.
+   *
+   * @param employee the employee to add
+   */
+  public void addWithinExpectation(Employee employee) {
+    append(employee, SalaryKernels.WITHIN);
+  }
+
+  /**
+   * Adds an employee who is already known to be below their expected salary range.
+   *
+   * @param employee          the employee to add
+   * @param minExpectedSalary the minimum expected salary of the employee
+   */
+  public void addBelowExpectation(Employee employee, BigDecimal minExpectedSalary) {
+    appendBelow(append(employee, SalaryKernels.BELOW), minExpectedSalary);
+  }
+
+  /**
+   * Adds an employee who is already known to be above their expected salary range.
+   *
+   * @param employee          the employee to add
+   * @param maxExpectedSalary the maximum expected salary of the employee
+   */
+  public void addAboveExpectation(Employee employee, BigDecimal maxExpectedSalary) {
+    appendAbove(append(employee, SalaryKernels.ABOVE), maxExpectedSalary);
+  }
+
   /**
    * Returns the minimum expected salary.
    *
-   * @return the minimum expected salary
+   * @return the minimum expected salary, or null if every employee has their own expected salary range
    */
   public BigDecimal getMinExpectedSalary() {
     return minExpectedSalary;
@@ -58,37 +172,114 @@ public class SalaryCategorizer {
   /**
    * Returns the maximum expected salary.
    *
-   * @return the maximum expected salary
+   * @return the maximum expected salary, or null if every employee has their own expected salary range
    */
   public BigDecimal getMaxExpectedSalary() {
     return maxExpectedSalary;
   }
 
   /**
-   * Returns a copy of the list of employees that are below the expected salary range.
+   * Returns an unmodifiable list of employees that are below the expected salary range. The list is a view, not
+   * affected by employees added later.
    *
    * @return a list of employees that are below the expected salary range
    */
   public List<Employee> getAllBelowExpectation() {
-    return List.copyOf(belowExpectation);
+    viewsShared = true;
+    return new PositionList(employees, belowPositions, belowCount);
   }
 
   /**
-   * Returns a copy of the list of employees that are above the expected salary range.
+   * Returns an unmodifiable list of employees that are above the expected salary range. The list is a view, not
+   * affected by employees added later.
    *
    * @return a list of employees that are above the expected salary range
    */
   public List<Employee> getAllAboveExpectation() {
-    return List.copyOf(aboveExpectation);
+    viewsShared = true;
+    return new PositionList(employees, abovePositions, aboveCount);
+  }
+
+  /**
+   * Performs the given action for every employee below the expected salary range, together with the minimum
+   * salary expected from that employee.
+   *
+   * @param action the action to perform
+   */
+  public void forEachBelowExpectation(BiConsumer<Employee, BigDecimal> action) {
+    for (int i = 0; i < belowCount; i++) {
+      action.accept(employees.get(belowPositions[i]), belowExpectedSalaries[i]);
+    }
+  }
+
+  /**
+   * Performs the given action for every employee above the expected salary range, together with the maximum
+   * salary expected from that employee.
+   *
+   * @param action the action to perform
+   */
+  public void forEachAboveExpectation(BiConsumer<Employee, BigDecimal> action) {
+    for (int i = 0; i < aboveCount; i++) {
+      action.accept(employees.get(abovePositions[i]), aboveExpectedSalaries[i]);
+    }
   }
 
   /**
-   * Returns a copy of the list of employees that are within the expected salary range.
+   * Performs the given action for every employee within the expected salary range, in the order they were added.
+   *
+   * @param action the action to perform
+   */
+  public void forEachWithinExpectation(Consumer<Employee> action) {
+    for (int position = 0; position < size; position++) {
+      if (categories[position] == SalaryKernels.WITHIN) {
+        action.accept(employees.get(position));
+      }
+    }
+  }
+
+  /**
+   * Returns an unmodifiable list of employees that are within the expected salary range. The list is a view, not
+   * affected by employees added later, over the positions of these employees, which are collected on every call.
    *
    * @return a list of employees that are within the expected salary range
    */
   public List<Employee> getAllWithinExpectation() {
-    return List.copyOf(withinExpectation);
+    viewsShared = true;
+    int[] positions = new int[getWithinCount()];
+    int count = 0;
+    for (int position = 0; position < size; position++) {
+      if (categories[position] == SalaryKernels.WITHIN) {
+        positions[count++] = position;
+      }
+    }
+    return new PositionList(employees, positions, count);
+  }
+
+  /**
+   * Returns the count of employees below the expected salary range.
+   *
+   * @return the count of employees below the expected salary range
+   */
+  public int getBelowCount() {
+    return belowCount;
+  }
+
+  /**
+   * Returns the count of employees above the expected salary range.
+   *
+   * @return the count of employees above the expected salary range
+   */
+  public int getAboveCount() {
+    return aboveCount;
+  }
+
+  /**
+   * Returns the count of employees within the expected salary range.
+   *
+   * @return the count of employees within the expected salary range
+   */
+  public int getWithinCount() {
+    return size - removedCount - belowCount - aboveCount;
   }
 
   /**
@@ -97,8 +288,255 @@ public class SalaryCategorizer {
    * @return the total count of employees in all categories
    */
   public long getAllCount() {
-    return Stream.of(belowExpectation, aboveExpectation, withinExpectation)
-        .mapToLong(List::size)
-        .sum();
+    return size - removedCount;
+  }
+
+  /**
+   * Appends an employee, keeping the employees below and above expectation in id order.
+   *
+   * @param employee       the employee to add
+   * @param category       the category of the employee, one of those of {@link SalaryKernels}
+   * @param expectedSalary the minimum or maximum expected salary the employee fell short of or exceeded, if any
+   * @return the position of the employee
+   */
+  int insert(Employee employee, byte category, BigDecimal expectedSalary) {
+    int position = append(employee, SalaryKernels.WITHIN);
+    if (category != SalaryKernels.WITHIN) {
+      unshare();
+      categories[position] = category;
+      index(position, expectedSalary);
+    }
+    return position;
+  }
+
+  /**
+   * Replaces the employee at a position, who may have changed their category, keeping the employees below and above
+   * expectation in id order. The employees at other positions are not visited.
+   *
+   * @param position       the position of the employee
+   * @param employee       the employee, with the same id as the replaced one
+   * @param category       the category of the employee, one of those of {@link SalaryKernels}
+   * @param expectedSalary the minimum or maximum expected salary the employee fell short of or exceeded, if any
+   */
+  void replace(int position, Employee employee, byte category, BigDecimal expectedSalary) {
+    unshare();
+    unindex(position);
+    employees.set(position, employee);
+    categories[position] = category;
+    index(position, expectedSalary);
+    modCount++;
+  }
+
+  /**
+   * Removes the employee at a position, leaving the position empty until {@link #compact(ObjIntConsumer)}.
+   *
+   * @param position the position of the employee
+   */
+  void remove(int position) {
+    unshare();
+    unindex(position);
+    employees.set(position, null);
+    categories[position] = REMOVED;
+    removedCount++;
+    modCount++;
+  }
+
+  /**
+   * Drops the empty positions left by removals, keeping the order of the employees.
+   *
+   * @param moved called with every employee whose position changed, and their new position
+   */
+  void compact(ObjIntConsumer<Employee> moved) {
+    int[] newPositions = new int[size];
+    List<Employee> compacted = new ArrayList<>(size - removedCount);
+    byte[] compactedCategories = new byte[Math.max(INITIAL_CAPACITY, size - removedCount)];
+    for (int position = 0; position < size; position++) {
+      if (categories[position] == REMOVED) {
+        continue;
+      }
+      int newPosition = compacted.size();
+      newPositions[position] = newPosition;
+      compacted.add(employees.get(position));
+      compactedCategories[newPosition] = categories[position];
+      if (newPosition != position) {
+        moved.accept(employees.get(position), newPosition);
+      }
+    }
+    // new arrays, so that the views returned so far are not affected
+    belowPositions = Arrays.copyOf(belowPositions, belowPositions.length);
+    abovePositions = Arrays.copyOf(abovePositions, abovePositions.length);
+    for (int i = 0; i < belowCount; i++) {
+      belowPositions[i] = newPositions[belowPositions[i]];
+    }
+    for (int i = 0; i < aboveCount; i++) {
+      abovePositions[i] = newPositions[abovePositions[i]];
+    }
+    employees = compacted;
+    ownsEmployees = true;
+    categories = compactedCategories;
+    size = compacted.size();
+    removedCount = 0;
+    viewsShared = false;
+  }
+
+  /**
+   * Returns the number of empty positions left by removals.
+   *
+   * @return the number of removed employees since the last compaction
+   */
+  int removedCount() {
+    return removedCount;
+  }
+
+  /**
+   * Returns the number of employees added, replaced or removed so far.
+   *
+   * @return the modification count
+   */
+  int modCount() {
+    return modCount;
+  }
+
+  /**
+   * Makes the employees and the positions of this categorizer its own before they are modified in place, unless
+   * nobody else can see them.
+   */
+  private void unshare() {
+    if (!ownsEmployees || viewsShared) {
+      employees = new ArrayList<>(employees);
+      ownsEmployees = true;
+    }
+    if (viewsShared) {
+      belowPositions = Arrays.copyOf(belowPositions, belowPositions.length);
+      belowExpectedSalaries = Arrays.copyOf(belowExpectedSalaries, belowExpectedSalaries.length);
+      abovePositions = Arrays.copyOf(abovePositions, abovePositions.length);
+      aboveExpectedSalaries = Arrays.copyOf(aboveExpectedSalaries, aboveExpectedSalaries.length);
+      viewsShared = false;
+    }
+  }
+
+  private void index(int position, BigDecimal expectedSalary) {
+    if (categories[position] == SalaryKernels.BELOW) {
+      if (belowCount == belowPositions.length) {
+        belowPositions = Arrays.copyOf(belowPositions, belowCount * 2);
+        belowExpectedSalaries = Arrays.copyOf(belowExpectedSalaries, belowCount * 2);
+      }
+      int i = -search(belowPositions, belowCount, employees.get(position).id()) - 1;
+      insertAt(belowPositions, belowExpectedSalaries, belowCount++, i, position, expectedSalary);
+    } else if (categories[position] == SalaryKernels.ABOVE) {
+      if (aboveCount == abovePositions.length) {
+        abovePositions = Arrays.copyOf(abovePositions, aboveCount * 2);
+        aboveExpectedSalaries = Arrays.copyOf(aboveExpectedSalaries, aboveCount * 2);
+      }
+      int i = -search(abovePositions, aboveCount, employees.get(position).id()) - 1;
+      insertAt(abovePositions, aboveExpectedSalaries, aboveCount++, i, position, expectedSalary);
+    }
+  }
+
+  private void unindex(int position) {
+    if (categories[position] == SalaryKernels.BELOW) {
+      int i = search(belowPositions, belowCount, employees.get(position).id());
+      removeAt(belowPositions, belowExpectedSalaries, belowCount--, i);
+    } else if (categories[position] == SalaryKernels.ABOVE) {
+      int i = search(abovePositions, aboveCount, employees.get(position).id());
+      removeAt(abovePositions, aboveExpectedSalaries, aboveCount--, i);
+    }
+  }
+
+  /**
+   * Searches positions ordered by the ids of their employees for an id, like {@link Arrays#binarySearch(int[], int)}.
+   */
+  private int search(int[] positions, int count, int id) {
+    int low = 0;
+    int high = count - 1;
+    while (low <= high) {
+      int mid = (low + high) >>> 1;
+      int midId = employees.get(positions[mid]).id();
+      if (midId < id) {
+        low = mid + 1;
+      } else if (midId > id) {
+        high = mid - 1;
+      } else {
+        return mid;
+      }
+    }
+    return -(low + 1);
+  }
+
+  private static void insertAt(int[] positions, BigDecimal[] expectedSalaries, int count, int i, int position,
+                               BigDecimal expectedSalary) {
+    System.arraycopy(positions, i, positions, i + 1, count - i);
+    System.arraycopy(expectedSalaries, i, expectedSalaries, i + 1, count - i);
+    positions[i] = position;
+    expectedSalaries[i] = expectedSalary;
+  }
+
+  private static void removeAt(int[] positions, BigDecimal[] expectedSalaries, int count, int i) {
+    System.arraycopy(positions, i + 1, positions, i, count - i - 1);
+    System.arraycopy(expectedSalaries, i + 1, expectedSalaries, i, count - i - 1);
+    expectedSalaries[count - 1] = null;
+  }
+
+  private int append(Employee employee, byte category) {
+    if (!ownsEmployees) {
+      // views returned so far keep the list of the level; later additions go to a copy
+      employees = new ArrayList<>(employees);
+      ownsEmployees = true;
+    }
+    employees.add(employee);
+    if (size == categories.length) {
+      categories = Arrays.copyOf(categories, size * 2);
+    }
+    categories[size] = category;
+    modCount++;
+    return size++;
+  }
+
+  private void appendBelow(int position, BigDecimal minExpectedSalary) {
+    if (belowCount == belowPositions.length) {
+      // a new array, so that the views returned so far are not affected
+      belowPositions = Arrays.copyOf(belowPositions, belowCount * 2);
+      belowExpectedSalaries = Arrays.copyOf(belowExpectedSalaries, belowCount * 2);
+    }
+    belowPositions[belowCount] = position;
+    belowExpectedSalaries[belowCount++] = minExpectedSalary;
+  }
+
+  private void appendAbove(int position, BigDecimal maxExpectedSalary) {
+    if (aboveCount == abovePositions.length) {
+      abovePositions = Arrays.copyOf(abovePositions, aboveCount * 2);
+      aboveExpectedSalaries = Arrays.copyOf(aboveExpectedSalaries, aboveCount * 2);
+    }
+    abovePositions[aboveCount] = position;
+    aboveExpectedSalaries[aboveCount++] = maxExpectedSalary;
+  }
+
+  /**
+   * The employees at the given positions. Positions below the count are never overwritten, so the view is stable.
+   */
+  private static final class PositionList extends AbstractList<Employee> implements RandomAccess {
+
+    private final List<Employee> employees;
+    private final int[] positions;
+    private final int size;
+
+    private PositionList(List<Employee> employees, int[] positions, int size) {
+      this.employees = employees;
+      this.positions = positions;
+      this.size = size;
+    }
+
+    @Override
+    public Employee get(int index) {
+      if (index < 0 || index >= size) {
+        throw new IndexOutOfBoundsException("Index " + index + " out of bounds for length " + size);
+      }
+      return employees.get(positions[index]);
+    }
+
+    @Override
+    public int size() {
+      return size;
+    }
   }
 }
@@ -0,0 +1,101 @@
+package com.github.driversti.salaryreport.report;
+
+/**
+ * Bulk arithmetic over salaries in cents held in primitive arrays: sums, and the three-way classification of
+ * salaries against the expected band.
+ *
+ * <p>Two implementations exist. The scalar one always works. The vector one uses the incubating Vector API, to
+ * process as many salaries per instruction as the CPU allows (4 with AVX2, 8 with AVX-512). It is only used when
+ * the JVM runs with {@code --add-modules jdk.incubator.vector}, and can be turned off with
+ * {@code -Dsalaryreport.vector=false}. Both return the same results, and throw {@link ArithmeticException} in the
+ * same cases.
+ */
+public abstract class SalaryKernels {
+
+  /**
+   * The category of a salary below the expected band.
+   */
+  public static final byte BELOW = -1;
+  /**
+   * The category of a salary within the expected band, or without expectation.
+   */
+  public static final byte WITHIN = 0;
+  /**
+   * The category of a salary above the expected band.
+   */
+  public static final byte ABOVE = 1;
+
+  private static final String VECTOR_MODULE = "jdk.incubator.vector";
+  private static final SalaryKernels SCALAR = new ScalarSalaryKernels();
+  private static final SalaryKernels BEST = load();
+
+  SalaryKernels() {
+  }
+
+  /**
+   * Returns the fastest implementation available in this JVM.
+   *
+   * @return the kernels
+   */
+  public static SalaryKernels get() {
+    return BEST;
+  }
+
+  /**
+   * Returns the scalar implementation.
+   *
+   * @return the kernels
+   */
+  public static SalaryKernels scalar() {
+    return SCALAR;
+  }
+
+  /**
+   * Sums a range of values.
+   *
+   * @param values the values
+   * @param from   the first index, inclusive
+   * @param to     the last index, exclusive
+   * @return the sum
+   * @throws ArithmeticException if the sum overflows a long
+   */
+  public abstract long sum(long[] values, int from, int to);
+
+  /**
+   * Classifies a range of salaries against the average salaries of the direct subordinates of every employee,
+   * multiplied by the minimum and maximum factors, as {@link #BELOW}, {@link #WITHIN} or {@link #ABOVE}.
+   *
+   * @param salaries   the salaries, in cents
+   * @param averages   the average salaries of the direct subordinates, in cents; negative for employees without
+   *                   subordinates, who are classified as within
+   * @param from       the first index, inclusive
+   * @param to         the last index, exclusive
+   * @param minFactor  the minimum salary increase
+   * @param maxFactor  the maximum salary increase
+   * @param categories receives the category of every salary, at the same index
+   * @throws ArithmeticException if a product overflows a long
+   */
+  public abstract void classify(long[] salaries, long[] averages, int from, int to,
+                                SalaryMath.Factor minFactor, SalaryMath.Factor maxFactor, byte[] categories);
+
+  /**
+   * Returns the name of the implementation, "scalar" or "vector".
+   *
+   * @return the name
+   */
+  public abstract String name();
+
+  private static SalaryKernels load() {
+    if (!Boolean.parseBoolean(System.getProperty("salaryreport.vector", "true"))
+        || ModuleLayer.boot().findModule(VECTOR_MODULE).isEmpty()) {
+      return SCALAR;
+    }
+    try {
+      // loaded by name, so that the Vector API is only linked when the module is present
+      return (SalaryKernels) Class.forName(SalaryKernels.class.getPackageName() + ".VectorSalaryKernels")
+          .getDeclaredConstructor().newInstance();
+    } catch (ReflectiveOperationException | LinkageError e) {
+      return SCALAR;
+    }
+  }
+}
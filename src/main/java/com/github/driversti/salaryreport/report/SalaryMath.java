@@ -0,0 +1,178 @@
+package com.github.driversti.salaryreport.report;
+
+import java.math.BigDecimal;
+
+/**
+ * Fixed-point salary arithmetic on longs.
+ *
+ * <p>Salaries and averages are held in cents, and salary increase factors as an unscaled value with a decimal
+ * scale (1.20 is 12 with scale 1). Every operation is overflow-checked and throws an {@link ArithmeticException}
+ * when a value does not fit, so callers can fall back to {@link BigDecimal}. Rounding matches the
+ * {@link java.math.RoundingMode#HALF_UP} rounding of the equivalent {@link BigDecimal} computations exactly.
+ */
+public final class SalaryMath {
+
+  private static final int CENTS_SCALE = 2;
+  private static final int RATIO_SCALE = 10; // the scale discrepancy ratios are rounded to before printing
+  private static final long RATIO_ONE = 10_000_000_000L; // 1 at RATIO_SCALE
+  private static final long RATIO_UNITS_PER_HUNDREDTH_OF_PERCENT = 1_000_000L;
+  private static final long[] POWERS_OF_TEN = {
+      1L, 10L, 100L, 1_000L, 10_000L, 100_000L, 1_000_000L, 10_000_000L, 100_000_000L, 1_000_000_000L
+  };
+
+  private SalaryMath() {
+  }
+
+  /**
+   * Converts an amount to cents.
+   *
+   * @param amount the amount
+   * @return the amount in cents
+   * @throws ArithmeticException if the amount has a fraction of a cent or does not fit into a long
+   */
+  public static long toCents(BigDecimal amount) {
+    if (amount.scale() == 0) {
+      return Math.multiplyExact(amount.longValueExact(), 100);
+    }
+    return amount.movePointRight(CENTS_SCALE).longValueExact();
+  }
+
+  /**
+   * Calculates an average in cents, rounded half up like {@code sum.divide(count, 2, HALF_UP)}.
+   *
+   * @param sumCents the sum in cents
+   * @param count    the number of summed values, positive
+   * @return the average in cents
+   */
+  public static long averageCents(long sumCents, long count) {
+    return divideHalfUp(sumCents, count);
+  }
+
+  /**
+   * Divides and rounds half up, i.e. ties are rounded away from zero.
+   *
+   * @param dividend the dividend
+   * @param divisor  the divisor, positive
+   * @return the rounded quotient
+   */
+  public static long divideHalfUp(long dividend, long divisor) {
+    if (dividend < 0) {
+      return -divideHalfUp(-dividend, divisor);
+    }
+    long quotient = dividend / divisor;
+    return (dividend % divisor) >= divisor - (dividend % divisor) ? quotient + 1 : quotient;
+  }
+
+  /**
+   * Compares a salary against an average multiplied by an increase factor, without rounding.
+   *
+   * @param salaryCents  the salary in cents
+   * @param averageCents the average in cents
+   * @param factor       the increase factor
+   * @return a negative number, zero, or a positive number as the salary is below, equal to, or above the expected
+   * salary
+   */
+  public static int compareToExpected(long salaryCents, long averageCents, Factor factor) {
+    return Long.compare(
+        Math.multiplyExact(salaryCents, POWERS_OF_TEN[factor.scale()]),
+        Math.multiplyExact(averageCents, factor.unscaled()));
+  }
+
+  /**
+   * Calculates the expected salary, equal to {@code average.multiply(factor)} including its scale.
+   *
+   * @param averageCents the average in cents
+   * @param factor       the increase factor
+   * @return the expected salary
+   */
+  public static BigDecimal expectedSalary(long averageCents, Factor factor) {
+    return BigDecimal.valueOf(Math.multiplyExact(averageCents, factor.unscaled()), CENTS_SCALE + factor.scale());
+  }
+
+  /**
+   * Calculates by how much a salary falls short of or exceeds the expected salary, in hundredths of a percent.
+   * <p>The result equals formatting {@code (salary / expected - 1) * 100} with two decimals, where the ratio is
+   * first rounded half up to 10 decimals, as the salary report has always done.
+   *
+   * @param salary   the salary, not negative
+   * @param expected the expected salary, positive
+   * @return the signed discrepancy in hundredths of a percent: negative below, positive above the expected salary
+   * @throws ArithmeticException if the values cannot be handled with longs
+   */
+  public static long discrepancyHundredthsOfPercent(BigDecimal salary, BigDecimal expected) {
+    int scale = Math.max(Math.max(salary.scale(), expected.scale()), 0);
+    long dividend = rescale(salary, scale);
+    long divisor = rescale(expected, scale);
+    if (dividend < 0 || divisor <= 0) {
+      throw new ArithmeticException("Unsupported discrepancy of " + salary + " against " + expected);
+    }
+    long ratio = ratioHalfUp(dividend, divisor);
+    return divideHalfUp(ratio - RATIO_ONE, RATIO_UNITS_PER_HUNDREDTH_OF_PERCENT);
+  }
+
+  /**
+   * Formats hundredths of a percent as a number with two decimals, e.g. 1234 as {@code 12.34}.
+   *
+   * @param hundredths the value in hundredths of a percent
+   * @return the formatted number
+   */
+  public static String formatHundredths(long hundredths) {
+    long absolute = Math.abs(hundredths);
+    long fraction = absolute % 100;
+    return (hundredths < 0 ? "-" : "") + absolute / 100 + (fraction < 10 ? ".0" : ".") + fraction;
+  }
+
+  private static long rescale(BigDecimal value, int scale) {
+    int shift = scale - value.scale();
+    if (shift >= POWERS_OF_TEN.length) {
+      throw new ArithmeticException("Scale of " + value + " is out of range");
+    }
+    return Math.multiplyExact(value.unscaledValue().longValueExact(), POWERS_OF_TEN[shift]);
+  }
+
+  /**
+   * Divides at {@link #RATIO_SCALE} decimals with half up rounding, using long division digit by digit so that
+   * the dividend never has to be scaled up in full.
+   */
+  private static long ratioHalfUp(long dividend, long divisor) {
+    if (divisor > Long.MAX_VALUE / 10) {
+      throw new ArithmeticException("Divisor " + divisor + " is out of range");
+    }
+    long quotient = dividend / divisor;
+    long remainder = dividend % divisor;
+    long fraction = 0;
+    for (int digit = 0; digit < RATIO_SCALE; digit++) {
+      remainder *= 10;
+      fraction = fraction * 10 + remainder / divisor;
+      remainder %= divisor;
+    }
+    long ratio = Math.addExact(Math.multiplyExact(quotient, RATIO_ONE), fraction);
+    return remainder >= divisor - remainder ? ratio + 1 : ratio;
+  }
+
+  /**
+   * A salary increase factor as an unscaled value and a decimal scale from 0 to 9.
+   *
+   * @param unscaled the unscaled value
+   * @param scale    the number of decimals
+   */
+  public record Factor(long unscaled, int scale) {
+
+    public Factor {
+      if (scale < 0 || scale >= POWERS_OF_TEN.length) {
+        throw new ArithmeticException("Scale " + scale + " is out of range");
+      }
+    }
+
+    /**
+     * Converts a factor, keeping its scale.
+     *
+     * @param factor the factor, e.g. 1.20
+     * @return the fixed-point factor
+     * @throws ArithmeticException if the factor does not fit
+     */
+    public static Factor of(BigDecimal factor) {
+      return new Factor(factor.unscaledValue().longValueExact(), factor.scale());
+    }
+  }
+}
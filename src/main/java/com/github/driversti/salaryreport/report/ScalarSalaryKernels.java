@@ -0,0 +1,38 @@
+package com.github.driversti.salaryreport.report;
+
+/**
+ * The scalar implementation of {@link SalaryKernels}, one salary at a time, with exact arithmetic.
+ */
+final class ScalarSalaryKernels extends SalaryKernels {
+
+  @Override
+  public long sum(long[] values, int from, int to) {
+    long sum = 0;
+    for (int i = from; i < to; i++) {
+      sum = Math.addExact(sum, values[i]);
+    }
+    return sum;
+  }
+
+  @Override
+  public void classify(long[] salaries, long[] averages, int from, int to,
+                       SalaryMath.Factor minFactor, SalaryMath.Factor maxFactor, byte[] categories) {
+    for (int i = from; i < to; i++) {
+      long average = averages[i];
+      if (average < 0) {
+        categories[i] = WITHIN;
+      } else if (SalaryMath.compareToExpected(salaries[i], average, minFactor) < 0) {
+        categories[i] = BELOW;
+      } else if (SalaryMath.compareToExpected(salaries[i], average, maxFactor) > 0) {
+        categories[i] = ABOVE;
+      } else {
+        categories[i] = WITHIN;
+      }
+    }
+  }
+
+  @Override
+  public String name() {
+    return "scalar";
+  }
+}
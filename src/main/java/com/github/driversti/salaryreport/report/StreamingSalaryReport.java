@@ -0,0 +1,290 @@
+package com.github.driversti.salaryreport.report;
+
+import com.github.driversti.salaryreport.infrastructure.CsvRow;
+import com.github.driversti.salaryreport.infrastructure.MappedCsvFile;
+import com.github.driversti.salaryreport.organization.Employee;
+import com.github.driversti.salaryreport.organization.IdIndex;
+import com.github.driversti.salaryreport.organization.LevelAssigner;
+import com.github.driversti.salaryreport.printers.EmployeePrinter;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.TreeMap;
+
+import static com.github.driversti.salaryreport.report.OrganizationalSalaryReport.LEVELS_DELIMITER;
+import static com.github.driversti.salaryreport.report.OrganizationalSalaryReport.aboveExpectationPostfix;
+import static com.github.driversti.salaryreport.report.OrganizationalSalaryReport.belowExpectationPostfix;
+import static com.github.driversti.salaryreport.report.OrganizationalSalaryReport.excludedEmployeesMessage;
+
+/**
+ * Computes the salary discrepancy report while streaming over a CSV file, without keeping employee records in
+ * memory.
+ *
+ * <p>The first pass keeps only primitive per-employee state: the salary, the organizational level, and the count
+ * and salary sum of the direct subordinates. Memory is therefore bounded by the number of employees rather than
+ * by the size of the rows. Names are read in a second pass, and only for the managers that end up in the report.
+ * <p>Every manager is compared against the average salary of their direct subordinates. The file must not change
+ * between {@link #compute(String)} and {@link #printReport(EmployeePrinter, int)}.
+ */
+public class StreamingSalaryReport {
+
+  private static final SalaryMath.Factor MIN_SALARY_INCREASE = new SalaryMath.Factor(12, 1); // 20% increase
+  private static final SalaryMath.Factor MAX_SALARY_INCREASE = new SalaryMath.Factor(15, 1); // 50% increase
+
+  private static final byte WITHIN_EXPECTATION = 0;
+  private static final byte BELOW_EXPECTATION = 1;
+  private static final byte ABOVE_EXPECTATION = 2;
+
+  private final String filepath;
+  private final int size;
+  private final long[] salaries;
+  private final int[] levels;
+  private final int[] subordinateCounts;
+  private final long[] subordinateSalarySums;
+  private final int levelCount;
+
+  private StreamingSalaryReport(String filepath, int size, long[] salaries, int[] levels,
+                                int[] subordinateCounts, long[] subordinateSalarySums) {
+    this.filepath = filepath;
+    this.size = size;
+    this.salaries = salaries;
+    this.levels = levels;
+    this.subordinateCounts = subordinateCounts;
+    this.subordinateSalarySums = subordinateSalarySums;
+    this.levelCount = Arrays.stream(levels, 0, size).max().orElse(0);
+  }
+
+  /**
+   * Streams over a CSV file and computes the per-employee state needed for the report.
+   *
+   * @param filepath the path to the CSV file (assumed to be present, readable, and well-formed)
+   * @return the computed report
+   */
+  public static StreamingSalaryReport compute(String filepath) {
+    try (MappedCsvFile file = MappedCsvFile.open(filepath)) {
+      Accumulator accumulator = new Accumulator();
+      file.forEachRow(accumulator::add);
+      return accumulator.finish(filepath);
+    } catch (Exception e) {
+      System.err.println("Error reading file: " + filepath);
+      throw new RuntimeException(e);
+    }
+  }
+
+  /**
+   * Calculates the average salary grouped by organizational level.
+   *
+   * @return A map of organizational levels to average salaries.
+   */
+  public Map<Integer, BigDecimal> averageSalaryByLevel() {
+    long[] sums = new long[levelCount + 1];
+    long[] counts = new long[levelCount + 1];
+    for (int i = 0; i < size; i++) {
+      sums[levels[i]] += salaries[i];
+      counts[levels[i]]++;
+    }
+    Map<Integer, BigDecimal> averageSalaryByLevel = new TreeMap<>();
+    for (int level = 1; level <= levelCount; level++) {
+      averageSalaryByLevel.put(level,
+          BigDecimal.valueOf(sums[level]).divide(BigDecimal.valueOf(counts[level]), 2, RoundingMode.HALF_UP));
+    }
+    return averageSalaryByLevel;
+  }
+
+  /**
+   * Print the report of the salary discrepancy for each organizational level.
+   *
+   * @param printer    the printer to use
+   * @param levelDepth the maximum depth of the organizational structure to print (included)
+   */
+  public void printReport(EmployeePrinter printer, int levelDepth) {
+    if (levelDepth < 1) {
+      throw new IllegalArgumentException("The level depth must be at least 1");
+    }
+    if (size == 0) {
+      printer.print("Report is empty");
+      return;
+    }
+
+    byte[] categories = new byte[size];
+    int[] flagged = new int[size];
+    int flaggedCount = 0;
+    for (int i = 0; i < size; i++) {
+      if (levels[i] <= levelDepth) {
+        categories[i] = categoryOf(i);
+        if (categories[i] != WITHIN_EXPECTATION) {
+          flagged[flaggedCount++] = i;
+        }
+      }
+    }
+    Employee[] employees = readEmployees(flagged, flaggedCount);
+
+    printer.print("Salary discrepancy report:");
+    int[] order = orderByLevel(flagged, employees, levelDepth);
+    int[] levelStarts = levelStarts(flagged, flaggedCount, levelDepth);
+    for (int level = 1; level <= Math.min(levelDepth, levelCount); level++) {
+      printer.print("Level " + level);
+      printer.print("Below expectation:");
+      printLevelCategory(printer, categories, flagged, employees, order, levelStarts, level, BELOW_EXPECTATION);
+      printer.print("");
+      printer.print("Above expectation:");
+      printLevelCategory(printer, categories, flagged, employees, order, levelStarts, level, ABOVE_EXPECTATION);
+      printer.print(LEVELS_DELIMITER + "\n");
+    }
+
+    printExcludedEmployeeCount(printer, levelDepth);
+  }
+
+  private void printLevelCategory(EmployeePrinter printer, byte[] categories, int[] flagged, Employee[] employees,
+                                  int[] order, int[] levelStarts, int level, byte category) {
+    for (int k = levelStarts[level]; k < levelStarts[level + 1]; k++) {
+      int position = order[k];
+      int index = flagged[position];
+      if (categories[index] != category) {
+        continue;
+      }
+      long averageCents = averageSubordinateSalaryCents(index);
+      BigDecimal salary = BigDecimal.valueOf(salaries[index]);
+      String postfix = category == BELOW_EXPECTATION
+          ? belowExpectationPostfix(salary, SalaryMath.expectedSalary(averageCents, MIN_SALARY_INCREASE))
+          : aboveExpectationPostfix(salary, SalaryMath.expectedSalary(averageCents, MAX_SALARY_INCREASE));
+      printer.printEmployeeWithPostfix(employees[position], postfix);
+    }
+  }
+
+  private void printExcludedEmployeeCount(EmployeePrinter printer, int levelDepth) {
+    long[] counts = new long[levelCount + 1];
+    for (int i = 0; i < size; i++) {
+      counts[levels[i]]++;
+    }
+    for (int level = levelDepth + 1; level <= levelCount; level++) {
+      printer.print(excludedEmployeesMessage(counts[level], level));
+    }
+  }
+
+  private byte categoryOf(int index) {
+    if (subordinateCounts[index] == 0) {
+      return WITHIN_EXPECTATION; // nobody to compare with
+    }
+    long averageCents = averageSubordinateSalaryCents(index);
+    long salaryCents = Math.multiplyExact(salaries[index], 100);
+    if (SalaryMath.compareToExpected(salaryCents, averageCents, MIN_SALARY_INCREASE) < 0) {
+      return BELOW_EXPECTATION;
+    }
+    if (SalaryMath.compareToExpected(salaryCents, averageCents, MAX_SALARY_INCREASE) > 0) {
+      return ABOVE_EXPECTATION;
+    }
+    return WITHIN_EXPECTATION;
+  }
+
+  private long averageSubordinateSalaryCents(int index) {
+    return SalaryMath.averageCents(Math.multiplyExact(subordinateSalarySums[index], 100), subordinateCounts[index]);
+  }
+
+  private int[] levelStarts(int[] flagged, int flaggedCount, int levelDepth) {
+    int maxLevel = Math.min(levelDepth, levelCount);
+    int[] starts = new int[maxLevel + 2];
+    for (int k = 0; k < flaggedCount; k++) {
+      starts[levels[flagged[k]] + 1]++;
+    }
+    for (int level = 1; level < starts.length; level++) {
+      starts[level] += starts[level - 1];
+    }
+    return starts;
+  }
+
+  /**
+   * Orders the flagged employees by level, then by id within a level, as {@link OrganizationalSalaryReport} does.
+   */
+  private int[] orderByLevel(int[] flagged, Employee[] employees, int levelDepth) {
+    int flaggedCount = employees.length;
+    int[] starts = levelStarts(flagged, flaggedCount, levelDepth);
+    int[] next = starts.clone();
+    long[] keys = new long[flaggedCount]; // the id in the high bits, the position in the low bits
+    for (int k = 0; k < flaggedCount; k++) {
+      keys[next[levels[flagged[k]]]++] = (long) employees[k].id() << 32 | k;
+    }
+    for (int level = 1; level + 1 < starts.length; level++) {
+      Arrays.sort(keys, starts[level], starts[level + 1]);
+    }
+    int[] order = new int[flaggedCount];
+    for (int k = 0; k < flaggedCount; k++) {
+      order[k] = (int) keys[k];
+    }
+    return order;
+  }
+
+  private Employee[] readEmployees(int[] indices, int count) {
+    Employee[] employees = new Employee[count];
+    if (count == 0) {
+      return employees;
+    }
+    try (MappedCsvFile file = MappedCsvFile.open(filepath)) {
+      int[] cursor = new int[2]; // the index of the current row and the position of the next employee to read
+      file.forEachRow(row -> {
+        int index = cursor[0]++;
+        if (cursor[1] < count && indices[cursor[1]] == index) {
+          employees[cursor[1]++] = row.toEmployee();
+        }
+      });
+    } catch (IOException e) {
+      System.err.println("Error reading file: " + filepath);
+      throw new RuntimeException(e);
+    }
+    return employees;
+  }
+
+  /**
+   * Collects the per-employee state of the first pass in growable primitive arrays.
+   */
+  private static final class Accumulator {
+
+    private static final int INITIAL_CAPACITY = 1024;
+
+    private final IdIndex ids = new IdIndex(INITIAL_CAPACITY);
+    private int[] managerIds = new int[INITIAL_CAPACITY];
+    private long[] salaries = new long[INITIAL_CAPACITY];
+
+    void add(CsvRow row) {
+      int index = ids.add(row.id());
+      if (index == managerIds.length) {
+        int capacity = index + (index >> 1);
+        managerIds = Arrays.copyOf(managerIds, capacity);
+        salaries = Arrays.copyOf(salaries, capacity);
+      }
+      managerIds[index] = row.managerId();
+      salaries[index] = row.salary();
+    }
+
+    StreamingSalaryReport finish(String filepath) {
+      int size = ids.size();
+      int[] managerIndex = managerIds; // resolved in place, the manager ids are not needed anymore
+      int[] subordinateCounts = new int[size];
+      long[] subordinateSalarySums = new long[size];
+      for (int i = 0; i < size; i++) {
+        if (managerIds[i] == -1) {
+          managerIndex[i] = LevelAssigner.NO_MANAGER;
+          continue;
+        }
+        int manager = ids.indexOf(managerIds[i]);
+        if (manager < 0) {
+          throw new IllegalArgumentException("Unknown manager id: " + managerIds[i]);
+        }
+        managerIndex[i] = manager;
+        subordinateCounts[manager]++;
+        subordinateSalarySums[manager] += salaries[i];
+      }
+      LevelAssigner.LevelAssignment assignment = LevelAssigner.assign(managerIndex, size);
+      if (!assignment.isComplete()) {
+        throw new IllegalArgumentException("Not every employee reports to the CEO: "
+            + assignment.cycles().length + " employees are in or below a reporting cycle, and "
+            + assignment.roots().length + " employees have no manager");
+      }
+      int[] levels = assignment.levels();
+      return new StreamingSalaryReport(filepath, size, salaries, levels, subordinateCounts, subordinateSalarySums);
+    }
+  }
+}
@@ -0,0 +1,154 @@
+package com.github.driversti.salaryreport.report;
+
+import com.github.driversti.salaryreport.organization.Employee;
+import com.github.driversti.salaryreport.organization.IdIndex;
+import com.github.driversti.salaryreport.organization.OrganizationalStructure;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Categorizes every manager against the average salary of their own direct subordinates.
+ *
+ * <p>The salary sum and count of the direct subordinates of every manager are accumulated in a single pass over
+ * all employees, into arrays indexed by a primitive id index. Categorizing all managers therefore takes O(n) in
+ * total, without collecting the subordinates of any manager into a list.
+ * <p>Sums, averages and comparisons use fixed-point long arithmetic in cents (see {@link SalaryMath}), so only the
+ * expected salaries of the reported managers are materialized as {@link BigDecimal}s. Organizations with salaries
+ * in fractions of a cent, or too large for longs, are computed with {@link BigDecimal}s to the same result.
+ * <p>The employees of every level are compared to their expected salaries in bulk, by {@link SalaryKernels}.
+ */
+public class SubordinateSalaryEngine {
+
+  private final BigDecimal minSalaryIncrease;
+  private final BigDecimal maxSalaryIncrease;
+  private final SalaryMath.Factor minFactor; // null if the increase does not fit fixed-point arithmetic
+  private final SalaryMath.Factor maxFactor;
+  private final SalaryKernels kernels = SalaryKernels.get();
+
+  /**
+   * Creates a new engine.
+   *
+   * @param minSalaryIncrease the factor applied to the average salary of subordinates to get the minimum expected
+   *                          salary of their manager, e.g. 1.20 for 20% more
+   * @param maxSalaryIncrease the factor applied to the average salary of subordinates to get the maximum expected
+   *                          salary of their manager, e.g. 1.50 for 50% more
+   */
+  public SubordinateSalaryEngine(BigDecimal minSalaryIncrease, BigDecimal maxSalaryIncrease) {
+    this.minSalaryIncrease = minSalaryIncrease;
+    this.maxSalaryIncrease = maxSalaryIncrease;
+    this.minFactor = fixedPointFactorOf(minSalaryIncrease);
+    this.maxFactor = fixedPointFactorOf(maxSalaryIncrease);
+  }
+
+  /**
+   * Creates a salary report for the organization. Employees without subordinates have no salary expectation and
+   * are counted as within expectation.
+   *
+   * @param structure The organizational structure.
+   * @return The salary report.
+   */
+  public OrganizationalSalaryReport createSalaryReport(OrganizationalStructure structure) {
+    Map<Integer, List<Employee>> employeesByLevel = structure.employeesByLevel();
+    int size = employeesByLevel.values().stream().mapToInt(List::size).sum();
+    IdIndex ids = new IdIndex(size);
+    employeesByLevel.values().forEach(employees -> employees.forEach(employee -> ids.add(employee.id())));
+
+    if (minFactor != null && maxFactor != null) {
+      try {
+        return createFixedPointReport(employeesByLevel, ids, size);
+      } catch (ArithmeticException e) {
+        // a salary in fractions of a cent, or a sum too large for a long
+      }
+    }
+    return createDecimalReport(employeesByLevel, ids, size);
+  }
+
+  private OrganizationalSalaryReport createFixedPointReport(Map<Integer, List<Employee>> employeesByLevel,
+                                                            IdIndex ids, int size) {
+    // accumulate the salaries of direct subordinates, in one pass over all employees
+    long[] salaryCents = new long[size];
+    long[] subordinateSalarySums = new long[size];
+    int[] subordinateCounts = new int[size];
+    int position = 0;
+    for (List<Employee> employees : employeesByLevel.values()) {
+      for (Employee employee : employees) {
+        salaryCents[position] = SalaryMath.toCents(employee.salary());
+        int manager = ids.indexOf(employee.managerId());
+        if (manager >= 0) {
+          subordinateSalarySums[manager] = Math.addExact(subordinateSalarySums[manager], salaryCents[position]);
+          subordinateCounts[manager]++;
+        }
+        position++;
+      }
+    }
+
+    // the employees of a level are contiguous, so every level is classified in bulk
+    long[] averageCents = new long[size];
+    for (int i = 0; i < size; i++) {
+      int count = subordinateCounts[i];
+      averageCents[i] = count == 0 ? -1 : SalaryMath.averageCents(subordinateSalarySums[i], count);
+    }
+    byte[] categories = new byte[size];
+    Map<Integer, SalaryCategorizer> reportByLevel = new TreeMap<>();
+    int start = 0;
+    for (Map.Entry<Integer, List<Employee>> entry : employeesByLevel.entrySet()) {
+      List<Employee> employees = entry.getValue();
+      int end = start + employees.size();
+      kernels.classify(salaryCents, averageCents, start, end, minFactor, maxFactor, categories);
+      int first = start;
+      reportByLevel.put(entry.getKey(), SalaryCategorizer.of(employees, categories, start,
+          k -> SalaryMath.expectedSalary(averageCents[first + k], minFactor),
+          k -> SalaryMath.expectedSalary(averageCents[first + k], maxFactor)));
+      start = end;
+    }
+
+    return new OrganizationalSalaryReport(reportByLevel);
+  }
+
+  private OrganizationalSalaryReport createDecimalReport(Map<Integer, List<Employee>> employeesByLevel,
+                                                         IdIndex ids, int size) {
+    // accumulate the salaries of direct subordinates, in one pass over all employees
+    BigDecimal[] subordinateSalarySums = new BigDecimal[size];
+    int[] subordinateCounts = new int[size];
+    employeesByLevel.values().forEach(employees -> employees.forEach(employee -> {
+      int manager = ids.indexOf(employee.managerId());
+      if (manager >= 0) {
+        BigDecimal sum = subordinateSalarySums[manager];
+        subordinateSalarySums[manager] = sum == null ? employee.salary() : sum.add(employee.salary());
+        subordinateCounts[manager]++;
+      }
+    }));
+
+    Map<Integer, SalaryCategorizer> reportByLevel = new TreeMap<>();
+    employeesByLevel.forEach((level, employees) -> {
+      SalaryCategorizer categorizer = new SalaryCategorizer();
+      for (Employee employee : employees) {
+        int index = ids.indexOf(employee.id());
+        int count = subordinateCounts[index];
+        if (count == 0) {
+          categorizer.addWithinExpectation(employee);
+          continue;
+        }
+        BigDecimal averageSalary = subordinateSalarySums[index]
+            .divide(BigDecimal.valueOf(count), 2, RoundingMode.HALF_UP);
+        categorizer.addEmployee(employee,
+            averageSalary.multiply(minSalaryIncrease), averageSalary.multiply(maxSalaryIncrease));
+      }
+      reportByLevel.put(level, categorizer);
+    });
+
+    return new OrganizationalSalaryReport(reportByLevel);
+  }
+
+  private static SalaryMath.Factor fixedPointFactorOf(BigDecimal salaryIncrease) {
+    try {
+      return SalaryMath.Factor.of(salaryIncrease);
+    } catch (ArithmeticException e) {
+      return null;
+    }
+  }
+}
@@ -0,0 +1,103 @@
+package com.github.driversti.salaryreport.report;
+
+import jdk.incubator.vector.LongVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * The implementation of {@link SalaryKernels} on the Vector API, processing as many salaries per instruction as
+ * the preferred vector size of the CPU holds.
+ *
+ * <p>Vector arithmetic wraps around instead of throwing, so overflows are detected alongside: lane by lane for
+ * sums, and from the ranges of salaries and averages for comparisons, which are recomputed by the scalar
+ * implementation whenever a product might not fit a long. Only loaded by {@link SalaryKernels#get()}, and only
+ * when the {@code jdk.incubator.vector} module is present.
+ */
+final class VectorSalaryKernels extends SalaryKernels {
+
+  private static final VectorSpecies<Long> SPECIES = LongVector.SPECIES_PREFERRED;
+  private static final long[] POWERS_OF_TEN = {
+      1L, 10L, 100L, 1_000L, 10_000L, 100_000L, 1_000_000L, 10_000_000L, 100_000_000L, 1_000_000_000L
+  };
+
+  @Override
+  public long sum(long[] values, int from, int to) {
+    LongVector sums = LongVector.zero(SPECIES);
+    LongVector overflows = LongVector.zero(SPECIES);
+    int i = from;
+    for (int upper = from + SPECIES.loopBound(to - from); i < upper; i += SPECIES.length()) {
+      LongVector v = LongVector.fromArray(SPECIES, values, i);
+      LongVector r = sums.add(v);
+      // like Math.addExact: the sign of the result differs from the signs of both operands
+      overflows = overflows.or(sums.lanewise(VectorOperators.XOR, r).and(v.lanewise(VectorOperators.XOR, r)));
+      sums = r;
+    }
+    if (overflows.reduceLanes(VectorOperators.OR) < 0) {
+      throw new ArithmeticException("long overflow");
+    }
+    long sum = 0;
+    for (long lane : sums.toArray()) {
+      sum = Math.addExact(sum, lane);
+    }
+    for (; i < to; i++) {
+      sum = Math.addExact(sum, values[i]);
+    }
+    return sum;
+  }
+
+  @Override
+  public void classify(long[] salaries, long[] averages, int from, int to,
+                       SalaryMath.Factor minFactor, SalaryMath.Factor maxFactor, byte[] categories) {
+    long minPower = POWERS_OF_TEN[minFactor.scale()];
+    long maxPower = POWERS_OF_TEN[maxFactor.scale()];
+    long minUnscaled = minFactor.unscaled();
+    long maxUnscaled = maxFactor.unscaled();
+    LongVector salaryMin = LongVector.broadcast(SPECIES, Long.MAX_VALUE);
+    LongVector salaryMax = LongVector.zero(SPECIES);
+    LongVector averageMax = LongVector.zero(SPECIES);
+    int lanes = SPECIES.length();
+    int i = from;
+    for (int upper = from + SPECIES.loopBound(to - from); i < upper; i += lanes) {
+      LongVector salary = LongVector.fromArray(SPECIES, salaries, i);
+      LongVector average = LongVector.fromArray(SPECIES, averages, i);
+      salaryMin = salaryMin.min(salary);
+      salaryMax = salaryMax.max(salary);
+      averageMax = averageMax.max(average);
+      VectorMask<Long> expected = average.compare(VectorOperators.GE, 0);
+      VectorMask<Long> below = salary.mul(minPower).compare(VectorOperators.LT, average.mul(minUnscaled))
+          .and(expected);
+      VectorMask<Long> above = salary.mul(maxPower).compare(VectorOperators.GT, average.mul(maxUnscaled))
+          .and(expected).andNot(below);
+      long belowBits = below.toLong();
+      long aboveBits = above.toLong();
+      for (int lane = 0; lane < lanes; lane++) {
+        categories[i + lane] = (byte) (((aboveBits >>> lane) & 1) - ((belowBits >>> lane) & 1));
+      }
+    }
+
+    boolean exact = i == from || fitsLong(salaryMin.reduceLanes(VectorOperators.MIN),
+        salaryMax.reduceLanes(VectorOperators.MAX), averageMax.reduceLanes(VectorOperators.MAX),
+        Math.max(minPower, maxPower), minUnscaled, maxUnscaled);
+    if (!exact) {
+      // a product may have wrapped around: recompute, and throw, exactly
+      i = from;
+    }
+    SalaryKernels.scalar().classify(salaries, averages, i, to, minFactor, maxFactor, categories);
+  }
+
+  private static boolean fitsLong(long salaryMin, long salaryMax, long averageMax, long power,
+                                  long minUnscaled, long maxUnscaled) {
+    if (salaryMin < 0 || salaryMax > Long.MAX_VALUE / power
+        || minUnscaled == Long.MIN_VALUE || maxUnscaled == Long.MIN_VALUE) {
+      return false;
+    }
+    long unscaled = Math.max(Math.abs(minUnscaled), Math.abs(maxUnscaled));
+    return unscaled == 0 || averageMax <= Long.MAX_VALUE / unscaled;
+  }
+
+  @Override
+  public String name() {
+    return "vector";
+  }
+}
@@ -0,0 +1,139 @@
+package com.github.driversti.salaryreport.server;
+
+import com.github.driversti.salaryreport.organization.EmployeeTable;
+import com.github.driversti.salaryreport.report.ResultCache;
+
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import static java.nio.file.StandardWatchEventKinds.ENTRY_CREATE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_MODIFY;
+import static java.nio.file.StandardWatchEventKinds.OVERFLOW;
+
+/**
+ * Keeps the reports of an organization up to date with the file it is read from.
+ *
+ * <p>A background thread watches the file; once it has been quiet for {@value #QUIET_PERIOD_MILLIS} ms after a
+ * change, the organization is read again and its reports computed, while requests keep being served from the
+ * previous reports. The new reports are then published with a single reference swap: readers never block, and a
+ * reader that got the reports once keeps a consistent view, however long it uses them. The cached results of the
+ * replaced reports are invalidated at the same time, so that they do not keep the previous organization in memory.
+ * <p>If the file cannot be read, for instance while it is still being written, the previous reports stay in
+ * place until the next change. Snapshot files are mapped rather than read, so a new snapshot must replace the
+ * previous one by being moved into place, never by overwriting it.
+ */
+public final class OrganizationReloader implements Supplier<OrganizationReports>, AutoCloseable {
+
+  private static final long QUIET_PERIOD_MILLIS = 200;
+  private static final int CACHE_SIZE = 256;
+
+  private final Path file;
+  private final Function<Path, EmployeeTable> reader;
+  private final ResultCache cache = new ResultCache(CACHE_SIZE); // shared by all versions of the organization
+  private final AtomicReference<OrganizationReports> current;
+  private final WatchService watchService;
+
+  private OrganizationReloader(Path file, Function<Path, EmployeeTable> reader) throws IOException {
+    this.file = file.toAbsolutePath();
+    this.reader = reader;
+    this.current = new AtomicReference<>(OrganizationReports.of(reader.apply(this.file), cache));
+    this.watchService = FileSystems.getDefault().newWatchService();
+    this.file.getParent().register(watchService, ENTRY_CREATE, ENTRY_MODIFY);
+  }
+
+  /**
+   * Reads the organization and starts watching the file.
+   *
+   * @param file   the file of the organization
+   * @param reader reads the organization from the file
+   * @return the reloader, holding the reports of the organization as read now
+   * @throws IOException if the file cannot be watched
+   */
+  public static OrganizationReloader start(Path file, Function<Path, EmployeeTable> reader) throws IOException {
+    OrganizationReloader reloader = new OrganizationReloader(file, reader);
+    Thread.ofPlatform().daemon().name("organization-reloader").start(reloader::watch);
+    return reloader;
+  }
+
+  /**
+   * Returns the latest reports.
+   *
+   * @return the reports
+   */
+  @Override
+  public OrganizationReports get() {
+    return current.get();
+  }
+
+  /**
+   * Reads the organization again and publishes its reports, without waiting for the file to change.
+   * <p>Reloads run one at a time, so that reports read earlier are never published after reports read later, for
+   * instance when called while the watching thread reloads too.
+   *
+   * @return true if the reports were replaced; false if the file could not be read
+   */
+  public synchronized boolean reload() {
+    OrganizationReports reports;
+    try {
+      reports = OrganizationReports.of(reader.apply(file), cache);
+    } catch (RuntimeException e) {
+      System.err.println("Keeping the previous organization, failed to reload: " + file);
+      return false;
+    }
+    OrganizationReports previous = current.getAndSet(reports);
+    cache.invalidate(previous.version());
+    return true;
+  }
+
+  /**
+   * Stops watching the file. The latest reports remain available.
+   */
+  @Override
+  public void close() {
+    try {
+      watchService.close();
+    } catch (IOException e) {
+      // the watch service is gone either way
+    }
+  }
+
+  private void watch() {
+    try {
+      while (true) {
+        if (changed(watchService.take())) {
+          awaitQuiet();
+          reload();
+        }
+      }
+    } catch (ClosedWatchServiceException | InterruptedException e) {
+      // closed
+    }
+  }
+
+  private void awaitQuiet() throws InterruptedException {
+    WatchKey key;
+    while ((key = watchService.poll(QUIET_PERIOD_MILLIS, TimeUnit.MILLISECONDS)) != null) {
+      changed(key);
+    }
+  }
+
+  private boolean changed(WatchKey key) {
+    boolean changed = false;
+    for (WatchEvent<?> event : key.pollEvents()) {
+      if (event.kind() == OVERFLOW || event.context() instanceof Path name && name.equals(file.getFileName())) {
+        changed = true;
+      }
+    }
+    key.reset();
+    return changed;
+  }
+}
@@ -0,0 +1,193 @@
+package com.github.driversti.salaryreport.server;
+
+import com.github.driversti.salaryreport.organization.AncestryIndex;
+import com.github.driversti.salaryreport.organization.EmployeeTable;
+import com.github.driversti.salaryreport.organization.OrganizationalStructure;
+import com.github.driversti.salaryreport.printers.BufferedChannelPrinter;
+import com.github.driversti.salaryreport.printers.EmployeePrinter;
+import com.github.driversti.salaryreport.report.Accountant;
+import com.github.driversti.salaryreport.report.OrganizationalSalaryReport;
+import com.github.driversti.salaryreport.report.ResultCache;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+
+/**
+ * The reports of one organization, computed once when the organization is loaded and shared by all requests.
+ *
+ * <p>The average salaries and the discrepancy report for the default depth are kept as encoded responses, so
+ * serving them costs nothing but writing bytes. Reports for other depths are printed on first request from the
+ * shared report, then kept in a {@link ResultCache} shared by successive versions of the organization.
+ * Per-employee queries are answered from the employee table and an {@link AncestryIndex}.
+ * <p>Instances are immutable, hence safe to share between threads.
+ */
+public final class OrganizationReports {
+
+  /**
+   * According to the requirements, we want to calculate the salary discrepancy for levels no deeper than 4 levels
+   * between the CEO and the employee. This means we include the CEO + the 4 levels of subordinates between the
+   * most far level which (+1) gives us a total of 6 levels.
+   */
+  public static final int REPORTED_LEVELS = 6;
+
+  private static final int DEFAULT_CACHE_SIZE = 64;
+
+  private final EmployeeTable table;
+  private final AncestryIndex ancestry;
+  private final long version;
+  private final ResultCache cache;
+  private final OrganizationalSalaryReport report;
+  private final String[] discrepancies;
+  private final byte[] averageSalaryByLevel;
+  private final byte[] discrepancyReport;
+
+  private OrganizationReports(EmployeeTable table, ResultCache cache) {
+    this.table = table;
+    this.ancestry = AncestryIndex.of(table);
+    OrganizationalStructure structure = OrganizationalStructure.of(table);
+    this.version = structure.version();
+    this.cache = cache;
+    Accountant accountant = new Accountant(structure, cache);
+    this.report = accountant.createSalaryReport();
+    this.discrepancies = new String[table.size()];
+    report.forEachDiscrepancy((employee, discrepancy) -> discrepancies[table.indexOf(employee.id())] = discrepancy);
+
+    StringBuilder averages = new StringBuilder();
+    Map<Integer, BigDecimal> averageSalaryByLevel = new TreeMap<>(accountant.averageSalaryByLevel());
+    averageSalaryByLevel.forEach((level, salary) ->
+        averages.append(String.format(Locale.ROOT, "The average salary of level %d is: %.2f%n", level, salary)));
+    this.averageSalaryByLevel = averages.toString().getBytes(StandardCharsets.UTF_8);
+    this.discrepancyReport = print(report, REPORTED_LEVELS);
+  }
+
+  /**
+   * Computes the reports of an organization.
+   *
+   * @param table the organization
+   * @return the reports
+   */
+  public static OrganizationReports of(EmployeeTable table) {
+    return new OrganizationReports(table, new ResultCache(DEFAULT_CACHE_SIZE));
+  }
+
+  /**
+   * Computes the reports of an organization, caching results in a cache shared with other versions of the
+   * organization.
+   *
+   * @param table the organization
+   * @param cache the cache of results
+   * @return the reports
+   */
+  public static OrganizationReports of(EmployeeTable table, ResultCache cache) {
+    return new OrganizationReports(table, cache);
+  }
+
+  /**
+   * Returns the average salary of every level, one line per level, as printed by the application.
+   *
+   * @return the UTF-8 encoded text
+   */
+  public byte[] averageSalaryByLevel() {
+    return averageSalaryByLevel;
+  }
+
+  /**
+   * Returns the salary discrepancy report, as printed by the application.
+   * <p>All depths from the number of levels on print the same report, so they share a single response.
+   *
+   * @param levelDepth the maximum depth of the organizational structure to print (included)
+   * @return the UTF-8 encoded text
+   * @throws IllegalArgumentException if the level depth is less than 1
+   */
+  public byte[] discrepancyReport(int levelDepth) {
+    if (levelDepth < 1) {
+      throw new IllegalArgumentException("The level depth must be at least 1");
+    }
+    int depth = effectiveDepth(levelDepth);
+    if (depth == effectiveDepth(REPORTED_LEVELS)) {
+      return discrepancyReport;
+    }
+    return cache.get(version, new DiscrepancyReportQuery(depth), () -> print(report, depth));
+  }
+
+  long version() {
+    return version;
+  }
+
+  /**
+   * Returns the statistics of the cache of results.
+   *
+   * @return the statistics
+   */
+  public ResultCache.Stats cacheStats() {
+    return cache.stats();
+  }
+
+  /**
+   * Describes an employee as a JSON object: their attributes, organizational level, reporting chain up to the
+   * CEO, and salary discrepancy, which is null for employees within expectation.
+   *
+   * @param id the id of the employee
+   * @return the JSON object, or empty if there is no such employee
+   */
+  public Optional<String> employee(int id) {
+    int i = table.indexOf(id);
+    if (i < 0) {
+      return Optional.empty();
+    }
+    int manager = table.managerIndex(i);
+    StringBuilder json = new StringBuilder(128)
+        .append("{\"id\":").append(id)
+        .append(",\"firstName\":");
+    quote(json, table.firstName(i)).append(",\"lastName\":");
+    quote(json, table.lastName(i))
+        .append(",\"salary\":").append(BigDecimal.valueOf(table.salaryCents(i), 2).toPlainString())
+        .append(",\"managerId\":").append(manager < 0 ? -1 : table.id(manager))
+        .append(",\"level\":").append(table.level(i))
+        .append(",\"subordinates\":").append(table.subordinateCount(i))
+        .append(",\"reportingChain\":[");
+    int[] chain = ancestry.reportingChain(id);
+    for (int k = 0; k < chain.length; k++) {
+      json.append(k == 0 ? "" : ",").append(chain[k]);
+    }
+    json.append("],\"discrepancy\":");
+    return Optional.of((discrepancies[i] == null ? json.append("null") : quote(json, discrepancies[i]))
+        .append('}').toString());
+  }
+
+  private int effectiveDepth(int levelDepth) {
+    return Math.max(1, Math.min(levelDepth, table.levelCount()));
+  }
+
+  private static byte[] print(OrganizationalSalaryReport report, int levelDepth) {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    try (BufferedChannelPrinter printer = new BufferedChannelPrinter(Channels.newChannel(out))) {
+      report.printReport(new EmployeePrinter(printer), levelDepth);
+    }
+    return out.toByteArray();
+  }
+
+  private record DiscrepancyReportQuery(int levelDepth) {
+  }
+
+  private static StringBuilder quote(StringBuilder json, String s) {
+    json.append('"');
+    for (int i = 0; i < s.length(); i++) {
+      char c = s.charAt(i);
+      if (c == '"' || c == '\\') {
+        json.append('\\').append(c);
+      } else if (c < 0x20) {
+        json.append(String.format("\\u%04x", (int) c));
+      } else {
+        json.append(c);
+      }
+    }
+    return json.append('"');
+  }
+}
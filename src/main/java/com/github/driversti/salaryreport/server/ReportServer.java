@@ -0,0 +1,149 @@
+package com.github.driversti.salaryreport.server;
+
+import com.github.driversti.salaryreport.report.ResultCache;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Supplier;
+
+/**
+ * A long-running HTTP server answering queries about an organization loaded once.
+ *
+ * <p>Every request is handled on its own virtual thread and reads only immutable {@link OrganizationReports}, so
+ * requests never wait for each other. The reports are taken from a supplier on every request, which allows the
+ * organization to be replaced while the server is running.
+ * <p>Endpoints, all GET:
+ * <ul>
+ *   <li>{@code /average-salary-by-level} - the average salary of every level, as text</li>
+ *   <li>{@code /report[?levelDepth=<n>]} - the salary discrepancy report, as text; 6 levels by default</li>
+ *   <li>{@code /employees/<id>} - a single employee, as JSON</li>
+ *   <li>{@code /cache-stats} - the hits, misses, evictions and size of the cache of results, as JSON</li>
+ * </ul>
+ */
+public final class ReportServer implements AutoCloseable {
+
+  private static final int BACKLOG = 4096;
+  private static final String TEXT = "text/plain; charset=utf-8";
+  private static final String JSON = "application/json; charset=utf-8";
+  private static final String EMPLOYEES_PATH = "/employees/";
+  private static final String LEVEL_DEPTH_PARAMETER = "levelDepth=";
+
+  private final HttpServer server;
+  private final ExecutorService executor;
+  private final Supplier<OrganizationReports> reports;
+
+  private ReportServer(HttpServer server, Supplier<OrganizationReports> reports) {
+    this.server = server;
+    this.executor = Executors.newVirtualThreadPerTaskExecutor();
+    this.reports = reports;
+    server.createContext("/", this::handle);
+    server.setExecutor(executor);
+  }
+
+  /**
+   * Starts a server.
+   *
+   * @param address the address to listen on; port 0 picks a free port
+   * @param reports supplies the reports to serve, read on every request
+   * @return the running server
+   * @throws IOException if the server cannot listen on the address
+   */
+  public static ReportServer start(InetSocketAddress address, Supplier<OrganizationReports> reports)
+      throws IOException {
+    ReportServer reportServer = new ReportServer(HttpServer.create(address, BACKLOG), reports);
+    reportServer.server.start();
+    return reportServer;
+  }
+
+  /**
+   * Returns the port the server listens on.
+   *
+   * @return the port
+   */
+  public int port() {
+    return server.getAddress().getPort();
+  }
+
+  /**
+   * Stops the server, letting requests in progress complete for up to a second.
+   */
+  @Override
+  public void close() {
+    server.stop(1);
+    executor.close();
+  }
+
+  private void handle(HttpExchange exchange) throws IOException {
+    try (exchange) {
+      if (!"GET".equals(exchange.getRequestMethod())) {
+        exchange.getResponseHeaders().set("Allow", "GET");
+        send(exchange, 405, TEXT, "Method not allowed");
+        return;
+      }
+      OrganizationReports current = reports.get();
+      String path = exchange.getRequestURI().getPath();
+      if (path.equals("/average-salary-by-level")) {
+        send(exchange, 200, TEXT, current.averageSalaryByLevel());
+      } else if (path.equals("/report")) {
+        Optional<Integer> levelDepth = levelDepth(exchange.getRequestURI().getRawQuery());
+        if (levelDepth.isEmpty()) {
+          send(exchange, 400, TEXT, "The level depth must be a number of at least 1");
+        } else {
+          send(exchange, 200, TEXT, current.discrepancyReport(levelDepth.get()));
+        }
+      } else if (path.startsWith(EMPLOYEES_PATH)) {
+        Optional<String> employee = parseInt(path.substring(EMPLOYEES_PATH.length())).flatMap(current::employee);
+        if (employee.isEmpty()) {
+          send(exchange, 404, TEXT, "Employee not found");
+        } else {
+          send(exchange, 200, JSON, employee.get());
+        }
+      } else if (path.equals("/cache-stats")) {
+        ResultCache.Stats stats = current.cacheStats();
+        send(exchange, 200, JSON, "{\"hits\":" + stats.hits() + ",\"misses\":" + stats.misses()
+            + ",\"evictions\":" + stats.evictions() + ",\"size\":" + stats.size() + "}");
+      } else {
+        send(exchange, 404, TEXT, "Not found");
+      }
+    }
+  }
+
+  private static Optional<Integer> levelDepth(String query) {
+    if (query == null) {
+      return Optional.of(OrganizationReports.REPORTED_LEVELS);
+    }
+    for (String parameter : query.split("&")) {
+      if (parameter.startsWith(LEVEL_DEPTH_PARAMETER)) {
+        return parseInt(parameter.substring(LEVEL_DEPTH_PARAMETER.length())).filter(depth -> depth >= 1);
+      }
+    }
+    return Optional.of(OrganizationReports.REPORTED_LEVELS);
+  }
+
+  private static Optional<Integer> parseInt(String s) {
+    try {
+      return Optional.of(Integer.parseInt(s));
+    } catch (NumberFormatException e) {
+      return Optional.empty();
+    }
+  }
+
+  private static void send(HttpExchange exchange, int status, String contentType, String body) throws IOException {
+    send(exchange, status, contentType, body.getBytes(StandardCharsets.UTF_8));
+  }
+
+  private static void send(HttpExchange exchange, int status, String contentType, byte[] body) throws IOException {
+    exchange.getResponseHeaders().set("Content-Type", contentType);
+    exchange.sendResponseHeaders(status, body.length == 0 ? -1 : body.length); // 0 would mean chunked
+    try (OutputStream out = exchange.getResponseBody()) {
+      out.write(body);
+    }
+  }
+}
@@ -0,0 +1,192 @@
+package com.github.driversti.salaryreport.generator;
+
+import com.github.driversti.salaryreport.generator.EmployeeCsvGenerator.Range;
+import com.github.driversti.salaryreport.infrastructure.EmployeeReader;
+import com.github.driversti.salaryreport.organization.Employee;
+import com.github.driversti.salaryreport.organization.OrganizationalStructure;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class EmployeeCsvGeneratorTest {
+
+  @TempDir
+  private Path directory;
+
+  @Test
+  @DisplayName("should write an organization readable by EmployeeReader")
+  void shouldWriteReadableOrganization() throws IOException {
+    // given
+    Path file = directory.resolve("employees.csv");
+    EmployeeCsvGenerator generator = EmployeeCsvGenerator.builder().rows(5000).build();
+
+    // when
+    long bytes = generator.generate(file);
+
+    // then
+    assertEquals(Files.size(file), bytes);
+    List<Employee> employees = List.copyOf(new EmployeeReader().read(file.toString()));
+    assertEquals(5000, employees.size());
+    assertEquals(-1, employees.get(0).managerId());
+    OrganizationalStructure structure = new OrganizationalStructure(employees);
+    assertEquals(5000, structure.employeesByLevel().values().stream().mapToInt(List::size).sum());
+    assertTrue(employees.stream().allMatch(employee -> employee.salary().longValue() % 100 == 0));
+  }
+
+  @Test
+  @DisplayName("should stop at the largest id, without overflowing")
+  void shouldStopAtLargestId() throws IOException {
+    // given
+    Path file = directory.resolve("employees.csv");
+    EmployeeCsvGenerator generator = EmployeeCsvGenerator.builder()
+        .firstId(EmployeeCsvGenerator.MAX_ROWS - 99).rows(100).maxDepth(3).build();
+
+    // when
+    generator.generate(file);
+
+    // then
+    List<Employee> employees = List.copyOf(new EmployeeReader().read(file.toString()));
+    assertEquals(100, employees.size());
+    assertEquals(Integer.MAX_VALUE - 99, employees.getFirst().id());
+    assertEquals(Integer.MAX_VALUE, employees.getLast().id());
+    assertEquals(100, new OrganizationalStructure(employees).employees().size());
+    assertThrows(IllegalArgumentException.class,
+        () -> EmployeeCsvGenerator.builder().firstId(EmployeeCsvGenerator.MAX_ROWS - 99).rows(101).build());
+  }
+
+  @Test
+  @DisplayName("should write the same file for the same seed")
+  void shouldBeDeterministic() throws IOException {
+    // given
+    Path first = directory.resolve("first.csv");
+    Path second = directory.resolve("second.csv");
+    Path other = directory.resolve("other.csv");
+
+    // when
+    EmployeeCsvGenerator.builder().rows(10_000).seed(7).build().generate(first);
+    EmployeeCsvGenerator.builder().rows(10_000).seed(7).build().generate(second);
+    EmployeeCsvGenerator.builder().rows(10_000).seed(8).build().generate(other);
+
+    // then
+    assertArrayEquals(Files.readAllBytes(first), Files.readAllBytes(second));
+    assertNotEquals(Files.readAllLines(first), Files.readAllLines(other));
+  }
+
+  @Test
+  @DisplayName("should give every manager a number of subordinates from the fan-out of their level")
+  void shouldRespectFanOutByLevel() throws IOException {
+    // given
+    Path file = directory.resolve("employees.csv");
+    EmployeeCsvGenerator generator = EmployeeCsvGenerator.builder()
+        .rows(1 + 4 + 4 * 3)
+        .fanOut(new Range(4, 4))
+        .fanOut(2, new Range(3, 3))
+        .build();
+
+    // when
+    generator.generate(file);
+
+    // then
+    Map<Integer, Long> subordinateCounts = new EmployeeReader().read(file.toString()).stream()
+        .collect(Collectors.groupingBy(Employee::managerId, Collectors.counting()));
+    assertEquals(Map.of(-1, 1L, 1, 4L, 2, 3L, 3, 3L, 4, 3L, 5, 3L), subordinateCounts);
+  }
+
+  @Test
+  @DisplayName("should spread the remaining rows over the last level once reaching the maximum depth")
+  void shouldRespectMaxDepth() throws IOException {
+    // given
+    Path file = directory.resolve("employees.csv");
+    EmployeeCsvGenerator generator = EmployeeCsvGenerator.builder()
+        .rows(1000)
+        .fanOut(new Range(2, 2))
+        .maxDepth(3)
+        .build();
+
+    // when
+    generator.generate(file);
+
+    // then
+    OrganizationalStructure structure = new OrganizationalStructure(new EmployeeReader().read(file.toString()));
+    Map<Integer, Integer> sizes = structure.employeesByLevel().entrySet().stream()
+        .collect(Collectors.toMap(Map.Entry::getKey, entry -> entry.getValue().size()));
+    assertEquals(Map.of(1, 1, 2, 2, 3, 997), sizes);
+  }
+
+  @Test
+  @DisplayName("should keep going when a whole level draws no subordinates")
+  void shouldSpillWhenLevelHasNoSubordinates() throws IOException {
+    // given
+    Path file = directory.resolve("employees.csv");
+    EmployeeCsvGenerator generator = EmployeeCsvGenerator.builder()
+        .rows(100)
+        .fanOut(new Range(3, 3))
+        .fanOut(2, new Range(0, 0))
+        .build();
+
+    // when
+    generator.generate(file);
+
+    // then
+    OrganizationalStructure structure = new OrganizationalStructure(new EmployeeReader().read(file.toString()));
+    assertEquals(96, structure.employeesByLevel().get(3).size());
+  }
+
+  @Test
+  @DisplayName("should draw salaries from the range of every level")
+  void shouldRespectSalaryByLevel() throws IOException {
+    // given
+    Path file = directory.resolve("employees.csv");
+    EmployeeCsvGenerator generator = EmployeeCsvGenerator.builder()
+        .rows(500)
+        .salary(new Range(50_000, 50_000))
+        .salary(2, new Range(1_000, 1_999))
+        .salaryStep(1)
+        .build();
+
+    // when
+    generator.generate(file);
+
+    // then
+    Map<Integer, Employee> employees = new EmployeeReader().read(file.toString()).stream()
+        .collect(Collectors.toMap(Employee::id, Function.identity()));
+    assertEquals(BigDecimal.valueOf(50_000), employees.get(1).salary());
+    assertTrue(employees.values().stream().filter(employee -> employee.id() != 1)
+        .allMatch(employee -> employee.salary().intValue() >= 1_000 && employee.salary().intValue() <= 1_999));
+  }
+
+  @Test
+  @DisplayName("should apply command line options")
+  void shouldApplyOptions() throws IOException {
+    // given
+    Path file = directory.resolve("employees.csv");
+    EmployeeCsvGenerator generator = EmployeeCsvGenerator.builder()
+        .option("--rows=11")
+        .option("--fan-out=10")
+        .option("--fan-out=2:0..0")
+        .build();
+
+    // when
+    generator.generate(file);
+
+    // then
+    assertEquals(12, Files.readAllLines(file).size());
+    assertThrows(IllegalArgumentException.class, () -> EmployeeCsvGenerator.builder().option("--unknown=1"));
+    assertThrows(IllegalArgumentException.class, () -> EmployeeCsvGenerator.builder().option("--fan-out=3..1"));
+  }
+}
@@ -0,0 +1,47 @@
+package com.github.driversti.salaryreport.infrastructure;
+
+import com.github.driversti.salaryreport.organization.Employee;
+import com.github.driversti.salaryreport.organization.EmployeeChange;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class EmployeeChangeReaderTest {
+
+  private final EmployeeChangeReader changeReader = new EmployeeChangeReader();
+
+  @Test
+  @DisplayName("should read inserted, updated and deleted employees from file")
+  void shouldReadChangesFromFile() {
+    // given
+    String filepath = "src/test/resources/test_employee_changes.csv";
+
+    // when
+    List<EmployeeChange> changes = changeReader.read(filepath);
+
+    // then
+    assertEquals(
+        List.of(
+            EmployeeChange.insert(new Employee(126, "Jane", "Roe", BigDecimal.valueOf(50000), 123)),
+            EmployeeChange.update(new Employee(124, "Martin", "Chekov", BigDecimal.valueOf(47000), 123)),
+            EmployeeChange.delete(125)
+        ),
+        changes
+    );
+  }
+
+  @Test
+  @DisplayName("should throw RuntimeException when file not found")
+  void shouldThrowRuntimeExceptionWhenFileNotFound() {
+    // given
+    String filepath = "src/test/resources/not_found.csv";
+
+    // when
+    assertThrows(RuntimeException.class, () -> changeReader.read(filepath));
+  }
+}
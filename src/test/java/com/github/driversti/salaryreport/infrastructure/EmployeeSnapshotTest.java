@@ -0,0 +1,152 @@
+package com.github.driversti.salaryreport.infrastructure;
+
+import com.github.driversti.salaryreport.organization.ColumnarOrganization;
+import com.github.driversti.salaryreport.organization.Employee;
+import com.github.driversti.salaryreport.organization.EmployeeTable;
+import com.github.driversti.salaryreport.organization.OrganizationalStructure;
+import com.github.driversti.salaryreport.report.Accountant;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class EmployeeSnapshotTest {
+
+  @TempDir
+  private Path directory;
+
+  @Test
+  @DisplayName("should load the same table as was written")
+  void shouldLoadSameTable() {
+    // given
+    ColumnarOrganization written =
+        ColumnarOrganization.of(new EmployeeReader().read("src/main/resources/employees.csv"));
+    String snapshot = directory.resolve("employees.snapshot").toString();
+
+    // when
+    EmployeeSnapshot.write(written, snapshot);
+    EmployeeTable loaded = EmployeeSnapshot.read(snapshot);
+
+    // then
+    assertEquals(written.size(), loaded.size());
+    assertEquals(written.levelCount(), loaded.levelCount());
+    for (int i = 0; i < written.size(); i++) {
+      assertEquals(written.employee(i), loaded.employee(i));
+      assertEquals(written.level(i), loaded.level(i));
+      assertEquals(written.subordinateCount(i), loaded.subordinateCount(i));
+      for (int k = 0; k < written.subordinateCount(i); k++) {
+        assertEquals(written.subordinate(i, k), loaded.subordinate(i, k));
+      }
+      assertEquals(i, loaded.indexOf(written.id(i)));
+    }
+    assertEquals(-1, loaded.indexOf(Integer.MAX_VALUE));
+    assertEquals(written.employeesByLevel(), loaded.employeesByLevel());
+  }
+
+  @Test
+  @DisplayName("accountant should report the same from a loaded snapshot")
+  void accountantShouldReportSameFromSnapshot() {
+    // given
+    List<Employee> employees = List.of(
+        new Employee(1, "Zoë", "Åström", new BigDecimal("15000.50"), -1),
+        new Employee(2, "Joe", "Doe", BigDecimal.valueOf(8000), 1),
+        new Employee(3, "Joe", "Doe", BigDecimal.valueOf(9000), 1)
+    );
+    String snapshot = directory.resolve("employees.snapshot").toString();
+    EmployeeSnapshot.write(ColumnarOrganization.of(employees), snapshot);
+
+    // when
+    OrganizationalStructure structure = OrganizationalStructure.of(EmployeeSnapshot.read(snapshot));
+
+    // then
+    OrganizationalStructure expected = new OrganizationalStructure(employees);
+    assertEquals(expected.employees(), structure.employees());
+    assertEquals(new Accountant(expected).averageSalaryByLevel(), new Accountant(structure).averageSalaryByLevel());
+  }
+
+  @Test
+  @DisplayName("should reject a corrupt snapshot")
+  void shouldRejectCorruptSnapshot() throws IOException {
+    // given
+    Path snapshot = write();
+    byte[] bytes = Files.readAllBytes(snapshot);
+    bytes[bytes.length - 1] ^= 1;
+    Files.write(snapshot, bytes);
+
+    // when
+    RuntimeException exception = assertThrows(RuntimeException.class,
+        () -> EmployeeSnapshot.read(snapshot.toString()));
+
+    // then
+    assertInstanceOf(IllegalArgumentException.class, exception.getCause());
+    assertEquals("Corrupt snapshot: checksum mismatch", exception.getCause().getMessage());
+  }
+
+  @Test
+  @DisplayName("should load a snapshot without validating its checksum when asked to")
+  void shouldLoadWithoutChecksumValidation() throws IOException {
+    // given
+    Path snapshot = write();
+    byte[] bytes = Files.readAllBytes(snapshot);
+    bytes[bytes.length - 1] ^= 1; // the last byte of the name pool
+    Files.write(snapshot, bytes);
+
+    // when
+    EmployeeTable loaded = EmployeeSnapshot.read(snapshot.toString(), false);
+
+    // then
+    EmployeeTable expected =
+        ColumnarOrganization.of(new EmployeeReader().read("src/test/resources/test_employees.csv"));
+    assertEquals(expected.size(), loaded.size());
+    assertEquals(expected.id(0), loaded.id(0));
+  }
+
+  @Test
+  @DisplayName("should reject a truncated snapshot")
+  void shouldRejectTruncatedSnapshot() throws IOException {
+    // given
+    Path snapshot = write();
+    byte[] bytes = Files.readAllBytes(snapshot);
+    Files.write(snapshot, Arrays.copyOf(bytes, bytes.length - 4));
+
+    // expect
+    RuntimeException exception = assertThrows(RuntimeException.class,
+        () -> EmployeeSnapshot.read(snapshot.toString()));
+    assertInstanceOf(IllegalArgumentException.class, exception.getCause());
+  }
+
+  @Test
+  @DisplayName("should reject other versions and other files")
+  void shouldRejectOtherVersionsAndFiles() throws IOException {
+    // given
+    Path snapshot = write();
+    byte[] bytes = Files.readAllBytes(snapshot);
+    ByteBuffer.wrap(bytes).order(ByteOrder.LITTLE_ENDIAN).putInt(4, EmployeeSnapshot.VERSION + 1);
+    Files.write(snapshot, bytes);
+
+    // expect
+    RuntimeException exception = assertThrows(RuntimeException.class,
+        () -> EmployeeSnapshot.read(snapshot.toString()));
+    assertEquals("Unsupported snapshot version 2, expected 1", exception.getCause().getMessage());
+    assertThrows(RuntimeException.class, () -> EmployeeSnapshot.read("src/main/resources/employees.csv"));
+  }
+
+  private Path write() {
+    Path snapshot = directory.resolve("employees.snapshot");
+    EmployeeSnapshot.write(ColumnarOrganization.of(new EmployeeReader().read("src/test/resources/test_employees.csv")),
+        snapshot.toString());
+    return snapshot;
+  }
+}
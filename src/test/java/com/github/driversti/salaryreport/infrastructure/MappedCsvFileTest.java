@@ -0,0 +1,60 @@
+package com.github.driversti.salaryreport.infrastructure;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class MappedCsvFileTest {
+
+  private static final String FILEPATH = "src/main/resources/employees.csv";
+
+  @Test
+  @DisplayName("split should produce contiguous chunks aligned to line endings")
+  void splitShouldProduceChunksAlignedToLineEndings() throws IOException {
+    try (MappedCsvFile file = MappedCsvFile.open(FILEPATH)) {
+      // when
+      List<MappedCsvFile.Chunk> chunks = file.split(1000);
+
+      // then
+      assertEquals(0, chunks.getFirst().start());
+      assertEquals(file.size(), chunks.getLast().end());
+      for (int i = 1; i < chunks.size(); i++) {
+        assertEquals(chunks.get(i - 1).end(), chunks.get(i).start());
+      }
+    }
+  }
+
+  @Test
+  @DisplayName("parsing chunks one by one should yield the same rows as parsing the whole file")
+  void parsingChunksShouldYieldSameRowsAsWholeFile() throws IOException {
+    try (MappedCsvFile file = MappedCsvFile.open(FILEPATH)) {
+      // given
+      List<Long> expected = new ArrayList<>();
+      file.forEachRow(row -> expected.add(row.offset()));
+
+      // when
+      List<Long> actual = new ArrayList<>();
+      for (MappedCsvFile.Chunk chunk : file.split(100)) {
+        file.forEachRow(chunk, row -> actual.add(row.offset()));
+      }
+
+      // then
+      assertEquals(expected, actual);
+    }
+  }
+
+  @Test
+  @DisplayName("split should reject a non-positive chunk size")
+  void splitShouldRejectNonPositiveChunkSize() throws IOException {
+    try (MappedCsvFile file = MappedCsvFile.open(FILEPATH)) {
+      // expect
+      assertThrows(IllegalArgumentException.class, () -> file.split(0));
+    }
+  }
+}
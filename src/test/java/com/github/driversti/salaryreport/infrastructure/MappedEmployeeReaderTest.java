@@ -0,0 +1,108 @@
+package com.github.driversti.salaryreport.infrastructure;
+
+import com.github.driversti.salaryreport.organization.Employee;
+import com.github.driversti.salaryreport.organization.OrganizationalStructure;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class MappedEmployeeReaderTest {
+
+  private final MappedEmployeeReader mappedEmployeeReader = new MappedEmployeeReader();
+
+  @Test
+  @DisplayName("should read the same employees as EmployeeReader")
+  void shouldReadSameEmployeesAsEmployeeReader() {
+    // given
+    String filepath = "src/main/resources/employees.csv";
+
+    // when
+    var employees = mappedEmployeeReader.read(filepath);
+
+    // then
+    assertEquals(List.copyOf(new EmployeeReader().read(filepath)), List.copyOf(employees));
+  }
+
+  @Test
+  @DisplayName("should read employees from file")
+  void shouldReadEmployeesFromFile() {
+    // given
+    String filepath = "src/test/resources/test_employees.csv";
+
+    // when
+    var employees = mappedEmployeeReader.read(filepath);
+
+    // then
+    assertEquals(
+        List.of(
+            new Employee(123, "Joe", "Doe", BigDecimal.valueOf(60000), -1),
+            new Employee(124, "Martin", "Chekov", BigDecimal.valueOf(45000), 123),
+            new Employee(125, "Bob", "Ronstad", BigDecimal.valueOf(47000), 123)
+        ),
+        List.copyOf(employees)
+    );
+  }
+
+  @Test
+  @DisplayName("readOffHeap should read the same employees into an off-heap table")
+  void readOffHeapShouldReadSameEmployees() {
+    // given
+    String filepath = "src/main/resources/employees.csv";
+
+    // when
+    var table = mappedEmployeeReader.readOffHeap(filepath);
+
+    // then
+    assertEquals(new OrganizationalStructure(new EmployeeReader().read(filepath)).employees(), table.employees());
+  }
+
+  @Test
+  @DisplayName("should handle CRLF line endings, blank lines and a missing manager column")
+  void shouldHandleLineEndingsAndMissingManagerColumn(@TempDir Path dir) throws IOException {
+    // given
+    Path file = dir.resolve("employees.csv");
+    Files.writeString(file, "Id,firstName,lastName,salary,managerId\r\n1,John,Doe,15000\r\n\r\n2,Alice,Berton,8000,1\r\n");
+
+    // when
+    var employees = mappedEmployeeReader.read(file.toString());
+
+    // then
+    assertEquals(
+        List.of(
+            new Employee(1, "John", "Doe", BigDecimal.valueOf(15000), -1),
+            new Employee(2, "Alice", "Berton", BigDecimal.valueOf(8000), 1)
+        ),
+        List.copyOf(employees)
+    );
+  }
+
+  @Test
+  @DisplayName("should throw RuntimeException when a row is malformed")
+  void shouldThrowRuntimeExceptionWhenRowIsMalformed(@TempDir Path dir) throws IOException {
+    // given
+    Path file = dir.resolve("employees.csv");
+    Files.writeString(file, "1,John,Doe,a lot,\n");
+
+    // expect
+    assertThrows(RuntimeException.class, () -> mappedEmployeeReader.read(file.toString()));
+  }
+
+  @Test
+  @DisplayName("should throw RuntimeException when file not found")
+  void shouldThrowRuntimeExceptionWhenFileNotFound() {
+    // given
+    String filepath = "src/test/resources/not_found.csv";
+
+    // when
+    assertThrows(RuntimeException.class, () -> mappedEmployeeReader.read(filepath));
+  }
+}
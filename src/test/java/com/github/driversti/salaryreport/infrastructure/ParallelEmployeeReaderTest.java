@@ -0,0 +1,73 @@
+package com.github.driversti.salaryreport.infrastructure;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ParallelEmployeeReaderTest {
+
+  private static ForkJoinPool pool;
+
+  private ParallelEmployeeReader parallelEmployeeReader;
+
+  @BeforeAll
+  static void startPool() {
+    pool = new ForkJoinPool(4);
+  }
+
+  @AfterAll
+  static void closePool() {
+    pool.close();
+  }
+
+  @BeforeEach
+  void setUp() {
+    // tiny chunks, so that even the small test files are split across several workers
+    parallelEmployeeReader = new ParallelEmployeeReader(pool, 64);
+  }
+
+  @Test
+  @DisplayName("should read the same employees in the same order as EmployeeReader")
+  void shouldReadSameEmployeesAsEmployeeReader() {
+    // given
+    String filepath = "src/main/resources/employees.csv";
+
+    // when
+    var employees = parallelEmployeeReader.read(filepath);
+
+    // then
+    assertEquals(List.copyOf(new EmployeeReader().read(filepath)), List.copyOf(employees));
+  }
+
+  @Test
+  @DisplayName("should keep the CEO without a manager")
+  void shouldKeepCeoWithoutManager() {
+    // given
+    String filepath = "src/test/resources/test_employees.csv";
+
+    // when
+    var employees = List.copyOf(parallelEmployeeReader.read(filepath));
+
+    // then
+    assertEquals(3, employees.size());
+    assertEquals(-1, employees.getFirst().managerId());
+  }
+
+  @Test
+  @DisplayName("should throw RuntimeException when file not found")
+  void shouldThrowRuntimeExceptionWhenFileNotFound() {
+    // given
+    String filepath = "src/test/resources/not_found.csv";
+
+    // when
+    assertThrows(RuntimeException.class, () -> parallelEmployeeReader.read(filepath));
+  }
+}
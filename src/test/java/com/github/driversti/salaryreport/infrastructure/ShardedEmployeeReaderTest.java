@@ -0,0 +1,133 @@
+package com.github.driversti.salaryreport.infrastructure;
+
+import com.github.driversti.salaryreport.organization.Employee;
+import com.github.driversti.salaryreport.organization.OrganizationalStructure;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ShardedEmployeeReaderTest {
+
+  private static final String HEADER = "Id,firstName,lastName,salary,managerId\n";
+
+  private static ForkJoinPool pool;
+
+  private ShardedEmployeeReader shardedEmployeeReader;
+
+  @TempDir
+  Path directory;
+
+  @BeforeAll
+  static void startPool() {
+    pool = new ForkJoinPool(4);
+  }
+
+  @AfterAll
+  static void closePool() {
+    pool.close();
+  }
+
+  @BeforeEach
+  void setUp() {
+    shardedEmployeeReader = new ShardedEmployeeReader(pool);
+  }
+
+  @Test
+  @DisplayName("should read the same organization from shards as from a single file")
+  void shouldReadSameOrganizationAsSingleFile() throws IOException {
+    // given
+    String filepath = "src/main/resources/employees.csv";
+    List<String> lines = Files.readAllLines(Path.of(filepath));
+    List<String> shards = new ArrayList<>();
+    for (int shard = 0; shard < 3; shard++) {
+      StringBuilder content = new StringBuilder(HEADER);
+      for (int line = 1 + shard; line < lines.size(); line += 3) { // managers end up in other shards
+        content.append(lines.get(line)).append('\n');
+      }
+      shards.add(write("shard" + shard + ".csv", content.toString()));
+    }
+
+    // when
+    var employees = shardedEmployeeReader.read(shards);
+
+    // then
+    OrganizationalStructure expected = new OrganizationalStructure(new EmployeeReader().read(filepath));
+    OrganizationalStructure structure = OrganizationalStructure.parallel(employees);
+    assertEquals(expected.employees(), structure.employees());
+    assertEquals(expected.employeesByLevel(), structure.employeesByLevel());
+  }
+
+  @Test
+  @DisplayName("should keep employees in shard order, then file order")
+  void shouldKeepShardOrder() throws IOException {
+    // given
+    String reports = write("reports.csv", HEADER + "3,Bob,Smith,100,1\n2,Alice,Berton,200,1\n");
+    String ceo = write("ceo.csv", HEADER + "1,John,Doe,300,\n");
+
+    // when
+    List<Integer> ids = shardedEmployeeReader.read(List.of(reports, ceo)).stream().map(Employee::id).toList();
+
+    // then
+    assertEquals(List.of(3, 2, 1), ids);
+  }
+
+  @Test
+  @DisplayName("should name the shards of duplicated ids and unresolved managers")
+  void shouldNameShardsOfErrors() throws IOException {
+    // given
+    String first = write("first.csv", HEADER + "1,John,Doe,300,\n2,Alice,Berton,200,1\n");
+    String second = write("second.csv", HEADER + "2,Bob,Smith,100,1\n4,Eve,Johnson,100,9\n");
+
+    // when
+    Exception ex = assertThrows(IllegalArgumentException.class,
+        () -> shardedEmployeeReader.read(List.of(first, second)));
+
+    // then
+    assertEquals("Employee 2 appears in " + first + " and " + second + "\n"
+        + "Manager 9 of employee 4 in " + second + " is in no shard", ex.getMessage());
+  }
+
+  @Test
+  @DisplayName("should require exactly one CEO across shards")
+  void shouldRequireOneCeo() throws IOException {
+    // given
+    String first = write("first.csv", HEADER + "1,John,Doe,300,\n");
+    String second = write("second.csv", HEADER + "2,Jane,Suzuka,300,\n");
+
+    // when
+    Exception ex = assertThrows(IllegalArgumentException.class,
+        () -> shardedEmployeeReader.read(List.of(first, second)));
+
+    // then
+    assertEquals("Expected exactly one CEO across shards, found 2", ex.getMessage());
+    assertThrows(IllegalArgumentException.class, () -> shardedEmployeeReader.read(List.of()));
+  }
+
+  @Test
+  @DisplayName("should throw RuntimeException when a shard is not found")
+  void shouldThrowRuntimeExceptionWhenShardNotFound() throws IOException {
+    // given
+    String ceo = write("ceo.csv", HEADER + "1,John,Doe,300,\n");
+
+    // when
+    assertThrows(RuntimeException.class,
+        () -> shardedEmployeeReader.read(List.of(ceo, "src/test/resources/not_found.csv")));
+  }
+
+  private String write(String name, String content) throws IOException {
+    return Files.writeString(directory.resolve(name), content).toString();
+  }
+}
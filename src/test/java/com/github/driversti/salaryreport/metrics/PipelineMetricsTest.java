@@ -0,0 +1,132 @@
+package com.github.driversti.salaryreport.metrics;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import javax.management.JMX;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PipelineMetricsTest {
+
+  @Test
+  @DisplayName("should do nothing when disabled and not recorded")
+  void shouldDoNothingWhenDisabled() {
+    // given
+    PipelineMetrics metrics = new PipelineMetrics(false);
+
+    // when
+    try (StageTimer timer = metrics.start(Stage.READ)) {
+      timer.rows(100).bytesRead(1_000);
+    }
+
+    // then
+    assertSame(StageTimer.DISABLED, metrics.start(Stage.READ));
+    assertEquals(List.of(), metrics.getStages());
+  }
+
+  @Test
+  @DisplayName("should measure every run of a stage when enabled")
+  void shouldMeasureStagesWhenEnabled() {
+    // given
+    PipelineMetrics metrics = new PipelineMetrics(true);
+
+    // when
+    for (int run = 1; run <= 2; run++) {
+      try (StageTimer timer = metrics.start(Stage.BUILD_STRUCTURE)) {
+        long[] allocated = new long[1 << 20];
+        timer.rows(allocated.length * run).bytesRead(run);
+      }
+    }
+    try (StageTimer timer = metrics.start(Stage.READ)) {
+      timer.rows(10);
+    }
+
+    // then
+    List<StageStatistics> stages = metrics.getStages();
+    assertEquals(2, stages.size());
+    StageStatistics read = stages.get(0);
+    StageStatistics build = stages.get(1);
+    assertEquals("read", read.getStage());
+    assertEquals("build structure", build.getStage());
+    assertEquals(2, build.getRuns());
+    assertEquals(2 << 20, build.getLastRows());
+    assertEquals(2, build.getLastBytesRead());
+    assertTrue(build.getLastAllocatedBytes() >= 8 << 20, "allocated " + build.getLastAllocatedBytes());
+    assertTrue(build.getLastPeakHeapBytes() > 0);
+    assertTrue(build.getTotalWallTimeNanos() >= build.getLastWallTimeNanos());
+    assertTrue(build.getLastRowsPerSecond() > 0);
+
+    // when
+    metrics.reset();
+
+    // then
+    assertEquals(List.of(), metrics.getStages());
+  }
+
+  @Test
+  @DisplayName("should expose the global metrics over JMX")
+  void shouldExposeGlobalMetricsOverJmx() throws Exception {
+    // given
+    PipelineMetrics metrics = PipelineMetrics.global();
+    PipelineMetricsMXBean proxy = JMX.newMXBeanProxy(ManagementFactory.getPlatformMBeanServer(),
+        new ObjectName(PipelineMetrics.OBJECT_NAME), PipelineMetricsMXBean.class);
+    proxy.setEnabled(true);
+    try {
+      // when
+      try (StageTimer timer = metrics.start(Stage.CREATE_REPORT)) {
+        timer.rows(42);
+      }
+
+      // then
+      StageStatistics report = proxy.getStages().stream()
+          .filter(stage -> stage.getStage().equals("create report"))
+          .findFirst().orElseThrow();
+      assertEquals(42, report.getLastRows());
+    } finally {
+      proxy.setEnabled(false);
+      proxy.reset();
+    }
+  }
+
+  @Test
+  @DisplayName("should emit a JFR event per stage when recorded, even if disabled")
+  void shouldEmitJfrEventsWhenRecorded() throws Exception {
+    // given
+    PipelineMetrics metrics = new PipelineMetrics(false);
+    Path file = Files.createTempFile("stages", ".jfr");
+    try (Recording recording = new Recording()) {
+      recording.enable(StageEvent.NAME);
+      recording.start();
+
+      // when
+      try (StageTimer timer = metrics.start(Stage.PRINT_REPORT)) {
+        timer.rows(7).bytesRead(3);
+      }
+      recording.stop();
+      recording.dump(file);
+
+      // then
+      List<RecordedEvent> events = RecordingFile.readAllEvents(file).stream()
+          .filter(event -> event.getEventType().getName().equals(StageEvent.NAME))
+          .toList();
+      assertEquals(1, events.size());
+      assertEquals("print report", events.get(0).getString("stage"));
+      assertEquals(7, events.get(0).getLong("rows"));
+      assertEquals(3, events.get(0).getLong("bytesRead"));
+      assertEquals(List.of(), metrics.getStages());
+    } finally {
+      Files.deleteIfExists(file);
+    }
+  }
+}
@@ -0,0 +1,113 @@
+package com.github.driversti.salaryreport.organization;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static com.github.driversti.salaryreport.TestData.CEO;
+import static com.github.driversti.salaryreport.TestData.MANAGER_1;
+import static com.github.driversti.salaryreport.TestData.MANAGER_2;
+import static com.github.driversti.salaryreport.TestData.MANAGER_3;
+import static com.github.driversti.salaryreport.TestData.MANAGER_4;
+import static com.github.driversti.salaryreport.TestData.MANAGER_5;
+import static com.github.driversti.salaryreport.TestData.MANAGER_6;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AncestryIndexTest {
+
+  private final AncestryIndex index =
+      AncestryIndex.of(List.of(MANAGER_3, MANAGER_6, MANAGER_1, CEO, MANAGER_4, MANAGER_5, MANAGER_2));
+
+  @Test
+  @DisplayName("should tell whether an employee reports to a manager")
+  void shouldTellWhetherEmployeeReportsToManager() {
+    // expect
+    assertTrue(index.reportsTo(MANAGER_3.id(), MANAGER_1.id()));
+    assertTrue(index.reportsTo(MANAGER_3.id(), CEO.id()));
+    assertFalse(index.reportsTo(MANAGER_3.id(), MANAGER_2.id()));
+    assertFalse(index.reportsTo(MANAGER_3.id(), MANAGER_3.id()));
+    assertFalse(index.reportsTo(CEO.id(), MANAGER_3.id()));
+  }
+
+  @Test
+  @DisplayName("should find the k-th manager above an employee")
+  void shouldFindKthManager() {
+    // expect
+    assertEquals(MANAGER_5.id(), index.kthManager(MANAGER_5.id(), 0));
+    assertEquals(MANAGER_2.id(), index.kthManager(MANAGER_5.id(), 1));
+    assertEquals(CEO.id(), index.kthManager(MANAGER_5.id(), 2));
+    assertEquals(-1, index.kthManager(MANAGER_5.id(), 3));
+    assertThrows(IllegalArgumentException.class, () -> index.kthManager(MANAGER_5.id(), -1));
+  }
+
+  @Test
+  @DisplayName("should find the lowest common manager of two employees")
+  void shouldFindLowestCommonManager() {
+    // expect
+    assertEquals(MANAGER_1.id(), index.lowestCommonManager(MANAGER_3.id(), MANAGER_4.id()));
+    assertEquals(CEO.id(), index.lowestCommonManager(MANAGER_3.id(), MANAGER_6.id()));
+    assertEquals(MANAGER_2.id(), index.lowestCommonManager(MANAGER_6.id(), MANAGER_2.id()));
+    assertEquals(MANAGER_6.id(), index.lowestCommonManager(MANAGER_6.id(), MANAGER_6.id()));
+  }
+
+  @Test
+  @DisplayName("should list the managers between an employee and the CEO")
+  void shouldListReportingChain() {
+    // expect
+    assertArrayEquals(new int[] {MANAGER_1.id(), CEO.id()}, index.reportingChain(MANAGER_4.id()));
+    assertArrayEquals(new int[0], index.reportingChain(CEO.id()));
+    assertThrows(IllegalArgumentException.class, () -> index.reportingChain(99));
+  }
+
+  @Test
+  @DisplayName("should match walking the reporting lines on a random organization")
+  void shouldMatchWalkingReportingLines() {
+    // given
+    Random random = new Random(42);
+    List<Employee> employees = new ArrayList<>();
+    employees.add(new Employee(1, "First1", "Last1", BigDecimal.valueOf(20_000), -1));
+    for (int id = 2; id <= 300; id++) {
+      employees.add(new Employee(id, "First" + id, "Last" + id, BigDecimal.valueOf(5_000),
+          Math.max(1, id - 1 - random.nextInt(5))));
+    }
+    AncestryIndex randomIndex = AncestryIndex.of(employees);
+    Map<Integer, Employee> byId = new HashMap<>();
+    employees.forEach(employee -> byId.put(employee.id(), employee));
+
+    for (int k = 0; k < 1000; k++) {
+      int id1 = 1 + random.nextInt(300);
+      int id2 = 1 + random.nextInt(300);
+
+      // when
+      int lowestCommonManager = randomIndex.lowestCommonManager(id1, id2);
+      int[] chain = randomIndex.reportingChain(id1);
+
+      // then
+      List<Integer> line = reportingLine(byId, id1);
+      List<Integer> otherLine = reportingLine(byId, id2);
+      int expected = line.stream().filter(otherLine::contains).findFirst().orElseThrow();
+      assertEquals(expected, lowestCommonManager, id1 + " and " + id2);
+      assertArrayEquals(line.stream().skip(1).mapToInt(Integer::intValue).toArray(), chain);
+      int depth = random.nextInt(line.size() + 1);
+      assertEquals(depth < line.size() ? line.get(depth) : -1, randomIndex.kthManager(id1, depth));
+    }
+  }
+
+  private static List<Integer> reportingLine(Map<Integer, Employee> byId, int id) {
+    List<Integer> line = new ArrayList<>();
+    for (; id != -1; id = byId.get(id).managerId()) {
+      line.add(id);
+    }
+    return line;
+  }
+}
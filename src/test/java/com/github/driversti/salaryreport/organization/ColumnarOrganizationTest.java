@@ -0,0 +1,68 @@
+package com.github.driversti.salaryreport.organization;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static com.github.driversti.salaryreport.TestData.CEO;
+import static com.github.driversti.salaryreport.TestData.MANAGER_1;
+import static com.github.driversti.salaryreport.TestData.MANAGER_2;
+import static com.github.driversti.salaryreport.TestData.MANAGER_3;
+import static com.github.driversti.salaryreport.TestData.MANAGER_4;
+import static com.github.driversti.salaryreport.TestData.MANAGER_5;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ColumnarOrganizationTest {
+
+  private static final List<Employee> INIT_EMPLOYEES = List.of(MANAGER_3, MANAGER_1, CEO, MANAGER_4, MANAGER_5, MANAGER_2);
+
+  private final ColumnarOrganization organization = ColumnarOrganization.of(INIT_EMPLOYEES);
+
+  @Test
+  @DisplayName("should store employees in columns ordered by id")
+  void shouldStoreEmployeesInColumnsOrderedById() {
+    // expect
+    assertEquals(6, organization.size());
+    int index = organization.indexOf(MANAGER_2.id());
+    assertEquals(2, index);
+    assertEquals(MANAGER_2, organization.employee(index));
+    assertEquals(1_040_000, organization.salaryCents(index));
+    assertEquals(organization.indexOf(CEO.id()), organization.managerIndex(index));
+    assertEquals(LevelAssigner.NO_MANAGER, organization.managerIndex(organization.indexOf(CEO.id())));
+    assertEquals(-1, organization.indexOf(42));
+  }
+
+  @Test
+  @DisplayName("should index direct subordinates of every manager")
+  void shouldIndexDirectSubordinates() {
+    // given
+    int manager1 = organization.indexOf(MANAGER_1.id());
+
+    // expect
+    assertEquals(2, organization.subordinateCount(manager1));
+    assertEquals(MANAGER_3, organization.employee(organization.subordinate(manager1, 0)));
+    assertEquals(MANAGER_4, organization.employee(organization.subordinate(manager1, 1)));
+    assertEquals(0, organization.subordinateCount(organization.indexOf(MANAGER_5.id())));
+  }
+
+  @Test
+  @DisplayName("should group employees by level like OrganizationalStructure")
+  void shouldGroupEmployeesByLevel() {
+    // when
+    Map<Integer, List<Employee>> employeesByLevel = organization.employeesByLevel();
+
+    // then
+    assertEquals(3, organization.levelCount());
+    assertEquals(new OrganizationalStructure(INIT_EMPLOYEES).employeesByLevel(), employeesByLevel);
+  }
+
+  @Test
+  @DisplayName("should reject employees reporting to an unknown manager")
+  void shouldRejectUnknownManager() {
+    // expect
+    assertThrows(IllegalArgumentException.class, () -> ColumnarOrganization.of(List.of(CEO, MANAGER_3)));
+  }
+}
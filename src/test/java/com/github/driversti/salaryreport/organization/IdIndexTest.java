@@ -0,0 +1,41 @@
+package com.github.driversti.salaryreport.organization;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class IdIndexTest {
+
+  @Test
+  @DisplayName("should assign dense indices in insertion order and survive resizing")
+  void shouldAssignDenseIndicesInInsertionOrder() {
+    // given
+    IdIndex index = new IdIndex(2);
+
+    // when
+    for (int i = 0; i < 1000; i++) {
+      index.add(i * 7919 - 500);
+    }
+
+    // then
+    assertEquals(1000, index.size());
+    for (int i = 0; i < 1000; i++) {
+      assertEquals(i, index.indexOf(i * 7919 - 500));
+    }
+    assertEquals(-1, index.indexOf(1));
+  }
+
+  @Test
+  @DisplayName("should reject duplicate ids")
+  void shouldRejectDuplicateIds() {
+    // given
+    IdIndex index = new IdIndex();
+    index.add(42);
+
+    // expect
+    Exception ex = assertThrows(IllegalArgumentException.class, () -> index.add(42));
+    assertEquals("Duplicate employee id: 42", ex.getMessage());
+  }
+}
@@ -0,0 +1,85 @@
+package com.github.driversti.salaryreport.organization;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static com.github.driversti.salaryreport.organization.LevelAssigner.NO_MANAGER;
+import static com.github.driversti.salaryreport.organization.LevelAssigner.UNKNOWN_MANAGER;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LevelAssignerTest {
+
+  @Test
+  @DisplayName("should assign levels regardless of the order of employees")
+  void shouldAssignLevelsRegardlessOfOrder() {
+    // given: subordinates come before their managers
+    int[] managerIndex = {3, 2, 4, 4, NO_MANAGER};
+
+    // when
+    LevelAssigner.LevelAssignment assignment = LevelAssigner.assign(managerIndex, managerIndex.length);
+
+    // then
+    assertArrayEquals(new int[]{3, 3, 2, 2, 1}, assignment.levels());
+    assertEquals(3, assignment.levelCount());
+    assertTrue(assignment.isComplete());
+  }
+
+  @Test
+  @DisplayName("should assign levels of a very deep hierarchy without recursion")
+  void shouldAssignLevelsOfVeryDeepHierarchy() {
+    // given: a single reporting line listed from the bottom up
+    int size = 200_000;
+    int[] managerIndex = new int[size];
+    for (int i = 0; i < size; i++) {
+      managerIndex[i] = i == size - 1 ? NO_MANAGER : i + 1;
+    }
+
+    // when
+    int[] levels = LevelAssigner.assign(managerIndex, size).levels();
+
+    // then
+    assertEquals(size, levels[0]);
+    assertEquals(1, levels[size - 1]);
+  }
+
+  @Test
+  @DisplayName("should report employees in or below a cycle and employees with an unknown manager")
+  void shouldReportCyclesAndOrphans() {
+    // given: 1 and 2 manage each other, 3 reports to 2, 4 reports to an unknown manager and 5 reports to 4
+    int[] managerIndex = {NO_MANAGER, 2, 1, 2, UNKNOWN_MANAGER, 4};
+
+    // when
+    LevelAssigner.LevelAssignment assignment = LevelAssigner.assign(managerIndex, managerIndex.length);
+
+    // then
+    assertFalse(assignment.isComplete());
+    assertArrayEquals(new int[]{1, 0, 0, 0, 0, 0}, assignment.levels());
+    assertArrayEquals(new int[]{1, 2, 3}, assignment.cycles());
+    assertArrayEquals(new int[]{4, 5}, assignment.orphans());
+    Exception ex = assertThrows(IllegalArgumentException.class, () -> assignment.requireComplete(i -> i * 10));
+    assertEquals("Not every employee reports to the CEO. Employees with an unknown manager: [40, 50]."
+        + " Employees in or below a reporting cycle: [10, 20, 30].", ex.getMessage());
+  }
+
+  @Test
+  @DisplayName("should report employees without a manager unless there is only one")
+  void shouldReportSeveralRoots() {
+    // given: 0 and 2 have no manager, 1 reports to 0
+    int[] managerIndex = {NO_MANAGER, 0, NO_MANAGER};
+
+    // when
+    LevelAssigner.LevelAssignment assignment = LevelAssigner.assign(managerIndex, managerIndex.length);
+
+    // then
+    assertFalse(assignment.isComplete());
+    assertArrayEquals(new int[]{1, 2, 1}, assignment.levels());
+    assertArrayEquals(new int[]{0, 2}, assignment.roots());
+    Exception ex = assertThrows(IllegalArgumentException.class, () -> assignment.requireComplete(i -> i * 10));
+    assertEquals("Not every employee reports to the CEO."
+        + " Employees without a manager, of whom only one can be the CEO: [0, 20].", ex.getMessage());
+  }
+}
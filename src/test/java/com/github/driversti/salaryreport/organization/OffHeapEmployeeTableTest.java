@@ -0,0 +1,84 @@
+package com.github.driversti.salaryreport.organization;
+
+import com.github.driversti.salaryreport.report.Accountant;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static com.github.driversti.salaryreport.TestData.CEO;
+import static com.github.driversti.salaryreport.TestData.MANAGER_1;
+import static com.github.driversti.salaryreport.TestData.MANAGER_2;
+import static com.github.driversti.salaryreport.TestData.MANAGER_3;
+import static com.github.driversti.salaryreport.TestData.MANAGER_4;
+import static com.github.driversti.salaryreport.TestData.MANAGER_5;
+import static com.github.driversti.salaryreport.TestData.MANAGER_6;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class OffHeapEmployeeTableTest {
+
+  private static final List<Employee> INIT_EMPLOYEES =
+      List.of(MANAGER_3, MANAGER_6, MANAGER_1, CEO, MANAGER_4, MANAGER_5, MANAGER_2);
+
+  private final OffHeapEmployeeTable table = OffHeapEmployeeTable.of(INIT_EMPLOYEES);
+
+  @Test
+  @DisplayName("should hold the same columns as ColumnarOrganization")
+  void shouldHoldSameColumnsAsColumnarOrganization() {
+    // given
+    ColumnarOrganization columnar = ColumnarOrganization.of(INIT_EMPLOYEES);
+
+    // expect
+    assertEquals(columnar.size(), table.size());
+    assertEquals(columnar.levelCount(), table.levelCount());
+    for (int i = 0; i < table.size(); i++) {
+      assertEquals(columnar.employee(i), table.employee(i));
+      assertEquals(columnar.level(i), table.level(i));
+      assertEquals(columnar.subordinateCount(i), table.subordinateCount(i));
+    }
+    assertEquals(columnar.employeesByLevel(), table.employeesByLevel());
+    assertEquals(table.indexOf(MANAGER_4.id()), table.subordinate(table.indexOf(MANAGER_1.id()), 1));
+  }
+
+  @Test
+  @DisplayName("organizational structure and accountant should read directly from the table")
+  void organizationalStructureAndAccountantShouldReadFromTable() {
+    // given
+    OrganizationalStructure expected = new OrganizationalStructure(INIT_EMPLOYEES);
+
+    // when
+    OrganizationalStructure structure = OrganizationalStructure.of(table);
+
+    // then
+    assertEquals(expected.employees(), structure.employees());
+    assertEquals(expected.employeesByLevel(), structure.employeesByLevel());
+    assertEquals(new Accountant(expected).averageSalaryByLevel(), new Accountant(structure).averageSalaryByLevel());
+  }
+
+  @Test
+  @DisplayName("should reject duplicate ids")
+  void shouldRejectDuplicateIds() {
+    // expect
+    assertThrows(IllegalArgumentException.class, () -> OffHeapEmployeeTable.of(List.of(CEO, MANAGER_1, MANAGER_1)));
+  }
+
+  @Test
+  @DisplayName("should name the employees in a reporting cycle like ColumnarOrganization")
+  void shouldRejectCyclesLikeColumnarOrganization() {
+    // given
+    Employee cycleStart = new Employee(9, "Heidi", "Klum", BigDecimal.valueOf(5000), 10);
+    Employee cycleEnd = new Employee(10, "Ivan", "Drago", BigDecimal.valueOf(5000), 9);
+    List<Employee> employees = List.of(CEO, MANAGER_1, cycleStart, cycleEnd);
+
+    // when
+    Exception offHeap = assertThrows(IllegalArgumentException.class, () -> OffHeapEmployeeTable.of(employees));
+
+    // then
+    Exception columnar = assertThrows(IllegalArgumentException.class, () -> ColumnarOrganization.of(employees));
+    assertEquals(columnar.getMessage(), offHeap.getMessage());
+    assertTrue(offHeap.getMessage().contains("[9, 10]"), offHeap.getMessage());
+  }
+}
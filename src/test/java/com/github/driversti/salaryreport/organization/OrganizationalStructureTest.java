@@ -3,8 +3,13 @@ package com.github.driversti.salaryreport.organization;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
 
 import static com.github.driversti.salaryreport.TestData.CEO;
 import static com.github.driversti.salaryreport.TestData.MANAGER_1;
@@ -13,7 +18,10 @@ import static com.github.driversti.salaryreport.TestData.MANAGER_3;
 import static com.github.driversti.salaryreport.TestData.MANAGER_4;
 import static com.github.driversti.salaryreport.TestData.MANAGER_5;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
 import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 
 class OrganizationalStructureTest {
 
@@ -51,4 +59,107 @@ class OrganizationalStructureTest {
     assertEquals(List.of(MANAGER_1, MANAGER_2), employeesByLevel.get(2));
     assertEquals(List.of(MANAGER_3, MANAGER_4, MANAGER_5), employeesByLevel.get(3));
   }
+
+  @Test
+  @DisplayName("should return the same unmodifiable map of employees on every call")
+  void employeesByLevelShouldNotBeCopiedOnEveryCall() {
+    // given
+    OrganizationalStructure structure = new OrganizationalStructure(INIT_EMPLOYEES);
+
+    // expect
+    assertSame(structure.employeesByLevel(), structure.employeesByLevel());
+    assertThrows(UnsupportedOperationException.class, () -> structure.employeesByLevel().remove(1));
+  }
+
+  @Test
+  @DisplayName("should give every structure its own version")
+  void shouldGiveEveryStructureItsOwnVersion() {
+    // expect
+    assertNotEquals(new OrganizationalStructure(INIT_EMPLOYEES).version(),
+        new OrganizationalStructure(INIT_EMPLOYEES).version());
+  }
+
+  @Test
+  @DisplayName("should reject employees which do not report to the CEO")
+  void shouldRejectEmployeesNotReportingToCeo() {
+    // given
+    Employee orphan = new Employee(8, "Frank", "Miller", BigDecimal.valueOf(5000), 42);
+
+    // expect
+    Exception ex = assertThrows(IllegalArgumentException.class,
+        () -> new OrganizationalStructure(List.of(CEO, MANAGER_1, orphan)));
+    assertEquals("Not every employee reports to the CEO. Employees with an unknown manager: [8].", ex.getMessage());
+  }
+
+  @Test
+  @DisplayName("should reject more than one employee without a manager")
+  void shouldRejectSeveralCeos() {
+    // given
+    Employee secondCeo = new Employee(8, "Frank", "Miller", BigDecimal.valueOf(5000), -1);
+
+    // expect
+    Exception ex = assertThrows(IllegalArgumentException.class,
+        () -> new OrganizationalStructure(List.of(CEO, MANAGER_1, secondCeo)));
+    assertEquals("Not every employee reports to the CEO."
+        + " Employees without a manager, of whom only one can be the CEO: [1, 8].", ex.getMessage());
+    assertEquals(ex.getMessage(), assertThrows(IllegalArgumentException.class,
+        () -> OrganizationalStructure.parallel(List.of(CEO, MANAGER_1, secondCeo))).getMessage());
+  }
+
+  @Test
+  @DisplayName("should build the same structure in parallel as sequentially")
+  void parallelShouldMatchSequential() {
+    // given a wide random organization, a deep one, and one with sparse ids, all shuffled
+    Random random = new Random(42);
+    List<Employee> wide = new ArrayList<>();
+    List<Employee> deep = new ArrayList<>();
+    List<Employee> sparse = new ArrayList<>();
+    wide.add(new Employee(1, "First1", "Last1", BigDecimal.valueOf(20_000), -1));
+    deep.add(new Employee(1, "First1", "Last1", BigDecimal.valueOf(20_000), -1));
+    sparse.add(new Employee(10, "First1", "Last1", BigDecimal.valueOf(20_000), -1));
+    for (int id = 2; id <= 100_000; id++) {
+      BigDecimal salary = BigDecimal.valueOf(3_000 + random.nextInt(20_000));
+      wide.add(new Employee(id, "First" + id, "Last" + id, salary, 1 + random.nextInt(id - 1)));
+      deep.add(new Employee(id, "First" + id, "Last" + id, salary,
+          id <= 20_000 ? id - 1 : 1 + random.nextInt(id - 1)));
+      sparse.add(new Employee(id * 10, "First" + id, "Last" + id, salary, 10 * (1 + random.nextInt(id - 1))));
+    }
+    Collections.shuffle(wide, random);
+    Collections.shuffle(deep, random);
+    Collections.shuffle(sparse, random);
+
+    try (ForkJoinPool pool = new ForkJoinPool(4)) {
+      for (List<Employee> employees : List.of(wide, deep, sparse, INIT_EMPLOYEES, List.<Employee>of())) {
+        // when
+        OrganizationalStructure sequential = new OrganizationalStructure(employees);
+        OrganizationalStructure parallel = OrganizationalStructure.parallel(employees, pool);
+
+        // then
+        assertEquals(sequential.employees(), parallel.employees());
+        assertEquals(sequential.employeesByLevel(), parallel.employeesByLevel());
+      }
+    }
+  }
+
+  @Test
+  @DisplayName("should reject invalid organizations in parallel like sequentially")
+  void parallelShouldRejectLikeSequential() {
+    // given
+    Employee orphan = new Employee(8, "Frank", "Miller", BigDecimal.valueOf(5000), 42);
+    Employee duplicate = new Employee(2, "Grace", "Hopper", BigDecimal.valueOf(5000), 1);
+    Employee cycleStart = new Employee(9, "Heidi", "Klum", BigDecimal.valueOf(5000), 10);
+    Employee cycleEnd = new Employee(10, "Ivan", "Drago", BigDecimal.valueOf(5000), 9);
+
+    for (List<Employee> employees : List.of(List.of(CEO, MANAGER_1, orphan), List.of(CEO, MANAGER_1, duplicate),
+        List.of(CEO, MANAGER_1, orphan, cycleStart, cycleEnd))) {
+      // when
+      Exception sequential = assertThrows(IllegalArgumentException.class,
+          () -> new OrganizationalStructure(employees));
+      Exception parallel = assertThrows(IllegalArgumentException.class,
+          () -> OrganizationalStructure.parallel(employees));
+
+      // then
+      assertEquals(sequential.getMessage(), parallel.getMessage());
+    }
+  }
 }
@@ -0,0 +1,115 @@
+package com.github.driversti.salaryreport.organization;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static com.github.driversti.salaryreport.TestData.CEO;
+import static com.github.driversti.salaryreport.TestData.MANAGER_1;
+import static com.github.driversti.salaryreport.TestData.MANAGER_2;
+import static com.github.driversti.salaryreport.TestData.MANAGER_3;
+import static com.github.driversti.salaryreport.TestData.MANAGER_4;
+import static com.github.driversti.salaryreport.TestData.MANAGER_5;
+import static com.github.driversti.salaryreport.TestData.MANAGER_6;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class SubtreeIndexTest {
+
+  private final SubtreeIndex index =
+      SubtreeIndex.of(List.of(MANAGER_3, MANAGER_6, MANAGER_1, CEO, MANAGER_4, MANAGER_5, MANAGER_2));
+
+  @Test
+  @DisplayName("should aggregate the subtree of a manager")
+  void shouldAggregateSubtree() {
+    // when
+    SubtreeIndex.Aggregate aggregate = index.subtree(MANAGER_2.id());
+
+    // then
+    assertEquals(new SubtreeIndex.Aggregate(3, 2_440_000), aggregate);
+    assertEquals(new BigDecimal("24400.00"), aggregate.payroll());
+    assertEquals(new BigDecimal("8133.33"), aggregate.averageSalary());
+  }
+
+  @Test
+  @DisplayName("should aggregate the subordinates of a manager, leaving out the manager")
+  void shouldAggregateSubordinates() {
+    // expect
+    assertEquals(new SubtreeIndex.Aggregate(6, 4_590_000), index.subordinates(CEO.id()));
+    assertEquals(new SubtreeIndex.Aggregate(0, 0), index.subordinates(MANAGER_6.id()));
+    assertEquals(BigDecimal.ZERO, index.subordinates(MANAGER_6.id()).averageSalary());
+  }
+
+  @Test
+  @DisplayName("should aggregate a range of levels under a manager")
+  void shouldAggregateLevelRange() {
+    // expect
+    assertEquals(new SubtreeIndex.Aggregate(4, 2_750_000), index.subtree(CEO.id(), 3, 5));
+    assertEquals(new SubtreeIndex.Aggregate(2, 1_400_000), index.subtree(MANAGER_2.id(), 3, 3));
+    assertEquals(new SubtreeIndex.Aggregate(0, 0), index.subtree(MANAGER_2.id(), 1, 1));
+  }
+
+  @Test
+  @DisplayName("should reject unknown employees and empty level ranges")
+  void shouldRejectInvalidQueries() {
+    // expect
+    assertThrows(IllegalArgumentException.class, () -> index.subtree(99));
+    assertThrows(IllegalArgumentException.class, () -> index.subtree(CEO.id(), 3, 2));
+  }
+
+  @Test
+  @DisplayName("should match walking the hierarchy on a random organization")
+  void shouldMatchWalkingHierarchy() {
+    // given
+    Random random = new Random(42);
+    List<Employee> employees = new ArrayList<>();
+    employees.add(new Employee(1, "First1", "Last1", BigDecimal.valueOf(20_000), -1));
+    for (int id = 2; id <= 500; id++) {
+      employees.add(new Employee(id, "First" + id, "Last" + id, BigDecimal.valueOf(3_000 + random.nextInt(20_000)),
+          1 + random.nextInt(id - 1)));
+    }
+    SubtreeIndex randomIndex = SubtreeIndex.of(employees);
+    Map<Integer, Employee> byId = new HashMap<>();
+    employees.forEach(employee -> byId.put(employee.id(), employee));
+
+    for (Employee manager : employees) {
+      // when
+      SubtreeIndex.Aggregate aggregate = randomIndex.subtree(manager.id(), 3, 5);
+
+      // then
+      int headcount = 0;
+      long payrollCents = 0;
+      for (Employee employee : employees) {
+        int level = levelOf(byId, employee);
+        if (level >= 3 && level <= 5 && reportsTo(byId, employee, manager.id())) {
+          headcount++;
+          payrollCents += employee.salary().movePointRight(2).longValueExact();
+        }
+      }
+      assertEquals(new SubtreeIndex.Aggregate(headcount, payrollCents), aggregate, "under " + manager.id());
+    }
+  }
+
+  private static int levelOf(Map<Integer, Employee> byId, Employee employee) {
+    int level = 1;
+    for (int id = employee.managerId(); id != -1; id = byId.get(id).managerId()) {
+      level++;
+    }
+    return level;
+  }
+
+  private static boolean reportsTo(Map<Integer, Employee> byId, Employee employee, int managerId) {
+    for (int id = employee.id(); id != -1; id = byId.get(id).managerId()) {
+      if (id == managerId) {
+        return true;
+      }
+    }
+    return false;
+  }
+}
@@ -0,0 +1,100 @@
+package com.github.driversti.salaryreport.printers;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static com.github.driversti.salaryreport.TestData.CEO;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class BufferedChannelPrinterTest {
+
+  private static final String NEW_LINE = System.lineSeparator();
+
+  private final ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+  @Test
+  @DisplayName("should write the printed lines only once flushed")
+  void shouldWriteLinesOnFlush() {
+    // given
+    BufferedChannelPrinter printer = new BufferedChannelPrinter(Channels.newChannel(output));
+
+    // when
+    printer.print("Hello");
+    printer.print("World!");
+    String beforeFlush = output.toString(StandardCharsets.UTF_8);
+    printer.flush();
+
+    // then
+    assertEquals("", beforeFlush);
+    assertEquals("Hello" + NEW_LINE + "World!" + NEW_LINE, output.toString(StandardCharsets.UTF_8));
+  }
+
+  @Test
+  @DisplayName("should write lines longer than the buffer, including non-ASCII characters")
+  void shouldWriteLinesLongerThanBuffer() {
+    // given
+    String line = "Zażółć gęślą jaźń 😀 ".repeat(20);
+
+    // when
+    try (BufferedChannelPrinter printer = new BufferedChannelPrinter(Channels.newChannel(output), 16)) {
+      printer.print(line);
+      printer.append("Łukasz").append(' ').append('é').newLine();
+    }
+
+    // then
+    assertEquals(line + NEW_LINE + "Łukasz é" + NEW_LINE, output.toString(StandardCharsets.UTF_8));
+  }
+
+  @Test
+  @DisplayName("should print employee lines like the console printer does")
+  void shouldPrintEmployeeLines() {
+    // given
+    EmployeePrinter employeePrinter;
+
+    // when
+    try (BufferedChannelPrinter printer = new BufferedChannelPrinter(Channels.newChannel(output))) {
+      employeePrinter = new EmployeePrinter(printer);
+      employeePrinter.printEmployeeWithPostfix(CEO, "(+8.70%)");
+      employeePrinter.printEmployee(CEO);
+    }
+
+    // then
+    assertEquals("John Doe (+8.70%)" + NEW_LINE + "John Doe" + NEW_LINE, output.toString(StandardCharsets.UTF_8));
+  }
+
+  @Test
+  @DisplayName("toFile should write the lines into the file once closed")
+  void toFileShouldWriteIntoFile(@TempDir Path directory) throws IOException {
+    // given
+    Path file = directory.resolve("report.txt");
+
+    // when
+    try (BufferedChannelPrinter printer = BufferedChannelPrinter.toFile(file)) {
+      for (int i = 0; i < 10_000; i++) {
+        printer.print("Line " + i);
+      }
+    }
+
+    // then
+    List<String> lines = Files.readAllLines(file);
+    assertEquals(10_000, lines.size());
+    assertEquals("Line 9999", lines.get(9_999));
+  }
+
+  @Test
+  @DisplayName("should reject buffers too small for a single character")
+  void shouldRejectTinyBuffers() {
+    assertThrows(IllegalArgumentException.class,
+        () -> new BufferedChannelPrinter(Channels.newChannel(output), 4));
+  }
+}
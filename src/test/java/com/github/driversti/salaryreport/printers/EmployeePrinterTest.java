@@ -5,12 +5,14 @@ import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 
 import static com.github.driversti.salaryreport.TestData.CEO;
+import static org.mockito.Mockito.CALLS_REAL_METHODS;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.verify;
 
 class EmployeePrinterTest {
 
-  private final Printer printer = mock();
+  // a printer of strings, with the default methods of the interface
+  private final Printer printer = mock(Printer.class, CALLS_REAL_METHODS);
   private EmployeePrinter employeePrinter;
 
   @BeforeEach
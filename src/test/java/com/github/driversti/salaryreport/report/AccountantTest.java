@@ -9,8 +9,11 @@ import org.junit.jupiter.api.Test;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.function.BiConsumer;
 
 import static com.github.driversti.salaryreport.TestData.CEO;
 import static com.github.driversti.salaryreport.TestData.MANAGER_1;
@@ -19,7 +22,8 @@ import static com.github.driversti.salaryreport.TestData.MANAGER_3;
 import static com.github.driversti.salaryreport.TestData.MANAGER_4;
 import static com.github.driversti.salaryreport.TestData.MANAGER_5;
 import static org.junit.jupiter.api.Assertions.assertEquals;
-import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
@@ -55,6 +59,21 @@ class AccountantTest {
     assertEquals(expected, actual);
   }
 
+  @Test
+  @DisplayName("averageSalaryOf should average salaries in fractions of a cent exactly")
+  void calculateAverageSalaryInFractionsOfACent() {
+    // given
+    List<Employee> employees = List.of(
+        new Employee(1, "John", "Doe", new BigDecimal("100.005"), -1),
+        new Employee(2, "Jane", "Doe", new BigDecimal("100.000"), 1));
+
+    // when
+    BigDecimal actual = accountant.averageSalaryOf(employees);
+
+    // then
+    assertEquals(new BigDecimal("100.00"), actual);
+  }
+
   @Test
   @DisplayName("averageSalaryByLevel should return a map of organizational levels to average salaries")
   void calculateAverageSalaryByLevel() {
@@ -74,7 +93,7 @@ class AccountantTest {
   }
 
   @Test
-  @DisplayName("createSalaryReport should return an OrganizationalSalaryReport")
+  @DisplayName("createSalaryReport should compare every manager against the average of their direct subordinates")
   void createSalaryReport() {
     // given
     List<Employee> managers1 = List.of(CEO);
@@ -88,9 +107,52 @@ class AccountantTest {
     OrganizationalSalaryReport report = accountant.createSalaryReport();
 
     // then
-    assertNotNull(report);
+    Map<Integer, SalaryCategorizer> levels = report.reportPerLevel();
+    assertEquals(Set.of(1, 2, 3), levels.keySet());
+    // the CEO earns more than 1.5 * 9200, the average of Alice Berton and Jane Suzuka
+    assertEquals(Map.of(), expectedSalaries(levels.get(1), false));
+    assertEquals(Map.of(CEO, new BigDecimal("13800.00")), expectedSalaries(levels.get(1), true));
+    // Alice Berton earns less than 1.2 * 6750, the average of Bob Smith and Charlie Brown
+    assertEquals(Map.of(MANAGER_1, new BigDecimal("8100.00")), expectedSalaries(levels.get(2), false));
+    assertEquals(Map.of(), expectedSalaries(levels.get(2), true));
+    // Jane Suzuka has no subordinates in this structure, nor have the employees on level 3
+    assertEquals(List.of(MANAGER_2), levels.get(2).getAllWithinExpectation());
+    assertEquals(List.of(MANAGER_3, MANAGER_4), levels.get(3).getAllWithinExpectation());
+    assertEquals(0, levels.get(3).getBelowCount() + levels.get(3).getAboveCount());
   }
 
+  private static Map<Employee, BigDecimal> expectedSalaries(SalaryCategorizer categorizer, boolean above) {
+    Map<Employee, BigDecimal> expectedSalaries = new HashMap<>();
+    BiConsumer<Employee, BigDecimal> collect = (employee, expected) ->
+        expectedSalaries.put(employee, expected.setScale(2, RoundingMode.HALF_UP));
+    if (above) {
+      categorizer.forEachAboveExpectation(collect);
+    } else {
+      categorizer.forEachBelowExpectation(collect);
+    }
+    return expectedSalaries;
+  }
+
+  @Test
+  @DisplayName("accountants sharing a cache should compute results once per structure version")
+  void cacheResultsPerStructureVersion() {
+    // given
+    when(structure.version()).thenReturn(7L);
+    when(structure.employeesByLevel()).thenReturn(Map.of(1, List.of(CEO), 2, List.of(MANAGER_1, MANAGER_2)));
+    ResultCache cache = new ResultCache(10);
+    Accountant cachingAccountant = new Accountant(structure, cache);
+
+    // when
+    Map<Integer, BigDecimal> averages = cachingAccountant.averageSalaryByLevel();
+    OrganizationalSalaryReport report = cachingAccountant.createSalaryReport();
+
+    // then
+    assertSame(averages, new Accountant(structure, cache).averageSalaryByLevel());
+    assertSame(report,
+        new Accountant(structure, cache).createSalaryReport(new BigDecimal("1.2"), new BigDecimal("1.5")));
+    assertNotSame(report, cachingAccountant.createSalaryReport(new BigDecimal("1.1"), new BigDecimal("1.5")));
+    assertEquals(new ResultCache.Stats(2, 3, 0, 3), cache.stats());
+  }
 
   private static BigDecimal toBigDecimal(double value) {
     return BigDecimal.valueOf(value).setScale(2, RoundingMode.HALF_UP);
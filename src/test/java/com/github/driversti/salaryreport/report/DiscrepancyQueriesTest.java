@@ -0,0 +1,200 @@
+package com.github.driversti.salaryreport.report;
+
+import com.github.driversti.salaryreport.organization.Employee;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+
+import static com.github.driversti.salaryreport.TestData.CEO;
+import static com.github.driversti.salaryreport.TestData.MANAGER_1;
+import static com.github.driversti.salaryreport.TestData.MANAGER_2;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DiscrepancyQueriesTest {
+
+  @Test
+  @DisplayName("mostBelowExpectation and mostAboveExpectation should return the largest discrepancies first")
+  void testMostBelowAndAboveExpectation() {
+    // given
+    DiscrepancyQueries queries = DiscrepancyQueries.of(sampleReport());
+
+    // when
+    List<Discrepancy> below = queries.mostBelowExpectation(10);
+    List<Discrepancy> above = queries.mostAboveExpectation(10);
+
+    // then
+    assertEquals(List.of(new Discrepancy(CEO, 1, -3207), new Discrepancy(MANAGER_1, 2, -303)), below);
+    assertEquals(List.of(new Discrepancy(MANAGER_2, 2, 85)), above);
+    assertEquals("-32.07%", below.get(0).formatted());
+    assertEquals("+0.85%", above.get(0).formatted());
+    assertEquals(new BigDecimal("-32.07"), below.get(0).percentage());
+  }
+
+  @Test
+  @DisplayName("mostBelowExpectation should keep only k discrepancies")
+  void testMostBelowExpectationLimited() {
+    // given
+    DiscrepancyQueries queries = DiscrepancyQueries.of(sampleReport());
+
+    // expect
+    assertEquals(List.of(new Discrepancy(CEO, 1, -3207)), queries.mostBelowExpectation(1));
+    assertEquals(List.of(), queries.mostBelowExpectation(0));
+    Exception ex = assertThrows(IllegalArgumentException.class, () -> queries.mostBelowExpectation(-1));
+    assertEquals("k must not be negative: -1", ex.getMessage());
+  }
+
+  @Test
+  @DisplayName("top k queries should not allocate for more discrepancies than there are")
+  void testTopKWithoutLimit() {
+    // given
+    DiscrepancyQueries queries = DiscrepancyQueries.of(sampleReport());
+
+    // expect
+    assertEquals(List.of(new Discrepancy(CEO, 1, -3207), new Discrepancy(MANAGER_1, 2, -303)),
+        queries.mostBelowExpectation(Integer.MAX_VALUE));
+    assertEquals(List.of(new Discrepancy(MANAGER_2, 2, 85)), queries.mostAboveExpectation(Integer.MAX_VALUE));
+  }
+
+  @Test
+  @DisplayName("top k queries should match a full sort of random discrepancies, ties by employee id")
+  void testTopKMatchesFullSort() {
+    // given
+    Random random = new Random(42);
+    Map<Integer, SalaryCategorizer> map = new TreeMap<>();
+    List<Discrepancy> all = new ArrayList<>();
+    int id = 1;
+    for (int level = 1; level <= 4; level++) {
+      SalaryCategorizer categorizer = new SalaryCategorizer();
+      for (int i = 0; i < 2_000; i++) {
+        // few distinct salaries, for many ties
+        Employee employee = new Employee(id++, "First", "Last", BigDecimal.valueOf(100 + random.nextInt(50) * 10), 0);
+        BigDecimal min = BigDecimal.valueOf(300);
+        BigDecimal max = BigDecimal.valueOf(450);
+        categorizer.addEmployee(employee, min, max);
+        if (employee.salary().compareTo(min) < 0) {
+          long hundredths = DiscrepancyQueries.belowExpectationHundredths(employee.salary(), min);
+          all.add(new Discrepancy(employee, level, hundredths));
+        } else if (employee.salary().compareTo(max) > 0) {
+          long hundredths = DiscrepancyQueries.aboveExpectationHundredths(employee.salary(), max);
+          all.add(new Discrepancy(employee, level, hundredths));
+        }
+      }
+      map.put(level, categorizer);
+    }
+    DiscrepancyQueries queries = DiscrepancyQueries.of(new OrganizationalSalaryReport(map));
+    Comparator<Discrepancy> worstFirst = Comparator
+        .comparingLong((Discrepancy discrepancy) -> -Math.abs(discrepancy.hundredthsOfPercent()))
+        .thenComparingInt(discrepancy -> discrepancy.employee().id());
+    List<Discrepancy> below = all.stream().filter(d -> d.hundredthsOfPercent() < 0).sorted(worstFirst).toList();
+    List<Discrepancy> above = all.stream().filter(d -> d.hundredthsOfPercent() > 0).sorted(worstFirst).toList();
+
+    // expect
+    for (int k : new int[]{1, 7, 100, 1_000, 100_000}) {
+      assertEquals(below.subList(0, Math.min(k, below.size())), queries.mostBelowExpectation(k));
+      assertEquals(above.subList(0, Math.min(k, above.size())), queries.mostAboveExpectation(k));
+    }
+  }
+
+  @Test
+  @DisplayName("percentile queries should return the nearest rank of the magnitudes on every level")
+  void testPercentiles() {
+    // given
+    SalaryCategorizer categorizer = new SalaryCategorizer(BigDecimal.valueOf(100), BigDecimal.valueOf(200));
+    for (int i = 1; i <= 10; i++) {
+      categorizer.addEmployee(new Employee(i, "First", "Last", BigDecimal.valueOf(100 - i), 0));
+      categorizer.addEmployee(new Employee(100 + i, "First", "Last", BigDecimal.valueOf(200 + 2 * i), 0));
+    }
+    DiscrepancyQueries queries = DiscrepancyQueries.of(new OrganizationalSalaryReport(Map.of(3, categorizer)));
+
+    // expect
+    assertEquals(Map.of(3, new BigDecimal("9.00")), queries.belowExpectationPercentiles(0.9));
+    assertEquals(Map.of(3, new BigDecimal("1.00")), queries.belowExpectationPercentiles(0));
+    assertEquals(Map.of(3, new BigDecimal("10.00")), queries.belowExpectationPercentiles(1));
+    assertEquals(Map.of(3, new BigDecimal("5.00")), queries.aboveExpectationPercentiles(0.5));
+    assertEquals(Map.of(3, new BigDecimal("6.00")), queries.aboveExpectationPercentiles(0.51));
+    Exception ex = assertThrows(IllegalArgumentException.class, () -> queries.aboveExpectationPercentiles(1.5));
+    assertEquals("The percentile must be between 0 and 1: 1.5", ex.getMessage());
+  }
+
+  @Test
+  @DisplayName("percentile queries should omit the levels without such employees")
+  void testPercentilesOmitLevels() {
+    // given
+    DiscrepancyQueries queries = DiscrepancyQueries.of(sampleReport());
+
+    // expect
+    assertEquals(Map.of(1, new BigDecimal("32.07"), 2, new BigDecimal("3.03")),
+        queries.belowExpectationPercentiles(0.5));
+    assertEquals(Map.of(2, new BigDecimal("0.85")), queries.aboveExpectationPercentiles(0.5));
+    assertEquals(Map.of(2, 1L), countsOf(queries.aboveExpectationSketches(0.01)));
+  }
+
+  @Test
+  @DisplayName("select should return the value of a rank as a full sort would")
+  void testSelect() {
+    // given
+    Random random = new Random(7);
+
+    for (int run = 0; run < 200; run++) {
+      long[] values = random.longs(1 + random.nextInt(300), 0, 1 + random.nextInt(1_000)).toArray();
+      long[] sorted = values.clone();
+      Arrays.sort(sorted);
+      int rank = 1 + random.nextInt(values.length);
+
+      // expect
+      assertEquals(sorted[rank - 1], DiscrepancyQueries.select(values, rank));
+    }
+  }
+
+  @Test
+  @DisplayName("sketch queries should approximate the exact percentiles within their accuracy")
+  void testSketchesApproximatePercentiles() {
+    // given
+    Random random = new Random(1);
+    SalaryCategorizer categorizer = new SalaryCategorizer(BigDecimal.valueOf(10_000), BigDecimal.valueOf(20_000));
+    for (int i = 1; i <= 5_000; i++) {
+      BigDecimal salary = BigDecimal.valueOf(random.nextInt(9_999) + 1);
+      categorizer.addEmployee(new Employee(i, "First", "Last", salary, 0));
+    }
+    DiscrepancyQueries queries = DiscrepancyQueries.of(new OrganizationalSalaryReport(Map.of(2, categorizer)));
+
+    // when
+    QuantileSketch sketch = queries.belowExpectationSketches(0.01).get(2);
+
+    // then
+    assertEquals(5_000, sketch.count());
+    for (double percentile : new double[]{0.01, 0.5, 0.9, 0.99}) {
+      double exact = queries.belowExpectationPercentiles(percentile).get(2).doubleValue();
+      double approximate = sketch.quantile(percentile);
+      assertTrue(Math.abs(approximate - exact) <= 0.01 * exact + 1e-9, approximate + " vs " + exact);
+    }
+  }
+
+  private static Map<Integer, Long> countsOf(Map<Integer, QuantileSketch> sketches) {
+    Map<Integer, Long> counts = new TreeMap<>();
+    sketches.forEach((level, sketch) -> counts.put(level, sketch.count()));
+    return counts;
+  }
+
+  private static OrganizationalSalaryReport sampleReport() {
+    Map<Integer, SalaryCategorizer> map = new TreeMap<>();
+    SalaryCategorizer level1 = new SalaryCategorizer(BigDecimal.valueOf(22080), BigDecimal.valueOf(27600));
+    level1.addEmployee(CEO);
+    map.put(1, level1);
+    SalaryCategorizer level2 = new SalaryCategorizer(BigDecimal.valueOf(8250), BigDecimal.valueOf(10312.5));
+    level2.addEmployee(MANAGER_1);
+    level2.addEmployee(MANAGER_2);
+    map.put(2, level2);
+    return new OrganizationalSalaryReport(map);
+  }
+}
@@ -0,0 +1,241 @@
+package com.github.driversti.salaryreport.report;
+
+import com.github.driversti.salaryreport.organization.Employee;
+import com.github.driversti.salaryreport.organization.EmployeeChange;
+import com.github.driversti.salaryreport.organization.OrganizationalStructure;
+import com.github.driversti.salaryreport.printers.EmployeePrinter;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+
+import static com.github.driversti.salaryreport.TestData.CEO;
+import static com.github.driversti.salaryreport.TestData.MANAGER_1;
+import static com.github.driversti.salaryreport.TestData.MANAGER_2;
+import static com.github.driversti.salaryreport.TestData.MANAGER_3;
+import static com.github.driversti.salaryreport.TestData.MANAGER_4;
+import static com.github.driversti.salaryreport.TestData.MANAGER_5;
+import static com.github.driversti.salaryreport.TestData.MANAGER_6;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class IncrementalSalaryReportTest {
+
+  private static final List<Employee> EMPLOYEES =
+      List.of(CEO, MANAGER_1, MANAGER_2, MANAGER_3, MANAGER_4, MANAGER_5, MANAGER_6);
+
+  @Test
+  @DisplayName("should report the same as a full recomputation")
+  void shouldReportSameAsFullRecomputation() {
+    // given
+    IncrementalSalaryReport report = IncrementalSalaryReport.of(EMPLOYEES);
+
+    // when
+    List<String> lines = print(report.report());
+
+    // then
+    assertEquals(recompute(EMPLOYEES), lines);
+  }
+
+  @Test
+  @DisplayName("should re-categorize only the changed employee and their manager")
+  void shouldRecategorizeOnlyAffectedEmployees() {
+    // given
+    IncrementalSalaryReport report = IncrementalSalaryReport.of(EMPLOYEES);
+    Employee raised = new Employee(4, "Bob", "Brown", BigDecimal.valueOf(9000), 2);
+
+    // when
+    int recategorized = report.apply(List.of(EmployeeChange.update(raised)));
+
+    // then
+    assertEquals(2, recategorized);
+    assertEquals(recompute(List.of(CEO, MANAGER_1, MANAGER_2, raised, MANAGER_4, MANAGER_5, MANAGER_6)),
+        print(report.report()));
+  }
+
+  @Test
+  @DisplayName("should move the whole subtree of an employee who changes level")
+  void shouldMoveSubtree() {
+    // given
+    IncrementalSalaryReport report = IncrementalSalaryReport.of(EMPLOYEES);
+    // MANAGER_2 (id 3) with MANAGER_5 and MANAGER_6 below moves under MANAGER_3 (id 4), two levels deeper
+    Employee moved = new Employee(3, "Charlie", "Davis", BigDecimal.valueOf(10400), 4);
+
+    // when
+    int recategorized = report.apply(List.of(EmployeeChange.update(moved)));
+
+    // then
+    assertEquals(5, recategorized); // the subtree of three, the old manager, and the new manager
+    assertEquals(recompute(List.of(CEO, MANAGER_1, moved, MANAGER_3, MANAGER_4, MANAGER_5, MANAGER_6)),
+        print(report.report()));
+  }
+
+  @Test
+  @DisplayName("should update the categorizers in place, without revisiting untouched employees")
+  void shouldUpdateCategorizersInPlace() {
+    // given
+    List<Employee> employees = new ArrayList<>(List.of(CEO));
+    for (int manager = 2; manager <= 11; manager++) {
+      employees.add(new Employee(manager, "First" + manager, "Last" + manager, BigDecimal.valueOf(5_000), 1));
+      for (int k = 0; k < 100; k++) {
+        int id = manager * 1_000 + k;
+        employees.add(new Employee(id, "First" + id, "Last" + id, BigDecimal.valueOf(4_000), manager));
+      }
+    }
+    IncrementalSalaryReport report = IncrementalSalaryReport.of(employees);
+    Map<Integer, SalaryCategorizer> before = new TreeMap<>(report.report().reportPerLevel());
+    Map<Integer, Integer> modCounts = new TreeMap<>();
+    before.forEach((level, categorizer) -> modCounts.put(level, categorizer.modCount()));
+    Employee raised = new Employee(5_042, "First5042", "Last5042", BigDecimal.valueOf(40_000), 5);
+
+    // when
+    report.apply(List.of(EmployeeChange.update(raised)));
+
+    // then
+    Map<Integer, SalaryCategorizer> after = report.report().reportPerLevel();
+    before.forEach((level, categorizer) -> assertSame(categorizer, after.get(level)));
+    assertEquals(modCounts.get(1), after.get(1).modCount()); // the CEO is not touched
+    assertEquals(modCounts.get(2) + 1, after.get(2).modCount()); // the manager, replaced at their position
+    assertEquals(modCounts.get(3) + 1, after.get(3).modCount()); // the raised employee
+    employees.replaceAll(employee -> employee.id() == raised.id() ? raised : employee);
+    assertEquals(recompute(employees), print(report.report()));
+  }
+
+  @Test
+  @DisplayName("should drop the positions of departed employees once they outnumber the others")
+  void shouldCompactDepartedPositions() {
+    // given
+    List<Employee> employees = new ArrayList<>(List.of(CEO));
+    for (int id = 2; id <= 11; id++) {
+      employees.add(new Employee(id, "First" + id, "Last" + id, BigDecimal.valueOf(1_000 * id), 1));
+    }
+    IncrementalSalaryReport report = IncrementalSalaryReport.of(employees);
+    List<EmployeeChange> deletions = new ArrayList<>();
+    for (int id = 2; id <= 7; id++) {
+      deletions.add(EmployeeChange.delete(id));
+    }
+
+    // when
+    report.apply(deletions);
+
+    // then
+    SalaryCategorizer level = report.report().reportPerLevel().get(2);
+    assertEquals(0, level.removedCount());
+    assertEquals(4, level.getAllCount());
+    Employee raised = new Employee(10, "First10", "Last10", BigDecimal.valueOf(100_000), 1);
+    report.apply(List.of(EmployeeChange.update(raised)));
+    assertEquals(recompute(List.of(CEO, employees.get(7), employees.get(8), raised, employees.get(10))),
+        print(report.report()));
+  }
+
+  @Test
+  @DisplayName("should reject invalid changes")
+  void shouldRejectInvalidChanges() {
+    // given
+    IncrementalSalaryReport report = IncrementalSalaryReport.of(EMPLOYEES);
+
+    // then
+    assertThrows(IllegalArgumentException.class, () -> report.apply(List.of(EmployeeChange.insert(MANAGER_1))));
+    assertThrows(IllegalArgumentException.class, () -> report.apply(List.of(EmployeeChange.delete(2))));
+    assertThrows(IllegalArgumentException.class, () -> report.apply(List.of(EmployeeChange.delete(99))));
+    assertThrows(IllegalArgumentException.class, () -> report.apply(List.of(EmployeeChange.insert(
+        new Employee(8, "Frank", "Miller", BigDecimal.valueOf(7200), 99)))));
+    assertThrows(IllegalArgumentException.class, () -> report.apply(List.of(EmployeeChange.update(
+        new Employee(2, "Alice", "Berton", BigDecimal.valueOf(8000), 4)))));
+    assertThrows(IllegalArgumentException.class, () -> report.apply(List.of(EmployeeChange.insert(
+        new Employee(8, "Frank", "Miller", new BigDecimal("7200.001"), 6)))));
+    assertThrows(IllegalArgumentException.class, () -> report.apply(List.of(EmployeeChange.insert(
+        new Employee(8, "Frank", "Miller", BigDecimal.valueOf(7200), -1)))));
+    assertThrows(IllegalArgumentException.class, () -> report.apply(List.of(EmployeeChange.update(
+        new Employee(7, "Eve", "Johnson", BigDecimal.valueOf(7200), -1)))));
+    assertEquals(recompute(EMPLOYEES), print(report.report()));
+  }
+
+  @Test
+  @DisplayName("should stay equal to a full recomputation over random changes")
+  void shouldStayEqualOverRandomChanges() {
+    // given
+    Random random = new Random(42);
+    Map<Integer, Employee> current = new TreeMap<>();
+    current.put(1, new Employee(1, "First1", "Last1", BigDecimal.valueOf(20_000), -1));
+    for (int id = 2; id <= 300; id++) {
+      current.put(id, randomEmployee(random, id, 1 + random.nextInt(id - 1)));
+    }
+    IncrementalSalaryReport report = IncrementalSalaryReport.of(current.values());
+    int nextId = 301;
+
+    for (int round = 0; round < 50; round++) {
+      // when
+      List<EmployeeChange> changes = new ArrayList<>();
+      for (int k = 0; k < 10; k++) {
+        List<Integer> ids = List.copyOf(current.keySet());
+        int id = ids.get(1 + random.nextInt(ids.size() - 1)); // anybody but the CEO
+        Employee employee = current.get(id);
+        switch (random.nextInt(4)) {
+          case 0 -> {
+            Employee inserted = randomEmployee(random, nextId++, ids.get(random.nextInt(ids.size())));
+            current.put(inserted.id(), inserted);
+            changes.add(EmployeeChange.insert(inserted));
+          }
+          case 1 -> {
+            Employee updated = randomEmployee(random, id, employee.managerId());
+            current.put(id, updated);
+            changes.add(EmployeeChange.update(updated));
+          }
+          case 2 -> {
+            int managerId = ids.get(random.nextInt(ids.size()));
+            if (!reportsTo(current, managerId, id)) {
+              Employee updated = new Employee(id, employee.firstName(), employee.lastName(), employee.salary(),
+                  managerId);
+              current.put(id, updated);
+              changes.add(EmployeeChange.update(updated));
+            }
+          }
+          default -> {
+            if (current.values().stream().noneMatch(other -> other.managerId() == id)) {
+              current.remove(id);
+              changes.add(EmployeeChange.delete(id));
+            }
+          }
+        }
+      }
+      report.apply(changes);
+
+      // then
+      assertEquals(recompute(current.values()), print(report.report()), "after round " + round);
+    }
+  }
+
+  private static Employee randomEmployee(Random random, int id, int managerId) {
+    return new Employee(id, "First" + id, "Last" + id, BigDecimal.valueOf(3_000 + random.nextInt(20_000)),
+        managerId);
+  }
+
+  private static boolean reportsTo(Map<Integer, Employee> employees, int employeeId, int managerId) {
+    for (int id = employeeId; id != -1; id = employees.get(id).managerId()) {
+      if (id == managerId) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private static List<String> recompute(Collection<Employee> employees) {
+    OrganizationalStructure structure = new OrganizationalStructure(employees);
+    return print(new SubordinateSalaryEngine(Accountant.MIN_SALARY_INCREASE, Accountant.MAX_SALARY_INCREASE)
+        .createSalaryReport(structure));
+  }
+
+  private static List<String> print(OrganizationalSalaryReport report) {
+    List<String> lines = new ArrayList<>();
+    report.printReport(new EmployeePrinter(lines::add), 1000);
+    return lines;
+  }
+}
@@ -8,6 +8,7 @@ import org.mockito.ArgumentCaptor;
 
 import java.math.BigDecimal;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 import java.util.TreeMap;
 
@@ -109,6 +110,45 @@ class OrganizationalSalaryReportTest {
     assertEquals("(+0.85%)", postfixValues.get(2));
   }
 
+  @Test
+  @DisplayName("forEachDiscrepancy should pass every employee outside expectation with their discrepancy")
+  void testForEachDiscrepancy() {
+    // given
+    Map<Integer, SalaryCategorizer> map = new TreeMap<>();
+    addEmployeesOnLevel1(map);
+    addEmployeesOnLevel2(map);
+    OrganizationalSalaryReport report = new OrganizationalSalaryReport(map);
+    Map<Integer, String> discrepancies = new TreeMap<>();
+
+    // when
+    report.forEachDiscrepancy((employee, discrepancy) -> discrepancies.put(employee.id(), discrepancy));
+
+    // then
+    assertEquals(Map.of(CEO.id(), "-32.07%", MANAGER_1.id(), "-3.03%", MANAGER_2.id(), "+0.85%"), discrepancies);
+  }
+
+  @Test
+  @DisplayName("postfixes should print a dot on both paths, whatever the default locale")
+  void testPostfixesIgnoreDefaultLocale() {
+    // given
+    Locale defaultLocale = Locale.getDefault();
+    Locale.setDefault(Locale.GERMANY);
+    // more than 9 decimals, to take the BigDecimal path
+    BigDecimal preciseSalary = new BigDecimal("87.5000000000001");
+    BigDecimal salary = new BigDecimal("87.5");
+    BigDecimal min = BigDecimal.valueOf(100);
+    BigDecimal max = BigDecimal.valueOf(50);
+    try {
+      // expect
+      assertEquals("(-12.50%)", OrganizationalSalaryReport.belowExpectationPostfix(preciseSalary, min));
+      assertEquals("(-12.50%)", OrganizationalSalaryReport.belowExpectationPostfix(salary, min));
+      assertEquals("(+75.00%)", OrganizationalSalaryReport.aboveExpectationPostfix(preciseSalary, max));
+      assertEquals("(+75.00%)", OrganizationalSalaryReport.aboveExpectationPostfix(salary, max));
+    } finally {
+      Locale.setDefault(defaultLocale);
+    }
+  }
+
   private static void addEmployeesOnLevel1(Map<Integer, SalaryCategorizer> map) {
     SalaryCategorizer categorizer = new SalaryCategorizer(BigDecimal.valueOf(22080), BigDecimal.valueOf(27600));
     categorizer.addEmployee(CEO);
@@ -0,0 +1,86 @@
+package com.github.driversti.salaryreport.report;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class QuantileSketchTest {
+
+  @Test
+  @DisplayName("quantile should be within the relative accuracy of the exact value")
+  void testQuantileWithinRelativeAccuracy() {
+    // given
+    Random random = new Random(3);
+    QuantileSketch sketch = new QuantileSketch(0.02);
+    double[] values = new double[20_000];
+    for (int i = 0; i < values.length; i++) {
+      values[i] = Math.exp(random.nextGaussian() * 4); // spanning many orders of magnitude
+      sketch.add(values[i]);
+    }
+    Arrays.sort(values);
+
+    // expect
+    for (double quantile = 0; quantile <= 1; quantile += 0.05) {
+      double exact = values[Math.max(1, (int) Math.ceil(quantile * values.length)) - 1];
+      double approximate = sketch.quantile(quantile);
+      assertTrue(Math.abs(approximate - exact) <= 0.02 * exact * (1 + 1e-9), approximate + " vs " + exact);
+    }
+    assertEquals(values[0], sketch.quantile(0));
+    assertEquals(values[values.length - 1], sketch.quantile(1));
+  }
+
+  @Test
+  @DisplayName("merge should give the same quantiles as adding all values to one sketch")
+  void testMerge() {
+    // given
+    Random random = new Random(5);
+    QuantileSketch all = new QuantileSketch(0.01);
+    QuantileSketch small = new QuantileSketch(0.01);
+    QuantileSketch large = new QuantileSketch(0.01);
+    for (int i = 0; i < 1_000; i++) {
+      double value = random.nextDouble();
+      all.add(value);
+      small.add(value);
+      all.add(value * 1e6);
+      large.add(value * 1e6);
+    }
+    all.add(0);
+    large.add(0);
+
+    // when
+    small.merge(large);
+    small.merge(new QuantileSketch(0.01));
+
+    // then
+    assertEquals(all.count(), small.count());
+    for (double quantile = 0; quantile <= 1; quantile += 0.1) {
+      assertEquals(all.quantile(quantile), small.quantile(quantile));
+    }
+    assertEquals(0, small.quantile(0));
+  }
+
+  @Test
+  @DisplayName("should reject invalid accuracies, values and quantiles")
+  void testInvalidInput() {
+    // given
+    QuantileSketch sketch = new QuantileSketch(0.01);
+
+    // expect
+    assertThrows(IllegalArgumentException.class, () -> new QuantileSketch(0));
+    assertThrows(IllegalArgumentException.class, () -> new QuantileSketch(1));
+    assertThrows(IllegalArgumentException.class, () -> sketch.add(-1));
+    assertThrows(IllegalArgumentException.class, () -> sketch.add(Double.NaN));
+    assertThrows(IllegalArgumentException.class, () -> sketch.add(Double.POSITIVE_INFINITY));
+    assertThrows(IllegalArgumentException.class, () -> sketch.merge(new QuantileSketch(0.02)));
+    Exception ex = assertThrows(IllegalStateException.class, () -> sketch.quantile(0.5));
+    assertEquals("The sketch is empty", ex.getMessage());
+    sketch.add(1);
+    assertThrows(IllegalArgumentException.class, () -> sketch.quantile(-0.1));
+  }
+}
@@ -0,0 +1,83 @@
+package com.github.driversti.salaryreport.report;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ResultCacheTest {
+
+  private final AtomicInteger computations = new AtomicInteger();
+
+  @Test
+  @DisplayName("should compute a result once per version and query")
+  void shouldComputeOncePerVersionAndQuery() {
+    // given
+    ResultCache cache = new ResultCache(10);
+
+    // when
+    String first = cache.get(1, "query", this::compute);
+    String second = cache.get(1, "query", this::compute);
+    String otherVersion = cache.get(2, "query", this::compute);
+    String otherQuery = cache.get(1, "other", this::compute);
+
+    // then
+    assertEquals("result 1", first);
+    assertEquals("result 1", second);
+    assertEquals("result 2", otherVersion);
+    assertEquals("result 3", otherQuery);
+    assertEquals(new ResultCache.Stats(1, 3, 0, 3), cache.stats());
+    assertEquals(0.25, cache.stats().hitRate());
+  }
+
+  @Test
+  @DisplayName("should evict the least recently used result")
+  void shouldEvictLeastRecentlyUsed() {
+    // given
+    ResultCache cache = new ResultCache(2);
+    cache.get(1, "a", this::compute);
+    cache.get(1, "b", this::compute);
+    cache.get(1, "a", this::compute);
+
+    // when
+    cache.get(1, "c", this::compute);
+
+    // then
+    assertEquals("result 1", cache.get(1, "a", this::compute));
+    assertEquals("result 4", cache.get(1, "b", this::compute)); // evicted, computed again
+    assertEquals(new ResultCache.Stats(2, 4, 2, 2), cache.stats());
+  }
+
+  @Test
+  @DisplayName("should remove the results of an invalidated version only")
+  void shouldInvalidateVersion() {
+    // given
+    ResultCache cache = new ResultCache(10);
+    cache.get(1, "a", this::compute);
+    cache.get(1, "b", this::compute);
+    cache.get(2, "a", this::compute);
+
+    // when
+    int removed = cache.invalidate(1);
+
+    // then
+    assertEquals(2, removed);
+    assertEquals("result 3", cache.get(2, "a", this::compute));
+    assertEquals("result 4", cache.get(1, "a", this::compute)); // computed again
+    assertEquals(new ResultCache.Stats(1, 4, 0, 2), cache.stats());
+  }
+
+  @Test
+  @DisplayName("should reject a maximum size below 1")
+  void shouldRejectInvalidMaximumSize() {
+    // expect
+    assertThrows(IllegalArgumentException.class, () -> new ResultCache(0));
+  }
+
+  private String compute() {
+    return "result " + computations.incrementAndGet();
+  }
+}
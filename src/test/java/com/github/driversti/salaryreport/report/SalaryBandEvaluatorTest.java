@@ -0,0 +1,138 @@
+package com.github.driversti.salaryreport.report;
+
+import com.github.driversti.salaryreport.organization.Employee;
+import com.github.driversti.salaryreport.organization.OrganizationalStructure;
+import com.github.driversti.salaryreport.printers.EmployeePrinter;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static com.github.driversti.salaryreport.TestData.CEO;
+import static com.github.driversti.salaryreport.TestData.MANAGER_1;
+import static com.github.driversti.salaryreport.TestData.MANAGER_2;
+import static com.github.driversti.salaryreport.TestData.MANAGER_3;
+import static com.github.driversti.salaryreport.TestData.MANAGER_4;
+import static com.github.driversti.salaryreport.TestData.MANAGER_5;
+import static com.github.driversti.salaryreport.TestData.MANAGER_6;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class SalaryBandEvaluatorTest {
+
+  private static final SalaryBand DEFAULT_BAND = SalaryBand.of(new BigDecimal("1.20"), new BigDecimal("1.50"));
+  private static final SalaryBand WIDE_BAND = SalaryBand.of(new BigDecimal("1.05"), new BigDecimal("2.00"));
+  private static final SalaryBand NARROW_BAND = SalaryBand.of(new BigDecimal("1.3"), new BigDecimal("1.35"));
+
+  private final OrganizationalStructure structure =
+      new OrganizationalStructure(List.of(CEO, MANAGER_1, MANAGER_2, MANAGER_3, MANAGER_4, MANAGER_5, MANAGER_6));
+
+  @Test
+  @DisplayName("every policy should report the same as the engine with the band it assigns")
+  void shouldReportSameAsEngine() {
+    // given
+    List<SalaryBand> bands = List.of(DEFAULT_BAND, WIDE_BAND, NARROW_BAND,
+        SalaryBand.of(new BigDecimal("1.123456789123"), new BigDecimal("1.5"))); // too precise for fixed-point
+
+    // when
+    List<OrganizationalSalaryReport> reports = SalaryBandEvaluator.of(structure)
+        .evaluate(bands.stream().map(SalaryBandPolicy::uniform).toList());
+
+    // then
+    for (int p = 0; p < bands.size(); p++) {
+      assertEquals(print(engineReport(structure, bands.get(p))), print(reports.get(p)), bands.get(p).toString());
+    }
+  }
+
+  @Test
+  @DisplayName("should apply a band per level and per department")
+  void shouldApplyBandPerLevelAndDepartment() {
+    // given
+    SalaryBandPolicy perLevel = SalaryBandPolicy.perLevel(Map.of(2, WIDE_BAND), DEFAULT_BAND);
+    SalaryBandPolicy perDepartment = SalaryBandPolicy.perDepartment(Map.of(MANAGER_1.id(), WIDE_BAND), DEFAULT_BAND);
+
+    // when
+    List<OrganizationalSalaryReport> reports =
+        SalaryBandEvaluator.of(structure).evaluate(List.of(perLevel, perDepartment));
+
+    // then
+    // MANAGER_1 earns 8000, below 1.20 x 6750 but within 1.05 x 6750; the CEO and MANAGER_2 keep the default band
+    List<String> expected = print(engineReport(structure, DEFAULT_BAND));
+    expected.remove("Alice Berton (-1.23%)");
+    assertEquals(expected, print(reports.get(0)));
+    assertEquals(expected, print(reports.get(1)));
+  }
+
+  @Test
+  @DisplayName("should report the same as the engine for salaries in fractions of a cent")
+  void shouldFallBackForFractionalCents() {
+    // given
+    Employee fractional = new Employee(7, "Eve", "Johnson", new BigDecimal("7200.005"), 3);
+    OrganizationalStructure fractionalStructure =
+        new OrganizationalStructure(List.of(CEO, MANAGER_1, MANAGER_2, MANAGER_3, MANAGER_4, MANAGER_5, fractional));
+
+    // when
+    List<OrganizationalSalaryReport> reports = SalaryBandEvaluator.of(fractionalStructure)
+        .evaluate(List.of(SalaryBandPolicy.uniform(DEFAULT_BAND), SalaryBandPolicy.uniform(NARROW_BAND)));
+
+    // then
+    assertEquals(print(engineReport(fractionalStructure, DEFAULT_BAND)), print(reports.get(0)));
+    assertEquals(print(engineReport(fractionalStructure, NARROW_BAND)), print(reports.get(1)));
+  }
+
+  @Test
+  @DisplayName("should derive a band from percentiles of the salaries of managers")
+  void shouldDerivePercentileBand() {
+    // given
+    Random random = new Random(42);
+    List<Employee> employees = new ArrayList<>();
+    employees.add(new Employee(1, "First1", "Last1", BigDecimal.valueOf(20_000), -1));
+    for (int id = 2; id <= 2000; id++) {
+      employees.add(new Employee(id, "First" + id, "Last" + id, BigDecimal.valueOf(3_000 + random.nextInt(20_000)),
+          1 + random.nextInt(id - 1)));
+    }
+    SalaryBandEvaluator evaluator = SalaryBandEvaluator.of(new OrganizationalStructure(employees));
+
+    // when
+    SalaryBand band = evaluator.percentileBand(0.1, 0.9);
+    OrganizationalSalaryReport report = evaluator.evaluate(List.of(SalaryBandPolicy.uniform(band))).getFirst();
+
+    // then
+    long managers = employees.stream()
+        .filter(manager -> employees.stream().anyMatch(employee -> employee.managerId() == manager.id()))
+        .count();
+    int[] outside = new int[2];
+    report.forEachDiscrepancy((employee, discrepancy) -> outside[discrepancy.startsWith("-") ? 0 : 1]++);
+    assertEquals(0.1, (double) outside[0] / managers, 0.01);
+    assertEquals(0.1, (double) outside[1] / managers, 0.01);
+  }
+
+  @Test
+  @DisplayName("should reject invalid percentiles and bands")
+  void shouldRejectInvalidPercentilesAndBands() {
+    // given
+    SalaryBandEvaluator evaluator = SalaryBandEvaluator.of(structure);
+
+    // expect
+    assertThrows(IllegalArgumentException.class, () -> evaluator.percentileBand(0.9, 0.1));
+    assertThrows(IllegalArgumentException.class, () -> evaluator.percentileBand(-0.1, 0.5));
+    assertThrows(IllegalArgumentException.class, () -> SalaryBand.of(BigDecimal.TWO, BigDecimal.ONE));
+    assertThrows(IllegalStateException.class,
+        () -> SalaryBandEvaluator.of(new OrganizationalStructure(List.of(CEO))).percentileBand(0.1, 0.9));
+  }
+
+  private static OrganizationalSalaryReport engineReport(OrganizationalStructure structure, SalaryBand band) {
+    return new SubordinateSalaryEngine(band.minSalaryIncrease(), band.maxSalaryIncrease())
+        .createSalaryReport(structure);
+  }
+
+  private static List<String> print(OrganizationalSalaryReport report) {
+    List<String> lines = new ArrayList<>();
+    report.printReport(new EmployeePrinter(lines::add), 1000);
+    return lines;
+  }
+}
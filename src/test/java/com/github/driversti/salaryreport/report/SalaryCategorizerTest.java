@@ -1,14 +1,20 @@
 package com.github.driversti.salaryreport.report;
 
+import com.github.driversti.salaryreport.organization.Employee;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 
 import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
 
 import static com.github.driversti.salaryreport.TestData.CEO;
 import static com.github.driversti.salaryreport.TestData.MANAGER_1;
+import static com.github.driversti.salaryreport.TestData.MANAGER_2;
 import static com.github.driversti.salaryreport.TestData.MANAGER_3;
+import static com.github.driversti.salaryreport.TestData.MANAGER_4;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 
 class SalaryCategorizerTest {
 
@@ -33,4 +39,116 @@ class SalaryCategorizerTest {
     assertEquals(1, categorizer.getAllAboveExpectation().size());
     assertEquals(3, categorizer.getAllCount());
   }
+
+  @Test
+  @DisplayName("should categorize employees against their own expected salary range")
+  void shouldCategorizeEmployeesAgainstTheirOwnRange() {
+    // given
+    SalaryCategorizer categorizer = new SalaryCategorizer();
+    BigDecimal minExpectedSalary = BigDecimal.valueOf(16000);
+    BigDecimal maxExpectedSalary = BigDecimal.valueOf(7500);
+
+    // when
+    categorizer.addEmployee(CEO, minExpectedSalary, BigDecimal.valueOf(20000));
+    categorizer.addEmployee(MANAGER_1, BigDecimal.valueOf(6000), maxExpectedSalary);
+    categorizer.addWithinExpectation(MANAGER_3);
+
+    // then
+    List<String> below = new ArrayList<>();
+    categorizer.forEachBelowExpectation((employee, expected) -> below.add(employee.getFullName() + " " + expected));
+    List<String> above = new ArrayList<>();
+    categorizer.forEachAboveExpectation((employee, expected) -> above.add(employee.getFullName() + " " + expected));
+    assertEquals(List.of("John Doe 16000"), below);
+    assertEquals(List.of("Alice Berton 7500"), above);
+    assertEquals(List.of(MANAGER_3), categorizer.getAllWithinExpectation());
+    assertEquals(3, categorizer.getAllCount());
+  }
+
+  @Test
+  @DisplayName("should return unmodifiable views unaffected by employees added later")
+  void shouldReturnStableViews() {
+    // given
+    SalaryCategorizer categorizer = new SalaryCategorizer();
+    categorizer.addBelowExpectation(CEO, BigDecimal.valueOf(16000));
+    categorizer.addWithinExpectation(MANAGER_1);
+    List<Employee> below = categorizer.getAllBelowExpectation();
+    List<Employee> within = categorizer.getAllWithinExpectation();
+
+    // when
+    for (int i = 0; i < 20; i++) {
+      categorizer.addBelowExpectation(MANAGER_2, BigDecimal.valueOf(20000));
+      categorizer.addWithinExpectation(MANAGER_3);
+    }
+
+    // then
+    assertEquals(List.of(CEO), below);
+    assertEquals(List.of(MANAGER_1), within);
+    assertThrows(UnsupportedOperationException.class, () -> below.add(MANAGER_1));
+    assertEquals(21, categorizer.getBelowCount());
+    assertEquals(21, categorizer.getWithinCount());
+    assertEquals(0, categorizer.getAboveCount());
+    assertEquals(42, categorizer.getAllCount());
+  }
+
+  @Test
+  @DisplayName("should categorize employees in bulk without modifying them")
+  void shouldCategorizeInBulk() {
+    // given
+    List<Employee> level = List.of(MANAGER_1, MANAGER_2, MANAGER_3, MANAGER_4);
+    byte[] categories = {SalaryKernels.ABOVE, SalaryKernels.WITHIN, SalaryKernels.BELOW, SalaryKernels.ABOVE,
+        SalaryKernels.WITHIN};
+
+    // when
+    SalaryCategorizer categorizer = SalaryCategorizer.of(level, categories, 1,
+        position -> BigDecimal.valueOf(position), position -> BigDecimal.valueOf(-position));
+    categorizer.addWithinExpectation(CEO);
+
+    // then
+    List<String> below = new ArrayList<>();
+    categorizer.forEachBelowExpectation((employee, expected) -> below.add(employee.getFullName() + " " + expected));
+    List<String> above = new ArrayList<>();
+    categorizer.forEachAboveExpectation((employee, expected) -> above.add(employee.getFullName() + " " + expected));
+    List<Employee> within = new ArrayList<>();
+    categorizer.forEachWithinExpectation(within::add);
+    assertEquals(List.of("Bob Smith -2"), above);
+    assertEquals(List.of("Jane Suzuka 1"), below);
+    assertEquals(List.of(MANAGER_1, MANAGER_4, CEO), within);
+    assertEquals(List.of(MANAGER_1, MANAGER_4, CEO), categorizer.getAllWithinExpectation());
+    assertEquals(5, categorizer.getAllCount());
+  }
+
+  @Test
+  @DisplayName("should replace and remove employees in place, keeping id order and the views returned before")
+  void shouldReplaceAndRemoveInPlace() {
+    // given
+    SalaryCategorizer categorizer = new SalaryCategorizer();
+    int first = categorizer.insert(MANAGER_1, SalaryKernels.BELOW, BigDecimal.ONE);
+    int second = categorizer.insert(MANAGER_2, SalaryKernels.WITHIN, null);
+    int third = categorizer.insert(MANAGER_3, SalaryKernels.BELOW, BigDecimal.TEN);
+    List<Employee> belowBefore = categorizer.getAllBelowExpectation();
+
+    // when
+    categorizer.replace(second, MANAGER_2, SalaryKernels.BELOW, BigDecimal.TWO);
+    categorizer.remove(first);
+
+    // then
+    List<String> below = new ArrayList<>();
+    categorizer.forEachBelowExpectation((employee, expected) -> below.add(employee.id() + " " + expected));
+    assertEquals(List.of("3 2", "4 10"), below);
+    assertEquals(List.of(MANAGER_1, MANAGER_3), belowBefore);
+    assertEquals(2, categorizer.getAllCount());
+    assertEquals(0, categorizer.getWithinCount());
+    assertEquals(1, categorizer.removedCount());
+
+    // when
+    List<Integer> moved = new ArrayList<>();
+    categorizer.compact((employee, position) -> moved.add(employee.id() * 10 + position));
+
+    // then
+    assertEquals(List.of(30, 41), moved);
+    assertEquals(List.of(MANAGER_2, MANAGER_3), categorizer.getAllBelowExpectation());
+    assertEquals(0, categorizer.removedCount());
+    categorizer.replace(third - 1, MANAGER_3, SalaryKernels.WITHIN, null);
+    assertEquals(List.of(MANAGER_3), categorizer.getAllWithinExpectation());
+  }
 }
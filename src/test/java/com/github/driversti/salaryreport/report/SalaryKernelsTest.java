@@ -0,0 +1,88 @@
+package com.github.driversti.salaryreport.report;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class SalaryKernelsTest {
+
+  private static final SalaryMath.Factor MIN_INCREASE = SalaryMath.Factor.of(new BigDecimal("1.20"));
+  private static final SalaryMath.Factor MAX_INCREASE = SalaryMath.Factor.of(new BigDecimal("1.5"));
+
+  @Test
+  @DisplayName("should use the vector kernels when the incubator module is added, as it is for tests")
+  void shouldUseVectorKernelsWhenModuleIsAdded() {
+    assertEquals("vector", SalaryKernels.get().name());
+    assertEquals("scalar", SalaryKernels.scalar().name());
+  }
+
+  @Test
+  @DisplayName("classify should compare salaries to the expected band of their subordinates")
+  void classifyShouldCompareToExpectedBand() {
+    // given averages of 100.00, the band is 120.00 to 150.00; -1 is an employee without subordinates
+    long[] salaries = {11_999, 12_000, 15_000, 15_001, 1, 0};
+    long[] averages = {10_000, 10_000, 10_000, 10_000, -1, 0};
+    byte[] categories = new byte[salaries.length];
+
+    // when
+    SalaryKernels.scalar().classify(salaries, averages, 0, salaries.length, MIN_INCREASE, MAX_INCREASE, categories);
+
+    // then
+    byte[] expected = {SalaryKernels.BELOW, SalaryKernels.WITHIN, SalaryKernels.WITHIN, SalaryKernels.ABOVE,
+        SalaryKernels.WITHIN, SalaryKernels.WITHIN};
+    assertArrayEquals(expected, categories);
+  }
+
+  @Test
+  @DisplayName("vector kernels should classify and sum like the scalar ones, for every range")
+  void vectorKernelsShouldMatchScalarKernels() {
+    // given
+    Random random = new Random(42);
+    int size = 1_000;
+    long[] salaries = new long[size];
+    long[] averages = new long[size];
+    for (int i = 0; i < size; i++) {
+      averages[i] = random.nextInt(10) == 0 ? -1 : 100_000 + random.nextInt(1_000_000);
+      salaries[i] = 100_000 + random.nextInt(2_000_000);
+    }
+
+    for (int from = 0; from < 20; from++) {
+      for (int to : new int[]{from, from + 1, from + 7, from + 64, size - from}) {
+        // when
+        byte[] vector = new byte[size];
+        byte[] scalar = new byte[size];
+        SalaryKernels.get().classify(salaries, averages, from, to, MIN_INCREASE, MAX_INCREASE, vector);
+        SalaryKernels.scalar().classify(salaries, averages, from, to, MIN_INCREASE, MAX_INCREASE, scalar);
+
+        // then
+        assertArrayEquals(scalar, vector, "range " + from + ".." + to);
+        assertEquals(SalaryKernels.scalar().sum(salaries, from, to), SalaryKernels.get().sum(salaries, from, to));
+      }
+    }
+  }
+
+  @Test
+  @DisplayName("should throw on overflow, like exact arithmetic")
+  void shouldThrowOnOverflow() {
+    // given
+    long[] values = new long[64];
+    values[40] = Long.MAX_VALUE;
+    values[41] = 1;
+    long[] averages = new long[64];
+    byte[] categories = new byte[64];
+
+    // expect
+    for (SalaryKernels kernels : new SalaryKernels[]{SalaryKernels.scalar(), SalaryKernels.get()}) {
+      assertThrows(ArithmeticException.class, () -> kernels.sum(values, 0, values.length), kernels.name());
+      assertThrows(ArithmeticException.class,
+          () -> kernels.classify(values, averages, 0, values.length, MIN_INCREASE, MAX_INCREASE, categories),
+          kernels.name());
+    }
+  }
+}
@@ -0,0 +1,104 @@
+package com.github.driversti.salaryreport.report;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Random;
+
+import static java.lang.String.format;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SalaryMathTest {
+
+  private static final SalaryMath.Factor MIN_INCREASE = SalaryMath.Factor.of(BigDecimal.valueOf(1.20));
+
+  @Test
+  @DisplayName("toCents should convert whole and fractional amounts")
+  void toCentsShouldConvertAmounts() {
+    assertEquals(1_500_000, SalaryMath.toCents(BigDecimal.valueOf(15000)));
+    assertEquals(1_234, SalaryMath.toCents(new BigDecimal("12.34")));
+    assertEquals(1_230, SalaryMath.toCents(new BigDecimal("12.3")));
+  }
+
+  @Test
+  @DisplayName("toCents should reject fractions of a cent and overflows")
+  void toCentsShouldRejectUnrepresentableAmounts() {
+    assertThrows(ArithmeticException.class, () -> SalaryMath.toCents(new BigDecimal("12.345")));
+    assertThrows(ArithmeticException.class, () -> SalaryMath.toCents(BigDecimal.valueOf(Long.MAX_VALUE / 10)));
+  }
+
+  @Test
+  @DisplayName("divideHalfUp should round ties away from zero")
+  void divideHalfUpShouldRoundTiesAwayFromZero() {
+    assertEquals(3, SalaryMath.divideHalfUp(5, 2));
+    assertEquals(2, SalaryMath.divideHalfUp(7, 4));
+    assertEquals(-3, SalaryMath.divideHalfUp(-5, 2));
+    assertEquals(-2, SalaryMath.divideHalfUp(-7, 4));
+    assertEquals(Long.MAX_VALUE, SalaryMath.divideHalfUp(Long.MAX_VALUE, 1));
+  }
+
+  @Test
+  @DisplayName("averageCents should match BigDecimal division with HALF_UP rounding")
+  void averageCentsShouldMatchBigDecimal() {
+    Random random = new Random(42);
+    for (int i = 0; i < 10_000; i++) {
+      long sumCents = random.nextLong(1_000_000_000_000L);
+      int count = 1 + random.nextInt(1000);
+      BigDecimal expected = BigDecimal.valueOf(sumCents, 2).divide(BigDecimal.valueOf(count), 2, RoundingMode.HALF_UP);
+      assertEquals(expected, BigDecimal.valueOf(SalaryMath.averageCents(sumCents, count), 2));
+    }
+  }
+
+  @Test
+  @DisplayName("compareToExpected and expectedSalary should match BigDecimal multiplication")
+  void expectedSalaryShouldMatchBigDecimal() {
+    // given
+    long averageCents = 845_000; // 8450.00
+
+    // when
+    BigDecimal expectedSalary = SalaryMath.expectedSalary(averageCents, MIN_INCREASE);
+
+    // then
+    assertEquals(BigDecimal.valueOf(845_000, 2).multiply(BigDecimal.valueOf(1.20)), expectedSalary);
+    assertEquals(0, SalaryMath.compareToExpected(1_014_000, averageCents, MIN_INCREASE));
+    assertTrue(SalaryMath.compareToExpected(1_013_999, averageCents, MIN_INCREASE) < 0);
+    assertTrue(SalaryMath.compareToExpected(1_014_001, averageCents, MIN_INCREASE) > 0);
+  }
+
+  @Test
+  @DisplayName("discrepancyHundredthsOfPercent should match the BigDecimal percentage formatted with two decimals")
+  void discrepancyShouldMatchBigDecimalPercentage() {
+    Random random = new Random(7);
+    for (int i = 0; i < 10_000; i++) {
+      BigDecimal salary = BigDecimal.valueOf(random.nextLong(100_000_000));
+      BigDecimal expected = BigDecimal.valueOf(1 + random.nextLong(10_000_000_000L), 3);
+      BigDecimal percentage = salary.divide(expected, 10, RoundingMode.HALF_UP)
+          .subtract(BigDecimal.ONE)
+          .multiply(BigDecimal.valueOf(100));
+
+      long hundredths = SalaryMath.discrepancyHundredthsOfPercent(salary, expected);
+
+      assertEquals(format("%.2f", percentage), SalaryMath.formatHundredths(hundredths),
+          () -> salary + " against " + expected);
+    }
+  }
+
+  @Test
+  @DisplayName("formatHundredths should print two decimals")
+  void formatHundredthsShouldPrintTwoDecimals() {
+    assertEquals("12.34", SalaryMath.formatHundredths(1234));
+    assertEquals("0.05", SalaryMath.formatHundredths(5));
+    assertEquals("-1.50", SalaryMath.formatHundredths(-150));
+  }
+
+  @Test
+  @DisplayName("Factor should reject factors it cannot represent")
+  void factorShouldRejectUnrepresentableFactors() {
+    assertThrows(ArithmeticException.class, () -> SalaryMath.Factor.of(new BigDecimal("1E+2")));
+    assertThrows(ArithmeticException.class, () -> SalaryMath.Factor.of(new BigDecimal("1.0000000001")));
+  }
+}
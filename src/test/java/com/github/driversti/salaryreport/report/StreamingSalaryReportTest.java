@@ -0,0 +1,135 @@
+package com.github.driversti.salaryreport.report;
+
+import com.github.driversti.salaryreport.infrastructure.EmployeeReader;
+import com.github.driversti.salaryreport.organization.Employee;
+import com.github.driversti.salaryreport.organization.OrganizationalStructure;
+import com.github.driversti.salaryreport.printers.EmployeePrinter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+class StreamingSalaryReportTest {
+
+  // rows are deliberately not in hierarchical order
+  private static final String CSV = """
+      Id,firstName,lastName,salary,managerId
+      7,Eve,Johnson,7200,6
+      1,John,Doe,15000,
+      2,Alice,Berton,8000,1
+      3,Jane,Suzuka,10400,1
+      4,Bob,Smith,7000,2
+      5,Charlie,Brown,6500,2
+      6,David,Jones,6800,3
+      """;
+
+  private final EmployeePrinter printer = mock();
+
+  @TempDir
+  private Path dir;
+  private String filepath;
+
+  @BeforeEach
+  void setUp() throws IOException {
+    Path file = dir.resolve("employees.csv");
+    Files.writeString(file, CSV);
+    filepath = file.toString();
+  }
+
+  @Test
+  @DisplayName("averageSalaryByLevel should return a map of organizational levels to average salaries")
+  void calculateAverageSalaryByLevel() {
+    // given
+    StreamingSalaryReport report = StreamingSalaryReport.compute(filepath);
+
+    // when
+    Map<Integer, BigDecimal> actual = report.averageSalaryByLevel();
+
+    // then
+    assertEquals(
+        Map.of(1, new BigDecimal("15000.00"), 2, new BigDecimal("9200.00"),
+            3, new BigDecimal("6766.67"), 4, new BigDecimal("7200.00")),
+        actual
+    );
+  }
+
+  @Test
+  @DisplayName("printReport should compare managers against the average salary of their direct subordinates")
+  void testPrintReport() {
+    // given
+    StreamingSalaryReport report = StreamingSalaryReport.compute(filepath);
+
+    // when
+    report.printReport(printer, 2);
+
+    // then
+    ArgumentCaptor<String> printStringCaptor = ArgumentCaptor.forClass(String.class);
+    verify(printer, times(13)).print(printStringCaptor.capture());
+    assertEquals(
+        List.of(
+            "Salary discrepancy report:",
+            "Level 1", "Below expectation:", "", "Above expectation:", "--------------------\n",
+            "Level 2", "Below expectation:", "", "Above expectation:", "--------------------\n",
+            "There are 3 employees on level 3 which have 1 managers between them and the CEO.",
+            "There are 1 employees on level 4 which have 2 managers between them and the CEO."
+        ),
+        printStringCaptor.getAllValues()
+    );
+
+    ArgumentCaptor<Employee> employeeCaptor = ArgumentCaptor.forClass(Employee.class);
+    ArgumentCaptor<String> postfixCaptor = ArgumentCaptor.forClass(String.class);
+    verify(printer, times(3)).printEmployeeWithPostfix(employeeCaptor.capture(), postfixCaptor.capture());
+    assertEquals(List.of("John Doe", "Alice Berton", "Jane Suzuka"),
+        employeeCaptor.getAllValues().stream().map(Employee::getFullName).toList());
+    assertEquals(List.of("(+8.70%)", "(-1.23%)", "(+1.96%)"), postfixCaptor.getAllValues());
+  }
+
+  @Test
+  @DisplayName("printReport should print the same lines as the report of the accountant for a shuffled file")
+  void testPrintReportSameAsAccountant() throws IOException {
+    // given
+    List<String> rows = new ArrayList<>(Files.readAllLines(Path.of("src/main/resources/employees.csv")));
+    String header = rows.removeFirst();
+    Collections.shuffle(rows, new Random(42)); // neither in id order nor in hierarchical order
+    rows.addFirst(header);
+    Path file = Files.write(dir.resolve("shuffled.csv"), rows);
+    OrganizationalStructure structure = new OrganizationalStructure(new EmployeeReader().read(file.toString()));
+    List<String> expected = new ArrayList<>();
+    new Accountant(structure).createSalaryReport().printReport(new EmployeePrinter(expected::add), 6);
+
+    // when
+    List<String> actual = new ArrayList<>();
+    StreamingSalaryReport.compute(file.toString()).printReport(new EmployeePrinter(actual::add), 6);
+
+    // then
+    assertEquals(expected, actual);
+  }
+
+  @Test
+  @DisplayName("printReport should throw an exception when the level depth is less than 1")
+  void testPrintReportWhenLevelDepthIsLessThanOne() {
+    // given
+    StreamingSalaryReport report = StreamingSalaryReport.compute(filepath);
+
+    // expect
+    Exception ex = assertThrows(IllegalArgumentException.class, () -> report.printReport(printer, 0));
+    assertEquals("The level depth must be at least 1", ex.getMessage());
+  }
+}
@@ -0,0 +1,77 @@
+package com.github.driversti.salaryreport.report;
+
+import com.github.driversti.salaryreport.organization.Employee;
+import com.github.driversti.salaryreport.organization.OrganizationalStructure;
+import com.github.driversti.salaryreport.printers.EmployeePrinter;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static com.github.driversti.salaryreport.TestData.CEO;
+import static com.github.driversti.salaryreport.TestData.MANAGER_1;
+import static com.github.driversti.salaryreport.TestData.MANAGER_2;
+import static com.github.driversti.salaryreport.TestData.MANAGER_3;
+import static com.github.driversti.salaryreport.TestData.MANAGER_4;
+import static com.github.driversti.salaryreport.TestData.MANAGER_5;
+import static com.github.driversti.salaryreport.TestData.MANAGER_6;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+class SubordinateSalaryEngineTest {
+
+  private static final Employee MANAGER_7 = new Employee(8, "Frank", "Miller", BigDecimal.valueOf(7200), 6);
+
+  private final SubordinateSalaryEngine engine =
+      new SubordinateSalaryEngine(BigDecimal.valueOf(1.20), BigDecimal.valueOf(1.50));
+  private final EmployeePrinter printer = mock();
+
+  @Test
+  @DisplayName("createSalaryReport should compare every manager against their own direct subordinates")
+  void createSalaryReportShouldCompareManagersAgainstDirectSubordinates() {
+    // given
+    // CEO: subordinates average 9200 -> expected 11040..13800, earns 15000
+    // MANAGER_1: subordinates average 6750 -> expected 8100..10125, earns 8000
+    // MANAGER_2: subordinates average 7000 -> expected 8400..10500, earns 10400
+    // MANAGER_5: subordinates average 7200 -> expected 8640..10800, earns 6800
+    OrganizationalStructure structure = new OrganizationalStructure(
+        List.of(CEO, MANAGER_1, MANAGER_2, MANAGER_3, MANAGER_4, MANAGER_5, MANAGER_6, MANAGER_7));
+
+    // when
+    OrganizationalSalaryReport report = engine.createSalaryReport(structure);
+    report.printReport(printer, 3);
+
+    // then
+    ArgumentCaptor<Employee> employeeCaptor = ArgumentCaptor.forClass(Employee.class);
+    ArgumentCaptor<String> postfixCaptor = ArgumentCaptor.forClass(String.class);
+    verify(printer, times(3)).printEmployeeWithPostfix(employeeCaptor.capture(), postfixCaptor.capture());
+    assertEquals(List.of(CEO, MANAGER_1, MANAGER_5), employeeCaptor.getAllValues());
+    assertEquals(List.of("(+8.70%)", "(-1.23%)", "(-21.30%)"), postfixCaptor.getAllValues());
+    verify(printer).print("There are 1 employees on level 4 which have 2 managers between them and the CEO.");
+  }
+
+  @Test
+  @DisplayName("createSalaryReport should handle salaries in fractions of a cent")
+  void createSalaryReportShouldHandleFractionsOfACent() {
+    // given
+    // MANAGER_2: subordinates average 7000.0025, rounded to 7000.00 -> expected 8400..10500, earns 10400
+    Employee manager6 = new Employee(7, "Eve", "Johnson", new BigDecimal("7200.005"), 3);
+    OrganizationalStructure structure = new OrganizationalStructure(
+        List.of(CEO, MANAGER_1, MANAGER_2, MANAGER_3, MANAGER_4, MANAGER_5, manager6, MANAGER_7));
+
+    // when
+    OrganizationalSalaryReport report = engine.createSalaryReport(structure);
+    report.printReport(printer, 3);
+
+    // then
+    ArgumentCaptor<Employee> employeeCaptor = ArgumentCaptor.forClass(Employee.class);
+    ArgumentCaptor<String> postfixCaptor = ArgumentCaptor.forClass(String.class);
+    verify(printer, times(3)).printEmployeeWithPostfix(employeeCaptor.capture(), postfixCaptor.capture());
+    assertEquals(List.of(CEO, MANAGER_1, MANAGER_5), employeeCaptor.getAllValues());
+    assertEquals(List.of("(+8.70%)", "(-1.23%)", "(-21.30%)"), postfixCaptor.getAllValues());
+  }
+}
@@ -0,0 +1,145 @@
+package com.github.driversti.salaryreport.server;
+
+import com.github.driversti.salaryreport.infrastructure.EmployeeReader;
+import com.github.driversti.salaryreport.organization.ColumnarOrganization;
+import com.github.driversti.salaryreport.organization.EmployeeTable;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class OrganizationReloaderTest {
+
+  private static final String HEADER = "Id,firstName,lastName,salary,managerId\n";
+
+  @TempDir
+  private Path directory;
+
+  @Test
+  @DisplayName("should publish new reports once the file changes")
+  void shouldPublishNewReportsOnChange() throws Exception {
+    // given
+    Path file = directory.resolve("employees.csv");
+    Files.writeString(file, HEADER + "1,Joe,Doe,60000,\n");
+
+    try (OrganizationReloader reloader = OrganizationReloader.start(file, OrganizationReloaderTest::read)) {
+      OrganizationReports initial = reloader.get();
+
+      // when
+      Files.writeString(file, HEADER + "1,Joe,Doe,60000,\n2,Martin,Chekov,45000,1\n");
+
+      // then
+      long deadline = System.nanoTime() + 10_000_000_000L;
+      while (reloader.get() == initial && System.nanoTime() < deadline) {
+        Thread.sleep(20);
+      }
+      assertNotSame(initial, reloader.get());
+      assertTrue(reloader.get().employee(2).isPresent());
+      assertEquals(Optional.empty(), initial.employee(2)); // readers of the old reports keep a consistent view
+    }
+  }
+
+  @Test
+  @DisplayName("should keep the previous reports when the file cannot be read")
+  void shouldKeepPreviousReportsOnFailure() throws IOException {
+    // given
+    Path file = directory.resolve("employees.csv");
+    Files.writeString(file, HEADER + "1,Joe,Doe,60000,\n");
+
+    try (OrganizationReloader reloader = OrganizationReloader.start(file, OrganizationReloaderTest::read)) {
+      OrganizationReports initial = reloader.get();
+      Files.writeString(file, HEADER + "1,Joe,Doe,60000,\n2,Martin,Chekov,45000,99\n"); // unknown manager
+
+      // when
+      boolean reloaded = reloader.reload();
+
+      // then
+      assertFalse(reloaded);
+      assertSame(initial, reloader.get());
+      assertEquals("The average salary of level 1 is: 60000.00" + System.lineSeparator(),
+          new String(reloader.get().averageSalaryByLevel(), StandardCharsets.UTF_8));
+    }
+  }
+
+  @Test
+  @DisplayName("should never publish reports read earlier after reports read later")
+  void shouldPublishOverlappingReloadsInOrder() throws Exception {
+    // given
+    Path file = directory.resolve("employees.csv");
+    Files.writeString(file, HEADER + "1,Joe,Doe,60000,\n");
+    CountDownLatch firstRead = new CountDownLatch(1);
+    CountDownLatch releaseFirst = new CountDownLatch(1);
+    Thread[] slowReloader = new Thread[1];
+    Function<Path, EmployeeTable> reader = path -> {
+      EmployeeTable table = read(path);
+      if (Thread.currentThread() == slowReloader[0]) {
+        firstRead.countDown();
+        await(releaseFirst);
+      }
+      return table;
+    };
+
+    try (OrganizationReloader reloader = OrganizationReloader.start(file, reader)) {
+      // when
+      slowReloader[0] = Thread.ofPlatform().unstarted(reloader::reload);
+      slowReloader[0].start();
+      firstRead.await();
+      Files.writeString(file, HEADER + "1,Joe,Doe,60000,\n2,Martin,Chekov,45000,1\n");
+      Thread fastReloader = Thread.ofPlatform().start(reloader::reload);
+      Thread.sleep(100); // the later reload reads, or waits, while the earlier one is still running
+      releaseFirst.countDown();
+      slowReloader[0].join();
+      fastReloader.join();
+
+      // then
+      assertTrue(reloader.get().employee(2).isPresent());
+    }
+  }
+
+  @Test
+  @DisplayName("should not keep the cached results of replaced reports")
+  void shouldInvalidateReplacedReports() throws IOException {
+    // given
+    Path file = directory.resolve("employees.csv");
+    Files.copy(Path.of("src/main/resources/employees.csv"), file);
+
+    try (OrganizationReloader reloader = OrganizationReloader.start(file, OrganizationReloaderTest::read)) {
+      int initialSize = reloader.get().cacheStats().size();
+
+      // when
+      for (int i = 0; i < 5; i++) {
+        reloader.reload();
+        reloader.get().discrepancyReport(3);
+      }
+
+      // then
+      assertEquals(initialSize + 1, reloader.get().cacheStats().size()); // only the latest version is cached
+      assertEquals(0, reloader.get().cacheStats().evictions());
+    }
+  }
+
+  private static void await(CountDownLatch latch) {
+    try {
+      latch.await();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  private static EmployeeTable read(Path file) {
+    return ColumnarOrganization.of(new EmployeeReader().read(file.toString()));
+  }
+}
@@ -0,0 +1,119 @@
+package com.github.driversti.salaryreport.server;
+
+import com.github.driversti.salaryreport.organization.ColumnarOrganization;
+import com.github.driversti.salaryreport.organization.Employee;
+import com.github.driversti.salaryreport.organization.OrganizationalStructure;
+import com.github.driversti.salaryreport.printers.EmployeePrinter;
+import com.github.driversti.salaryreport.report.Accountant;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+
+import static com.github.driversti.salaryreport.TestData.CEO;
+import static com.github.driversti.salaryreport.TestData.MANAGER_1;
+import static com.github.driversti.salaryreport.TestData.MANAGER_2;
+import static com.github.driversti.salaryreport.TestData.MANAGER_3;
+import static com.github.driversti.salaryreport.TestData.MANAGER_4;
+import static com.github.driversti.salaryreport.TestData.MANAGER_5;
+import static com.github.driversti.salaryreport.TestData.MANAGER_6;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class OrganizationReportsTest {
+
+  private static final List<Employee> EMPLOYEES =
+      List.of(CEO, MANAGER_1, MANAGER_2, MANAGER_3, MANAGER_4, MANAGER_5, MANAGER_6);
+
+  private final OrganizationReports reports = OrganizationReports.of(ColumnarOrganization.of(EMPLOYEES));
+
+  @Test
+  @DisplayName("should print the average salary of every level")
+  void shouldPrintAverageSalaryByLevel() {
+    // expect
+    assertEquals(String.format("The average salary of level 1 is: 15000.00%n"
+            + "The average salary of level 2 is: 9200.00%n"
+            + "The average salary of level 3 is: 6875.00%n"),
+        new String(reports.averageSalaryByLevel(), StandardCharsets.UTF_8));
+  }
+
+  @Test
+  @DisplayName("should print the average salaries the same in every default locale")
+  void shouldPrintAverageSalaryByLevelInAnyLocale() {
+    // given
+    Locale defaultLocale = Locale.getDefault();
+    Locale.setDefault(Locale.GERMANY);
+
+    // when
+    String averages;
+    try {
+      averages = new String(OrganizationReports.of(ColumnarOrganization.of(EMPLOYEES)).averageSalaryByLevel(),
+          StandardCharsets.UTF_8);
+    } finally {
+      Locale.setDefault(defaultLocale);
+    }
+
+    // then
+    assertEquals(new String(reports.averageSalaryByLevel(), StandardCharsets.UTF_8), averages);
+    assertTrue(averages.contains("9200.00"));
+  }
+
+  @Test
+  @DisplayName("should print the same discrepancy report as the accountant")
+  void shouldPrintSameDiscrepancyReport() {
+    // given
+    StringBuilder expected = new StringBuilder();
+    new Accountant(new OrganizationalStructure(EMPLOYEES)).createSalaryReport()
+        .printReport(new EmployeePrinter(line -> expected.append(line).append(System.lineSeparator())), 2);
+
+    // expect
+    assertEquals(expected.toString(), new String(reports.discrepancyReport(2), StandardCharsets.UTF_8));
+    assertThrows(IllegalArgumentException.class, () -> reports.discrepancyReport(0));
+  }
+
+  @Test
+  @DisplayName("should share the default discrepancy report between all depths from the number of levels on")
+  void shouldShareReportOfDepthsBeyondLevels() {
+    // given
+    byte[] defaultReport = reports.discrepancyReport(OrganizationReports.REPORTED_LEVELS);
+    int cached = reports.cacheStats().size();
+
+    // expect
+    assertSame(defaultReport, reports.discrepancyReport(3)); // there are 3 levels
+    assertSame(defaultReport, reports.discrepancyReport(7));
+    assertSame(defaultReport, reports.discrepancyReport(Integer.MAX_VALUE));
+    assertEquals(cached, reports.cacheStats().size());
+  }
+
+  @Test
+  @DisplayName("should describe an employee as JSON")
+  void shouldDescribeEmployee() {
+    // expect
+    assertEquals(Optional.of("{\"id\":4,\"firstName\":\"Bob\",\"lastName\":\"Smith\",\"salary\":7000.00,"
+            + "\"managerId\":2,\"level\":3,\"subordinates\":0,\"reportingChain\":[2,1],\"discrepancy\":null}"),
+        reports.employee(MANAGER_3.id()));
+    assertEquals(Optional.of("{\"id\":2,\"firstName\":\"Alice\",\"lastName\":\"Berton\",\"salary\":8000.00,"
+            + "\"managerId\":1,\"level\":2,\"subordinates\":2,\"reportingChain\":[1],\"discrepancy\":\"-1.23%\"}"),
+        reports.employee(MANAGER_1.id()));
+    assertEquals(Optional.empty(), reports.employee(99));
+  }
+
+  @Test
+  @DisplayName("should escape names in JSON")
+  void shouldEscapeNames() {
+    // given
+    OrganizationReports quoted = OrganizationReports.of(ColumnarOrganization.of(
+        List.of(new Employee(1, "Jo\"e", "D\\oe", BigDecimal.valueOf(1000), -1))));
+
+    // expect
+    assertEquals(Optional.of("{\"id\":1,\"firstName\":\"Jo\\\"e\",\"lastName\":\"D\\\\oe\",\"salary\":1000.00,"
+            + "\"managerId\":-1,\"level\":1,\"subordinates\":0,\"reportingChain\":[],\"discrepancy\":null}"),
+        quoted.employee(1));
+  }
+}
@@ -0,0 +1,131 @@
+package com.github.driversti.salaryreport.server;
+
+import com.github.driversti.salaryreport.organization.ColumnarOrganization;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static com.github.driversti.salaryreport.TestData.CEO;
+import static com.github.driversti.salaryreport.TestData.MANAGER_1;
+import static com.github.driversti.salaryreport.TestData.MANAGER_2;
+import static com.github.driversti.salaryreport.TestData.MANAGER_3;
+import static com.github.driversti.salaryreport.TestData.MANAGER_4;
+import static com.github.driversti.salaryreport.TestData.MANAGER_5;
+import static com.github.driversti.salaryreport.TestData.MANAGER_6;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ReportServerTest {
+
+  private final OrganizationReports reports = OrganizationReports.of(ColumnarOrganization.of(
+      List.of(CEO, MANAGER_1, MANAGER_2, MANAGER_3, MANAGER_4, MANAGER_5, MANAGER_6)));
+  private final HttpClient client = HttpClient.newHttpClient();
+  private ReportServer server;
+
+  @BeforeEach
+  void setUp() throws IOException {
+    server = ReportServer.start(new InetSocketAddress("localhost", 0), () -> reports);
+  }
+
+  @AfterEach
+  void tearDown() {
+    server.close();
+    client.close();
+  }
+
+  @Test
+  @DisplayName("should serve the average salary by level and the discrepancy report")
+  void shouldServeReports() throws Exception {
+    // when
+    HttpResponse<String> averages = get("/average-salary-by-level");
+    HttpResponse<String> report = get("/report");
+    HttpResponse<String> shallowReport = get("/report?levelDepth=1");
+
+    // then
+    assertEquals(200, averages.statusCode());
+    assertEquals(new String(reports.averageSalaryByLevel(), StandardCharsets.UTF_8), averages.body());
+    assertEquals("text/plain; charset=utf-8", averages.headers().firstValue("Content-Type").orElseThrow());
+    assertEquals(new String(reports.discrepancyReport(OrganizationReports.REPORTED_LEVELS), StandardCharsets.UTF_8),
+        report.body());
+    assertEquals(new String(reports.discrepancyReport(1), StandardCharsets.UTF_8), shallowReport.body());
+  }
+
+  @Test
+  @DisplayName("should serve a single employee")
+  void shouldServeEmployee() throws Exception {
+    // when
+    HttpResponse<String> response = get("/employees/4");
+
+    // then
+    assertEquals(200, response.statusCode());
+    assertEquals(reports.employee(4).orElseThrow(), response.body());
+    assertEquals("application/json; charset=utf-8", response.headers().firstValue("Content-Type").orElseThrow());
+  }
+
+  @Test
+  @DisplayName("should serve repeated reports from the cache and expose its statistics")
+  void shouldServeCacheStats() throws Exception {
+    // given
+    get("/report?levelDepth=2");
+    get("/report?levelDepth=2");
+
+    // when
+    HttpResponse<String> response = get("/cache-stats");
+
+    // then
+    assertEquals(200, response.statusCode());
+    assertEquals("{\"hits\":1,\"misses\":3,\"evictions\":0,\"size\":3}", response.body());
+  }
+
+  @Test
+  @DisplayName("should reject invalid requests")
+  void shouldRejectInvalidRequests() throws Exception {
+    // expect
+    assertEquals(404, get("/employees/99").statusCode());
+    assertEquals(404, get("/employees/abc").statusCode());
+    assertEquals(404, get("/unknown").statusCode());
+    assertEquals(400, get("/report?levelDepth=0").statusCode());
+    assertEquals(400, get("/report?levelDepth=x").statusCode());
+    HttpResponse<String> post = client.send(
+        HttpRequest.newBuilder(uri("/report")).POST(HttpRequest.BodyPublishers.noBody()).build(),
+        HttpResponse.BodyHandlers.ofString());
+    assertEquals(405, post.statusCode());
+  }
+
+  @Test
+  @DisplayName("should serve concurrent requests")
+  void shouldServeConcurrentRequests() {
+    // given
+    List<CompletableFuture<HttpResponse<String>>> responses = new ArrayList<>();
+
+    // when
+    for (int i = 0; i < 500; i++) {
+      String path = i % 2 == 0 ? "/report" : "/employees/" + (1 + i % 7);
+      responses.add(client.sendAsync(HttpRequest.newBuilder(uri(path)).build(), HttpResponse.BodyHandlers.ofString()));
+    }
+
+    // then
+    for (CompletableFuture<HttpResponse<String>> response : responses) {
+      assertEquals(200, response.join().statusCode());
+    }
+  }
+
+  private HttpResponse<String> get(String path) throws IOException, InterruptedException {
+    return client.send(HttpRequest.newBuilder(uri(path)).build(), HttpResponse.BodyHandlers.ofString());
+  }
+
+  private URI uri(String path) {
+    return URI.create("http://localhost:" + server.port() + path);
+  }
+}